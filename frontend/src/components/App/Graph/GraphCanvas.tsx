@@ -23,7 +23,7 @@ interface ViewWindow {
  * DrawingSet interface contains an array of points and a color for each curve to be drawn.
  */
 interface DrawingSet {
-    points: Array<{ x: number; y: number }>; // Points to be drawn for the curve
+    points: Array<{ x: number; y: number }>; // Points to be drawn for the curve, a NaN y separates segments
     color: string; // Color of the curve
 }
 
@@ -332,6 +332,12 @@ export default function GraphCanvas({
                     const p1 = points[i];
                     const p2 = points[i + 1];
 
+                    // A non-finite point separates two segments of the curve: lift the pen
+                    if (!Number.isFinite(p1.y) || !Number.isFinite(p2.y)) {
+                        started = false;
+                        continue;
+                    }
+
                     // Skip segments that are entirely outside the visible area
                     if (
                         (p1.x < left && p2.x < left) ||
@@ -12,11 +12,81 @@ interface EvaluationRequest {
         decimals: string; // Number of decimal places as a string
         origin: string;   // Origin of the graph/view window as a string
         bound: string;    // Bound of the graph/view window as a string
+        drawingFormat?: DrawingFormat; // Representation requested for DRAWING results
     };
 }
 
 /**
- * Extracts only the { x, y } pairs from Line({{…}}) blocks in a raw string.
+ * Binary representation requested for DRAWING results; TEXT keeps the Symja Line({{...}}) form.
+ */
+type DrawingFormat = 'TEXT' | 'FLOAT64' | 'FLOAT32' | 'FLOAT64_DELTA' | 'FLOAT32_DELTA';
+
+const DRAWING_FORMAT: DrawingFormat = 'FLOAT64'; // Format requested for every plot
+
+/**
+ * Appends the points of a curve segment, separated from the previous segment by a break marker.
+ * The marker has a NaN y, so the graph lifts the pen there, and an x between both segments, so it keeps its
+ * place when points are filtered or sorted by x.
+ * @param {Array<{x: number, y: number}>} points - Points decoded so far, extended in place.
+ * @param {Array<{x: number, y: number}>} segment - Points of the next segment.
+ */
+function appendSegment(points: Array<{ x: number; y: number }>, segment: Array<{ x: number; y: number }>): void {
+    if (segment.length === 0) return;
+    if (points.length > 0) {
+        points.push({ x: (points[points.length - 1].x + segment[0].x) / 2, y: NaN });
+    }
+    points.push(...segment);
+}
+
+/**
+ * Decodes the base64 binary drawing sent by the backend (see PlotCurveEncoder for the layout).
+ * Segments are separated by break markers (see appendSegment), matching the output of parseDrawingPoints.
+ * @param {string} encoded - Base64 encoded binary curve.
+ * @returns {Array<{x: number, y: number}>} Array of decoded points.
+ */
+function decodeDrawingPoints(encoded: string): Array<{ x: number; y: number }> {
+    const bytes = Uint8Array.from(atob(encoded), (c) => c.charCodeAt(0));
+    const view = new DataView(bytes.buffer);
+    const flags = view.getUint8(1);
+    const float32 = (flags & 1) !== 0;
+    const delta = (flags & 2) !== 0;
+    const size = float32 ? 4 : 8;
+    const read = (offset: number) => (float32 ? view.getFloat32(offset, true) : view.getFloat64(offset, true));
+
+    const points: Array<{ x: number; y: number }> = [];
+    const segments = view.getUint32(4, true);
+    let offset = 8;
+    for (let s = 0; s < segments; s++) {
+        const count = view.getUint32(offset, true);
+        offset += 4;
+        const ysOffset = offset + count * size;
+        const segment: Array<{ x: number; y: number }> = [];
+        let x = 0;
+        let y = 0;
+        for (let i = 0; i < count; i++) {
+            const dx = read(offset + i * size);
+            const dy = read(ysOffset + i * size);
+            x = delta && i > 0 ? x + dx : dx;
+            y = delta && i > 0 ? y + dy : dy;
+            segment.push({ x, y });
+        }
+        appendSegment(points, segment);
+        offset = ysOffset + count * size;
+    }
+    return points;
+}
+
+/**
+ * Extracts the drawing points of a DRAWING result, whichever representation the backend used.
+ * @param {MathEvaluationDto} item - DRAWING evaluation DTO.
+ * @returns {Array<{x: number, y: number}>} Array of points.
+ */
+function readDrawingPoints(item: MathEvaluationDto): Array<{ x: number; y: number }> {
+    return item.points ? decodeDrawingPoints(item.points) : parseDrawingPoints(item.evaluation ?? '');
+}
+
+/**
+ * Extracts only the { x, y } pairs from Line({{…}}) blocks in a raw string, with a break marker between blocks.
  * Used to parse drawing points from the math backend response.
  * @param {string} raw - Raw string containing Line blocks.
  * @returns {Array<{x: number, y: number}>} Array of parsed points.
@@ -30,14 +100,16 @@ function parseDrawingPoints(raw: string): Array<{ x: number; y: number }> {
         const innerContent = lineMatch[1]; // Content between double curly braces
         const toParse = '{' + innerContent + '}';
         const pointRe = /\{\s*([\-0-9.eE]+)\s*,\s*([\-0-9.eE]+)\s*\}/g; // Regex to match {x, y} pairs
+        const segment: Array<{ x: number; y: number }> = [];
         let match: RegExpExecArray | null;
         while ((match = pointRe.exec(toParse)) !== null) {
             const x = parseFloat(match[1]);
             const y = parseFloat(match[2]);
             if (!isNaN(x) && !isNaN(y)) {
-                points.push({ x, y }); // Only push valid numeric points
+                segment.push({ x, y }); // Only push valid numeric points
             }
         }
+        appendSegment(points, segment);
     }
 
     return points;
@@ -61,7 +133,7 @@ async function evaluateSingleExpression(
     // Prepare the payload for the API request
     const payload: EvaluationRequest = {
         expressions: [{ expression: expr }],
-        data: { decimals, origin, bound },
+        data: { decimals, origin, bound, drawingFormat: DRAWING_FORMAT },
     };
 
     try {
@@ -91,7 +163,7 @@ async function evaluateSingleExpression(
                     result.calculation = item.evaluation;
                     break;
                 case 'DRAWING':
-                    result.drawingPoints = parseDrawingPoints(item.evaluation);
+                    result.drawingPoints = readDrawingPoints(item);
                     break;
             }
 
@@ -134,7 +206,7 @@ export async function evaluateBatchExpressions(
     // Prepare the payload for the API request
     const payload: EvaluationRequest = {
         expressions: exprs.map((e) => ({ expression: e })),
-        data: { decimals, origin, bound },
+        data: { decimals, origin, bound, drawingFormat: DRAWING_FORMAT },
     };
 
     try {
@@ -163,7 +235,7 @@ export async function evaluateBatchExpressions(
                         result.calculation = item.evaluation;
                         break;
                     case 'DRAWING':
-                        result.drawingPoints = parseDrawingPoints(item.evaluation);
+                        result.drawingPoints = readDrawingPoints(item);
                         break;
                 }
 
@@ -204,8 +276,10 @@ export type MathEvaluationType = 'EVALUATION' | 'CALCULATION' | 'DRAWING';
  */
 export interface MathEvaluationDto {
     evaluationType: MathEvaluationType; // Type of evaluation
-    evaluation: string; // The result string or drawing string
+    evaluation?: string; // The result string or drawing string (absent for binary drawings)
     evaluationProblems?: string[]; // Optional warnings/problems
+    drawingFormat?: DrawingFormat; // Format of points, present for binary drawings
+    points?: string; // Base64 encoded binary drawing
 }
 
 /**
@@ -6,8 +6,10 @@ export type MathEvaluationType = 'EVALUATION' | 'CALCULATION' | 'DRAWING';
  */
 export interface MathEvaluationDto {
     evaluationType: MathEvaluationType; // The type of the evaluation (EVALUATION, CALCULATION, DRAWING)
-    evaluation: string; // The result string for the evaluation
+    evaluation?: string; // The result string for the evaluation (absent for binary drawings)
     evaluationProblems?: string[]; // Optional array of warning or problem messages
+    drawingFormat?: 'FLOAT64' | 'FLOAT32' | 'FLOAT64_DELTA' | 'FLOAT32_DELTA'; // Format of points, for binary drawings
+    points?: string; // Base64 encoded binary drawing
 }
 
 /**
@@ -49,7 +51,7 @@ export interface MathApiResponse {
 export interface ExpressionResult {
     evaluation?: string; // The value/result of the evaluation
     calculation?: string; // The calculation result, if present
-    drawingPoints?: Array<{ x: number; y: number }>; // Points for plotting, if present
+    drawingPoints?: Array<{ x: number; y: number }>; // Points for plotting, if present; a NaN y separates segments
     errors?: string[]; // Array of error messages, if any
     exprType?: MathExpressionEvaluationDto['type']; // The type of the expression
     warnings?: string[];  // New field for warnings
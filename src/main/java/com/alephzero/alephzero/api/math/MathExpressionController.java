@@ -2,18 +2,28 @@ package com.alephzero.alephzero.api.math;
 
 import com.alephzero.alephzero.api.math.dto.request.MathEvaluationRequest;
 import com.alephzero.alephzero.api.math.dto.response.MathEvaluationResultResponse;
+import com.alephzero.alephzero.api.math.dto.response.MathExpressionStreamEventDto;
+import com.alephzero.alephzero.api.math.service.core.MathEvaluationService;
 import com.alephzero.alephzero.api.math.service.core.MathExpressionService;
 import com.alephzero.alephzero.api.util.common.messages.ApiMessageFactory;
 import com.alephzero.alephzero.api.util.common.messages.dto.ApiResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
 
 /**
  * REST controller that exposes endpoints related to mathematical expression processing.
  * <p>
  * Handles operations such as evaluation of mathematical expressions using a service layer.
+ * Every evaluation is first admitted by the {@link MathLoadSheddingInterceptor}, which rejects it with a 429 while
+ * the server is overloaded, before its body is even bound.
  * </p>
  */
 @RestController
@@ -22,6 +32,7 @@ import org.springframework.web.bind.annotation.*;
 public class MathExpressionController {
     private final MathExpressionService service;
     private final ApiMessageFactory messageFactory;
+    private final ObjectMapper objectMapper;
 
     /**
      * Evaluates one or more mathematical expressions with optional formatting settings.
@@ -36,4 +47,48 @@ public class MathExpressionController {
         MathEvaluationResultResponse response = service.evaluation(mathExpressionRequest);
         return messageFactory.response(response).ok().build();
     }
-}
\ No newline at end of file
+
+    /**
+     * Evaluates one or more mathematical expressions, streaming each result as newline-delimited JSON
+     * the moment it is ready.
+     * <p>
+     * Every line is a {@link MathExpressionStreamEventDto} tagged with the index of its expression;
+     * drawings come in their own event after the evaluation of the same expression.
+     *
+     * @param mathExpressionRequest A request object containing a list of expressions to evaluate and optional evaluation data
+     * @return A {@link ResponseEntity} streaming the evaluation events
+     */
+    @PostMapping(value = "/evaluation/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> evaluationStream(
+            @RequestBody @Valid MathEvaluationRequest mathExpressionRequest
+    ) {
+        StreamingResponseBody body = outputStream ->
+                service.evaluationStream(mathExpressionRequest, event -> {
+                    try {
+                        outputStream.write(objectMapper.writeValueAsBytes(event));
+                        outputStream.write('\n');
+                        outputStream.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    /**
+     * Evaluates one or more mathematical expressions and returns only their drawings as a compact binary stream.
+     *
+     * @param mathExpressionRequest A request object containing a list of expressions to evaluate and optional evaluation data
+     * @return A {@link ResponseEntity} containing the encoded drawings, see {@link MathEvaluationService#drawing(MathEvaluationRequest)}
+     */
+    @PostMapping(value = "/evaluation/drawing", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<byte[]> drawing(
+            @RequestBody @Valid MathEvaluationRequest mathExpressionRequest
+    ) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .body(service.drawing(mathExpressionRequest));
+    }
+}
@@ -0,0 +1,52 @@
+package com.alephzero.alephzero.api.math;
+
+import com.alephzero.alephzero.api.math.service.core.MathLoadShedder;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * Admits evaluation requests through the {@link MathLoadShedder} before their body is bound and validated.
+ * <p>
+ * Validating an expression parses it on a pooled engine, so admitting requests any later would let an overload
+ * queue on the engine pool instead of being rejected with a 429. Only the methods that evaluate are admitted:
+ * {@code POST} and {@code PATCH}.
+ * <p>
+ * The admission is released once the request completes. A streamed response completes on its asynchronous
+ * dispatch, which reuses the admission of the initial one.
+ */
+@Component
+@RequiredArgsConstructor
+public class MathLoadSheddingInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String TICKET = MathLoadSheddingInterceptor.class.getName() + ".TICKET";
+
+    private final MathLoadShedder loadShedder;
+
+    @Override
+    public boolean preHandle(@NotNull HttpServletRequest request, @NotNull HttpServletResponse response,
+                             @NotNull Object handler) {
+        if (request.getDispatcherType() == DispatcherType.ASYNC || request.getAttribute(TICKET) != null) {
+            return true;
+        }
+        String method = request.getMethod();
+        if (HttpMethod.POST.matches(method) || HttpMethod.PATCH.matches(method)) {
+            request.setAttribute(TICKET, loadShedder.admit());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(@NotNull HttpServletRequest request, @NotNull HttpServletResponse response,
+                                @NotNull Object handler, Exception ex) {
+        if (request.getAttribute(TICKET) instanceof MathLoadShedder.Ticket ticket) {
+            request.removeAttribute(TICKET);
+            ticket.close();
+        }
+    }
+}
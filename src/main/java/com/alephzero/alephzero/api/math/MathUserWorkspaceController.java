@@ -0,0 +1,81 @@
+package com.alephzero.alephzero.api.math;
+
+import com.alephzero.alephzero.api.math.dto.request.workspace.MathWorkspaceEditRequest;
+import com.alephzero.alephzero.api.math.dto.response.MathWorkspaceDto;
+import com.alephzero.alephzero.api.math.service.workspace.MathUserWorkspaceService;
+import com.alephzero.alephzero.api.util.common.messages.ApiMessageFactory;
+import com.alephzero.alephzero.api.util.common.messages.dto.ApiResponse;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller that exposes the worksheet of the authenticated user, kept on the server.
+ * <p>
+ * The client sends the edits of its expressions and receives the evaluations of the expressions they affect
+ * only. Like every evaluation, edits are first admitted by the {@link MathLoadSheddingInterceptor}.
+ * </p>
+ */
+@RestController
+@RequestMapping("/api/v1/math/workspace")
+@RequiredArgsConstructor
+public class MathUserWorkspaceController {
+    private final MathUserWorkspaceService workspaceService;
+    private final ApiMessageFactory messageFactory;
+
+    /**
+     * Returns the workspace of the authenticated user, with the last evaluation of every expression.
+     *
+     * @param authentication the authenticated user
+     * @return A {@link ResponseEntity} containing an {@link ApiResponse} with the whole workspace
+     */
+    @GetMapping
+    public ResponseEntity<ApiResponse<MathWorkspaceDto>> getWorkspace(Authentication authentication) {
+        MathWorkspaceDto workspace = workspaceService.get(userOf(authentication));
+        return messageFactory.response(workspace).ok().build();
+    }
+
+    /**
+     * Applies edits to the workspace of the authenticated user and evaluates the expressions they affect.
+     *
+     * @param request        the edits, the version they were made on and optionally new evaluation data
+     * @param authentication the authenticated user
+     * @return A {@link ResponseEntity} containing an {@link ApiResponse} with the new version and the evaluations
+     */
+    @PatchMapping
+    public ResponseEntity<ApiResponse<MathWorkspaceDto>> editWorkspace(
+            @RequestBody @Valid MathWorkspaceEditRequest request,
+            Authentication authentication
+    ) {
+        MathWorkspaceDto workspace = workspaceService.edit(userOf(authentication), request);
+        return messageFactory.response(workspace).ok().build();
+    }
+
+    /**
+     * Drops the workspace of the authenticated user.
+     *
+     * @param authentication the authenticated user
+     * @return A {@link ResponseEntity} with no content
+     */
+    @DeleteMapping
+    public ResponseEntity<ApiResponse<Void>> clearWorkspace(Authentication authentication) {
+        workspaceService.clear(userOf(authentication));
+        return messageFactory.response().noContent().build();
+    }
+
+    /**
+     * Returns the name of the authenticated user. Anonymous requests are rejected with a 401: they would all
+     * share the same workspace.
+     */
+    private static String userOf(Authentication authentication) {
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken
+                || !authentication.isAuthenticated()) {
+            throw new AuthenticationCredentialsNotFoundException("A workspace requires an authenticated user");
+        }
+        return authentication.getName();
+    }
+}
@@ -1,6 +1,10 @@
 package com.alephzero.alephzero.api.math.dto.request;
 
+import com.alephzero.alephzero.api.math.enums.computation.MathDrawingFormat;
+import com.alephzero.alephzero.api.math.facade.draw.AdaptivePlotSampler;
 import com.alephzero.alephzero.api.math.validation.symja.annotations.ValidDecimals;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 
 /**
  * Data Transfer Object representing additional data needed for
@@ -12,10 +16,38 @@ import com.alephzero.alephzero.api.math.validation.symja.annotations.ValidDecima
  * @param decimals Number of decimal places for numeric calculations
  * @param origin Start of the domain for plotting or evaluation
  * @param bound End of the domain for plotting or evaluation
+ * @param points Optional maximum number of points per plot
+ * @param pixelWidth Optional width in pixels of the client viewport, used as point budget when {@code points} is absent
+ * @param drawingFormat Optional representation of DRAWING results, {@link MathDrawingFormat#TEXT} when absent
  */
 
 public record MathDataDto(
         @ValidDecimals int decimals,
         String origin,
-        String bound
-) {}
+        String bound,
+        @Min(AdaptivePlotSampler.MIN_POINTS) @Max(AdaptivePlotSampler.MAX_POINTS) Integer points,
+        @Min(1) Integer pixelWidth,
+        MathDrawingFormat drawingFormat
+) {
+    public MathDataDto(int decimals, String origin, String bound) {
+        this(decimals, origin, bound, null, null, null);
+    }
+
+    /**
+     * Resolves the point budget of a plot from {@code points} and {@code pixelWidth}.
+     *
+     * @return the number of points to sample
+     */
+    public int pointBudget() {
+        return AdaptivePlotSampler.resolveBudget(points, pixelWidth);
+    }
+
+    /**
+     * Resolves the representation requested for DRAWING results.
+     *
+     * @return the drawing format, {@link MathDrawingFormat#TEXT} by default
+     */
+    public MathDrawingFormat resolvedDrawingFormat() {
+        return drawingFormat != null ? drawingFormat : MathDrawingFormat.TEXT;
+    }
+}
@@ -0,0 +1,23 @@
+package com.alephzero.alephzero.api.math.dto.request.workspace;
+
+import com.alephzero.alephzero.api.math.dto.request.MathExpressionDto;
+import com.alephzero.alephzero.api.math.enums.workspace.MathWorkspaceEditType;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Data Transfer Object representing one edit of a user workspace.
+ * <p>
+ * Edits are applied in order, each one on the expressions left by the previous one.
+ * </p>
+ *
+ * @param type The kind of edit
+ * @param index The position of the edited expression
+ * @param expression The new expression, required to insert or replace, ignored to remove
+ */
+public record MathWorkspaceEditDto(
+        @NotNull MathWorkspaceEditType type,
+        @Min(0) int index,
+        @Valid MathExpressionDto expression
+) {}
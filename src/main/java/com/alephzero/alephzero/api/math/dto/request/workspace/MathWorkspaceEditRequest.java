@@ -0,0 +1,23 @@
+package com.alephzero.alephzero.api.math.dto.request.workspace;
+
+import com.alephzero.alephzero.api.math.dto.request.MathDataDto;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object representing a change of a user workspace: its edits, and optionally new data.
+ * <p>
+ * Uses nested validation for the edits and the data object.
+ * </p>
+ *
+ * @param version The version of the workspace the edits were made on, to detect concurrent changes; not checked when absent
+ * @param edits The edits of the expressions, in order
+ * @param data The new evaluation data, the current one is kept when absent
+ */
+public record MathWorkspaceEditRequest(
+        Long version,
+        @NotNull @Valid List<MathWorkspaceEditDto> edits,
+        @Valid MathDataDto data
+) {}
@@ -1,5 +1,8 @@
 package com.alephzero.alephzero.api.math.dto.response;
 
+import com.alephzero.alephzero.api.math.enums.computation.MathDrawingFormat;
+import com.alephzero.alephzero.api.math.facade.MathExpressionEvaluation;
+import com.alephzero.alephzero.api.math.facade.draw.PlotCurveEncoder;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.alephzero.alephzero.api.math.enums.computation.MathEvaluationType;
 
@@ -10,14 +13,43 @@ import java.util.List;
  * <p>
  * Fields that are null will be omitted from the JSON response.
  * </p>
+ * <p>
+ * DRAWING results requested in a binary {@link MathDrawingFormat} carry their points in {@code points}
+ * (serialized as base64 in JSON, see {@link PlotCurveEncoder} for the layout) instead of {@code evaluation}.
+ * </p>
  *
  * @param evaluationType The type of evaluation performed (e.g., EVALUATION, CALCULATION, DRAWING)
  * @param evaluation The evaluated result as a string
  * @param evaluationProblems List of problems or warnings encountered during evaluation, if any
+ * @param drawingFormat The format of {@code points}, only present for binary DRAWING results
+ * @param points The encoded drawing points, only present for binary DRAWING results
  */
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public record MathEvaluationDto(
         MathEvaluationType evaluationType,
         String evaluation,
-        List<String> evaluationProblems
-) {}
+        List<String> evaluationProblems,
+        MathDrawingFormat drawingFormat,
+        byte[] points
+) {
+    public MathEvaluationDto(MathEvaluationType evaluationType, String evaluation, List<String> evaluationProblems) {
+        this(evaluationType, evaluation, evaluationProblems, null, null);
+    }
+
+    /**
+     * Creates a DRAWING result in the requested format. Falls back to the text form when
+     * the evaluation carries no sampled curve or a text format was requested.
+     *
+     * @param draw   the drawing evaluation
+     * @param format the requested drawing format
+     * @return the DRAWING result
+     */
+    public static MathEvaluationDto drawing(MathExpressionEvaluation draw, MathDrawingFormat format) {
+        List<String> problems = draw.getEvaluationProblems().orElse(null);
+        return draw.getPlot()
+                .filter(plot -> format.isBinary())
+                .map(plot -> new MathEvaluationDto(MathEvaluationType.DRAWING, null, problems,
+                        format, PlotCurveEncoder.encode(plot, format)))
+                .orElseGet(() -> new MathEvaluationDto(MathEvaluationType.DRAWING, draw.getExpressionEvaluated(), problems));
+    }
+}
@@ -0,0 +1,24 @@
+package com.alephzero.alephzero.api.math.dto.response;
+
+import com.alephzero.alephzero.api.math.enums.computation.MathExpressionType;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object representing one event of a streamed evaluation.
+ * <p>
+ * Each expression of the request produces one event with its fast results (EVALUATION, CALCULATION...)
+ * as soon as they are ready and, when it is drawn, a second event carrying only its DRAWING.
+ * </p>
+ *
+ * @param index The position of the expression in the request
+ * @param expression The original mathematical expression string
+ * @param type The determined type of the expression (e.g., FUNCTION, ASSIGNMENT)
+ * @param evaluations The evaluation results published by this event
+ */
+public record MathExpressionStreamEventDto(
+        int index,
+        String expression,
+        MathExpressionType type,
+        List<MathEvaluationDto> evaluations
+) {}
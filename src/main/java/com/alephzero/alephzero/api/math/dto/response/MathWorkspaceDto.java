@@ -0,0 +1,20 @@
+package com.alephzero.alephzero.api.math.dto.response;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Data Transfer Object representing the state of a user workspace after a change.
+ * <p>
+ * Only the expressions evaluated by the change are returned, each one tagged with its position; the results of
+ * the others are the ones the client already has.
+ *
+ * @param version The version of the workspace, to send along with the next edits
+ * @param size The number of expressions of the workspace
+ * @param evaluations The evaluations of the changed expressions
+ */
+public record MathWorkspaceDto(
+        long version,
+        int size,
+        List<MathExpressionStreamEventDto> evaluations
+) implements Serializable {}
@@ -0,0 +1,41 @@
+package com.alephzero.alephzero.api.math.enums.computation;
+
+/**
+ * Enum {@code MathDrawingFormat} represents the representations a DRAWING result can be served in.
+ * <p>
+ * The formats include:
+ * <ul>
+ *   <li><b>TEXT</b>: Symja graphics text form, {@code Graphics({Line({{x,y},...}),...})} (default)</li>
+ *   <li><b>FLOAT64</b>: Segmented binary arrays of 64-bit IEEE 754 coordinates</li>
+ *   <li><b>FLOAT32</b>: Segmented binary arrays of 32-bit IEEE 754 coordinates</li>
+ *   <li><b>FLOAT64_DELTA</b>: Like FLOAT64, each coordinate stored as the difference from the previous one</li>
+ *   <li><b>FLOAT32_DELTA</b>: Like FLOAT32, each coordinate stored as the difference from the previous one</li>
+ * </ul>
+ */
+public enum MathDrawingFormat {
+    TEXT(0, false),
+    FLOAT64(Double.BYTES, false),
+    FLOAT32(Float.BYTES, false),
+    FLOAT64_DELTA(Double.BYTES, true),
+    FLOAT32_DELTA(Float.BYTES, true);
+
+    private final int valueBytes; // Bytes per coordinate, 0 for the text form
+    private final boolean delta;  // Whether coordinates are delta-encoded
+
+    MathDrawingFormat(int valueBytes, boolean delta) {
+        this.valueBytes = valueBytes;
+        this.delta = delta;
+    }
+
+    public int getValueBytes() {
+        return valueBytes;
+    }
+
+    public boolean isDelta() {
+        return delta;
+    }
+
+    public boolean isBinary() {
+        return valueBytes > 0;
+    }
+}
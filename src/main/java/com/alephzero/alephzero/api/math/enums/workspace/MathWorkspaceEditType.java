@@ -0,0 +1,13 @@
+package com.alephzero.alephzero.api.math.enums.workspace;
+
+/**
+ * Enum representing the kinds of edit a user workspace accepts, each one applied at an expression index.
+ */
+public enum MathWorkspaceEditType {
+    /** Inserts an expression at the index, shifting the following ones. */
+    INSERT,
+    /** Replaces the expression at the index. */
+    REPLACE,
+    /** Removes the expression at the index, shifting the following ones. */
+    REMOVE
+}
@@ -9,6 +9,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -50,4 +51,87 @@ public class ApiExceptionHandler {
                 ))
         );
     }
+
+    /**
+     * Handles MathEnginePoolExhaustedException specifically.
+     *
+     * @param ex the exception instance
+     * @return a ResponseEntity with an error response indicating that no math engine was available
+     */
+    @ExceptionHandler(MathEnginePoolExhaustedException.class)
+    public ResponseEntity<ErrorResponse> handleMathEnginePoolExhaustedException(MathEnginePoolExhaustedException ex) {
+        logger.warn("Math engine pool exhausted: {}", ex.getMessage());
+        return responseFactory.error(
+                AppCode.SERVICE_UNAVAILABLE,
+                "No math engine available",
+                List.of(new ErrorDetail(
+                        ErrorCategory.INTERNAL,
+                        ex.getMessage(),
+                        "All math engines are busy, please retry the evaluation later."
+                ))
+        );
+    }
+
+    /**
+     * Handles MathEvaluationOverloadedException specifically, telling the client when to retry.
+     *
+     * @param ex the exception instance
+     * @return a ResponseEntity with an error response and a Retry-After header
+     */
+    @ExceptionHandler(MathEvaluationOverloadedException.class)
+    public ResponseEntity<ErrorResponse> handleMathEvaluationOverloadedException(MathEvaluationOverloadedException ex) {
+        logger.warn("Math evaluation shed: {}", ex.getMessage());
+        ResponseEntity<ErrorResponse> response = responseFactory.error(
+                AppCode.TOO_MANY_REQUESTS,
+                "Math evaluation overloaded",
+                List.of(new ErrorDetail(
+                        ErrorCategory.INTERNAL,
+                        ex.getMessage(),
+                        "The server is overloaded, please retry the evaluation after the Retry-After delay."
+                ))
+        );
+        return ResponseEntity.status(response.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfter().toSeconds()))
+                .body(response.getBody());
+    }
+
+    /**
+     * Handles MathEvaluationRejectedException specifically.
+     *
+     * @param ex the exception instance
+     * @return a ResponseEntity with an error response indicating that the evaluation queues are full
+     */
+    @ExceptionHandler(MathEvaluationRejectedException.class)
+    public ResponseEntity<ErrorResponse> handleMathEvaluationRejectedException(MathEvaluationRejectedException ex) {
+        logger.warn("Math evaluation rejected: {}", ex.getMessage());
+        return responseFactory.error(
+                AppCode.SERVICE_UNAVAILABLE,
+                "Math evaluation rejected",
+                List.of(new ErrorDetail(
+                        ErrorCategory.INTERNAL,
+                        ex.getMessage(),
+                        "The server has too many pending evaluations, please retry the evaluation later."
+                ))
+        );
+    }
+
+    /**
+     * Handles MathWorkspaceConflictException specifically.
+     *
+     * @param ex the exception instance
+     * @return a ResponseEntity with an error response indicating that the workspace changed in the meantime
+     */
+    @ExceptionHandler(MathWorkspaceConflictException.class)
+    public ResponseEntity<ErrorResponse> handleMathWorkspaceConflictException(MathWorkspaceConflictException ex) {
+        logger.info("Math workspace conflict: {}", ex.getMessage());
+        return responseFactory.error(
+                AppCode.CONFLICT,
+                "Math workspace conflict",
+                List.of(new ErrorDetail(
+                        ErrorCategory.CONFLICT,
+                        ex.getMessage(),
+                        "The workspace changed since the edits were made, please reload it and apply them again."
+                ))
+        );
+    }
 }
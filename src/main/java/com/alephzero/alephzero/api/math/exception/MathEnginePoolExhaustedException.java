@@ -0,0 +1,7 @@
+package com.alephzero.alephzero.api.math.exception;
+
+public class MathEnginePoolExhaustedException extends RuntimeException {
+    public MathEnginePoolExhaustedException(String message) {
+        super(message);
+    }
+}
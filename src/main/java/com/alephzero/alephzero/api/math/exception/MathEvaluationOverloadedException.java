@@ -0,0 +1,16 @@
+package com.alephzero.alephzero.api.math.exception;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+@Getter
+public class MathEvaluationOverloadedException extends RuntimeException {
+    /** Time after which the server expects to admit new evaluations again. */
+    private final Duration retryAfter;
+
+    public MathEvaluationOverloadedException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+}
@@ -0,0 +1,7 @@
+package com.alephzero.alephzero.api.math.exception;
+
+public class MathEvaluationRejectedException extends RuntimeException {
+    public MathEvaluationRejectedException(String message) {
+        super(message);
+    }
+}
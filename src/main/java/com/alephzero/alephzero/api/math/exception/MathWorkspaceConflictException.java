@@ -0,0 +1,7 @@
+package com.alephzero.alephzero.api.math.exception;
+
+public class MathWorkspaceConflictException extends RuntimeException {
+    public MathWorkspaceConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,106 @@
+package com.alephzero.alephzero.api.math.facade;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@code MathCancellationHandle} lets a caller stop exactly the evaluations started on behalf of one task,
+ * whichever thread cancels it.
+ * <p>
+ * The task activates its handle on the thread running it. While it is active, every native evaluator the facade
+ * uses on that thread registers its own stop action through {@link #bindCurrent(Runnable)} for as long as it
+ * runs. {@link #cancel()} then stops those evaluators only, leaving the evaluations of every other task untouched.
+ * Evaluators bound after cancellation are stopped right away.
+ */
+public final class MathCancellationHandle {
+
+    private static final ThreadLocal<MathCancellationHandle> CURRENT = new ThreadLocal<>();
+
+    private static final Binding NO_BINDING = () -> {
+    };
+
+    private final Set<Runnable> stopActions = ConcurrentHashMap.newKeySet(); // Stop actions of running evaluators
+    private volatile boolean cancelled;
+
+    /**
+     * Makes this handle the active one on the calling thread until the returned scope is closed.
+     *
+     * @return the activation scope, restoring the previously active handle when closed
+     */
+    public Binding activate() {
+        MathCancellationHandle previous = CURRENT.get();
+        CURRENT.set(this);
+        return () -> {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        };
+    }
+
+    /**
+     * Returns the handle active on the calling thread, so that it can be activated on another thread working
+     * on behalf of the same task.
+     *
+     * @return the active handle, or {@code null} if none is active
+     */
+    public static MathCancellationHandle current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Binds a running evaluator to the handle active on the calling thread, if any.
+     *
+     * @param stopAction stops the evaluator
+     * @return the binding, to be closed when the evaluator is done
+     */
+    public static Binding bindCurrent(Runnable stopAction) {
+        MathCancellationHandle handle = CURRENT.get();
+        return handle == null ? NO_BINDING : handle.bind(stopAction);
+    }
+
+    /**
+     * Returns whether the handle active on the calling thread, if any, has been cancelled.
+     *
+     * @return true if the calling thread runs on behalf of a cancelled task
+     */
+    public static boolean isCurrentCancelled() {
+        MathCancellationHandle handle = CURRENT.get();
+        return handle != null && handle.cancelled;
+    }
+
+    /**
+     * Stops every evaluator currently bound to this handle and every one bound from now on.
+     */
+    public void cancel() {
+        cancelled = true;
+        stopActions.forEach(Runnable::run);
+    }
+
+    /**
+     * Returns whether this handle has been cancelled.
+     *
+     * @return true if {@link #cancel()} was called
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    private Binding bind(Runnable stopAction) {
+        stopActions.add(stopAction);
+        if (cancelled) {
+            stopAction.run();
+        }
+        return () -> stopActions.remove(stopAction);
+    }
+
+    /**
+     * A registration that is undone when closed.
+     */
+    @FunctionalInterface
+    public interface Binding extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
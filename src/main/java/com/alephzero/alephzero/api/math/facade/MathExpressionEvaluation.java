@@ -1,5 +1,7 @@
 package com.alephzero.alephzero.api.math.facade;
 
+import com.alephzero.alephzero.api.math.facade.draw.PlotCurve;
+
 import java.util.List;
 import java.util.Optional;
 
@@ -36,4 +38,16 @@ public interface MathExpressionEvaluation {
     default Optional<List<String>> getEvaluationProblems() {
         return Optional.empty();
     }
+
+    /**
+     * Returns the sampled curve of a draw evaluation, when the facade produced one natively
+     * instead of only its textual representation.
+     * <p>
+     * NOTE: This implementation is optional, facades that only render plots as text can keep the default.
+     *
+     * @return an {@link Optional} containing the sampled curve if present, otherwise an empty {@link Optional}.
+     */
+    default Optional<PlotCurve> getPlot() {
+        return Optional.empty();
+    }
 }
@@ -1,5 +1,9 @@
 package com.alephzero.alephzero.api.math.facade;
 
+import com.alephzero.alephzero.api.math.enums.computation.MathExpressionType;
+
+import java.util.Optional;
+
 /**
  * {@code MathLibFacade} defines the core interface for mathematical expression evaluation,
  * providing methods for evaluating, calculating, drawing, formatting, and validating expressions.
@@ -37,20 +41,56 @@ public interface MathLibFacade<E extends MathExpressionEvaluation> {
     E draw(String expression, String variable, String origin, String bound);
 
     /**
-     * Formats a mathematical expression result, ensuring consistent output presentation.
+     * Generates a series of evaluated points from a mathematical function over a specified range,
+     * using at most the given number of points.
+     * <p>
+     * NOTE: Libraries without control over the sampling density can keep the default implementation,
+     * which ignores the point budget.
      *
-     * @param expression the mathematical expression to format.
-     * @return the formatted mathematical expression as a string.
+     * @param expression the mathematical expression to evaluate.
+     * @param variable the variable with respect to which the expression is evaluated.
+     * @param origin the starting point of the evaluation range.
+     * @param bound the ending point of the evaluation range.
+     * @param points the maximum number of points to generate.
+     * @return a list of evaluated points within the specified range.
      */
-    String formatResult(String expression);
+    default E draw(String expression, String variable, String origin, String bound, int points) {
+        return draw(expression, variable, origin, bound);
+    }
+
+    /**
+     * Returns the canonical source of a mathematical expression: expressions with the same canonical source
+     * are read identically by the library, whatever their spacing or bracket style.
+     * <p>
+     * NOTE: Libraries without any normalization can keep the default implementation, which only trims the expression.
+     *
+     * @param expression the mathematical expression to canonicalize.
+     * @return the canonical source of the expression.
+     */
+    default String canonicalForm(String expression) {
+        return expression.trim();
+    }
 
     /**
-     * Stops the ongoing evaluation of a mathematical expression, if supported by the underlying library.
+     * Classifies a mathematical expression from its parsed structure alone, without evaluating it.
      * <p>
-     * This method is useful for interrupting long or potentially infinite evaluations,
-     * allowing for controlled cancellation.
+     * NOTE: Libraries without access to a parse tree can keep the default implementation, which leaves every
+     * expression to be classified from its evaluation.
+     *
+     * @param expression the mathematical expression to classify.
+     * @return the type of the expression, or empty if it can only be known by evaluating it.
      */
-    void stopRequest();
+    default Optional<MathExpressionType> structuralType(String expression) {
+        return Optional.empty();
+    }
+
+    /**
+     * Formats a mathematical expression result, ensuring consistent output presentation.
+     *
+     * @param expression the mathematical expression to format.
+     * @return the formatted mathematical expression as a string.
+     */
+    String formatResult(String expression);
 
     /**
      * Cleans the internal state of the mathematical evaluator, resetting all variable assignments and cached values.
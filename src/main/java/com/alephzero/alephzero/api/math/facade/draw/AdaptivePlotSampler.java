@@ -0,0 +1,345 @@
+package com.alephzero.alephzero.api.math.facade.draw;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.IntConsumer;
+
+/**
+ * {@code AdaptivePlotSampler} samples a compiled function for plotting, spending its point budget
+ * where the curve actually needs it.
+ * <p>
+ * Sampling starts from a coarse uniform grid and is refined breadth-first: every pass bisects the
+ * intervals around vertices whose bend angle (measured in viewport-normalized coordinates) is too
+ * sharp, intervals with a large vertical jump, and intervals crossing the edge of the function's
+ * domain. Flat regions therefore keep only a few points while sharp features get many.
+ * <p>
+ * Once refined, every remaining large jump is checked by bisection: when the jump does not shrink as
+ * the interval does, the function is discontinuous there (a pole or a step) and the curve is split
+ * into separate segments instead of drawing a vertical line through it.
+ * <p>
+ * The cost of the function is measured on the first samples. When a pass is expensive enough, its points
+ * are split into contiguous sub-ranges of the domain evaluated in parallel on a dedicated work-stealing pool,
+ * each task writing straight into its slice of the output array, so partial results come back already in order.
+ * The pool is separate from the request executors: large plots use the idle cores without taking threads away
+ * from other evaluations.
+ */
+public final class AdaptivePlotSampler {
+
+    public static final int DEFAULT_POINTS = 400; // Point budget when the client does not send one
+    public static final int MIN_POINTS = 16;      // Lowest accepted point budget
+    public static final int MAX_POINTS = 10_000;  // Highest accepted point budget
+
+    private static final int MAX_DEPTH = 10;                       // Max bisection passes over the initial grid
+    private static final double MAX_BEND_COS = Math.cos(Math.toRadians(8)); // Vertices bending more than 8° get refined
+    private static final double JUMP_RATIO = 0.05;                 // Vertical step, relative to the y scale, considered a jump
+    private static final int DISCONTINUITY_STEPS = 40;             // Bisection steps used to confirm a discontinuity
+
+    private static final int PROBE_POINTS = 8;                     // Samples timed to estimate the function cost
+    private static final long PARALLEL_THRESHOLD_NANOS = 2_000_000; // Estimated pass cost above which it runs in parallel
+    private static final long TASK_NANOS = 200_000;                // Target cost of a single parallel task
+
+    private static final ForkJoinPool SAMPLING_POOL = new ForkJoinPool(
+            Math.max(1, Runtime.getRuntime().availableProcessors() - 1),
+            pool -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName("plot-sampler-" + thread.getPoolIndex());
+                thread.setDaemon(true);
+                return thread;
+            },
+            null,
+            false
+    );
+
+    private AdaptivePlotSampler() {
+    }
+
+    /**
+     * Resolves the point budget of a plot from the optional client hints.
+     * <p>
+     * An explicit number of points wins over the pixel width; about one sample per pixel is enough since
+     * refinement concentrates them where the curve bends. The result is clamped to
+     * [{@value #MIN_POINTS}, {@value #MAX_POINTS}].
+     *
+     * @param points     the requested number of points, or {@code null}
+     * @param pixelWidth the width of the client viewport in pixels, or {@code null}
+     * @return the point budget to use
+     */
+    public static int resolveBudget(Integer points, Integer pixelWidth) {
+        int budget = points != null ? points : pixelWidth != null ? pixelWidth : DEFAULT_POINTS;
+        return Math.clamp(budget, MIN_POINTS, MAX_POINTS);
+    }
+
+    /**
+     * Adaptively samples {@code function} over {@code [origin, bound]}.
+     *
+     * @param function the function to sample
+     * @param origin   lower bound of the domain
+     * @param bound    upper bound of the domain
+     * @param budget   maximum number of points of the resulting curve
+     * @return the sampled curve, split at discontinuities and undefined regions
+     */
+    public static PlotCurve sample(DoubleUnaryOperator function, double origin, double bound, int budget) {
+        int initial = Math.clamp(budget / 4, Math.min(MIN_POINTS, budget), budget);
+        double[] xs = new double[initial];
+        double step = (bound - origin) / (initial - 1);
+        for (int i = 0; i < initial; i++) {
+            xs[i] = i == initial - 1 ? bound : origin + i * step;
+        }
+        double[] ys = new double[initial];
+        double nanosPerPoint = probe(function, xs, ys);
+        evaluate(function, xs, ys, Math.min(PROBE_POINTS, initial), nanosPerPoint);
+
+        double xScale = bound - origin;
+        double yScale = robustScale(ys);
+        double minWidth = step / (1 << MAX_DEPTH);
+
+        int n = initial;
+        for (int depth = 0; depth < MAX_DEPTH && n < budget; depth++) {
+            double[] scores = refinementScores(xs, ys, n, xScale, yScale, minWidth);
+            boolean[] refine = select(scores, n - 1, budget - n);
+            if (refine == null) {
+                break;
+            }
+            int added = 0;
+            for (boolean r : refine) {
+                if (r) {
+                    added++;
+                }
+            }
+            double[] midpoints = new double[added];
+            for (int i = 0, k = 0; i < n - 1; i++) {
+                if (refine[i]) {
+                    midpoints[k++] = 0.5 * (xs[i] + xs[i + 1]);
+                }
+            }
+            double[] midValues = new double[added];
+            evaluate(function, midpoints, midValues, 0, nanosPerPoint);
+
+            double[] nextXs = new double[n + added];
+            double[] nextYs = new double[n + added];
+            for (int i = 0, j = 0, k = 0; i < n; i++) {
+                nextXs[j] = xs[i];
+                nextYs[j++] = ys[i];
+                if (i < n - 1 && refine[i]) {
+                    nextXs[j] = midpoints[k];
+                    nextYs[j++] = midValues[k++];
+                }
+            }
+            xs = nextXs;
+            ys = nextYs;
+            n += added;
+        }
+
+        boolean[] breaks = new boolean[n];
+        double[] finalXs = xs, finalYs = ys;
+        // A discontinuity check costs up to DISCONTINUITY_STEPS evaluations, but most intervals need none
+        forEachIndex(1, n, nanosPerPoint, i ->
+                breaks[i] = isDiscontinuity(function, finalXs[i - 1], finalYs[i - 1], finalXs[i], finalYs[i], yScale));
+
+        PlotCurve.Builder builder = PlotCurve.builder(n);
+        for (int i = 0; i < n; i++) {
+            if (breaks[i]) {
+                builder.breakSegment();
+            }
+            builder.add(xs[i], ys[i]);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Evaluates and times the first samples of the grid to estimate the cost of the function.
+     *
+     * @return the average evaluation time of a single point, in nanoseconds
+     */
+    private static double probe(DoubleUnaryOperator function, double[] xs, double[] ys) {
+        int probes = Math.min(PROBE_POINTS, xs.length);
+        long start = System.nanoTime();
+        for (int i = 0; i < probes; i++) {
+            ys[i] = function.applyAsDouble(xs[i]);
+        }
+        return (double) (System.nanoTime() - start) / probes;
+    }
+
+    /**
+     * Evaluates the function at every abscissa from {@code from} on, writing into {@code ys}.
+     */
+    private static void evaluate(DoubleUnaryOperator function, double[] xs, double[] ys, int from, double nanosPerPoint) {
+        forEachIndex(from, xs.length, nanosPerPoint, i -> ys[i] = function.applyAsDouble(xs[i]));
+    }
+
+    /**
+     * Runs {@code body} for every index of {@code [from, to)}, splitting the range into contiguous chunks
+     * run on the sampling pool when the estimated cost exceeds {@value #PARALLEL_THRESHOLD_NANOS} ns.
+     */
+    private static void forEachIndex(int from, int to, double nanosPerPoint, IntConsumer body) {
+        int count = to - from;
+        if (count <= 0) {
+            return;
+        }
+        int chunk = (int) Math.clamp(TASK_NANOS / Math.max(nanosPerPoint, 1.0), Math.min(MIN_POINTS, count), count);
+        if (nanosPerPoint * count < PARALLEL_THRESHOLD_NANOS || chunk >= count) {
+            for (int i = from; i < to; i++) {
+                body.accept(i);
+            }
+            return;
+        }
+        SAMPLING_POOL.invoke(new RangeTask(from, to, chunk, body));
+    }
+
+    /**
+     * Splits an index range in halves until it is small enough, then runs the body sequentially.
+     */
+    private static final class RangeTask extends RecursiveAction {
+
+        private final int from;
+        private final int to;
+        private final int chunk;
+        private final IntConsumer body;
+
+        RangeTask(int from, int to, int chunk, IntConsumer body) {
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunk) {
+                for (int i = from; i < to; i++) {
+                    body.accept(i);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new RangeTask(from, middle, chunk, body), new RangeTask(middle, to, chunk, body));
+        }
+    }
+
+    /**
+     * Scores how much every interval {@code [x[i], x[i+1]]} needs a midpoint; zero means it is fine.
+     * Domain edges score highest, then bend angles and vertical jumps.
+     */
+    private static double[] refinementScores(double[] xs, double[] ys, int n, double xScale, double yScale, double minWidth) {
+        double[] scores = new double[n - 1];
+        for (int i = 0; i < n - 1; i++) {
+            boolean left = Double.isFinite(ys[i]);
+            boolean right = Double.isFinite(ys[i + 1]);
+            if (left != right) {
+                scores[i] = 2.0;
+            } else if (left) {
+                double jump = Math.abs(ys[i + 1] - ys[i]) / yScale;
+                if (jump > JUMP_RATIO) {
+                    scores[i] = Math.min(jump, 1.0);
+                }
+            }
+        }
+        for (int i = 1; i < n - 1; i++) {
+            if (!Double.isFinite(ys[i - 1]) || !Double.isFinite(ys[i]) || !Double.isFinite(ys[i + 1])) {
+                continue;
+            }
+            double ux = (xs[i] - xs[i - 1]) / xScale, uy = (ys[i] - ys[i - 1]) / yScale;
+            double vx = (xs[i + 1] - xs[i]) / xScale, vy = (ys[i + 1] - ys[i]) / yScale;
+            double cos = (ux * vx + uy * vy) / Math.sqrt((ux * ux + uy * uy) * (vx * vx + vy * vy));
+            if (cos < MAX_BEND_COS) {
+                double bend = 1.0 - cos; // In (0, 2], grows with the angle
+                scores[i - 1] = Math.max(scores[i - 1], bend);
+                scores[i] = Math.max(scores[i], bend);
+            }
+        }
+        for (int i = 0; i < n - 1; i++) {
+            if (xs[i + 1] - xs[i] < minWidth) {
+                scores[i] = 0.0;
+            }
+        }
+        return scores;
+    }
+
+    /**
+     * Selects the intervals to bisect in this pass, keeping only the highest scores
+     * when there are more candidates than remaining budget.
+     *
+     * @return the intervals to refine, or {@code null} if there is nothing to refine
+     */
+    private static boolean[] select(double[] scores, int intervals, int remaining) {
+        int candidates = 0;
+        for (double score : scores) {
+            if (score > 0.0) {
+                candidates++;
+            }
+        }
+        if (candidates == 0 || remaining <= 0) {
+            return null;
+        }
+        double threshold = 0.0;
+        if (candidates > remaining) {
+            double[] sorted = Arrays.copyOf(scores, intervals);
+            Arrays.sort(sorted);
+            threshold = sorted[intervals - remaining];
+        }
+        boolean[] refine = new boolean[intervals];
+        int selected = 0;
+        for (int i = 0; i < intervals && selected < remaining; i++) {
+            if (scores[i] > 0.0 && scores[i] >= threshold) {
+                refine[i] = true;
+                selected++;
+            }
+        }
+        return refine;
+    }
+
+    /**
+     * Checks whether a large vertical step between two consecutive samples is a real discontinuity.
+     * <p>
+     * The interval is bisected towards the half holding the larger step: for a continuous function the
+     * step vanishes as the interval shrinks, whereas across a pole or a jump it never does.
+     */
+    private static boolean isDiscontinuity(DoubleUnaryOperator function, double x0, double y0, double x1, double y1, double yScale) {
+        if (!Double.isFinite(y0) || !Double.isFinite(y1)) {
+            return false; // Undefined points already split the curve
+        }
+        double threshold = JUMP_RATIO * yScale;
+        if (Math.abs(y1 - y0) <= threshold) {
+            return false;
+        }
+        for (int step = 0; step < DISCONTINUITY_STEPS; step++) {
+            double xm = 0.5 * (x0 + x1);
+            if (xm == x0 || xm == x1) {
+                break; // Out of floating point resolution
+            }
+            double ym = function.applyAsDouble(xm);
+            if (!Double.isFinite(ym)) {
+                return true;
+            }
+            if (Math.abs(ym - y0) >= Math.abs(y1 - ym)) {
+                x1 = xm;
+                y1 = ym;
+            } else {
+                x0 = xm;
+                y0 = ym;
+            }
+            if (Math.abs(y1 - y0) <= threshold) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Estimates the vertical scale of the curve from the spread between the 5th and 95th percentiles of
+     * the finite samples, so a few huge values near a pole do not flatten the rest of the curve.
+     */
+    private static double robustScale(double[] ys) {
+        double[] finite = Arrays.stream(ys).filter(Double::isFinite).sorted().toArray();
+        if (finite.length < 2) {
+            return 1.0;
+        }
+        double low = finite[(int) (finite.length * 0.05)];
+        double high = finite[(int) Math.ceil(finite.length * 0.95) - 1];
+        double scale = high - low;
+        return scale > 0.0 ? scale : Math.max(Math.abs(high), 1.0);
+    }
+}
@@ -0,0 +1,197 @@
+package com.alephzero.alephzero.api.math.facade.draw;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * {@code PlotCurve} is the sampled form of a plotted function: an ordered list of
+ * {@link Segment segments}, each one a continuous run of points stored in primitive arrays.
+ * <p>
+ * A curve is split into several segments wherever the function is undefined or not finite,
+ * so renderers never join points across a gap in the domain.
+ */
+public final class PlotCurve {
+
+    private static final PlotCurve EMPTY = new PlotCurve(List.of());
+
+    private final List<Segment> segments; // Continuous runs of points, in ascending x order
+
+    private PlotCurve(List<Segment> segments) {
+        this.segments = segments;
+    }
+
+    /**
+     * Returns a curve without any point.
+     *
+     * @return the empty curve
+     */
+    public static PlotCurve empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Creates a curve from already split segments.
+     *
+     * @param segments the continuous runs of points, in ascending x order
+     * @return a curve made of the given segments
+     */
+    public static PlotCurve of(List<Segment> segments) {
+        return segments.isEmpty() ? EMPTY : new PlotCurve(List.copyOf(segments));
+    }
+
+    /**
+     * Creates a builder sized for the given number of points.
+     *
+     * @param expectedPoints the expected number of points, used as initial capacity
+     * @return a new curve builder
+     */
+    public static Builder builder(int expectedPoints) {
+        return new Builder(expectedPoints);
+    }
+
+    /**
+     * Returns the continuous segments of this curve.
+     *
+     * @return an unmodifiable list of segments
+     */
+    public List<Segment> getSegments() {
+        return segments;
+    }
+
+    /**
+     * Returns the total number of points over every segment.
+     *
+     * @return the number of points of this curve
+     */
+    public int pointCount() {
+        int count = 0;
+        for (Segment segment : segments) {
+            count += segment.size();
+        }
+        return count;
+    }
+
+    /**
+     * Renders this curve in the Symja graphics text form, one {@code Line} per segment:
+     * {@code Graphics({Line({{x,y},...}),Line({...})})}.
+     *
+     * @return the textual representation of this curve
+     */
+    public String toGraphicsForm() {
+        StringBuilder sb = new StringBuilder(16 + pointCount() * 24);
+        sb.append("Graphics({");
+        for (int s = 0; s < segments.size(); s++) {
+            if (s > 0) {
+                sb.append(',');
+            }
+            Segment segment = segments.get(s);
+            sb.append("Line({");
+            for (int i = 0; i < segment.size(); i++) {
+                if (i > 0) {
+                    sb.append(',');
+                }
+                sb.append('{').append(segment.x(i)).append(',').append(segment.y(i)).append('}');
+            }
+            sb.append("})");
+        }
+        sb.append("})");
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return "PlotCurve[segments=" + segments.size() + ", points=" + pointCount() + "]";
+    }
+
+    /**
+     * A continuous run of points of a {@link PlotCurve}.
+     *
+     * @param xs the x coordinates, in ascending order
+     * @param ys the y coordinates, all finite
+     */
+    public record Segment(double[] xs, double[] ys) {
+
+        /**
+         * Returns the number of points of this segment.
+         *
+         * @return the segment size
+         */
+        public int size() {
+            return xs.length;
+        }
+
+        public double x(int index) {
+            return xs[index];
+        }
+
+        public double y(int index) {
+            return ys[index];
+        }
+    }
+
+    /**
+     * Incrementally builds a {@link PlotCurve} from sampled points, growing primitive
+     * buffers as needed and closing a segment whenever a gap is reported.
+     */
+    public static final class Builder {
+
+        private final List<Segment> segments = new ArrayList<>();
+        private double[] xs;
+        private double[] ys;
+        private int size;
+
+        private Builder(int expectedPoints) {
+            int capacity = Math.max(expectedPoints, 16);
+            this.xs = new double[capacity];
+            this.ys = new double[capacity];
+        }
+
+        /**
+         * Appends a point to the current segment. Non-finite values close the current
+         * segment instead of being added.
+         *
+         * @param x the x coordinate
+         * @param y the y coordinate
+         * @return this builder
+         */
+        public Builder add(double x, double y) {
+            if (!Double.isFinite(x) || !Double.isFinite(y)) {
+                return breakSegment();
+            }
+            if (size == xs.length) {
+                xs = Arrays.copyOf(xs, size * 2);
+                ys = Arrays.copyOf(ys, size * 2);
+            }
+            xs[size] = x;
+            ys[size] = y;
+            size++;
+            return this;
+        }
+
+        /**
+         * Closes the current segment, so the next point starts a new one.
+         * Single isolated points are dropped since they cannot be drawn as a line.
+         *
+         * @return this builder
+         */
+        public Builder breakSegment() {
+            if (size > 1) {
+                segments.add(new Segment(Arrays.copyOf(xs, size), Arrays.copyOf(ys, size)));
+            }
+            size = 0;
+            return this;
+        }
+
+        /**
+         * Closes the last segment and builds the curve.
+         *
+         * @return the built curve
+         */
+        public PlotCurve build() {
+            breakSegment();
+            return segments.isEmpty() ? EMPTY : new PlotCurve(Collections.unmodifiableList(new ArrayList<>(segments)));
+        }
+    }
+}
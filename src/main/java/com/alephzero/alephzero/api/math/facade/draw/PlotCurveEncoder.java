@@ -0,0 +1,119 @@
+package com.alephzero.alephzero.api.math.facade.draw;
+
+import com.alephzero.alephzero.api.math.enums.computation.MathDrawingFormat;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@code PlotCurveEncoder} writes a {@link PlotCurve} in one of the binary {@link MathDrawingFormat formats}
+ * straight from its primitive arrays, without going through any intermediate text.
+ * <p>
+ * Layout, little-endian:
+ * <pre>
+ * u8  version            (1)
+ * u8  flags              bit 0: float32 coordinates, bit 1: delta-encoded
+ * u16 reserved           (0)
+ * u32 segmentCount
+ * per segment:
+ *   u32 pointCount
+ *   x[pointCount]        float64 or float32
+ *   y[pointCount]        float64 or float32
+ * </pre>
+ * Delta-encoded coordinates store the first value of every array as is and each following one as the
+ * difference from the previous <i>decoded</i> value, so float32 rounding errors never accumulate when
+ * the client rebuilds the curve with a running sum.
+ */
+public final class PlotCurveEncoder {
+
+    public static final byte VERSION = 1;
+    public static final int FLAG_FLOAT32 = 1;
+    public static final int FLAG_DELTA = 1 << 1;
+
+    private static final int HEADER_BYTES = 8;
+
+    private PlotCurveEncoder() {
+    }
+
+    /**
+     * Encodes the curve in the given binary format.
+     *
+     * @param curve  the curve to encode
+     * @param format a binary drawing format
+     * @return the encoded curve
+     * @throws IllegalArgumentException if {@code format} is not binary
+     */
+    public static byte[] encode(PlotCurve curve, MathDrawingFormat format) {
+        if (!format.isBinary()) {
+            throw new IllegalArgumentException("Not a binary drawing format: " + format);
+        }
+        int valueBytes = format.getValueBytes();
+        int size = HEADER_BYTES;
+        for (PlotCurve.Segment segment : curve.getSegments()) {
+            size += Integer.BYTES + 2 * segment.size() * valueBytes;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        int flags = (valueBytes == Float.BYTES ? FLAG_FLOAT32 : 0) | (format.isDelta() ? FLAG_DELTA : 0);
+        buffer.put(VERSION).put((byte) flags).putShort((short) 0).putInt(curve.getSegments().size());
+        for (PlotCurve.Segment segment : curve.getSegments()) {
+            buffer.putInt(segment.size());
+            putValues(buffer, segment.xs(), format);
+            putValues(buffer, segment.ys(), format);
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Decodes a curve written by {@link #encode(PlotCurve, MathDrawingFormat)} in any binary format.
+     *
+     * @param encoded the encoded curve
+     * @return the decoded curve
+     * @throws IllegalArgumentException if the data was not written by this encoder
+     */
+    public static PlotCurve decode(byte[] encoded) {
+        ByteBuffer buffer = ByteBuffer.wrap(encoded).order(ByteOrder.LITTLE_ENDIAN);
+        if (encoded.length < HEADER_BYTES || buffer.get() != VERSION) {
+            throw new IllegalArgumentException("Not an encoded plot curve");
+        }
+        int flags = buffer.get();
+        buffer.getShort();
+        int segmentCount = buffer.getInt();
+
+        List<PlotCurve.Segment> segments = new ArrayList<>(segmentCount);
+        for (int s = 0; s < segmentCount; s++) {
+            int count = buffer.getInt();
+            double[] xs = getValues(buffer, count, flags);
+            double[] ys = getValues(buffer, count, flags);
+            segments.add(new PlotCurve.Segment(xs, ys));
+        }
+        return PlotCurve.of(segments);
+    }
+
+    private static double[] getValues(ByteBuffer buffer, int count, int flags) {
+        double[] values = new double[count];
+        for (int i = 0; i < count; i++) {
+            double value = (flags & FLAG_FLOAT32) != 0 ? buffer.getFloat() : buffer.getDouble();
+            values[i] = (flags & FLAG_DELTA) != 0 && i > 0 ? values[i - 1] + value : value;
+        }
+        return values;
+    }
+
+    private static void putValues(ByteBuffer buffer, double[] values, MathDrawingFormat format) {
+        boolean float32 = format.getValueBytes() == Float.BYTES;
+        double previous = 0.0; // Last value as the client will decode it
+        for (int i = 0; i < values.length; i++) {
+            double value = format.isDelta() && i > 0 ? values[i] - previous : values[i];
+            if (float32) {
+                float stored = (float) value;
+                buffer.putFloat(stored);
+                previous = format.isDelta() && i > 0 ? previous + stored : stored;
+            } else {
+                buffer.putDouble(value);
+                previous = format.isDelta() && i > 0 ? previous + value : value;
+            }
+        }
+    }
+}
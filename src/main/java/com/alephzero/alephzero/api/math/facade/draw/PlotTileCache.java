@@ -0,0 +1,133 @@
+package com.alephzero.alephzero.api.math.facade.draw;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.List;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * {@code PlotTileCache} samples plots as fixed, aligned x-tiles cached independently of each other, like map tiles.
+ * <p>
+ * The tile width depends only on the zoom level: it is the power of two that fits {@value #TILES_PER_VIEW} to
+ * {@code 2 * }{@value #TILES_PER_VIEW} times in the viewport, and tiles start at multiples of it. Each tile is
+ * sampled by the {@link AdaptivePlotSampler} with a point budget proportional to its share of the viewport, rounded
+ * down to a power of two. Panning keeps the zoom level and zooming within the same octave keeps both the tile width
+ * and the tile budget, so a viewport is mostly stitched from tiles sampled for previous viewports and only the
+ * tiles that scrolled into view are computed.
+ * <p>
+ * Stitching joins the segments that continue across a tile boundary and trims every point outside the viewport,
+ * except the nearest one on each side so lines still reach the viewport edges.
+ *
+ * @see AdaptivePlotSampler
+ */
+public class PlotTileCache {
+
+    private static final Logger logger = LogManager.getLogger(PlotTileCache.class);
+
+    private static final int TILES_PER_VIEW = 4;        // Minimum number of whole tiles spanned by a viewport
+    private static final long MAX_TILE_INDEX = 1L << 40; // Beyond this, tile bounds lose precision: sample directly
+
+    private final Cache<TileKey, PlotCurve> tiles;
+
+    /**
+     * Creates a new tile cache.
+     *
+     * @param properties the cache configuration
+     */
+    public PlotTileCache(PlotTileCacheProperties properties) {
+        this.tiles = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaximumPoints())
+                .weigher((TileKey key, PlotCurve tile) -> tile.pointCount() + 1)
+                .recordStats()
+                .build();
+        logger.info("PlotTileCache initialized with maximumPoints={}", properties.getMaximumPoints());
+    }
+
+    /**
+     * Samples {@code function} over {@code [origin, bound]}, reusing every tile already sampled for it.
+     *
+     * @param functionKey identifies the function, e.g. its normalized source and variable
+     * @param function    the function to sample
+     * @param origin      lower bound of the viewport
+     * @param bound       upper bound of the viewport
+     * @param budget      approximate number of points of the whole viewport
+     * @return the stitched curve, split at discontinuities and undefined regions
+     */
+    public PlotCurve sample(String functionKey, DoubleUnaryOperator function, double origin, double bound, int budget) {
+        double width = bound - origin;
+        int zoom = Math.getExponent(width / TILES_PER_VIEW);
+        double tileWidth = Math.scalb(1.0, zoom);
+        double first = Math.floor(origin / tileWidth);
+        double last = Math.ceil(bound / tileWidth) - 1;
+        if (!Double.isFinite(width) || width <= 0 || Math.abs(first) > MAX_TILE_INDEX || Math.abs(last) > MAX_TILE_INDEX) {
+            return AdaptivePlotSampler.sample(function, origin, bound, budget);
+        }
+        int tileBudget = Math.clamp(Integer.highestOneBit((int) Math.ceil(budget * tileWidth / width)),
+                AdaptivePlotSampler.MIN_POINTS, AdaptivePlotSampler.MAX_POINTS);
+
+        PlotCurve.Builder builder = PlotCurve.builder(budget);
+        double joinX = Double.NaN; // Last x of the previous tile, where its last segment may continue
+        for (long index = (long) first; index <= (long) last; index++) {
+            double tileOrigin = index * tileWidth;
+            double tileBound = (index + 1) * tileWidth;
+            PlotCurve tile = tiles.get(new TileKey(functionKey, zoom, index, tileBudget),
+                    key -> AdaptivePlotSampler.sample(function, tileOrigin, tileBound, tileBudget));
+
+            List<PlotCurve.Segment> segments = tile.getSegments();
+            for (int s = 0; s < segments.size(); s++) {
+                PlotCurve.Segment segment = segments.get(s);
+                int from = 0;
+                if (s == 0 && segment.x(0) == joinX) {
+                    from = 1; // Same point as the end of the previous tile: the segment goes on
+                } else {
+                    builder.breakSegment();
+                }
+                for (int i = from; i < segment.size(); i++) {
+                    if (isVisible(segment, i, origin, bound)) {
+                        builder.add(segment.x(i), segment.y(i));
+                    }
+                }
+            }
+            joinX = segments.isEmpty() ? Double.NaN : segments.getLast().x(segments.getLast().size() - 1);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Returns the hit, miss and eviction counters of the cache.
+     *
+     * @return a snapshot of the cache statistics
+     */
+    public CacheStats stats() {
+        return tiles.stats();
+    }
+
+    /**
+     * Returns the approximate number of cached tiles.
+     *
+     * @return the number of cached tiles
+     */
+    public long size() {
+        return tiles.estimatedSize();
+    }
+
+    /**
+     * Returns whether a point is inside the viewport or next to a point that is.
+     */
+    private static boolean isVisible(PlotCurve.Segment segment, int i, double origin, double bound) {
+        double next = i + 1 < segment.size() ? segment.x(i + 1) : segment.x(i);
+        double previous = i > 0 ? segment.x(i - 1) : segment.x(i);
+        return next >= origin && previous <= bound;
+    }
+
+    /**
+     * A tile of one function: its zoom level (the binary exponent of the tile width), its position in units of
+     * tile width, and the point budget it was sampled with.
+     */
+    private record TileKey(String function, int zoom, long index, int budget) {
+    }
+}
@@ -0,0 +1,32 @@
+package com.alephzero.alephzero.api.math.facade.draw;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exposes the {@link PlotTileCache} statistics as Micrometer meters
+ * under the {@code math.draw.tiles} prefix.
+ */
+@Component
+public class PlotTileCacheMetrics implements MeterBinder {
+
+    private final PlotTileCache cache;
+
+    public PlotTileCacheMetrics(PlotTileCache cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public void bindTo(@NotNull MeterRegistry registry) {
+        Gauge.builder("math.draw.tiles.size", cache, PlotTileCache::size).register(registry);
+        Gauge.builder("math.draw.tiles.hit.ratio", cache, c -> c.stats().hitRate()).register(registry);
+
+        FunctionCounter.builder("math.draw.tiles.hits", cache, c -> c.stats().hitCount()).register(registry);
+        FunctionCounter.builder("math.draw.tiles.misses", cache, c -> c.stats().missCount()).register(registry);
+        FunctionCounter.builder("math.draw.tiles.evictions", cache, c -> c.stats().evictionCount()).register(registry);
+    }
+}
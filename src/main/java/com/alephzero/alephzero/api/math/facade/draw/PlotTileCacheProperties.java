@@ -0,0 +1,22 @@
+package com.alephzero.alephzero.api.math.facade.draw;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for the cache of sampled plot tiles.
+ * <p>
+ * This class is used to bind properties prefixed with "math.draw.tiles" from the application properties file.
+ * Every field has a sensible default so the cache can also be built outside a Spring context.
+ * </p>
+ */
+@Setter
+@Getter
+@Configuration
+@ConfigurationProperties(prefix = "math.draw.tiles")
+public class PlotTileCacheProperties {
+    /** Maximum number of sampled points kept over every cached tile. */
+    private long maximumPoints = 2_000_000;
+}
@@ -1,5 +1,13 @@
 package com.alephzero.alephzero.api.math.facade.symja;
 
+import com.alephzero.alephzero.api.math.facade.draw.PlotTileCache;
+import com.alephzero.alephzero.api.math.facade.draw.PlotTileCacheProperties;
+import com.alephzero.alephzero.api.math.facade.symja.engine.MathEclipseEnginePool;
+import com.alephzero.alephzero.api.math.facade.symja.engine.MathEclipseEnginePoolProperties;
+import com.alephzero.alephzero.api.math.facade.symja.engine.MathEclipseNumericCache;
+import com.alephzero.alephzero.api.math.facade.symja.engine.MathEclipseNumericCacheProperties;
+import com.alephzero.alephzero.api.math.facade.symja.engine.MathEclipseParseCache;
+import com.alephzero.alephzero.api.math.facade.symja.engine.MathEclipseParseCacheProperties;
 import org.matheclipse.core.eval.EvalEngine;
 import org.matheclipse.core.eval.EvalUtilities;
 import org.matheclipse.core.form.tex.TeXFormFactory;
@@ -12,8 +20,10 @@ import org.springframework.context.annotation.Configuration;
  *
  * <p>It exposes the following beans to the application context:
  * <ul>
- *     <li>{@link EvalEngine} - the core symbolic evaluation engine</li>
- *     <li>{@link EvalUtilities} - a utility class that wraps expression parsing and evaluation</li>
+ *     <li>{@link MathEclipseEnginePool} - a bounded pool of warm, resettable evaluation engines</li>
+ *     <li>{@link MathEclipseParseCache} - a cache of parsed expressions shared by every engine of the pool</li>
+ *     <li>{@link MathEclipseNumericCache} - the highest precision numeric value computed for each expression</li>
+ *     <li>{@link PlotTileCache} - a cache of sampled plot tiles reused across pan and zoom</li>
  *     <li>{@link TeXFormFactory} - a formatter for converting expressions to LaTeX</li>
  * </ul>
  *
@@ -29,55 +39,138 @@ public class MathEclipseConfig {
      * @return an instance of {@code MathEclipseFacade} with required components
      */
     public static MathEclipseFacade buildMathEclipseFacade() {
+        MathEclipseEnginePool enginePool = buildMathEclipseEnginePool();
         return new MathEclipseFacade(
-                buildEvalUtilities(),
+                enginePool,
+                buildMathEclipseParseCache(enginePool),
+                buildMathEclipseNumericCache(),
+                buildPlotTileCache(),
                 buildTeXFormFactory()
         );
     }
 
     /**
-     * Recreates and resets the {@link MathEclipseFacade} with a new {@link EvalUtilities} instance
-     * while preserving the provided expression validator and LaTeX factory.
+     * Recreates the {@link MathEclipseFacade} on top of a new {@link MathEclipseEnginePool}
+     * while preserving the provided LaTeX factory.
      * <p>
      * This method is useful for resetting the symbolic evaluation context without losing
-     * previously configured validation and formatting settings.
-     * <p>
-     * Parameters:
-     * <ul>
-     *     <li>{@code expressionValidator} : the validator responsible for ensuring the syntax
-     *     of mathematical expressions is correct</li>
-     *     <li>{@code laTeXFactory} : the factory responsible for converting symbolic expressions
-     *     to LaTeX format</li>
-     * </ul>
+     * previously configured formatting settings.
      *
      * @param laTeXFactory        the factory for LaTeX conversion
-     * @return a new {@code MathEclipseFacade} instance with a fresh {@code EvalUtilities} object
+     * @return a new {@code MathEclipseFacade} instance with a fresh engine pool
      */
     public static MathEclipseFacade resetMathEclipseFacade(
             TeXFormFactory laTeXFactory
     ) {
+        MathEclipseEnginePool enginePool = buildMathEclipseEnginePool();
         return new MathEclipseFacade(
-                buildEvalUtilities(),
+                enginePool,
+                buildMathEclipseParseCache(enginePool),
+                buildMathEclipseNumericCache(),
+                buildPlotTileCache(),
                 laTeXFactory
         );
     }
 
     /**
-     * Creates the core {@link EvalEngine} used by Symja for symbolic evaluation.
+     * Creates the pool of warm Symja engines shared by every evaluation.
      * <p>
-     * Parameters:
+     * Each pooled engine is built through {@link #buildEvalEngine(String, int, int)}, with:
      * <ul>
-     *      <li>{@code sessionID = "default"} : Name of the evaluation context (used for thread isolation or debugging)</li>
-     *      <li>{@code recursionLimit = 100}  : Maximum recursion depth (prevents infinite evaluations or stack overflow)</li>
-     *      <li>{@code out = null}            : Output stream (null disables output)</li>
-     *      <li>{@code relaxedSyntax = true}  : Allows more permissive parsing of expressions (e.g., "()" or "[]" can be used)</li>
+     *      <li>{@code sessionID = "engine-N"} : Name of the evaluation context (used for debugging)</li>
+     *      <li>{@code recursionLimit}         : Maximum recursion depth (prevents infinite evaluations or stack overflow)</li>
+     *      <li>{@code out = null}             : Output stream (null disables output)</li>
+     *      <li>{@code relaxedSyntax = true}   : Allows more permissive parsing of expressions (e.g., "()" or "[]" can be used)</li>
      * </ul>
      *
-     * @return a configured instance of {@code EvalEngine}
+     * @param properties the pool configuration
+     * @return a configured instance of {@code MathEclipseEnginePool}
+     */
+    @Bean(destroyMethod = "close")
+    public MathEclipseEnginePool mathEclipseEnginePool(MathEclipseEnginePoolProperties properties) {
+        return buildMathEclipseEnginePool(properties);
+    }
+
+    /**
+     * Builds a {@link MathEclipseEnginePool} with the default configuration.
+     *
+     * @return a new {@code MathEclipseEnginePool} instance
+     */
+    public static MathEclipseEnginePool buildMathEclipseEnginePool() {
+        return buildMathEclipseEnginePool(new MathEclipseEnginePoolProperties());
+    }
+
+    /**
+     * Builds a {@link MathEclipseEnginePool} with the given configuration.
+     *
+     * @param properties the pool configuration
+     * @return a new {@code MathEclipseEnginePool} instance
+     */
+    public static MathEclipseEnginePool buildMathEclipseEnginePool(MathEclipseEnginePoolProperties properties) {
+        return new MathEclipseEnginePool(properties);
+    }
+
+    /**
+     * Creates the cache of parsed expressions shared by the validator, the facade and every pooled engine.
+     *
+     * @param enginePool the engine pool the cached expressions are parsed and evaluated on
+     * @param properties the cache configuration
+     * @return a configured instance of {@code MathEclipseParseCache}
+     */
+    @Bean
+    public MathEclipseParseCache mathEclipseParseCache(MathEclipseEnginePool enginePool,
+                                                       MathEclipseParseCacheProperties properties) {
+        return new MathEclipseParseCache(enginePool, properties);
+    }
+
+    /**
+     * Builds a {@link MathEclipseParseCache} with the default configuration.
+     *
+     * @param enginePool the engine pool the cached expressions are parsed and evaluated on
+     * @return a new {@code MathEclipseParseCache} instance
+     */
+    public static MathEclipseParseCache buildMathEclipseParseCache(MathEclipseEnginePool enginePool) {
+        return new MathEclipseParseCache(enginePool, new MathEclipseParseCacheProperties());
+    }
+
+    /**
+     * Creates the cache of arbitrary precision numeric results shared by every numeric evaluation.
+     *
+     * @param properties the cache configuration
+     * @return a configured instance of {@code MathEclipseNumericCache}
      */
     @Bean
-    public EvalEngine evalEngine() {
-        return buildEvalEngine();
+    public MathEclipseNumericCache mathEclipseNumericCache(MathEclipseNumericCacheProperties properties) {
+        return new MathEclipseNumericCache(properties);
+    }
+
+    /**
+     * Builds a {@link MathEclipseNumericCache} with the default configuration.
+     *
+     * @return a new {@code MathEclipseNumericCache} instance
+     */
+    public static MathEclipseNumericCache buildMathEclipseNumericCache() {
+        return new MathEclipseNumericCache(new MathEclipseNumericCacheProperties());
+    }
+
+    /**
+     * Creates the cache of sampled plot tiles shared by every compiled plot.
+     *
+     * @param properties the cache configuration
+     * @return a configured instance of {@code PlotTileCache}
+     */
+    @Bean
+    public PlotTileCache plotTileCache(PlotTileCacheProperties properties) {
+        return new PlotTileCache(properties);
+    }
+
+    /**
+     * Builds a {@link PlotTileCache} with the default configuration.
+     *
+     * @return a new {@code PlotTileCache} instance
+     */
+    public static PlotTileCache buildPlotTileCache() {
+        return new PlotTileCache(new PlotTileCacheProperties());
     }
 
     /**
@@ -118,24 +211,6 @@ public class MathEclipseConfig {
         );
     }
 
-    /**
-     * Creates an {@link EvalUtilities} instance using the provided {@link EvalEngine}.
-     * <p>
-     * Parameters:
-     * <ul>
-     *     <li>{@code evalEngine = engine}     : the EvalEngine instance created above</li>
-     *     <li>{@code mathNLTagPrefix = false} : disables tagging with MathNL prefixes (used in natural language support)</li>
-     *     <li>{@code mathMLHeader = false}    : disables the inclusion of MathML headers in output (keeps it clean)</li>
-     * </ul>
-     *
-     * @param engine the engine to associate with this utility instance
-     * @return a configured {@code EvalUtilities} object
-     */
-    @Bean
-    public EvalUtilities evalUtilities(EvalEngine engine) {
-        return buildEvalUtilities(engine);
-    }
-
     /**
      * Builds a default {@link EvalUtilities} instance.
      *
@@ -147,6 +222,13 @@ public class MathEclipseConfig {
 
     /**
      * Builds an {@link EvalUtilities} instance with a specific {@link EvalEngine}.
+     * <p>
+     * Parameters:
+     * <ul>
+     *     <li>{@code evalEngine = engine}     : the EvalEngine instance to wrap</li>
+     *     <li>{@code mathNLTagPrefix = false} : disables tagging with MathNL prefixes (used in natural language support)</li>
+     *     <li>{@code mathMLHeader = false}    : disables the inclusion of MathML headers in output (keeps it clean)</li>
+     * </ul>
      *
      * @param engine the evaluation engine to use
      * @return a configured {@code EvalUtilities} instance
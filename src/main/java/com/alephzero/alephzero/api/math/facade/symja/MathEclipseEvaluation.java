@@ -1,6 +1,7 @@
 package com.alephzero.alephzero.api.math.facade.symja;
 
 import com.alephzero.alephzero.api.math.facade.MathExpressionEvaluation;
+import com.alephzero.alephzero.api.math.facade.draw.PlotCurve;
 
 import java.util.*;
 
@@ -12,10 +13,16 @@ import java.util.*;
 public class MathEclipseEvaluation implements MathExpressionEvaluation {
     private String expressionEvaluated; // The evaluated expression
     private final Set<String> evaluationProblems; // Set of errors encountered during evaluation
+    private final PlotCurve plot; // Sampled curve of a compiled draw, null otherwise
 
     public MathEclipseEvaluation(String expressionEvaluated) {
+        this(expressionEvaluated, null);
+    }
+
+    public MathEclipseEvaluation(String expressionEvaluated, PlotCurve plot) {
         this.expressionEvaluated = expressionEvaluated;
         this.evaluationProblems = new LinkedHashSet<>();
+        this.plot = plot;
     }
 
     /**
@@ -40,6 +47,16 @@ public class MathEclipseEvaluation implements MathExpressionEvaluation {
                 : Optional.of(new ArrayList<>(evaluationProblems));
     }
 
+    /**
+     * Returns the sampled curve when this evaluation comes from a compiled draw.
+     *
+     * @return an Optional containing the curve, or an empty Optional otherwise
+     */
+    @Override
+    public Optional<PlotCurve> getPlot() {
+        return Optional.ofNullable(plot);
+    }
+
     @Override
     public String format(String newExpression) {
         this.expressionEvaluated = newExpression;
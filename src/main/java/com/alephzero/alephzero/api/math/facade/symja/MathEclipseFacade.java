@@ -1,8 +1,20 @@
 package com.alephzero.alephzero.api.math.facade.symja;
 
+import com.alephzero.alephzero.api.math.enums.computation.MathExpressionType;
+import com.alephzero.alephzero.api.math.exception.MathEnginePoolExhaustedException;
+import com.alephzero.alephzero.api.math.facade.MathCancellationHandle;
 import com.alephzero.alephzero.api.math.facade.MathLibFacade;
-import org.matheclipse.core.eval.EvalUtilities;
+import com.alephzero.alephzero.api.math.facade.draw.AdaptivePlotSampler;
+import com.alephzero.alephzero.api.math.facade.draw.PlotCurve;
+import com.alephzero.alephzero.api.math.facade.draw.PlotTileCache;
+import com.alephzero.alephzero.api.math.facade.symja.draw.MathEclipseFunctionCompiler;
+import com.alephzero.alephzero.api.math.facade.symja.draw.MathEclipseGraphicsReader;
+import com.alephzero.alephzero.api.math.facade.symja.engine.MathEclipseEngine;
+import com.alephzero.alephzero.api.math.facade.symja.engine.MathEclipseEnginePool;
+import com.alephzero.alephzero.api.math.facade.symja.engine.MathEclipseNumericCache;
+import com.alephzero.alephzero.api.math.facade.symja.engine.MathEclipseParseCache;
 import org.matheclipse.core.eval.ExprEvaluator;
+import org.matheclipse.core.expression.F;
 import org.matheclipse.core.form.tex.TeXFormFactory;
 import org.matheclipse.core.interfaces.IExpr;
 import org.apache.logging.log4j.LogManager;
@@ -10,8 +22,10 @@ import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import java.io.ByteArrayOutputStream;
-import java.io.PrintStream;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.Function;
 
 /**
  * {@code MathEclipseFacade} is a class that implements the Facade design pattern
@@ -21,25 +35,47 @@ import java.io.PrintStream;
  * <p>
  * It also implements the expression validator and error handler, using both the
  * library's native validator (syntactic) and its own validator (grammatical and semantic).
+ * <p>
+ * Evaluations never share a Symja engine: each one checks out a warm engine from the {@link MathEclipseEnginePool} and
+ * returns it when done, so the facade itself is stateless and safe to use from any number of threads.
+ * <p>
+ * Expressions are parsed through the shared {@link MathEclipseParseCache}, so an expression already parsed during
+ * validation or by a previous evaluation is not parsed again. Arbitrary precision numeric values are kept in the
+ * {@link MathEclipseNumericCache}, so a lower precision is rounded instead of computed, and compiled plots are
+ * sampled through the shared {@link PlotTileCache}, so panning or zooming a graph only samples what came into view.
  *
  * @see MathLibFacade
+ * @see MathEclipseEnginePool
+ * @see MathEclipseParseCache
+ * @see MathEclipseNumericCache
+ * @see PlotTileCache
  */
 @Component
 public class MathEclipseFacade implements MathLibFacade<MathEclipseEvaluation> {
 
     private static final Logger logger = LogManager.getLogger(MathEclipseFacade.class);
 
-    private EvalUtilities mathEclipseEvaluator; // Symja native expression evaluator
-    private final TeXFormFactory teXParser;     // LaTeX parser
+    private final MathEclipseEnginePool enginePool; // Pool of Symja native expression evaluators
+    private final MathEclipseParseCache parseCache; // Parsed expressions shared by every engine
+    private final MathEclipseNumericCache numericCache; // Highest precision numeric value of each expression
+    private final PlotTileCache plotTiles;          // Sampled tiles of compiled plots
+    private final TeXFormFactory teXParser;         // LaTeX parser
 
     @Autowired
     public MathEclipseFacade(
-            EvalUtilities mathEclipseEvaluator,
+            MathEclipseEnginePool enginePool,
+            MathEclipseParseCache parseCache,
+            MathEclipseNumericCache numericCache,
+            PlotTileCache plotTiles,
             TeXFormFactory teXParser
     ) {
-        this.mathEclipseEvaluator = mathEclipseEvaluator;
+        this.enginePool = enginePool;
+        this.parseCache = parseCache;
+        this.numericCache = numericCache;
+        this.plotTiles = plotTiles;
         this.teXParser = teXParser;
-        logger.info("MathEclipseFacade initialized with EvalUtilities and TeXFormFactory");
+        logger.info("MathEclipseFacade initialized with MathEclipseEnginePool, MathEclipseParseCache, "
+                + "MathEclipseNumericCache, PlotTileCache and TeXFormFactory");
     }
 
     /**
@@ -53,13 +89,17 @@ public class MathEclipseFacade implements MathLibFacade<MathEclipseEvaluation> {
         logger.info("Entering evaluate() with raw expression: {}", expression);
         String formattedExpression = initialFormatted(expression);
         logger.debug("Formatted expression for evaluate(): {}", formattedExpression);
-        MathEclipseEvaluation evaluation = safeEvaluation(formattedExpression);
+        MathEclipseEvaluation evaluation = safeEvaluation(formattedExpression,
+                engine -> parseCache.parse(engine, formattedExpression));
         logger.info("Exiting evaluate() with result: {}", evaluation.getExpressionEvaluated());
         return evaluation;
     }
 
     /**
      * Performs numeric evaluation of an expression with decimal precision.
+     * <p>
+     * Above machine precision, a value of the same expression already computed with at least as many digits is
+     * rounded instead of evaluated again, and an error-free result becomes the cached value if it is more precise.
      *
      * @param expression the input expression
      * @param decimals   number of decimal places
@@ -72,84 +112,204 @@ public class MathEclipseFacade implements MathLibFacade<MathEclipseEvaluation> {
         logger.debug("Formatted expression for calculate(): {}", formattedExpression);
         String numericExpression = N(formattedExpression, decimals);
         logger.debug("Numeric expression for calculate(): {}", numericExpression);
-        MathEclipseEvaluation evaluation = safeEvaluation(numericExpression);
+        String source = MathEclipseParseCache.normalize(formattedExpression);
+        Optional<IExpr> cached = numericCache.get(source, decimals);
+        if (cached.isPresent()) {
+            logger.info("Exiting calculate() with cached result rounded to {} digits", decimals);
+            return new MathEclipseEvaluation(cached.get().toString());
+        }
+        MathEclipseEvaluation evaluation = safeEvaluation(numericExpression,
+                engine -> F.N(parseCache.parse(engine, formattedExpression), F.ZZ(decimals)),
+                result -> null,
+                (result, errors) -> {
+                    if (errors.isEmpty() && !MathCancellationHandle.isCurrentCancelled()) {
+                        numericCache.put(source, decimals, result);
+                    }
+                });
         logger.info("Exiting calculate() with result: {}", evaluation.getExpressionEvaluated());
         return evaluation;
     }
 
     /**
-     * Constructs a Symja plot expression for the given input expression.
+     * Samples the given expression over {@code [origin, bound]} for plotting with the default point budget.
      *
      * @param expression function to plot
      * @param variable   the independent variable (x-axis)
      * @param origin     lower bound of the domain
      * @param bound      upper bound of the domain
-     * @return the result of the plot expression evaluation, or an error message
+     * @return the sampled curve, or an error message
+     * @see #draw(String, String, String, String, int)
      */
     @Override
     public MathEclipseEvaluation draw(String expression, String variable, String origin, String bound) {
-        logger.debug("Entering draw() with expression: {}, variable: {}, origin: {}, bound: {}", expression, variable, origin, bound);
+        return draw(expression, variable, origin, bound, AdaptivePlotSampler.DEFAULT_POINTS);
+    }
+
+    /**
+     * Samples the given expression over {@code [origin, bound]} for plotting.
+     * <p>
+     * The expression is first compiled into a primitive numeric function by {@link MathEclipseFunctionCompiler} and
+     * sampled by the {@link AdaptivePlotSampler}, which is orders of magnitude faster than a symbolic {@code Plot[]}
+     * and splits the curve at poles, jumps and undefined regions. Sampling goes through the {@link PlotTileCache},
+     * reusing the tiles of previous viewports. Only expressions the compiler cannot handle fall back to Symja, which
+     * picks its own sampling density. In both cases the result is rendered as
+     * {@code Graphics({Line({{x,y},...}),...})}.
+     *
+     * @param expression function to plot
+     * @param variable   the independent variable (x-axis)
+     * @param origin     lower bound of the domain
+     * @param bound      upper bound of the domain
+     * @param points     maximum number of points of the compiled curve
+     * @return the sampled curve, or an error message
+     */
+    @Override
+    public MathEclipseEvaluation draw(String expression, String variable, String origin, String bound, int points) {
+        logger.debug("Entering draw() with expression: {}, variable: {}, origin: {}, bound: {}, points: {}",
+                expression, variable, origin, bound, points);
         String formattedExpression = initialFormatted(expression);
         logger.debug("Formatted expression for plotting: {}", formattedExpression);
 
+        Optional<CompiledFunction> compiled = compile(formattedExpression, variable, origin, bound);
+        if (compiled.isPresent()) {
+            CompiledFunction function = compiled.get();
+            String functionKey = variable + '\u001F' + MathEclipseParseCache.normalize(formattedExpression);
+            PlotCurve curve =
+                    plotTiles.sample(functionKey, function.function(), function.origin(), function.bound(), points);
+            logger.debug("Compiled plot sampled: {}", curve);
+            return new MathEclipseEvaluation(curve.toGraphicsForm(), curve);
+        }
+
         String plotExpression = Plot(formattedExpression, variable, origin, bound);
         logger.debug("Plot expression constructed: {}", plotExpression);
 
-        MathEclipseEvaluation evaluation = safeEvaluation(plotExpression);
+        MathEclipseEvaluation evaluation = safeEvaluation(plotExpression,
+                engine -> engine.parse(plotExpression), MathEclipseGraphicsReader::readCurve);
         logger.debug("Plot evaluation result: {}", evaluation);
         return evaluation;
     }
 
+    /**
+     * Compiles a plot expression and its domain on a pooled engine. The engine is only held while
+     * compiling: the returned function is independent of Symja and is sampled after check-in.
+     *
+     * @param expression the formatted expression to compile
+     * @param variable   the independent variable
+     * @param origin     lower bound of the domain
+     * @param bound      upper bound of the domain
+     * @return the compiled function and numeric domain, or empty if Symja is needed to plot it
+     */
+    private Optional<CompiledFunction> compile(String expression, String variable, String origin, String bound) {
+        try {
+            return enginePool.execute(engine -> {
+                double from = engine.evalDouble(engine.parse(origin));
+                double to = engine.evalDouble(engine.parse(bound));
+                if (!Double.isFinite(from) || !Double.isFinite(to) || from >= to) {
+                    return Optional.empty();
+                }
+                IExpr parsed = parseCache.parse(engine, expression);
+                Optional<CompiledFunction> compiled =
+                        MathEclipseFunctionCompiler.compile(parsed, variable, engine::evalDouble)
+                                .map(function -> new CompiledFunction(function, from, to));
+                // A stopped engine folds every constant to NaN; let the Symja path report the stop instead
+                return MathCancellationHandle.isCurrentCancelled() ? Optional.<CompiledFunction>empty() : compiled;
+            });
+        } catch (MathEnginePoolExhaustedException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            logger.debug("Plot expression {} not compilable, falling back to Symja: {}", expression, ex.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * A plot expression compiled to a primitive function together with its numeric domain.
+     */
+    private record CompiledFunction(DoubleUnaryOperator function, double origin, double bound) {
+    }
+
     /**
      * Safely evaluates an expression and captures any warnings/errors.
      *
-     * @param expression the expression to evaluate
+     * @param expression the expression to evaluate, used for logging
+     * @param parser     builds the parsed expression on the engine that evaluates it
      * @return the result or formatted error message
+     * @see #safeEvaluation(String, Function, Function)
      */
-    private MathEclipseEvaluation safeEvaluation(String expression) {
-        logger.debug("Entering safeEvaluation() with expression: {}", expression);
-        // Redirect System.err to capture evaluation warnings or errors
-        PrintStream originalErr = System.err;
+    private MathEclipseEvaluation safeEvaluation(String expression, Function<MathEclipseEngine, IExpr> parser) {
+        return safeEvaluation(expression, parser, result -> null);
+    }
 
-        ByteArrayOutputStream errorStream = new ByteArrayOutputStream();
-        System.setErr(new PrintStream(errorStream));
+    /**
+     * Safely evaluates an expression and captures any warnings/errors.
+     *
+     * @param expression the expression to evaluate, used for logging
+     * @param parser     builds the parsed expression on the engine that evaluates it
+     * @param plotReader extracts the sampled curve from the evaluated expression, if it is a plot
+     * @return the result or formatted error message
+     * @see #safeEvaluation(String, Function, Function, BiConsumer)
+     */
+    private MathEclipseEvaluation safeEvaluation(String expression, Function<MathEclipseEngine, IExpr> parser,
+                                                 Function<IExpr, PlotCurve> plotReader) {
+        return safeEvaluation(expression, parser, plotReader, (result, errors) -> {
+        });
+    }
+
+    /**
+     * Safely evaluates an expression and captures any warnings/errors.
+     * <p>
+     * Messages are read from the diagnostics channel of the engine that ran the evaluation,
+     * so they always belong to this expression even when other evaluations run concurrently.
+     *
+     * @param expression the expression to evaluate, used for logging
+     * @param parser     builds the parsed expression on the engine that evaluates it
+     * @param plotReader     extracts the sampled curve from the evaluated expression, if it is a plot
+     * @param resultListener receives the evaluated expression and the captured errors
+     * @return the result or formatted error message
+     */
+    private MathEclipseEvaluation safeEvaluation(String expression, Function<MathEclipseEngine, IExpr> parser,
+                                                 Function<IExpr, PlotCurve> plotReader,
+                                                 BiConsumer<IExpr, String> resultListener) {
+        logger.debug("Entering safeEvaluation() with expression: {}", expression);
         try {
-            String result = rawEvaluate(expression);
-            logger.debug("Raw evaluation returned: {}", result);
+            return enginePool.execute(engine -> {
+                IExpr result = rawEvaluate(engine, parser.apply(engine));
+                logger.debug("Raw evaluation returned: {}", result);
 
-            // Capture any error messages written during evaluation
-            String errors = errorStream.toString().trim();
-            if (!errors.isEmpty()) {
-                logger.warn("Errors captured during evaluation: {}", errors);
-            }
+                // Capture any error messages reported during evaluation
+                String errors = engine.drainDiagnostics().trim();
+                if (!errors.isEmpty()) {
+                    logger.warn("Errors captured during evaluation: {}", errors);
+                }
 
-            // Create the evaluation result object
-            MathEclipseEvaluation evaluation = new MathEclipseEvaluation(result);
-            evaluation.addErrorsFromErrorStream(errors);
-            logger.debug("Created MathEclipseEvaluation with result and errors");
+                // Create the evaluation result object
+                MathEclipseEvaluation evaluation =
+                        new MathEclipseEvaluation(result.toString(), plotReader.apply(result));
+                evaluation.addErrorsFromErrorStream(errors);
+                logger.debug("Created MathEclipseEvaluation with result and errors");
+                resultListener.accept(result, errors);
 
-            return evaluation;
+                return evaluation;
+            });
         } catch (Exception ex) {
             logger.error("Exception in safeEvaluation(): {}", ex.getMessage(), ex);
             throw ex;
         } finally {
-            // Restore the original System.err to avoid affecting other code
-            System.setErr(originalErr);
-            errorStream.reset();
             logger.debug("Exiting safeEvaluation()");
         }
     }
 
     /**
-     * Performs direct Symja evaluation without validation and error handlers.
+     * Performs direct Symja evaluation without validation and error handlers,
+     * on an engine checked out from the pool by the caller.
      *
-     * @param expression expression to validate
+     * @param engine     the pooled engine to evaluate on
+     * @param expression parsed expression to evaluate
      * @return evaluated expression
      */
-    private String rawEvaluate(String expression) {
+    private IExpr rawEvaluate(MathEclipseEngine engine, IExpr expression) {
         logger.debug("Entering rawEvaluate() with expression: {}", expression);
         try {
-            String result = mathEclipseEvaluator.evaluate(expression).toString();
+            IExpr result = engine.evaluate(expression);
             logger.debug("rawEvaluate() result: {}", result);
             return result;
         } catch (Exception ex) {
@@ -158,6 +318,34 @@ public class MathEclipseFacade implements MathLibFacade<MathEclipseEvaluation> {
         }
     }
 
+    /**
+     * Returns the expression as the facade reads it, without spaces and with parentheses instead of brackets.
+     *
+     * @param expression the expression to canonicalize
+     * @return the canonical source, also used as key of the {@link MathEclipseParseCache}
+     */
+    @Override
+    public String canonicalForm(String expression) {
+        return MathEclipseParseCache.normalize(expression);
+    }
+
+    /**
+     * Classifies the expression from its parsed form, see {@link MathEclipseStructuralClassifier}. The parsed form
+     * comes from the {@link MathEclipseParseCache}, where validation usually left it, so no engine is needed.
+     *
+     * @param expression the expression to classify
+     * @return the type of the expression, or empty if it cannot be parsed or its evaluation decides its type
+     */
+    @Override
+    public Optional<MathExpressionType> structuralType(String expression) {
+        try {
+            return MathEclipseStructuralClassifier.classify(parseCache.inspect(expression));
+        } catch (RuntimeException ex) {
+            logger.debug("structuralType() could not parse '{}': {}", expression, ex.getMessage());
+            return Optional.empty();
+        }
+    }
+
     /**
      * Formats the result of a mathematical expression into LaTeX format.
      *
@@ -172,32 +360,15 @@ public class MathEclipseFacade implements MathLibFacade<MathEclipseEvaluation> {
         return expression;
     }
 
-    /**
-     * Stops any ongoing evaluations in the Symja evaluator.
-     */
-    @Override
-    public void stopRequest() {
-        logger.info("stopRequest() called - stopping ongoing evaluation");
-        try {
-            mathEclipseEvaluator.stopRequest();
-            logger.debug("mathEclipseEvaluator.stopRequest() invoked successfully");
-        } catch (Exception ex) {
-            logger.error("Exception in stopRequest(): {}", ex.getMessage(), ex);
-        }
-    }
-
     /**
      * Resets the internal evaluator to its initial state, removing all variable definitions.
+     * <p>
+     * Pooled engines already drop their user definitions on every check-in, so there is
+     * no shared state left to clean here.
      */
     @Override
     public void clear() {
-        logger.info("clear() called - resetting evaluator state");
-        try {
-            mathEclipseEvaluator = MathEclipseConfig.buildEvalUtilities();
-            logger.debug("Evaluator reset successfully");
-        } catch (Exception ex) {
-            logger.error("Exception in clear(): {}", ex.getMessage(), ex);
-        }
+        logger.debug("clear() called - pooled engines are reset on check-in");
     }
 
     /**
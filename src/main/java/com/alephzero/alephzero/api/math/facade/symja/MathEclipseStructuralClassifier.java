@@ -0,0 +1,97 @@
+package com.alephzero.alephzero.api.math.facade.symja;
+
+import com.alephzero.alephzero.api.math.enums.computation.MathExpressionType;
+import org.matheclipse.core.convert.VariablesSet;
+import org.matheclipse.core.expression.S;
+import org.matheclipse.core.interfaces.IAST;
+import org.matheclipse.core.interfaces.IExpr;
+
+import java.util.Optional;
+
+import static com.alephzero.alephzero.api.math.enums.computation.MathExpressionType.*;
+
+/**
+ * {@code MathEclipseStructuralClassifier} classifies a parsed Symja expression from its structure alone, its
+ * heads and its free symbols, without evaluating it.
+ * <p>
+ * Only the expressions whose type does not depend on their evaluation are classified:
+ * <ul>
+ *     <li>{@code Set} is an {@link MathExpressionType#ASSIGNMENT}</li>
+ *     <li>{@code True} and {@code False}, and comparisons or logic without free symbols, are {@link MathExpressionType#BOOLEAN}</li>
+ *     <li>{@code Equal} with free symbols is an {@link MathExpressionType#EQUATION}</li>
+ *     <li>A list of numeric values is a {@link MathExpressionType#VECTOR}, a list of such lists a {@link MathExpressionType#MATRIX}</li>
+ *     <li>Arithmetic and numeric functions of constants are {@link MathExpressionType#NUMERIC}, of free symbols a {@link MathExpressionType#FUNCTION}</li>
+ * </ul>
+ * Anything else, such as {@code D}, {@code Integrate} or {@code Solve}, whose result may be of another type than
+ * its input, is left to the evaluation-based classification.
+ */
+public final class MathEclipseStructuralClassifier {
+
+    private MathEclipseStructuralClassifier() {
+    }
+
+    /**
+     * Classifies a parsed expression from its structure.
+     *
+     * @param expression the parsed expression, never evaluated
+     * @return its type, or empty if it can only be known by evaluating the expression
+     */
+    public static Optional<MathExpressionType> classify(IExpr expression) {
+        if (expression.isAST(S.Set) || expression.isAST(S.SetDelayed)) {
+            return Optional.of(ASSIGNMENT);
+        }
+        if (expression.isTrue() || expression.isFalse()) {
+            return Optional.of(BOOLEAN);
+        }
+
+        boolean constant = expression.isFree(MathEclipseStructuralClassifier::isUserSymbol, true);
+        if (expression.isComparatorFunction() || expression.isBooleanFunction()) {
+            if (constant) {
+                return Optional.of(BOOLEAN);
+            }
+            return expression.isAST(S.Equal) ? Optional.of(EQUATION) : Optional.empty();
+        }
+        if (expression.isList()) {
+            return constant ? classifyList((IAST) expression) : Optional.empty();
+        }
+        if (constant) {
+            return expression.isNumericFunction(false) ? Optional.of(NUMERIC) : Optional.empty();
+        }
+        return expression.isNumericFunction(new VariablesSet(expression)) ? Optional.of(FUNCTION) : Optional.empty();
+    }
+
+    /**
+     * Whether a part of an expression is a free symbol: any symbol that is not built into Symja, such as
+     * {@code x} or an undefined function {@code g}. Constants such as {@code Pi} are built in.
+     */
+    private static boolean isUserSymbol(IExpr expression) {
+        return expression.isSymbol() && !expression.isBuiltInSymbol();
+    }
+
+    private static Optional<MathExpressionType> classifyList(IAST list) {
+        if (list.isEmpty()) {
+            return Optional.empty();
+        }
+        if (isNumericVector(list)) {
+            return Optional.of(VECTOR);
+        }
+        for (IExpr row : list) {
+            if (!row.isList() || !isNumericVector((IAST) row)) {
+                return Optional.empty();
+            }
+        }
+        return Optional.of(MATRIX);
+    }
+
+    private static boolean isNumericVector(IAST list) {
+        if (list.isEmpty()) {
+            return false;
+        }
+        for (IExpr element : list) {
+            if (element.isList() || !element.isNumericFunction(false)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
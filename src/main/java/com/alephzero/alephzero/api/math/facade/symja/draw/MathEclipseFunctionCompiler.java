@@ -0,0 +1,252 @@
+package com.alephzero.alephzero.api.math.facade.symja.draw;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.hipparchus.special.Erf;
+import org.hipparchus.special.Gamma;
+import org.matheclipse.core.expression.S;
+import org.matheclipse.core.interfaces.IAST;
+import org.matheclipse.core.interfaces.IExpr;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * {@code MathEclipseFunctionCompiler} compiles a Symja {@link IExpr} of a single real variable into a
+ * primitive {@link DoubleUnaryOperator}, so it can be sampled for plotting without going through the
+ * symbolic evaluator for every point.
+ * <p>
+ * The expression tree is translated once into a tree of closures working exclusively on {@code double}
+ * values: no boxing, no pattern matching and no allocation happen while sampling. Every subtree free of
+ * the variable is folded into a constant at compile time.
+ * <p>
+ * Only elementary real functions are supported. Any other construct (unknown heads, free symbols other
+ * than the variable, lists, complex constants...) makes compilation fail, and the caller is expected
+ * to fall back to the symbolic evaluator.
+ */
+public final class MathEclipseFunctionCompiler {
+
+    private static final Logger logger = LogManager.getLogger(MathEclipseFunctionCompiler.class);
+
+    /** Single argument built-in functions and their primitive counterpart. */
+    private static final Map<IExpr, DoubleUnaryOperator> UNARY_FUNCTIONS = new IdentityHashMap<>();
+
+    static {
+        UNARY_FUNCTIONS.put(S.Sin, Math::sin);
+        UNARY_FUNCTIONS.put(S.Cos, Math::cos);
+        UNARY_FUNCTIONS.put(S.Tan, Math::tan);
+        UNARY_FUNCTIONS.put(S.Cot, v -> 1.0 / Math.tan(v));
+        UNARY_FUNCTIONS.put(S.Sec, v -> 1.0 / Math.cos(v));
+        UNARY_FUNCTIONS.put(S.Csc, v -> 1.0 / Math.sin(v));
+        UNARY_FUNCTIONS.put(S.ArcSin, Math::asin);
+        UNARY_FUNCTIONS.put(S.ArcCos, Math::acos);
+        UNARY_FUNCTIONS.put(S.ArcTan, Math::atan);
+        UNARY_FUNCTIONS.put(S.ArcCot, v -> Math.atan(1.0 / v));
+        UNARY_FUNCTIONS.put(S.Sinh, Math::sinh);
+        UNARY_FUNCTIONS.put(S.Cosh, Math::cosh);
+        UNARY_FUNCTIONS.put(S.Tanh, Math::tanh);
+        UNARY_FUNCTIONS.put(S.Coth, v -> 1.0 / Math.tanh(v));
+        UNARY_FUNCTIONS.put(S.Sech, v -> 1.0 / Math.cosh(v));
+        UNARY_FUNCTIONS.put(S.Csch, v -> 1.0 / Math.sinh(v));
+        UNARY_FUNCTIONS.put(S.ArcSinh, v -> Math.log(v + Math.sqrt(v * v + 1.0)));
+        UNARY_FUNCTIONS.put(S.ArcCosh, v -> Math.log(v + Math.sqrt(v * v - 1.0)));
+        UNARY_FUNCTIONS.put(S.ArcTanh, v -> 0.5 * Math.log((1.0 + v) / (1.0 - v)));
+        UNARY_FUNCTIONS.put(S.Exp, Math::exp);
+        UNARY_FUNCTIONS.put(S.Log, Math::log);
+        UNARY_FUNCTIONS.put(S.Sqrt, Math::sqrt);
+        UNARY_FUNCTIONS.put(S.CubeRoot, Math::cbrt);
+        UNARY_FUNCTIONS.put(S.Abs, Math::abs);
+        UNARY_FUNCTIONS.put(S.Sign, Math::signum);
+        UNARY_FUNCTIONS.put(S.Floor, Math::floor);
+        UNARY_FUNCTIONS.put(S.Ceiling, Math::ceil);
+        UNARY_FUNCTIONS.put(S.Gamma, Gamma::gamma);
+        UNARY_FUNCTIONS.put(S.Erf, Erf::erf);
+    }
+
+    private final String variable;                       // Name of the independent variable
+    private final ToDoubleFunction<IExpr> constantFolder; // Numeric evaluator for variable-free subtrees
+
+    private MathEclipseFunctionCompiler(String variable, ToDoubleFunction<IExpr> constantFolder) {
+        this.variable = variable;
+        this.constantFolder = constantFolder;
+    }
+
+    /**
+     * Compiles {@code expression} into a primitive function of {@code variable}.
+     *
+     * @param expression     the parsed expression to compile
+     * @param variable       the name of the independent variable
+     * @param constantFolder numeric evaluator used to fold variable-free subtrees into constants,
+     *                       typically {@code EvalEngine::evalDouble} of the engine that parsed the expression
+     * @return the compiled function, or an empty {@link Optional} if the expression contains
+     * constructs that cannot be compiled
+     */
+    public static Optional<DoubleUnaryOperator> compile(IExpr expression, String variable, ToDoubleFunction<IExpr> constantFolder) {
+        try {
+            return Optional.of(new MathEclipseFunctionCompiler(variable, constantFolder).compile(expression));
+        } catch (UnsupportedExpressionException ex) {
+            logger.debug("Cannot compile {}: {}", expression, ex.getMessage());
+            return Optional.empty();
+        } catch (RuntimeException ex) {
+            logger.debug("Compilation of {} failed: {}", expression, ex.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private DoubleUnaryOperator compile(IExpr expr) {
+        if (isVariable(expr)) {
+            return x -> x;
+        }
+        if (expr.isFree(this::isVariable, true)) {
+            return constant(expr);
+        }
+        if (expr.isPlus()) {
+            return plus(compileArguments((IAST) expr));
+        }
+        if (expr.isTimes()) {
+            return times(compileArguments((IAST) expr));
+        }
+        if (expr.isPower()) {
+            return power((IAST) expr);
+        }
+        if (expr.isAST(S.Log, 3)) {
+            // Log(b, x) = Log(x) / Log(b)
+            DoubleUnaryOperator base = compile(expr.first());
+            DoubleUnaryOperator value = compile(expr.second());
+            return x -> Math.log(value.applyAsDouble(x)) / Math.log(base.applyAsDouble(x));
+        }
+        if (expr.isAST(S.ArcTan, 3)) {
+            DoubleUnaryOperator dx = compile(expr.first());
+            DoubleUnaryOperator dy = compile(expr.second());
+            return x -> Math.atan2(dy.applyAsDouble(x), dx.applyAsDouble(x));
+        }
+        if (expr.isAST() && ((IAST) expr).argSize() == 1) {
+            DoubleUnaryOperator function = UNARY_FUNCTIONS.get(expr.head());
+            if (function != null) {
+                DoubleUnaryOperator argument = compile(expr.first());
+                return x -> function.applyAsDouble(argument.applyAsDouble(x));
+            }
+        }
+        throw new UnsupportedExpressionException("unsupported construct " + expr.head());
+    }
+
+    private DoubleUnaryOperator constant(IExpr expr) {
+        double value = foldConstant(expr);
+        return x -> value;
+    }
+
+    private double foldConstant(IExpr expr) {
+        if (!expr.isNumericFunction(true)) {
+            throw new UnsupportedExpressionException("free symbol in " + expr);
+        }
+        double value = constantFolder.applyAsDouble(expr);
+        if (!Double.isFinite(value)) {
+            throw new UnsupportedExpressionException("non real constant " + expr);
+        }
+        return value;
+    }
+
+    private DoubleUnaryOperator[] compileArguments(IAST ast) {
+        DoubleUnaryOperator[] operands = new DoubleUnaryOperator[ast.argSize()];
+        for (int i = 1; i <= ast.argSize(); i++) {
+            operands[i - 1] = compile(ast.get(i));
+        }
+        return operands;
+    }
+
+    private static DoubleUnaryOperator plus(DoubleUnaryOperator[] operands) {
+        if (operands.length == 2) {
+            DoubleUnaryOperator a = operands[0], b = operands[1];
+            return x -> a.applyAsDouble(x) + b.applyAsDouble(x);
+        }
+        return x -> {
+            double sum = 0.0;
+            for (DoubleUnaryOperator operand : operands) {
+                sum += operand.applyAsDouble(x);
+            }
+            return sum;
+        };
+    }
+
+    private static DoubleUnaryOperator times(DoubleUnaryOperator[] operands) {
+        if (operands.length == 2) {
+            DoubleUnaryOperator a = operands[0], b = operands[1];
+            return x -> a.applyAsDouble(x) * b.applyAsDouble(x);
+        }
+        return x -> {
+            double product = 1.0;
+            for (DoubleUnaryOperator operand : operands) {
+                product *= operand.applyAsDouble(x);
+            }
+            return product;
+        };
+    }
+
+    private DoubleUnaryOperator power(IAST ast) {
+        IExpr baseExpr = ast.base();
+        IExpr exponentExpr = ast.exponent();
+
+        if (baseExpr.equals(S.E)) {
+            DoubleUnaryOperator exponent = compile(exponentExpr);
+            return x -> Math.exp(exponent.applyAsDouble(x));
+        }
+
+        DoubleUnaryOperator base = compile(baseExpr);
+        if (!exponentExpr.isFree(this::isVariable, true)) {
+            DoubleUnaryOperator exponent = compile(exponentExpr);
+            return x -> Math.pow(base.applyAsDouble(x), exponent.applyAsDouble(x));
+        }
+
+        double exponent = foldConstant(exponentExpr);
+        if (exponent == 1.0) {
+            return base;
+        }
+        if (exponent == 2.0) {
+            return x -> {
+                double b = base.applyAsDouble(x);
+                return b * b;
+            };
+        }
+        if (exponent == -1.0) {
+            return x -> 1.0 / base.applyAsDouble(x);
+        }
+        if (exponent == 0.5) {
+            return x -> Math.sqrt(base.applyAsDouble(x));
+        }
+        if (exponent == Math.rint(exponent) && Math.abs(exponent) <= 64) {
+            int n = (int) exponent;
+            return x -> integerPower(base.applyAsDouble(x), n);
+        }
+        return x -> Math.pow(base.applyAsDouble(x), exponent);
+    }
+
+    private static double integerPower(double base, int exponent) {
+        int n = Math.abs(exponent);
+        double result = 1.0;
+        double factor = base;
+        while (n > 0) {
+            if ((n & 1) != 0) {
+                result *= factor;
+            }
+            factor *= factor;
+            n >>= 1;
+        }
+        return exponent < 0 ? 1.0 / result : result;
+    }
+
+    private boolean isVariable(IExpr expr) {
+        return expr.isSymbol() && !expr.isBuiltInSymbol() && variable.equals(expr.toString());
+    }
+
+    /**
+     * Signals a construct the compiler has no primitive translation for.
+     */
+    private static final class UnsupportedExpressionException extends RuntimeException {
+        UnsupportedExpressionException(String message) {
+            super(message, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.alephzero.alephzero.api.math.facade.symja.draw;
+
+import com.alephzero.alephzero.api.math.facade.draw.PlotCurve;
+import org.matheclipse.core.expression.S;
+import org.matheclipse.core.interfaces.IAST;
+import org.matheclipse.core.interfaces.IExpr;
+
+/**
+ * {@code MathEclipseGraphicsReader} extracts the sampled points of a Symja {@code Graphics} expression,
+ * as returned by {@code Plot[]}, into a {@link PlotCurve}.
+ * <p>
+ * The evaluated expression tree is walked directly, every {@code Line} primitive becoming one curve segment,
+ * so plots produced by the Symja fallback can be served in the same formats as compiled ones.
+ */
+public final class MathEclipseGraphicsReader {
+
+    private MathEclipseGraphicsReader() {
+    }
+
+    /**
+     * Reads every {@code Line} primitive of a graphics expression.
+     *
+     * @param graphics the evaluated {@code Graphics} expression
+     * @return the curve made of its lines, or {@code null} if the expression is not a graphics expression
+     */
+    public static PlotCurve readCurve(IExpr graphics) {
+        if (!graphics.isAST(S.Graphics) || ((IAST) graphics).argSize() < 1) {
+            return null;
+        }
+        PlotCurve.Builder builder = PlotCurve.builder(256);
+        collectLines(graphics.first(), builder);
+        return builder.build();
+    }
+
+    private static void collectLines(IExpr primitive, PlotCurve.Builder builder) {
+        if (primitive.isAST(S.Line, 2)) {
+            addLine(primitive.first(), builder);
+        } else if (primitive.isList()) {
+            ((IAST) primitive).forEach(element -> collectLines(element, builder));
+        }
+    }
+
+    private static void addLine(IExpr points, PlotCurve.Builder builder) {
+        if (!points.isList()) {
+            return;
+        }
+        IAST list = (IAST) points;
+        if (list.argSize() > 0 && list.arg1().isList() && list.arg1().first().isList()) {
+            list.forEach(line -> addLine(line, builder)); // Multi-line form: Line({{{x,y},...},...})
+            return;
+        }
+        for (int i = 1; i <= list.argSize(); i++) {
+            IExpr point = list.get(i);
+            if (point.isList() && ((IAST) point).argSize() == 2 && point.first().isReal() && point.second().isReal()) {
+                builder.add(point.first().evalf(), point.second().evalf());
+            } else {
+                builder.breakSegment();
+            }
+        }
+        builder.breakSegment();
+    }
+}
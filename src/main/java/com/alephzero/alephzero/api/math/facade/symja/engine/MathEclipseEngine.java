@@ -0,0 +1,170 @@
+package com.alephzero.alephzero.api.math.facade.symja.engine;
+
+import org.matheclipse.core.eval.EvalEngine;
+import org.matheclipse.core.eval.EvalUtilities;
+import org.matheclipse.core.expression.ContextPath;
+import org.matheclipse.core.interfaces.IExpr;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * {@code MathEclipseEngine} is a pooled, reusable pair of Symja {@link EvalEngine} and
+ * {@link EvalUtilities} instances managed by {@link MathEclipseEnginePool}.
+ * <p>
+ * An engine is only ever used by one thread at a time: it is checked out from the pool,
+ * used for a single evaluation and checked back in, at which point its user definitions
+ * are reset so the next borrower always starts from a clean symbolic context.
+ * <p>
+ * Each engine owns a private diagnostics channel: Symja writes its warnings and messages to the
+ * engine's error print stream, which is bound to a per-engine buffer instead of the JVM-wide
+ * {@link System#err}. Concurrent evaluations therefore never see each other's messages.
+ *
+ * @see MathEclipseEnginePool
+ */
+public final class MathEclipseEngine {
+
+    private final int id;                  // Pool-unique identifier, used for logging and metrics
+    private final EvalEngine evalEngine;   // Symja core evaluation engine
+    private final EvalUtilities evaluator; // Symja evaluator bound to the engine above
+    private final ByteArrayOutputStream diagnostics = new ByteArrayOutputStream(); // Messages of the running evaluation
+
+    private volatile long lastReleasedNanos; // Last check-in time, used for idle eviction
+
+    /**
+     * Creates a new pooled engine wrapping the given Symja components.
+     *
+     * @param id         the pool-unique identifier of this engine
+     * @param evalEngine the Symja evaluation engine
+     * @param evaluator  the Symja evaluator bound to {@code evalEngine}
+     */
+    MathEclipseEngine(int id, EvalEngine evalEngine, EvalUtilities evaluator) {
+        this.id = id;
+        this.evalEngine = evalEngine;
+        this.evaluator = evaluator;
+        this.lastReleasedNanos = System.nanoTime();
+        this.evalEngine.setErrorPrintStream(new PrintStream(diagnostics, true, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Evaluates the given Symja expression on this engine.
+     *
+     * @param expression the expression to evaluate
+     * @return the evaluated expression
+     */
+    public IExpr evaluate(String expression) {
+        EvalEngine.set(evalEngine);
+        return evaluator.evaluate(expression);
+    }
+
+    /**
+     * Evaluates an already parsed Symja expression on this engine.
+     *
+     * @param expression the expression to evaluate, bound to this engine's symbolic context
+     * @return the evaluated expression
+     */
+    public IExpr evaluate(IExpr expression) {
+        // The evaluator rebinds itself to the engine of the current thread: make sure it is this one, not the
+        // engine that last parsed on this thread
+        EvalEngine.set(evalEngine);
+        return evaluator.evaluate(expression);
+    }
+
+    /**
+     * Parses the given Symja expression on this engine without evaluating it.
+     *
+     * @param expression the expression to parse
+     * @return the parsed expression, bound to this engine's symbolic context
+     */
+    public IExpr parse(String expression) {
+        EvalEngine.set(evalEngine);
+        return evalEngine.parse(expression);
+    }
+
+    /**
+     * Numerically evaluates the given expression to a machine precision real value.
+     *
+     * @param expression the expression to evaluate
+     * @return the real value, or {@link Double#NaN} if the expression has no real numeric value
+     */
+    public double evalDouble(IExpr expression) {
+        EvalEngine.set(evalEngine);
+        try {
+            return evalEngine.evalDouble(expression);
+        } catch (RuntimeException ex) {
+            return Double.NaN;
+        }
+    }
+
+    /**
+     * Returns the messages Symja reported on this engine since the last call and clears them.
+     *
+     * @return the captured diagnostics, or an empty string if there were none
+     */
+    public String drainDiagnostics() {
+        String messages = diagnostics.toString(StandardCharsets.UTF_8);
+        diagnostics.reset();
+        return messages;
+    }
+
+    /**
+     * Requests the running evaluation on this engine to stop as soon as possible.
+     */
+    public void stopRequest() {
+        evaluator.stopRequest();
+    }
+
+    /**
+     * Returns the pool-unique identifier of this engine.
+     *
+     * @return the engine identifier
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Returns the underlying Symja evaluation engine.
+     *
+     * @return the {@link EvalEngine} of this pooled engine
+     */
+    public EvalEngine getEvalEngine() {
+        return evalEngine;
+    }
+
+    /**
+     * Discards every user definition created during the last evaluation, clears any
+     * pending stop request and unread diagnostics, leaving the engine ready for the next borrower.
+     * <p>
+     * This is considerably cheaper than building a new {@link EvalEngine}, since all
+     * built-in rules stay loaded and only the user context is replaced.
+     */
+    void reset() {
+        evalEngine.setContextPath(ContextPath.initialContext());
+        evalEngine.init();
+        diagnostics.reset();
+    }
+
+    /**
+     * Marks this engine as released at the current instant.
+     */
+    void markReleased() {
+        lastReleasedNanos = System.nanoTime();
+    }
+
+    /**
+     * Returns how long this engine has been idle since its last check-in.
+     *
+     * @param nowNanos the current {@link System#nanoTime()} value
+     * @return the idle time in nanoseconds
+     */
+    long idleNanos(long nowNanos) {
+        return nowNanos - lastReleasedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "MathEclipseEngine#" + id;
+    }
+}
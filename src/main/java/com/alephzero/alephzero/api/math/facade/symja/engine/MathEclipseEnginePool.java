@@ -0,0 +1,228 @@
+package com.alephzero.alephzero.api.math.facade.symja.engine;
+
+import com.alephzero.alephzero.api.math.exception.MathEnginePoolExhaustedException;
+import com.alephzero.alephzero.api.math.facade.MathCancellationHandle;
+import com.alephzero.alephzero.api.math.facade.symja.MathEclipseConfig;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.matheclipse.core.eval.EvalEngine;
+
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * {@code MathEclipseEnginePool} is a bounded pool of warm {@link MathEclipseEngine} instances.
+ * <p>
+ * Building a Symja {@link EvalEngine} is allocation heavy, so instead of creating a new one after
+ * every evaluation the pool hands out engines with check-out/check-in semantics and only resets
+ * their user definitions when they come back. The number of live engines is capped by
+ * {@link MathEclipseEnginePoolProperties#getMaxSize()} regardless of how many threads use the pool;
+ * callers that find no free engine wait up to the configured borrow timeout.
+ * <p>
+ * Engines idle for longer than the configured timeout are evicted periodically, always keeping
+ * at least {@link MathEclipseEnginePoolProperties#getMinIdle()} warm engines around.
+ *
+ * @see MathEclipseEngine
+ * @see MathEclipseEnginePoolStats
+ */
+public class MathEclipseEnginePool implements AutoCloseable {
+
+    private static final Logger logger = LogManager.getLogger(MathEclipseEnginePool.class);
+
+    private final MathEclipseEnginePoolProperties properties;
+
+    private final Semaphore permits;                                            // One permit per engine slot
+    private final Deque<MathEclipseEngine> idleEngines = new ConcurrentLinkedDeque<>(); // LIFO: warmest engine first
+    private final Set<MathEclipseEngine> activeEngines = ConcurrentHashMap.newKeySet();  // Engines currently checked out
+    private final ScheduledExecutorService evictor;
+
+    private final AtomicInteger idSequence = new AtomicInteger(1);
+    private final AtomicInteger total = new AtomicInteger();
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong evicted = new AtomicLong();
+    private final AtomicLong borrowed = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+
+    /**
+     * Creates a new engine pool and pre-warms {@code minIdle} engines.
+     *
+     * @param properties the pool configuration
+     */
+    public MathEclipseEnginePool(MathEclipseEnginePoolProperties properties) {
+        this.properties = properties;
+        this.permits = new Semaphore(properties.getMaxSize(), true);
+
+        int warm = Math.min(properties.getMinIdle(), properties.getMaxSize());
+        for (int i = 0; i < warm; i++) {
+            idleEngines.offerFirst(createEngine());
+        }
+
+        this.evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "math-engine-pool-evictor");
+            t.setDaemon(true);
+            return t;
+        });
+        long interval = properties.getEvictionInterval().toMillis();
+        evictor.scheduleWithFixedDelay(this::evictIdle, interval, interval, TimeUnit.MILLISECONDS);
+
+        logger.info("MathEclipseEnginePool initialized with maxSize={}, minIdle={}, idleTimeout={}",
+                properties.getMaxSize(), properties.getMinIdle(), properties.getIdleTimeout());
+    }
+
+    /**
+     * Checks out an engine, runs the given task on it and checks it back in.
+     * <p>
+     * While the task runs, the engine is bound to the {@link MathCancellationHandle} active on the calling
+     * thread, so cancelling that handle stops this engine and no other.
+     *
+     * @param task the task to run with exclusive access to an engine
+     * @param <T>  the task result type
+     * @return the task result
+     */
+    public <T> T execute(Function<MathEclipseEngine, T> task) {
+        MathEclipseEngine engine = borrow();
+        try (MathCancellationHandle.Binding ignored = MathCancellationHandle.bindCurrent(engine::stopRequest)) {
+            return task.apply(engine);
+        } finally {
+            release(engine);
+        }
+    }
+
+    /**
+     * Checks out an engine, waiting up to the configured borrow timeout for a free slot.
+     * <p>
+     * Every borrowed engine must be returned through {@link #release(MathEclipseEngine)}.
+     *
+     * @return an engine for exclusive use by the caller
+     * @throws MathEnginePoolExhaustedException if no engine became available in time
+     */
+    public MathEclipseEngine borrow() {
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(properties.getBorrowTimeout().toNanos(), TimeUnit.NANOSECONDS)) {
+                timeouts.incrementAndGet();
+                throw new MathEnginePoolExhaustedException(
+                        "No math engine available after " + properties.getBorrowTimeout().toMillis() + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MathEnginePoolExhaustedException("Interrupted while waiting for a math engine");
+        }
+        totalWaitNanos.addAndGet(System.nanoTime() - start);
+
+        MathEclipseEngine engine = idleEngines.pollFirst();
+        if (engine == null) {
+            try {
+                engine = createEngine();
+            } catch (RuntimeException ex) {
+                permits.release();
+                throw ex;
+            }
+        }
+        activeEngines.add(engine);
+        borrowed.incrementAndGet();
+        logger.debug("Borrowed {}", engine);
+        return engine;
+    }
+
+    /**
+     * Checks an engine back in, resetting its user definitions so it can be reused.
+     * Engines whose reset fails are discarded instead of being returned to the pool.
+     *
+     * @param engine the engine previously obtained from {@link #borrow()}
+     */
+    public void release(MathEclipseEngine engine) {
+        if (engine == null || !activeEngines.remove(engine)) {
+            return;
+        }
+        try {
+            engine.reset();
+            engine.markReleased();
+            idleEngines.offerFirst(engine);
+            logger.debug("Released {}", engine);
+        } catch (RuntimeException ex) {
+            logger.warn("Discarding {} after failed reset: {}", engine, ex.getMessage());
+            discard(engine);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Evicts engines idle for longer than the configured timeout, keeping at least
+     * {@code minIdle} engines warm. The least recently used engines sit at the tail
+     * of the deque, so eviction walks it backwards.
+     */
+    void evictIdle() {
+        long now = System.nanoTime();
+        long idleTimeout = properties.getIdleTimeout().toNanos();
+        Iterator<MathEclipseEngine> iterator = idleEngines.descendingIterator();
+        while (iterator.hasNext() && idleEngines.size() > properties.getMinIdle()) {
+            MathEclipseEngine engine = iterator.next();
+            if (engine.idleNanos(now) < idleTimeout) {
+                break;
+            }
+            if (idleEngines.removeLastOccurrence(engine)) {
+                discard(engine);
+            }
+        }
+    }
+
+    /**
+     * Returns a snapshot of the pool state and counters.
+     *
+     * @return the current pool statistics
+     */
+    public MathEclipseEnginePoolStats stats() {
+        return new MathEclipseEnginePoolStats(
+                properties.getMaxSize(),
+                total.get(),
+                idleEngines.size(),
+                activeEngines.size(),
+                created.get(),
+                evicted.get(),
+                borrowed.get(),
+                timeouts.get(),
+                totalWaitNanos.get()
+        );
+    }
+
+    /**
+     * Stops the eviction task and drops every idle engine.
+     */
+    @Override
+    public void close() {
+        evictor.shutdownNow();
+        MathEclipseEngine engine;
+        while ((engine = idleEngines.pollFirst()) != null) {
+            discard(engine);
+        }
+        logger.info("MathEclipseEnginePool closed");
+    }
+
+    private MathEclipseEngine createEngine() {
+        int id = idSequence.getAndIncrement();
+        EvalEngine evalEngine = MathEclipseConfig.buildEvalEngine(
+                "engine-" + id,
+                properties.getRecursionLimit(),
+                properties.getIterationLimit()
+        );
+        MathEclipseEngine engine = new MathEclipseEngine(id, evalEngine, MathEclipseConfig.buildEvalUtilities(evalEngine));
+        total.incrementAndGet();
+        created.incrementAndGet();
+        logger.debug("Created {}", engine);
+        return engine;
+    }
+
+    private void discard(MathEclipseEngine engine) {
+        total.decrementAndGet();
+        evicted.incrementAndGet();
+        logger.debug("Discarded {}", engine);
+    }
+}
@@ -0,0 +1,41 @@
+package com.alephzero.alephzero.api.math.facade.symja.engine;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exposes the {@link MathEclipseEnginePool} statistics as Micrometer meters
+ * under the {@code math.engine.pool} prefix.
+ */
+@Component
+public class MathEclipseEnginePoolMetrics implements MeterBinder {
+
+    private final MathEclipseEnginePool pool;
+
+    public MathEclipseEnginePoolMetrics(MathEclipseEnginePool pool) {
+        this.pool = pool;
+    }
+
+    @Override
+    public void bindTo(@NotNull MeterRegistry registry) {
+        Gauge.builder("math.engine.pool.max", pool, p -> p.stats().maxSize()).register(registry);
+        Gauge.builder("math.engine.pool.total", pool, p -> p.stats().total()).register(registry);
+        Gauge.builder("math.engine.pool.idle", pool, p -> p.stats().idle()).register(registry);
+        Gauge.builder("math.engine.pool.active", pool, p -> p.stats().active()).register(registry);
+
+        FunctionCounter.builder("math.engine.pool.created", pool, p -> p.stats().created()).register(registry);
+        FunctionCounter.builder("math.engine.pool.evicted", pool, p -> p.stats().evicted()).register(registry);
+        FunctionCounter.builder("math.engine.pool.borrowed", pool, p -> p.stats().borrowed()).register(registry);
+        FunctionCounter.builder("math.engine.pool.timeouts", pool, p -> p.stats().timeouts()).register(registry);
+        FunctionCounter.builder("math.engine.pool.wait", pool,
+                        p -> (double) TimeUnit.NANOSECONDS.toMillis(p.stats().totalWaitNanos()))
+                .baseUnit("milliseconds")
+                .register(registry);
+    }
+}
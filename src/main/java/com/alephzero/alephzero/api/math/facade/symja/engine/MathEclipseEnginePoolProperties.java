@@ -0,0 +1,42 @@
+package com.alephzero.alephzero.api.math.facade.symja.engine;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the Symja engine pool.
+ * <p>
+ * This class is used to bind properties prefixed with "math.engine.pool" from the application properties file.
+ * Every field has a sensible default so the pool can also be built outside a Spring context.
+ * </p>
+ */
+@Setter
+@Getter
+@Configuration
+@ConfigurationProperties(prefix = "math.engine.pool")
+public class MathEclipseEnginePoolProperties {
+    /** Maximum number of engines alive at the same time. */
+    private int maxSize = Runtime.getRuntime().availableProcessors();
+
+    /** Number of idle engines that are never evicted. */
+    private int minIdle = 1;
+
+    /** Time an engine may stay idle before being evicted. */
+    private Duration idleTimeout = Duration.ofMinutes(5);
+
+    /** Interval between two idle eviction runs. */
+    private Duration evictionInterval = Duration.ofMinutes(1);
+
+    /** Maximum time a caller waits for a free engine before failing. */
+    private Duration borrowTimeout = Duration.ofSeconds(30);
+
+    /** Symja recursion limit for every engine of the pool. */
+    private int recursionLimit = 1000;
+
+    /** Symja iteration limit for every engine of the pool. */
+    private int iterationLimit = 1000;
+}
@@ -0,0 +1,26 @@
+package com.alephzero.alephzero.api.math.facade.symja.engine;
+
+/**
+ * Immutable snapshot of the {@link MathEclipseEnginePool} state and counters.
+ *
+ * @param maxSize        Maximum number of engines the pool may hold
+ * @param total          Engines currently alive (idle + active)
+ * @param idle           Engines waiting in the pool for a borrower
+ * @param active         Engines currently checked out
+ * @param created        Engines built since the pool started
+ * @param evicted        Engines discarded by idle eviction or failed resets
+ * @param borrowed       Successful check-outs since the pool started
+ * @param timeouts       Check-outs that gave up waiting for a free engine
+ * @param totalWaitNanos Accumulated time callers spent waiting for an engine
+ */
+public record MathEclipseEnginePoolStats(
+        int maxSize,
+        int total,
+        int idle,
+        int active,
+        long created,
+        long evicted,
+        long borrowed,
+        long timeouts,
+        long totalWaitNanos
+) {}
@@ -0,0 +1,149 @@
+package com.alephzero.alephzero.api.math.facade.symja.engine;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apfloat.Apcomplex;
+import org.apfloat.Apfloat;
+import org.apfloat.ApfloatMath;
+import org.matheclipse.core.expression.ApcomplexNum;
+import org.matheclipse.core.expression.ApfloatNum;
+import org.matheclipse.core.expression.F;
+import org.matheclipse.core.interfaces.IExpr;
+import org.matheclipse.parser.client.ParserConfig;
+
+import java.math.RoundingMode;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@code MathEclipseNumericCache} keeps, for each expression, the numeric value of highest precision computed
+ * so far by {@code N(expression, precision)}, and serves any lower precision by rounding it.
+ * <p>
+ * Arbitrary precision constants get expensive as the precision grows, while rounding an already computed value
+ * only costs a walk over its numbers: every arbitrary precision number is rounded half-even to the requested
+ * significant digits. Requests above the cached precision are computed and then replace the cached value.
+ * <p>
+ * Only precisions above {@link ParserConfig#MACHINE_PRECISION} are cached: below it Symja computes with machine
+ * doubles, which are cheap and printed in their own format.
+ */
+public class MathEclipseNumericCache {
+
+    private static final Logger logger = LogManager.getLogger(MathEclipseNumericCache.class);
+
+    private final Cache<String, Entry> values;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Creates a new numeric cache.
+     *
+     * @param properties the cache configuration
+     */
+    public MathEclipseNumericCache(MathEclipseNumericCacheProperties properties) {
+        this.values = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .build();
+        logger.info("MathEclipseNumericCache initialized with maximumSize={}", properties.getMaximumSize());
+    }
+
+    /**
+     * Returns whether values of the given precision are cached.
+     *
+     * @param precision the number of significant digits
+     * @return true if the precision is above machine precision
+     */
+    public static boolean isCacheable(int precision) {
+        return precision > ParserConfig.MACHINE_PRECISION;
+    }
+
+    /**
+     * Returns the value of an expression at the given precision, if a value of at least that precision is cached.
+     *
+     * @param source    the normalized source of the expression
+     * @param precision the number of significant digits
+     * @return the cached value rounded to {@code precision}, or empty if it must be computed
+     */
+    public Optional<IExpr> get(String source, int precision) {
+        if (!isCacheable(precision)) {
+            return Optional.empty();
+        }
+        Entry entry = values.getIfPresent(source);
+        if (entry == null || entry.precision() < precision) {
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of(entry.precision() == precision ? entry.value() : round(entry.value(), precision));
+    }
+
+    /**
+     * Offers a computed value, kept if it is more precise than the cached one.
+     * The value must be free of evaluation errors.
+     *
+     * @param source    the normalized source of the expression
+     * @param precision the number of significant digits it was computed with
+     * @param value     the computed value
+     */
+    public void put(String source, int precision, IExpr value) {
+        if (isCacheable(precision)) {
+            values.asMap().merge(source, new Entry(precision, value),
+                    (cached, computed) -> computed.precision() > cached.precision() ? computed : cached);
+        }
+    }
+
+    /**
+     * Returns the number of lookups served from a cached value.
+     *
+     * @return the hit count
+     */
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of lookups above machine precision that had to be computed.
+     *
+     * @return the miss count
+     */
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the approximate number of cached expressions.
+     *
+     * @return the number of cached expressions
+     */
+    public long size() {
+        return values.estimatedSize();
+    }
+
+    /**
+     * Rounds every arbitrary precision number of an expression to the given significant digits.
+     */
+    private static IExpr round(IExpr value, int precision) {
+        return value.replaceAll(expr -> {
+            if (expr instanceof ApfloatNum number) {
+                return F.num(round(number.apfloatValue(), precision));
+            }
+            if (expr instanceof ApcomplexNum number) {
+                Apcomplex complex = number.apcomplexValue();
+                return F.complexNum(new Apcomplex(round(complex.real(), precision), round(complex.imag(), precision)));
+            }
+            return F.NIL;
+        }).orElse(value);
+    }
+
+    private static Apfloat round(Apfloat value, int precision) {
+        return ApfloatMath.roundToPrecision(value, precision, RoundingMode.HALF_EVEN);
+    }
+
+    /**
+     * A cached value with the precision it was computed with.
+     */
+    private record Entry(int precision, IExpr value) {
+    }
+}
@@ -0,0 +1,30 @@
+package com.alephzero.alephzero.api.math.facade.symja.engine;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exposes the {@link MathEclipseNumericCache} statistics as Micrometer meters
+ * under the {@code math.numeric.cache} prefix.
+ */
+@Component
+public class MathEclipseNumericCacheMetrics implements MeterBinder {
+
+    private final MathEclipseNumericCache cache;
+
+    public MathEclipseNumericCacheMetrics(MathEclipseNumericCache cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public void bindTo(@NotNull MeterRegistry registry) {
+        Gauge.builder("math.numeric.cache.size", cache, MathEclipseNumericCache::size).register(registry);
+
+        FunctionCounter.builder("math.numeric.cache.hits", cache, MathEclipseNumericCache::hitCount).register(registry);
+        FunctionCounter.builder("math.numeric.cache.misses", cache, MathEclipseNumericCache::missCount).register(registry);
+    }
+}
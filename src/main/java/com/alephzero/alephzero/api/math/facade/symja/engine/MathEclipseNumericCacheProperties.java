@@ -0,0 +1,22 @@
+package com.alephzero.alephzero.api.math.facade.symja.engine;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for the cache of arbitrary precision numeric results.
+ * <p>
+ * This class is used to bind properties prefixed with "math.numeric-cache" from the application properties file.
+ * Every field has a sensible default so the cache can also be built outside a Spring context.
+ * </p>
+ */
+@Setter
+@Getter
+@Configuration
+@ConfigurationProperties(prefix = "math.numeric-cache")
+public class MathEclipseNumericCacheProperties {
+    /** Maximum number of expressions whose numeric value is kept in memory. */
+    private long maximumSize = 2_000;
+}
@@ -0,0 +1,166 @@
+package com.alephzero.alephzero.api.math.facade.symja.engine;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.matheclipse.core.eval.EvalEngine;
+import org.matheclipse.core.expression.F;
+import org.matheclipse.core.expression.S;
+import org.matheclipse.core.interfaces.IAST;
+import org.matheclipse.core.interfaces.IASTMutable;
+import org.matheclipse.core.interfaces.IExpr;
+import org.matheclipse.core.interfaces.ISymbol;
+
+/**
+ * {@code MathEclipseParseCache} is a bounded, concurrent cache of parsed Symja expressions keyed by their
+ * normalized source, shared by every engine of the {@link MathEclipseEnginePool}.
+ * <p>
+ * A parsed expression cannot simply be shared. User symbols such as {@code x} are objects of the symbolic
+ * context of the engine that parsed it and carry its definitions, and Symja marks the nodes it evaluates so that
+ * it does not evaluate them again. The cache therefore keeps every expression as a template that is never
+ * evaluated, and hands out a fresh copy of it on every hit with its user symbols rebound to the borrowing
+ * engine's context. Copying is a single tree walk, several times cheaper than parsing.
+ * <p>
+ * Assignments and compound expressions are parsed on every use and never cached, since they are written once
+ * and not evaluated again.
+ *
+ * @see MathEclipseEnginePool
+ */
+public class MathEclipseParseCache {
+
+    private static final Logger logger = LogManager.getLogger(MathEclipseParseCache.class);
+
+    private final MathEclipseEnginePool enginePool;
+    private final Cache<String, IExpr> templates;
+
+    /**
+     * Creates a new parse cache on top of the given engine pool.
+     *
+     * @param enginePool the pool used to parse expressions outside an evaluation
+     * @param properties the cache configuration
+     */
+    public MathEclipseParseCache(MathEclipseEnginePool enginePool, MathEclipseParseCacheProperties properties) {
+        this.enginePool = enginePool;
+        this.templates = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .recordStats()
+                .build();
+        logger.info("MathEclipseParseCache initialized with maximumSize={}", properties.getMaximumSize());
+    }
+
+    /**
+     * Normalizes an expression the way the facade does before evaluating it:
+     * whitespace is dropped and square brackets become parentheses.
+     *
+     * @param expression the raw expression
+     * @return the normalized source, used as cache key
+     */
+    public static String normalize(String expression) {
+        return expression.replaceAll("\\s+", "").replace('[', '(').replace(']', ')');
+    }
+
+    /**
+     * Parses the given raw expression on a pooled engine and caches it, so that its later evaluation
+     * does not parse it again. An expression already cached is known to parse and takes no engine.
+     *
+     * @param expression the raw expression
+     * @throws RuntimeException with the Symja syntax error if the expression cannot be parsed
+     */
+    public void prime(String expression) {
+        String source = normalize(expression);
+        if (templates.getIfPresent(source) != null) {
+            return;
+        }
+        enginePool.execute(engine -> parse(engine, source));
+    }
+
+    /**
+     * Returns the parsed form of an already normalized source, bound to the context of the given engine.
+     *
+     * @param engine the engine the expression will be evaluated on
+     * @param source the normalized source
+     * @return the parsed expression
+     */
+    public IExpr parse(MathEclipseEngine engine, String source) {
+        IExpr template = templates.getIfPresent(source);
+        if (template == null) {
+            IExpr parsed = engine.parse(source);
+            if (isReusable(parsed)) {
+                templates.put(source, instantiate(parsed, engine.getEvalEngine()));
+            }
+            return parsed;
+        }
+        return instantiate(template, engine.getEvalEngine());
+    }
+
+    /**
+     * Returns the parsed form of the given raw expression for inspection only, without evaluating it: the cached
+     * template when there is one, otherwise the expression is parsed on a pooled engine, and cached if reusable.
+     * <p>
+     * The returned expression is shared and must never be evaluated nor modified. Callers outside an engine call
+     * should go through the compute executor of the service layer, since a miss borrows an engine.
+     *
+     * @param expression the raw expression
+     * @return the parsed expression
+     * @throws RuntimeException with the Symja syntax error if the expression cannot be parsed
+     */
+    public IExpr inspect(String expression) {
+        String source = normalize(expression);
+        IExpr template = templates.getIfPresent(source);
+        if (template != null) {
+            return template;
+        }
+        return enginePool.execute(engine -> {
+            IExpr parsed = engine.parse(source);
+            if (isReusable(parsed)) {
+                IExpr created = instantiate(parsed, engine.getEvalEngine());
+                templates.put(source, created);
+                return created;
+            }
+            return parsed;
+        });
+    }
+
+    /**
+     * Returns a snapshot of the cache counters.
+     *
+     * @return the current cache statistics
+     */
+    public CacheStats stats() {
+        return templates.stats();
+    }
+
+    /**
+     * Returns the approximate number of cached expressions.
+     *
+     * @return the number of cached expressions
+     */
+    public long size() {
+        return templates.estimatedSize();
+    }
+
+    private static boolean isReusable(IExpr parsed) {
+        return !parsed.isAST(S.Set) && !parsed.isAST(S.SetDelayed) && !parsed.isAST(S.CompoundExpression);
+    }
+
+    /**
+     * Deep copies an expression, replacing every user symbol by the symbol of the same name in the engine's
+     * context. Numbers, strings and built-in symbols are immutable and shared as they are.
+     */
+    private static IExpr instantiate(IExpr expression, EvalEngine evalEngine) {
+        if (expression instanceof IAST ast) {
+            IExpr head = instantiate(ast.head(), evalEngine);
+            IASTMutable copy = head == ast.head() ? ast.copy() : ast.apply(head).copy();
+            for (int i = 1; i < ast.size(); i++) {
+                copy.set(i, instantiate(ast.get(i), evalEngine));
+            }
+            return copy;
+        }
+        if (expression.isSymbol() && !expression.isBuiltInSymbol()) {
+            return F.symbol(((ISymbol) expression).getSymbolName(), evalEngine);
+        }
+        return expression;
+    }
+}
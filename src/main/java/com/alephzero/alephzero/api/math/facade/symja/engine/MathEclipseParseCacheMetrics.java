@@ -0,0 +1,32 @@
+package com.alephzero.alephzero.api.math.facade.symja.engine;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exposes the {@link MathEclipseParseCache} statistics as Micrometer meters
+ * under the {@code math.parse.cache} prefix.
+ */
+@Component
+public class MathEclipseParseCacheMetrics implements MeterBinder {
+
+    private final MathEclipseParseCache cache;
+
+    public MathEclipseParseCacheMetrics(MathEclipseParseCache cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public void bindTo(@NotNull MeterRegistry registry) {
+        Gauge.builder("math.parse.cache.size", cache, MathEclipseParseCache::size).register(registry);
+        Gauge.builder("math.parse.cache.hit.ratio", cache, c -> c.stats().hitRate()).register(registry);
+
+        FunctionCounter.builder("math.parse.cache.hits", cache, c -> c.stats().hitCount()).register(registry);
+        FunctionCounter.builder("math.parse.cache.misses", cache, c -> c.stats().missCount()).register(registry);
+        FunctionCounter.builder("math.parse.cache.evictions", cache, c -> c.stats().evictionCount()).register(registry);
+    }
+}
@@ -0,0 +1,22 @@
+package com.alephzero.alephzero.api.math.facade.symja.engine;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for the shared Symja parse cache.
+ * <p>
+ * This class is used to bind properties prefixed with "math.parse-cache" from the application properties file.
+ * Every field has a sensible default so the cache can also be built outside a Spring context.
+ * </p>
+ */
+@Setter
+@Getter
+@Configuration
+@ConfigurationProperties(prefix = "math.parse-cache")
+public class MathEclipseParseCacheProperties {
+    /** Maximum number of parsed expressions kept in memory. */
+    private long maximumSize = 10_000;
+}
@@ -0,0 +1,119 @@
+package com.alephzero.alephzero.api.math.service.cache;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.info.BuildProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * {@code MathCacheConfig} builds the application {@link CacheManager}.
+ * <p>
+ * The in-memory caches named by {@code spring.cache.cache-names} share the byte budget configured under
+ * {@code math.cache.memory} (see {@link MathMemoryCacheManager}) and coalesce concurrent misses on the same key.
+ * When {@code math.cache.store.enabled} is set, the evaluation caches are additionally backed by a persistent
+ * {@link MathEvaluationStore} each, so their content survives restarts until the application or Symja is upgraded.
+ */
+@Configuration
+@EnableConfigurationProperties(CacheProperties.class)
+public class MathCacheConfig {
+
+    private static final Logger logger = LogManager.getLogger(MathCacheConfig.class);
+
+    private static final String SYMJA_POM = "/META-INF/maven/org.matheclipse/matheclipse-core/pom.properties";
+
+    /**
+     * Creates the manager of the in-memory caches, all sharing one byte budget.
+     *
+     * @param cacheProperties  the standard Spring cache configuration, for the cache names
+     * @param memoryProperties the memory budget and time to live configuration
+     * @return the in-memory cache manager
+     */
+    @Bean
+    public MathMemoryCacheManager mathMemoryCacheManager(CacheProperties cacheProperties,
+                                                         MathCacheMemoryProperties memoryProperties) {
+        logger.info("Evaluation caches share an in-memory budget of {}", memoryProperties.getMaxSize());
+        return new MathMemoryCacheManager(memoryProperties, cacheProperties.getCacheNames());
+    }
+
+    /**
+     * Creates the cache manager: single-flight in-memory caches, tiered over persistent stores if enabled.
+     *
+     * @param memory          the manager of the in-memory caches
+     * @param storeProperties the persistent store configuration
+     * @param buildProperties the build information, for the generation of the stored results
+     * @return the application cache manager
+     */
+    @Bean
+    @Primary
+    public CacheManager cacheManager(MathMemoryCacheManager memory, MathEvaluationStoreProperties storeProperties,
+                                     ObjectProvider<BuildProperties> buildProperties) {
+        Map<String, MathEvaluationStore> stores = new HashMap<>();
+        if (!storeProperties.isEnabled()) {
+            return new MathEvaluationCacheManager(memory, stores);
+        }
+
+        int capacity = (int) Math.min(storeProperties.getMaxSize().toBytes(), Integer.MAX_VALUE);
+        String generation = generation(storeProperties, buildProperties.getIfAvailable());
+        for (String cache : storeProperties.getCaches()) {
+            stores.put(cache, new MathEvaluationStore(
+                    storeProperties.getDirectory().resolve(cache + ".log"),
+                    capacity,
+                    generation
+            ));
+        }
+        logger.info("Evaluation caches {} backed by persistent stores in {}, generation {}",
+                storeProperties.getCaches(), storeProperties.getDirectory().toAbsolutePath(), generation);
+        return new MathEvaluationCacheManager(memory, stores);
+    }
+
+    /**
+     * Returns the configured generation, or the one derived from the application and Symja versions.
+     */
+    private static String generation(MathEvaluationStoreProperties storeProperties, BuildProperties build) {
+        if (storeProperties.getGeneration() != null && !storeProperties.getGeneration().isBlank()) {
+            return storeProperties.getGeneration();
+        }
+        if (build == null) {
+            logger.warn("No build information, stored evaluations are only discarded when Symja is upgraded");
+        }
+        return version(build) + "/symja-" + symjaVersion();
+    }
+
+    /**
+     * Returns the application version, with the build time for snapshots, whose code changes under one version.
+     */
+    private static String version(BuildProperties build) {
+        if (build == null) {
+            return "unknown";
+        }
+        if (build.getVersion().endsWith("-SNAPSHOT") && build.getTime() != null) {
+            return build.getVersion() + "+" + build.getTime().toEpochMilli();
+        }
+        return build.getVersion();
+    }
+
+    private static String symjaVersion() {
+        try (InputStream pom = MathCacheConfig.class.getResourceAsStream(SYMJA_POM)) {
+            if (pom != null) {
+                Properties properties = new Properties();
+                properties.load(pom);
+                return properties.getProperty("version", "unknown");
+            }
+        } catch (IOException e) {
+            logger.warn("Cannot read the Symja version: {}", e.getMessage());
+        }
+        return "unknown";
+    }
+}
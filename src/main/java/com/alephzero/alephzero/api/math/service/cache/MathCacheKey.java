@@ -0,0 +1,22 @@
+package com.alephzero.alephzero.api.math.service.cache;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * {@code MathCacheKey} is the compact key of every evaluation cache entry: the 128-bit hash of the
+ * canonical form of a cached call, as built by {@link MathCacheKeyGenerator}.
+ *
+ * @param high the upper 64 bits of the hash
+ * @param low  the lower 64 bits of the hash
+ */
+public record MathCacheKey(long high, long low) implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public String toString() {
+        return String.format("%016x%016x", high, low);
+    }
+}
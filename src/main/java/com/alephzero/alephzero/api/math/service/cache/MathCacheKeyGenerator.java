@@ -0,0 +1,113 @@
+package com.alephzero.alephzero.api.math.service.cache;
+
+import com.alephzero.alephzero.api.math.dto.request.MathDataDto;
+import com.alephzero.alephzero.api.math.facade.MathLibFacade;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * {@code MathCacheKeyGenerator} builds the keys of the {@code evaluate}, {@code calculate} and {@code draw} caches
+ * from the canonical form of the call instead of its raw arguments.
+ * <p>
+ * The expression is reduced to its {@link MathLibFacade#canonicalForm(String) canonical source}, so that
+ * {@code "x^2"}, {@code "x ^ 2"} and {@code "x^2 "} share one entry. Plain decimal domain bounds are compared by
+ * value, so {@code "-10"} and {@code "-10.0"} do too. The resulting description is hashed to a 128-bit
+ * {@link MathCacheKey}, which keeps every key the same small size whatever the length of the expression.
+ */
+@Component(MathCacheKeyGenerator.NAME)
+public class MathCacheKeyGenerator implements KeyGenerator {
+
+    /** Bean name to reference from {@code @Cacheable(keyGenerator = ...)}. */
+    public static final String NAME = "mathCacheKeyGenerator";
+
+    private static final char SEPARATOR = '\u001F'; // Never part of a valid expression
+
+    private final MathLibFacade<?> facade;
+
+    @Autowired
+    public MathCacheKeyGenerator(MathLibFacade<?> facade) {
+        this.facade = facade;
+    }
+
+    /**
+     * Builds the key of a cached call: the method name followed by its canonicalized arguments.
+     *
+     * @param target the cached service
+     * @param method the cached method
+     * @param params the call arguments
+     * @return the key of the call
+     */
+    @Override
+    public @NotNull Object generate(@NotNull Object target, Method method, Object @NotNull ... params) {
+        return generate(method.getName(), params);
+    }
+
+    /**
+     * Builds the key of an operation of the evaluation service, the same one its cache uses.
+     *
+     * @param operation the name of the operation: {@code evaluate}, {@code calculate} or {@code draw}
+     * @param params    the operation arguments
+     * @return the key of the operation
+     */
+    public MathCacheKey generate(String operation, Object... params) {
+        StringBuilder canonical = new StringBuilder(operation);
+        for (Object param : params) {
+            canonical.append(SEPARATOR);
+            switch (param) {
+                case String expression -> canonical.append(facade.canonicalForm(expression));
+                case MathDataDto data -> appendData(canonical, operation, data);
+                case null -> canonical.append("null");
+                default -> canonical.append(param);
+            }
+        }
+        return hash(canonical);
+    }
+
+    /**
+     * Appends only the data the given method depends on, so that unrelated fields never split an entry.
+     */
+    private void appendData(StringBuilder canonical, String method, MathDataDto data) {
+        switch (method) {
+            case "calculate" -> canonical.append(data.decimals());
+            case "draw" -> canonical.append(canonicalBound(data.origin()))
+                    .append(SEPARATOR).append(canonicalBound(data.bound()))
+                    .append(SEPARATOR).append(data.pointBudget());
+            default -> canonical.append(data);
+        }
+    }
+
+    /**
+     * Returns plain decimal bounds by value and any other bound by its canonical source.
+     */
+    private String canonicalBound(String bound) {
+        if (bound == null) {
+            return "null";
+        }
+        try {
+            BigDecimal value = new BigDecimal(bound.trim()).stripTrailingZeros();
+            return value.signum() == 0 ? "0" : value.toPlainString();
+        } catch (NumberFormatException e) {
+            return facade.canonicalForm(bound);
+        }
+    }
+
+    private static MathCacheKey hash(CharSequence canonical) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5")
+                    .digest(canonical.toString().getBytes(StandardCharsets.UTF_8));
+            ByteBuffer buffer = ByteBuffer.wrap(digest);
+            return new MathCacheKey(buffer.getLong(), buffer.getLong());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 is required by every Java platform", e);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.alephzero.alephzero.api.math.service.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the in-memory evaluation caches.
+ * <p>
+ * This class is used to bind properties prefixed with "math.cache.memory" from the application properties file.
+ * </p>
+ */
+@Setter
+@Getter
+@Configuration
+@ConfigurationProperties(prefix = "math.cache.memory")
+public class MathCacheMemoryProperties {
+    /** Estimated retained bytes shared by every in-memory cache. */
+    private DataSize maxSize = DataSize.ofMegabytes(64);
+
+    /** Time to live of entries that were cheap to compute. */
+    private Duration minTimeToLive = Duration.ofMinutes(2);
+
+    /** Time to live of entries that took at least {@link #expensiveThreshold} to compute. */
+    private Duration maxTimeToLive = Duration.ofHours(1);
+
+    /** Compute time from which an entry gets the longest time to live; cheaper entries get a proportional share. */
+    private Duration expensiveThreshold = Duration.ofMillis(50);
+
+    /** Share of {@link #maxSize} reserved for entries that took at least {@link #expensiveThreshold} to compute. */
+    private double expensiveShare = 0.5;
+}
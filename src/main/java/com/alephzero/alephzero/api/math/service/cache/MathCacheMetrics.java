@@ -0,0 +1,57 @@
+package com.alephzero.alephzero.api.math.service.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exposes the statistics of every evaluation cache as Micrometer meters under the {@code math.cache} prefix,
+ * tagged with the cache name, along with the shared memory budget.
+ */
+@Component
+public class MathCacheMetrics implements MeterBinder {
+
+    private final MathMemoryCacheManager memory;
+    private final CacheManager cacheManager;
+
+    public MathCacheMetrics(MathMemoryCacheManager memory, CacheManager cacheManager) {
+        this.memory = memory;
+        this.cacheManager = cacheManager;
+    }
+
+    @Override
+    public void bindTo(@NotNull MeterRegistry registry) {
+        Gauge.builder("math.cache.memory.budget", memory, MathMemoryCacheManager::getMaxWeight)
+                .baseUnit("bytes").register(registry);
+        Gauge.builder("math.cache.memory.used", memory, MathMemoryCacheManager::getWeight)
+                .baseUnit("bytes").register(registry);
+
+        for (String name : memory.getCacheNames()) {
+            MathMemoryCache cache = memory.getCache(name);
+            Tags tags = Tags.of("cache", name);
+
+            FunctionCounter.builder("math.cache.gets", cache, c -> c.stats().hits())
+                    .tags(tags).tag("result", "hit").register(registry);
+            FunctionCounter.builder("math.cache.gets", cache, c -> c.stats().misses())
+                    .tags(tags).tag("result", "miss").register(registry);
+            FunctionCounter.builder("math.cache.evictions", cache, c -> c.stats().evictions())
+                    .tags(tags).register(registry);
+            Gauge.builder("math.cache.size", cache, c -> c.stats().size()).tags(tags).register(registry);
+            Gauge.builder("math.cache.weight", cache, c -> c.stats().weight())
+                    .tags(tags).baseUnit("bytes").register(registry);
+            Gauge.builder("math.cache.hit.ratio", cache, c -> c.stats().hitRatio()).tags(tags).register(registry);
+
+            Cache managed = cacheManager.getCache(name);
+            if (managed instanceof MathSingleFlightCache singleFlight) {
+                FunctionCounter.builder("math.cache.coalesced", singleFlight, MathSingleFlightCache::coalescedCount)
+                        .tags(tags).register(registry);
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.alephzero.alephzero.api.math.service.cache;
+
+import com.alephzero.alephzero.api.math.facade.MathExpressionEvaluation;
+import com.alephzero.alephzero.api.math.facade.draw.PlotCurve;
+
+import java.util.List;
+
+/**
+ * {@code MathCacheWeigher} estimates the bytes retained by a cache entry.
+ * <p>
+ * The estimate follows the usual 64-bit layout with compressed references and compact strings; it only needs to be
+ * proportional to the real footprint, so that a large plot counts for what it holds next to a short symbolic result.
+ */
+public final class MathCacheWeigher {
+
+    private static final int ENTRY_OVERHEAD = 96;   // Cache node, slot, key and value wrapper
+    private static final int OBJECT_HEADER = 16;
+    private static final int STRING_OVERHEAD = 40;  // String object plus its byte array header
+    private static final int ARRAY_OVERHEAD = 16;
+    private static final int REFERENCE = 4;
+
+    private MathCacheWeigher() {
+    }
+
+    /**
+     * Estimates the bytes retained by one entry.
+     *
+     * @param value the cached value
+     * @return the estimated size in bytes, at least 1
+     */
+    public static int weigh(Object value) {
+        long bytes = ENTRY_OVERHEAD;
+        if (value instanceof MathExpressionEvaluation evaluation) {
+            bytes += OBJECT_HEADER + 3L * REFERENCE;
+            bytes += weigh(evaluation.getExpressionEvaluated());
+            bytes += evaluation.getEvaluationProblems().map(MathCacheWeigher::weigh).orElse(0L);
+            bytes += evaluation.getPlot().map(MathCacheWeigher::weigh).orElse(0L);
+        } else if (value instanceof String string) {
+            bytes += weigh(string);
+        } else if (value != null) {
+            bytes += OBJECT_HEADER;
+        }
+        return (int) Math.min(Math.max(bytes, 1), Integer.MAX_VALUE);
+    }
+
+    private static long weigh(String string) {
+        return string == null ? 0 : STRING_OVERHEAD + string.length();
+    }
+
+    private static long weigh(List<String> strings) {
+        long bytes = OBJECT_HEADER + ARRAY_OVERHEAD + (long) strings.size() * REFERENCE;
+        for (String string : strings) {
+            bytes += weigh(string);
+        }
+        return bytes;
+    }
+
+    private static long weigh(PlotCurve plot) {
+        long bytes = OBJECT_HEADER + ARRAY_OVERHEAD;
+        for (PlotCurve.Segment segment : plot.getSegments()) {
+            bytes += OBJECT_HEADER + REFERENCE + 2L * (ARRAY_OVERHEAD + 8L * segment.size());
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,18 @@
+package com.alephzero.alephzero.api.math.service.cache;
+
+import org.springframework.cache.Cache;
+
+/**
+ * {@code MathCostAwareCache} is a {@link Cache} that takes into account how long each entry took to compute.
+ */
+public interface MathCostAwareCache extends Cache {
+
+    /**
+     * Associates a freshly computed value with the given key.
+     *
+     * @param key          the cache key
+     * @param value        the computed value
+     * @param computeNanos how long the value took to compute, in nanoseconds
+     */
+    void put(Object key, Object value, long computeNanos);
+}
@@ -0,0 +1,62 @@
+package com.alephzero.alephzero.api.math.service.cache;
+
+import org.jetbrains.annotations.NotNull;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@code MathEvaluationCacheManager} decorates a {@link CacheManager} of in-memory caches for evaluation results.
+ * <p>
+ * Every cache is wrapped in a {@link MathSingleFlightCache}, so concurrent misses on one key run a single
+ * evaluation. Caches with a {@link MathEvaluationStore} are also served as {@link MathTieredCache tiered caches}.
+ */
+public class MathEvaluationCacheManager implements CacheManager, AutoCloseable {
+
+    private final CacheManager delegate;
+    private final Map<String, MathEvaluationStore> stores;
+    private final Map<String, Cache> caches = new ConcurrentHashMap<>();
+
+    /**
+     * Creates an evaluation cache manager.
+     *
+     * @param delegate the manager of the in-memory caches
+     * @param stores   the persistent store of each tiered cache, by cache name; may be empty
+     */
+    public MathEvaluationCacheManager(CacheManager delegate, Map<String, MathEvaluationStore> stores) {
+        this.delegate = delegate;
+        this.stores = Map.copyOf(stores);
+    }
+
+    @Override
+    public Cache getCache(@NotNull String name) {
+        Cache cached = caches.get(name);
+        if (cached != null) {
+            return cached;
+        }
+        Cache local = delegate.getCache(name);
+        if (local == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, n -> {
+            MathEvaluationStore store = stores.get(n);
+            return new MathSingleFlightCache(store == null ? local : new MathTieredCache(local, store));
+        });
+    }
+
+    @Override
+    public @NotNull Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+
+    /**
+     * Flushes and closes every persistent store.
+     */
+    @Override
+    public void close() {
+        stores.values().forEach(MathEvaluationStore::close);
+    }
+}
@@ -0,0 +1,107 @@
+package com.alephzero.alephzero.api.math.service.cache;
+
+import com.alephzero.alephzero.api.math.enums.computation.MathDrawingFormat;
+import com.alephzero.alephzero.api.math.facade.MathExpressionEvaluation;
+import com.alephzero.alephzero.api.math.facade.draw.PlotCurve;
+import com.alephzero.alephzero.api.math.facade.draw.PlotCurveEncoder;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@code MathEvaluationCodec} converts evaluations to and from the compact binary form kept by the
+ * {@link MathEvaluationStore}.
+ * <p>
+ * Layout, big-endian:
+ * <pre>
+ * u8  version            (1)
+ * str expressionEvaluated
+ * u32 problemCount, then one str per problem
+ * u32 plotBytes          (0 without plot), then the plot as written by {@link PlotCurveEncoder} in FLOAT64
+ * </pre>
+ * where {@code str} is a u32 byte length followed by UTF-8 bytes, or -1 for {@code null}.
+ */
+public final class MathEvaluationCodec {
+
+    private static final byte VERSION = 1;
+
+    private MathEvaluationCodec() {
+    }
+
+    /**
+     * Encodes an evaluation.
+     *
+     * @param evaluation the evaluation to encode
+     * @return the encoded evaluation
+     */
+    public static byte[] encode(MathExpressionEvaluation evaluation) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            writeString(out, evaluation.getExpressionEvaluated());
+            List<String> problems = evaluation.getEvaluationProblems().orElse(List.of());
+            out.writeInt(problems.size());
+            for (String problem : problems) {
+                writeString(out, problem);
+            }
+            byte[] plot = evaluation.getPlot()
+                    .map(curve -> PlotCurveEncoder.encode(curve, MathDrawingFormat.FLOAT64))
+                    .orElse(new byte[0]);
+            out.writeInt(plot.length);
+            out.write(plot);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes an evaluation written by {@link #encode(MathExpressionEvaluation)}.
+     *
+     * @param encoded the encoded evaluation
+     * @return the decoded evaluation
+     * @throws IllegalArgumentException if the data was not written by this codec
+     */
+    public static MathStoredEvaluation decode(byte[] encoded) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(encoded))) {
+            if (in.readByte() != VERSION) {
+                throw new IllegalArgumentException("Unsupported stored evaluation version");
+            }
+            String expression = readString(in);
+            int problemCount = in.readInt();
+            List<String> problems = new ArrayList<>(problemCount);
+            for (int i = 0; i < problemCount; i++) {
+                problems.add(readString(in));
+            }
+            byte[] plot = in.readNBytes(in.readInt());
+            PlotCurve curve = plot.length == 0 ? null : PlotCurveEncoder.decode(plot);
+            return new MathStoredEvaluation(expression, problems, curve);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Truncated stored evaluation", e);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = in.readNBytes(length);
+        if (bytes.length != length) {
+            throw new EOFException();
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
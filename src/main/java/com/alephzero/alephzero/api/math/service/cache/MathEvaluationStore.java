@@ -0,0 +1,355 @@
+package com.alephzero.alephzero.api.math.service.cache;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+/**
+ * {@code MathEvaluationStore} is a persistent, size-capped key-value store for encoded evaluations, backed by a
+ * single memory-mapped, append-only log file.
+ * <p>
+ * Every entry is appended as a record; an in-heap index maps each key to the position of its value and is rebuilt
+ * by scanning the log when the store is opened, so the store is warm right after a restart. Layout:
+ * <pre>
+ * file header:  u32 magic, u32 format version, u32 generation hash, u32 reserved
+ * record:       u32 value length, u32 CRC-32 of key and value, u64 key high, u64 key low, value
+ * </pre>
+ * The file is mapped at its full capacity up front and the unused tail stays zero, so the scan stops at the first
+ * empty or damaged record: a record torn by a crash is simply dropped. A file written with another generation
+ * (for example by another version of the math library) is discarded instead of being read.
+ * <p>
+ * Evaluations are deterministic, so an entry is never rewritten. When the log is full it is compacted: the live
+ * records are copied to a new file, newest first, up to half of the capacity, and older entries are dropped.
+ * <p>
+ * The index lives in the heap of a single process, so the store holds an exclusive lock on a {@code .lock} file
+ * next to the log while open: a second instance pointed at the same directory fails to start instead of
+ * overwriting records the first one has indexed.
+ */
+public class MathEvaluationStore implements AutoCloseable {
+
+    private static final Logger logger = LogManager.getLogger(MathEvaluationStore.class);
+
+    private static final int MAGIC = 0x41304C32; // "A0L2"
+    private static final int FORMAT_VERSION = 1;
+    private static final int FILE_HEADER_BYTES = 16;
+    private static final int RECORD_HEADER_BYTES = 2 * Integer.BYTES + 2 * Long.BYTES;
+
+    private final Path file;
+    private final int capacity;
+    private final int generation;
+
+    private final Map<MathCacheKey, Location> index = new ConcurrentHashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock(); // Write lock guards appends and remaps
+
+    private FileChannel lockChannel;
+    private FileLock fileLock;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int writePosition;
+
+    /**
+     * Opens the store at the given file, creating it if needed, and indexes every valid record it holds.
+     *
+     * @param file       the log file
+     * @param capacity   the maximum size of the log file in bytes
+     * @param generation identifies the producer of the stored values; a file of another generation is discarded
+     * @throws UncheckedIOException if the file cannot be opened
+     * @throws IllegalStateException if the file is already open in another store, of this or another process
+     */
+    public MathEvaluationStore(Path file, int capacity, String generation) {
+        if (capacity < FILE_HEADER_BYTES * 2) {
+            throw new IllegalArgumentException("Store capacity too small: " + capacity);
+        }
+        this.file = file;
+        this.capacity = capacity;
+        this.generation = generation.hashCode();
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            lock();
+            open();
+        } catch (IOException e) {
+            unlock();
+            throw new UncheckedIOException("Cannot open evaluation store " + file, e);
+        }
+        logger.info("MathEvaluationStore {} opened with {} entries, {} of {} bytes used",
+                file, index.size(), writePosition, capacity);
+    }
+
+    /**
+     * Returns the value stored under the given key.
+     *
+     * @param key the entry key
+     * @return a copy of the stored value, or {@code null} if there is none
+     */
+    public byte[] get(MathCacheKey key) {
+        lock.readLock().lock();
+        try {
+            Location location = index.get(key);
+            if (location == null) {
+                return null;
+            }
+            byte[] value = new byte[location.length()];
+            buffer.get(location.offset(), value);
+            return value;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Stores a value under the given key, unless the key is already stored.
+     * Values larger than half of the capacity are not stored.
+     *
+     * @param key   the entry key
+     * @param value the value to store
+     * @return true if the value was stored
+     */
+    public boolean put(MathCacheKey key, byte[] value) {
+        int recordBytes = RECORD_HEADER_BYTES + value.length;
+        if (recordBytes > (capacity - FILE_HEADER_BYTES) / 2 || index.containsKey(key)) {
+            return false;
+        }
+        lock.writeLock().lock();
+        try {
+            if (index.containsKey(key)) {
+                return false;
+            }
+            if (writePosition + recordBytes > capacity) {
+                compact();
+            }
+            index.put(key, writeRecord(buffer, writePosition, key, value));
+            writePosition += recordBytes;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Forgets the entry stored under the given key. Its bytes are reclaimed by the next compaction.
+     *
+     * @param key the entry key
+     */
+    public void remove(MathCacheKey key) {
+        index.remove(key);
+    }
+
+    /**
+     * Removes every entry and truncates the log.
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            index.clear();
+            replaceWith(List.of());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of stored entries.
+     *
+     * @return the entry count
+     */
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * Returns the number of log bytes in use, including the bytes of removed entries not compacted yet.
+     *
+     * @return the used bytes
+     */
+    public int usedBytes() {
+        return writePosition;
+    }
+
+    /**
+     * Flushes the log to disk and closes it.
+     */
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            buffer.force();
+            channel.close();
+            logger.info("MathEvaluationStore {} closed with {} entries", file, index.size());
+        } catch (IOException e) {
+            logger.warn("Error closing evaluation store {}: {}", file, e.getMessage());
+        } finally {
+            unlock();
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Takes the exclusive lock of the log. It guards a file of its own, since compaction replaces the log file.
+     */
+    private void lock() throws IOException {
+        lockChannel = FileChannel.open(file.resolveSibling(file.getFileName() + ".lock"),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try {
+            fileLock = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            fileLock = null;
+        }
+        if (fileLock == null) {
+            lockChannel.close();
+            lockChannel = null;
+            throw new IllegalStateException("Evaluation store " + file + " is already in use by another instance");
+        }
+    }
+
+    private void unlock() {
+        if (lockChannel == null) {
+            return;
+        }
+        try {
+            lockChannel.close(); // Releases the lock
+        } catch (IOException e) {
+            logger.warn("Error releasing the lock of evaluation store {}: {}", file, e.getMessage());
+        }
+        lockChannel = null;
+        fileLock = null;
+    }
+
+    private void open() throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(capacity, channel.size()));
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION || buffer.getInt(8) != generation) {
+            if (buffer.getInt(0) != 0) {
+                logger.info("Discarding evaluation store {} written by another generation", file);
+            }
+            channel.close();
+            channel = createLog(file);
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+            writePosition = FILE_HEADER_BYTES;
+            return;
+        }
+        writePosition = recover();
+    }
+
+    /**
+     * Indexes every valid record from the start of the log and returns the position right after the last one.
+     */
+    private int recover() {
+        int position = FILE_HEADER_BYTES;
+        int limit = buffer.capacity();
+        CRC32 crc = new CRC32();
+        while (position + RECORD_HEADER_BYTES <= limit) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || length > limit - position - RECORD_HEADER_BYTES) {
+                break;
+            }
+            crc.reset();
+            crc.update(buffer.slice(position + 2 * Integer.BYTES, 2 * Long.BYTES + length));
+            if ((int) crc.getValue() != buffer.getInt(position + Integer.BYTES)) {
+                logger.warn("Evaluation store {} has a damaged record at {}, dropping the rest", file, position);
+                break;
+            }
+            MathCacheKey key = new MathCacheKey(buffer.getLong(position + 8), buffer.getLong(position + 16));
+            index.put(key, new Location(position + RECORD_HEADER_BYTES, length));
+            position += RECORD_HEADER_BYTES + length;
+        }
+        // Clear whatever follows the last valid record so the next scan stops there too
+        for (int i = position; i < Math.min(limit, position + RECORD_HEADER_BYTES); i++) {
+            buffer.put(i, (byte) 0);
+        }
+        return position;
+    }
+
+    /**
+     * Rewrites the log with its newest live entries, up to half of the capacity.
+     */
+    private void compact() {
+        List<Map.Entry<MathCacheKey, Location>> live = index.entrySet().stream()
+                .sorted(Comparator.comparingInt((Map.Entry<MathCacheKey, Location> e) -> e.getValue().offset()).reversed())
+                .toList();
+        int budget = (capacity - FILE_HEADER_BYTES) / 2;
+        int kept = 0;
+        int keptBytes = 0;
+        while (kept < live.size() && keptBytes + RECORD_HEADER_BYTES + live.get(kept).getValue().length() <= budget) {
+            keptBytes += RECORD_HEADER_BYTES + live.get(kept).getValue().length();
+            kept++;
+        }
+        logger.info("Compacting evaluation store {}: keeping {} of {} entries", file, kept, live.size());
+        replaceWith(live.subList(0, kept).reversed());
+    }
+
+    /**
+     * Replaces the log by a new one holding the given entries of the current log, in the given order.
+     */
+    private void replaceWith(List<Map.Entry<MathCacheKey, Location>> entries) {
+        Path compacted = file.resolveSibling(file.getFileName() + ".compact");
+        try (FileChannel target = createLog(compacted)) {
+            MappedByteBuffer targetBuffer = target.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+            Map<MathCacheKey, Location> moved = new HashMap<>();
+            int position = FILE_HEADER_BYTES;
+            for (Map.Entry<MathCacheKey, Location> entry : entries) {
+                byte[] value = new byte[entry.getValue().length()];
+                buffer.get(entry.getValue().offset(), value);
+                moved.put(entry.getKey(), writeRecord(targetBuffer, position, entry.getKey(), value));
+                position += RECORD_HEADER_BYTES + value.length;
+            }
+            targetBuffer.force();
+
+            channel.close();
+            Files.move(compacted, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+            index.clear();
+            index.putAll(moved);
+            writePosition = position;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot rewrite evaluation store " + file, e);
+        }
+    }
+
+    private FileChannel createLog(Path path) throws IOException {
+        FileChannel log = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_BYTES)
+                .putInt(MAGIC).putInt(FORMAT_VERSION).putInt(generation).putInt(0)
+                .flip();
+        log.write(header, 0);
+        return log;
+    }
+
+    private static Location writeRecord(ByteBuffer target, int position, MathCacheKey key, byte[] value) {
+        int keyPosition = position + 2 * Integer.BYTES;
+        target.putLong(keyPosition, key.high())
+                .putLong(keyPosition + Long.BYTES, key.low())
+                .put(position + RECORD_HEADER_BYTES, value);
+        CRC32 crc = new CRC32();
+        crc.update(target.slice(keyPosition, 2 * Long.BYTES + value.length));
+        // The length goes last: until it is written the record reads as the end of the log
+        target.putInt(position + Integer.BYTES, (int) crc.getValue())
+                .putInt(position, value.length);
+        return new Location(position + RECORD_HEADER_BYTES, value.length);
+    }
+
+    /**
+     * Position and length of a stored value in the log.
+     */
+    private record Location(int offset, int length) {
+    }
+}
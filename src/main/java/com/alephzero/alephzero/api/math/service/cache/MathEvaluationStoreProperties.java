@@ -0,0 +1,40 @@
+package com.alephzero.alephzero.api.math.service.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Configuration properties for the persistent second-level evaluation cache.
+ * <p>
+ * This class is used to bind properties prefixed with "math.cache.store" from the application properties file.
+ * </p>
+ */
+@Setter
+@Getter
+@Configuration
+@ConfigurationProperties(prefix = "math.cache.store")
+public class MathEvaluationStoreProperties {
+    /** Whether evaluation caches are backed by a persistent store. */
+    private boolean enabled = false;
+
+    /** Directory holding one log file per cache. */
+    private Path directory = Path.of("cache");
+
+    /** Maximum size of the log file of each cache. */
+    private DataSize maxSize = DataSize.ofMegabytes(256);
+
+    /**
+     * Identifies the code that produced the stored results. Unset, it is derived from the application build version
+     * and the Symja version, so that an upgrade of either discards the stored results.
+     */
+    private String generation;
+
+    /** Caches backed by a persistent store. */
+    private List<String> caches = List.of("evaluate", "calculate", "draw");
+}
@@ -0,0 +1,142 @@
+package com.alephzero.alephzero.api.math.service.cache;
+
+import org.jetbrains.annotations.NotNull;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@code MathMemoryCache} is one named view over the byte budget shared by every in-memory evaluation cache.
+ * <p>
+ * Entries of every view compete for the same byte budget, and each entry remembers how long it took to compute so
+ * that expensive results are protected from eviction and outlive cheap ones. Hits, misses and evictions are counted
+ * per view.
+ *
+ * @see MathMemoryCacheManager
+ */
+public class MathMemoryCache implements MathCostAwareCache {
+
+    private final String name;
+    private final MathMemoryCacheManager manager;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    MathMemoryCache(String name, MathMemoryCacheManager manager) {
+        this.name = name;
+        this.manager = manager;
+    }
+
+    @Override
+    public @NotNull String getName() {
+        return name;
+    }
+
+    @Override
+    public @NotNull Object getNativeCache() {
+        return manager;
+    }
+
+    @Override
+    public ValueWrapper get(@NotNull Object key) {
+        Entry entry = manager.lookup(new Slot(name, key));
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return new SimpleValueWrapper(entry.value());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(@NotNull Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper == null ? null : wrapper.get();
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(@NotNull Object key, @NotNull Callable<T> valueLoader) {
+        boolean[] loaded = {false};
+        Entry entry = manager.load(new Slot(name, key), slot -> {
+            loaded[0] = true;
+            long start = System.nanoTime();
+            try {
+                return Entry.of(valueLoader.call(), System.nanoTime() - start);
+            } catch (Exception e) {
+                throw new ValueRetrievalException(key, valueLoader, e);
+            }
+        });
+        (loaded[0] ? misses : hits).increment();
+        return (T) entry.value();
+    }
+
+    @Override
+    public void put(@NotNull Object key, Object value) {
+        put(key, value, 0);
+    }
+
+    @Override
+    public void put(Object key, Object value, long computeNanos) {
+        manager.store(new Slot(name, key), Entry.of(value, computeNanos));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(@NotNull Object key, Object value) {
+        Entry existing = manager.storeIfAbsent(new Slot(name, key), Entry.of(value, 0));
+        return existing == null ? null : new SimpleValueWrapper(existing.value());
+    }
+
+    @Override
+    public void evict(@NotNull Object key) {
+        manager.invalidate(new Slot(name, key));
+    }
+
+    @Override
+    public void clear() {
+        manager.removeIf(slot -> slot.cache().equals(name));
+    }
+
+    /**
+     * Returns a snapshot of the statistics of this view.
+     *
+     * @return the current statistics
+     */
+    public MathMemoryCacheStats stats() {
+        long size = 0;
+        long weight = 0;
+        for (var mapping : manager.entries().toList()) {
+            if (mapping.getKey().cache().equals(name)) {
+                size++;
+                weight += mapping.getValue().weight();
+            }
+        }
+        return new MathMemoryCacheStats(hits.sum(), misses.sum(), evictions.sum(), size, weight);
+    }
+
+    void recordEviction() {
+        evictions.increment();
+    }
+
+    /**
+     * Key of an entry in the shared cache: the view it belongs to and its key in that view.
+     */
+    record Slot(String cache, Object key) {
+    }
+
+    /**
+     * Value of an entry in the shared cache, with the figures that drive its eviction.
+     */
+    record Entry(Object value, int weight, long computeNanos) {
+        static Entry of(Object value, long computeNanos) {
+            return new Entry(value, MathCacheWeigher.weigh(value), computeNanos);
+        }
+    }
+}
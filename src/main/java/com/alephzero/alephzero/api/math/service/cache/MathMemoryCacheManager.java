@@ -0,0 +1,211 @@
+package com.alephzero.alephzero.api.math.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * {@code MathMemoryCacheManager} manages the in-memory evaluation caches as views of a single byte budget.
+ * <p>
+ * Entries of every view are weighed by their estimated retained bytes ({@link MathCacheWeigher}) rather than
+ * counted, so a large plot takes the room it really uses. The budget is split in two Caffeine caches: entries that
+ * took {@code expensiveThreshold} or more to compute go to a protected segment holding {@code expensiveShare} of
+ * it, every other entry to the general segment. Each segment evicts only its own entries, so a burst of cheap
+ * results can never push an expensive one out; under pressure the cheap entries are the first to go.
+ * <p>
+ * Each entry also lives longer the more it took to compute, from {@code minTimeToLive} for instant results up to
+ * {@code maxTimeToLive} for expensive ones.
+ * <p>
+ * When cache names are configured the set of caches is fixed, otherwise caches are created on first use.
+ */
+public class MathMemoryCacheManager implements CacheManager {
+
+    private final Cache<MathMemoryCache.Slot, MathMemoryCache.Entry> general;
+    private final Cache<MathMemoryCache.Slot, MathMemoryCache.Entry> expensive;
+    private final Map<String, MathMemoryCache> caches = new ConcurrentHashMap<>();
+    private final boolean dynamic;
+    private final long maxWeight;
+    private final long expensiveNanos;
+
+    /**
+     * Creates the in-memory cache manager.
+     *
+     * @param properties the memory budget and time to live configuration
+     * @param cacheNames the fixed cache names, or an empty list to create caches on demand
+     */
+    public MathMemoryCacheManager(MathCacheMemoryProperties properties, List<String> cacheNames) {
+        this.maxWeight = properties.getMaxSize().toBytes();
+        this.expensiveNanos = Math.max(1, properties.getExpensiveThreshold().toNanos());
+        long expensiveWeight = (long) (maxWeight * Math.clamp(properties.getExpensiveShare(), 0.0, 1.0));
+        this.general = segment(properties, maxWeight - expensiveWeight);
+        this.expensive = segment(properties, expensiveWeight);
+        this.dynamic = cacheNames.isEmpty();
+        cacheNames.forEach(name -> caches.put(name, new MathMemoryCache(name, this)));
+    }
+
+    @Override
+    public MathMemoryCache getCache(@NotNull String name) {
+        MathMemoryCache cache = caches.get(name);
+        if (cache == null && dynamic) {
+            cache = caches.computeIfAbsent(name, n -> new MathMemoryCache(n, this));
+        }
+        return cache;
+    }
+
+    @Override
+    public @NotNull Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    /**
+     * Returns the memory budget shared by every cache.
+     *
+     * @return the maximum estimated retained bytes
+     */
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+
+    /**
+     * Returns the estimated bytes retained by every cache together.
+     *
+     * @return the current total weight
+     */
+    public long getWeight() {
+        return weight(general) + weight(expensive);
+    }
+
+    /**
+     * Performs the pending maintenance of the shared cache, such as evictions.
+     */
+    public void cleanUp() {
+        general.cleanUp();
+        expensive.cleanUp();
+    }
+
+    MathMemoryCache.Entry lookup(MathMemoryCache.Slot slot) {
+        MathMemoryCache.Entry entry = general.getIfPresent(slot);
+        return entry != null ? entry : expensive.getIfPresent(slot);
+    }
+
+    /**
+     * Returns the entry of the slot, loading it in the general segment if absent and moving it to the protected
+     * one once its compute time is known to be expensive.
+     */
+    MathMemoryCache.Entry load(MathMemoryCache.Slot slot,
+                               Function<MathMemoryCache.Slot, MathMemoryCache.Entry> loader) {
+        MathMemoryCache.Entry entry = expensive.getIfPresent(slot);
+        if (entry != null) {
+            return entry;
+        }
+        entry = general.get(slot, loader);
+        if (isExpensive(entry)) {
+            expensive.put(slot, entry);
+            general.asMap().remove(slot, entry);
+        }
+        return entry;
+    }
+
+    void store(MathMemoryCache.Slot slot, MathMemoryCache.Entry entry) {
+        segmentOf(entry).put(slot, entry);
+        otherSegment(entry).invalidate(slot);
+    }
+
+    MathMemoryCache.Entry storeIfAbsent(MathMemoryCache.Slot slot, MathMemoryCache.Entry entry) {
+        MathMemoryCache.Entry existing = otherSegment(entry).getIfPresent(slot);
+        return existing != null ? existing : segmentOf(entry).asMap().putIfAbsent(slot, entry);
+    }
+
+    void invalidate(MathMemoryCache.Slot slot) {
+        general.invalidate(slot);
+        expensive.invalidate(slot);
+    }
+
+    void removeIf(Predicate<MathMemoryCache.Slot> filter) {
+        general.asMap().keySet().removeIf(filter);
+        expensive.asMap().keySet().removeIf(filter);
+    }
+
+    Stream<Map.Entry<MathMemoryCache.Slot, MathMemoryCache.Entry>> entries() {
+        return Stream.concat(general.asMap().entrySet().stream(), expensive.asMap().entrySet().stream());
+    }
+
+    private boolean isExpensive(MathMemoryCache.Entry entry) {
+        return entry.computeNanos() >= expensiveNanos;
+    }
+
+    private Cache<MathMemoryCache.Slot, MathMemoryCache.Entry> segmentOf(MathMemoryCache.Entry entry) {
+        return isExpensive(entry) ? expensive : general;
+    }
+
+    private Cache<MathMemoryCache.Slot, MathMemoryCache.Entry> otherSegment(MathMemoryCache.Entry entry) {
+        return isExpensive(entry) ? general : expensive;
+    }
+
+    private Cache<MathMemoryCache.Slot, MathMemoryCache.Entry> segment(MathCacheMemoryProperties properties,
+                                                                       long segmentWeight) {
+        return Caffeine.newBuilder()
+                .maximumWeight(segmentWeight)
+                .weigher((MathMemoryCache.Slot slot, MathMemoryCache.Entry entry) -> entry.weight())
+                .expireAfter(new CostExpiry(properties))
+                .evictionListener((MathMemoryCache.Slot slot, MathMemoryCache.Entry entry, RemovalCause cause) -> {
+                    if (slot != null) {
+                        MathMemoryCache cache = caches.get(slot.cache());
+                        if (cache != null) {
+                            cache.recordEviction();
+                        }
+                    }
+                })
+                .build();
+    }
+
+    private static long weight(Cache<MathMemoryCache.Slot, MathMemoryCache.Entry> segment) {
+        return segment.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L);
+    }
+
+    /**
+     * Grants each entry a time to live proportional to its compute time.
+     */
+    private static final class CostExpiry implements Expiry<MathMemoryCache.Slot, MathMemoryCache.Entry> {
+
+        private final long minNanos;
+        private final long maxNanos;
+        private final long expensiveNanos;
+
+        private CostExpiry(MathCacheMemoryProperties properties) {
+            this.minNanos = properties.getMinTimeToLive().toNanos();
+            this.maxNanos = Math.max(minNanos, properties.getMaxTimeToLive().toNanos());
+            this.expensiveNanos = Math.max(1, properties.getExpensiveThreshold().toNanos());
+        }
+
+        @Override
+        public long expireAfterCreate(MathMemoryCache.Slot slot, MathMemoryCache.Entry entry, long currentTime) {
+            double share = Math.min(1.0, (double) entry.computeNanos() / expensiveNanos);
+            return minNanos + (long) ((maxNanos - minNanos) * share);
+        }
+
+        @Override
+        public long expireAfterUpdate(MathMemoryCache.Slot slot, MathMemoryCache.Entry entry,
+                                      long currentTime, long currentDuration) {
+            return expireAfterCreate(slot, entry, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(MathMemoryCache.Slot slot, MathMemoryCache.Entry entry,
+                                    long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
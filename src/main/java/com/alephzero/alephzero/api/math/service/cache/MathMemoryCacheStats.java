@@ -0,0 +1,23 @@
+package com.alephzero.alephzero.api.math.service.cache;
+
+/**
+ * Snapshot of the statistics of one {@link MathMemoryCache}.
+ *
+ * @param hits      lookups that found an entry
+ * @param misses    lookups that found no entry
+ * @param evictions entries removed to honour the byte budget or their time to live
+ * @param size      entries currently held
+ * @param weight    estimated bytes currently retained
+ */
+public record MathMemoryCacheStats(long hits, long misses, long evictions, long size, long weight) {
+
+    /**
+     * Returns the fraction of lookups that found an entry.
+     *
+     * @return the hit ratio, or 0 if there were no lookups
+     */
+    public double hitRatio() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+}
@@ -0,0 +1,155 @@
+package com.alephzero.alephzero.api.math.service.cache;
+
+import com.alephzero.alephzero.api.math.facade.MathCancellationHandle;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@code MathSingleFlightCache} coalesces concurrent misses on the same key into a single computation.
+ * <p>
+ * Used by {@code @Cacheable(sync = true)} methods: the first caller that misses a key computes it while every
+ * other caller for that key waits for its result instead of running the same evaluation again. The computation
+ * runs outside of any lock of the underlying cache, so a long evaluation never blocks other keys.
+ * <p>
+ * A waiter stays bound to its own {@link MathCancellationHandle}: cancelling it stops the wait only, never the
+ * shared computation. If the shared computation fails, waiters that are not cancelled compute the key once more
+ * themselves, since the failure may be the leader's own deadline rather than a property of the expression.
+ * <p>
+ * The time each computation took is passed on to {@link MathCostAwareCache cost-aware} caches.
+ */
+public class MathSingleFlightCache implements Cache {
+
+    private static final Logger logger = LogManager.getLogger(MathSingleFlightCache.class);
+
+    private final Cache delegate;
+    private final ConcurrentMap<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * Creates a single-flight view of the given cache.
+     *
+     * @param delegate the cache holding the computed values
+     */
+    public MathSingleFlightCache(Cache delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public @NotNull String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public @NotNull Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(@NotNull Object key) {
+        return delegate.get(key);
+    }
+
+    @Override
+    public <T> T get(@NotNull Object key, Class<T> type) {
+        return delegate.get(key, type);
+    }
+
+    @Override
+    public <T> T get(@NotNull Object key, @NotNull Callable<T> valueLoader) {
+        return get(key, valueLoader, true);
+    }
+
+    @Override
+    public void put(@NotNull Object key, Object value) {
+        delegate.put(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(@NotNull Object key, Object value) {
+        return delegate.putIfAbsent(key, value);
+    }
+
+    @Override
+    public void evict(@NotNull Object key) {
+        delegate.evict(key);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+    }
+
+    /**
+     * Returns how many callers got their value from another caller's computation.
+     *
+     * @return the number of coalesced calls
+     */
+    public long coalescedCount() {
+        return coalesced.sum();
+    }
+
+    /**
+     * Returns the number of keys being computed right now.
+     *
+     * @return the number of in-flight computations
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T get(Object key, Callable<T> valueLoader, boolean retryOnLeaderFailure) {
+        ValueWrapper cached = delegate.get(key);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> leader = inFlight.putIfAbsent(key, flight);
+        if (leader == null) {
+            return compute(key, valueLoader, flight);
+        }
+
+        coalesced.increment();
+        CompletableFuture<Object> wait = leader.copy();
+        try (MathCancellationHandle.Binding ignored = MathCancellationHandle.bindCurrent(
+                () -> wait.completeExceptionally(new CancellationException("Evaluation cancelled while waiting")))) {
+            return (T) wait.join();
+        } catch (CompletionException | CancellationException e) {
+            if (!retryOnLeaderFailure || MathCancellationHandle.isCurrentCancelled()) {
+                throw new ValueRetrievalException(key, valueLoader, e.getCause() != null ? e.getCause() : e);
+            }
+            logger.debug("Shared computation of {} in cache {} failed, computing it again", key, getName());
+            return get(key, valueLoader, false);
+        }
+    }
+
+    /**
+     * Computes the key as the leader of the given flight. The flight leaves {@code inFlight} before it completes,
+     * so a waiter that retries after a failure starts a new computation instead of joining the failed one.
+     */
+    private <T> T compute(Object key, Callable<T> valueLoader, CompletableFuture<Object> flight) {
+        T value;
+        try {
+            long start = System.nanoTime();
+            value = valueLoader.call();
+            if (delegate instanceof MathCostAwareCache costAware) {
+                costAware.put(key, value, System.nanoTime() - start);
+            } else {
+                delegate.put(key, value);
+            }
+        } catch (Throwable e) {
+            inFlight.remove(key, flight);
+            flight.completeExceptionally(e);
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        inFlight.remove(key, flight);
+        flight.complete(value);
+        return value;
+    }
+}
@@ -0,0 +1,44 @@
+package com.alephzero.alephzero.api.math.service.cache;
+
+import com.alephzero.alephzero.api.math.facade.MathExpressionEvaluation;
+import com.alephzero.alephzero.api.math.facade.draw.PlotCurve;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * {@code MathStoredEvaluation} is an evaluation read back from the {@link MathEvaluationStore},
+ * independent of the math library that originally produced it.
+ */
+public class MathStoredEvaluation implements MathExpressionEvaluation {
+    private String expressionEvaluated;          // The evaluated expression
+    private final List<String> evaluationProblems; // Problems reported by the original evaluation
+    private final PlotCurve plot;                // Sampled curve of a compiled draw, null otherwise
+
+    public MathStoredEvaluation(String expressionEvaluated, List<String> evaluationProblems, PlotCurve plot) {
+        this.expressionEvaluated = expressionEvaluated;
+        this.evaluationProblems = List.copyOf(evaluationProblems);
+        this.plot = plot;
+    }
+
+    @Override
+    public String getExpressionEvaluated() {
+        return expressionEvaluated;
+    }
+
+    @Override
+    public String format(String newExpression) {
+        this.expressionEvaluated = newExpression;
+        return newExpression;
+    }
+
+    @Override
+    public Optional<List<String>> getEvaluationProblems() {
+        return evaluationProblems.isEmpty() ? Optional.empty() : Optional.of(evaluationProblems);
+    }
+
+    @Override
+    public Optional<PlotCurve> getPlot() {
+        return Optional.ofNullable(plot);
+    }
+}
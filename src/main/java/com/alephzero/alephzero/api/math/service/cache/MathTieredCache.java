@@ -0,0 +1,151 @@
+package com.alephzero.alephzero.api.math.service.cache;
+
+import com.alephzero.alephzero.api.math.facade.MathExpressionEvaluation;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.concurrent.Callable;
+
+/**
+ * {@code MathTieredCache} layers a persistent {@link MathEvaluationStore} under an in-memory cache.
+ * <p>
+ * Reads try the in-memory cache first and fall back to the store, promoting what they find; writes go to both.
+ * Only evaluations keyed by a {@link MathCacheKey} reach the store, any other entry stays in memory only.
+ * Store failures never fail a call: the entry is simply served or computed without the store.
+ * <p>
+ * Entries promoted from the store reach the in-memory cache with no compute time, since recovering them again
+ * only costs a store read.
+ */
+public class MathTieredCache implements MathCostAwareCache {
+
+    private static final Logger logger = LogManager.getLogger(MathTieredCache.class);
+
+    private final Cache local;
+    private final MathEvaluationStore store;
+
+    /**
+     * Creates a tiered cache.
+     *
+     * @param local the in-memory cache, first level
+     * @param store the persistent store, second level
+     */
+    public MathTieredCache(Cache local, MathEvaluationStore store) {
+        this.local = local;
+        this.store = store;
+    }
+
+    @Override
+    public @NotNull String getName() {
+        return local.getName();
+    }
+
+    @Override
+    public @NotNull Object getNativeCache() {
+        return local.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(@NotNull Object key) {
+        ValueWrapper cached = local.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        MathExpressionEvaluation stored = load(key);
+        if (stored == null) {
+            return null;
+        }
+        local.put(key, stored);
+        return new SimpleValueWrapper(stored);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(@NotNull Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper == null ? null : wrapper.get();
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(@NotNull Object key, @NotNull Callable<T> valueLoader) {
+        return local.get(key, () -> {
+            MathExpressionEvaluation stored = load(key);
+            if (stored != null) {
+                return (T) stored;
+            }
+            T value = valueLoader.call();
+            save(key, value);
+            return value;
+        });
+    }
+
+    @Override
+    public void put(@NotNull Object key, Object value) {
+        local.put(key, value);
+        save(key, value);
+    }
+
+    @Override
+    public void put(Object key, Object value, long computeNanos) {
+        if (local instanceof MathCostAwareCache costAware) {
+            costAware.put(key, value, computeNanos);
+        } else {
+            local.put(key, value);
+        }
+        save(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(@NotNull Object key, Object value) {
+        ValueWrapper existing = local.putIfAbsent(key, value);
+        if (existing == null) {
+            save(key, value);
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(@NotNull Object key) {
+        local.evict(key);
+        if (key instanceof MathCacheKey storeKey) {
+            store.remove(storeKey);
+        }
+    }
+
+    @Override
+    public void clear() {
+        local.clear();
+        store.clear();
+    }
+
+    private MathExpressionEvaluation load(Object key) {
+        if (!(key instanceof MathCacheKey storeKey)) {
+            return null;
+        }
+        try {
+            byte[] encoded = store.get(storeKey);
+            return encoded == null ? null : MathEvaluationCodec.decode(encoded);
+        } catch (RuntimeException e) {
+            logger.warn("Dropping unreadable entry {} of cache {}: {}", key, getName(), e.getMessage());
+            store.remove(storeKey);
+            return null;
+        }
+    }
+
+    private void save(Object key, Object value) {
+        if (key instanceof MathCacheKey storeKey && value instanceof MathExpressionEvaluation evaluation) {
+            try {
+                store.put(storeKey, MathEvaluationCodec.encode(evaluation));
+            } catch (RuntimeException e) {
+                logger.warn("Cannot persist entry {} of cache {}: {}", key, getName(), e.getMessage());
+            }
+        }
+    }
+}
@@ -4,9 +4,12 @@ import com.alephzero.alephzero.api.math.dto.request.MathDataDto;
 import com.alephzero.alephzero.api.math.enums.computation.MathExpressionType;
 import com.alephzero.alephzero.api.math.regex.RegexValidator;
 import com.alephzero.alephzero.api.math.service.core.MathCachedEvaluationService;
+import com.alephzero.alephzero.api.math.service.core.MathEvaluationContext;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.Optional;
+
 import static com.alephzero.alephzero.api.math.enums.computation.MathExpressionType.*;
 
 /**
@@ -14,8 +17,13 @@ import static com.alephzero.alephzero.api.math.enums.computation.MathExpressionT
  * different types defined by {@link MathExpressionType}, based on syntactic and
  * semantic analysis.
  * <p>
- * It performs classification by validating the expression format using regular
- * expressions, pre-evaluating expressions, and calculating partial results when necessary.
+ * It first classifies the expression from its parsed structure, its heads and free symbols, which takes
+ * microseconds and decides the type of most expressions without evaluating them. Only the expressions whose
+ * type depends on their result, such as derivatives, integrals or solutions, are then classified by
+ * validating the expression format using regular expressions, pre-evaluating expressions, and calculating
+ * partial results when necessary.
+ * Those results are computed through the current {@link MathEvaluationContext}, so the strategy evaluating
+ * the expression afterward reuses them.
  * <p>
  * This component is a Spring {@link Component} and uses dependency injection to
  * access the {@link MathCachedEvaluationService} and {@link RegexValidator}.
@@ -47,6 +55,7 @@ public class MathExpressionClassifier implements Classifier {
      * The classification logic combines multiple steps:
      * <ul>
      *     <li>Check if the expression is null or empty returning {@link MathExpressionType#NONE}</li>
+     *     <li>Classify from the parsed structure of the expression, if it decides the type</li>
      *     <li>Classify after pre-evaluation of the expression</li>
      *     <li>Classify the raw expression using regex patterns</li>
      *     <li>Handle special cases like {@link MathExpressionType#ASSIGNMENT}</li>
@@ -63,6 +72,12 @@ public class MathExpressionClassifier implements Classifier {
             return NONE;
         }
 
+        // Most expressions are classified from their parsed structure, without any evaluation
+        Optional<MathExpressionType> structuralType = mathEclipse.structuralType(expression);
+        if (structuralType.isPresent()) {
+            return structuralType.get();
+        }
+
         MathExpressionType preEvalType = classifyPreEvaluation(expression);
         MathExpressionType rawType = rawClassify(expression);
 
@@ -100,7 +115,7 @@ public class MathExpressionClassifier implements Classifier {
      * @return the {@link MathExpressionType} of the evaluated expression
      */
     private MathExpressionType classifyPreEvaluation(String expression) {
-        String evaluatedExpr = mathEclipse.evaluate(expression).getExpressionEvaluated();
+        String evaluatedExpr = MathEvaluationContext.current().evaluate(mathEclipse, expression).getExpressionEvaluated();
         return rawClassify(evaluatedExpr);
     }
 
@@ -113,7 +128,7 @@ public class MathExpressionClassifier implements Classifier {
      */
     private MathExpressionType classifyPreCalculation(String expression) {
         MathDataDto data = new MathDataDto(1, null, null);
-        String calculatedExpr = mathEclipse.calculate(expression, data).getExpressionEvaluated();
+        String calculatedExpr = MathEvaluationContext.current().calculate(mathEclipse, expression, data).getExpressionEvaluated();
         return rawClassify(calculatedExpr);
     }
 
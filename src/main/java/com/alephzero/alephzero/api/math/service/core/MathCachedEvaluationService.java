@@ -1,27 +1,32 @@
 package com.alephzero.alephzero.api.math.service.core;
 
 import com.alephzero.alephzero.api.math.dto.request.MathDataDto;
+import com.alephzero.alephzero.api.math.enums.computation.MathExpressionType;
 import com.alephzero.alephzero.api.math.facade.MathExpressionEvaluation;
 import com.alephzero.alephzero.api.math.facade.MathLibFacade;
+import com.alephzero.alephzero.api.math.service.cache.MathCacheKeyGenerator;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Service;
 
-import java.util.concurrent.Semaphore;
+import java.util.Optional;
 
 /**
  * {@code MathCachedEvaluationService} is a service class responsible for evaluating, calculating
  * and graphing mathematical expressions using a cached layer to improve performance.
  * <p>
  * It acts as a wrapper around the {@link MathLibFacade} and delegates evaluation logic
- * while applying Spring's caching mechanism to avoid redundant calculations.
+ * while applying Spring's caching mechanism to avoid redundant calculations. Cache keys are built by
+ * {@link MathCacheKeyGenerator} from the canonical form of each call, so equivalent inputs share one entry, and
+ * concurrent calls for the same entry are coalesced into a single evaluation.
  * <p>
- * It also provides methods to reset or stop the internal evaluator.
+ * The engine calls themselves run through {@link MathComputeExecutor}, on the bounded CPU pool when requests are
+ * orchestrated on virtual threads. Running evaluations are stopped through the cancellation handle of their own
+ * expression, never all at once.
  *
  * @see MathLibFacade
  */
@@ -32,32 +37,34 @@ public class MathCachedEvaluationService {
     private static final Logger logger = LogManager.getLogger(MathCachedEvaluationService.class);
 
     /**
-     * Thread-local holder for MathLibFacade.
+     * Thread-safe math facade; every call checks out its own pooled engine.
      */
-    private final ThreadLocal<MathLibFacade> threadLocalFacade;
+    private final MathLibFacade facade;
 
     /**
-     * Semaphore to limit concurrent Symja evaluations.
+     * Runs the engine calls under the global concurrency limit, on the CPU pool when requests are orchestrated
+     * on virtual threads.
      */
-    private final Semaphore semaphore = new Semaphore(20);
+    private final MathComputeExecutor compute;
 
     /**
-     * Constructs a cached evaluation service with a provider for math facade instances.
+     * Constructs a cached evaluation service on top of the given math facade.
      *
-     * @param facadeProvider the Spring provider for prototype MathLibFacade beans
+     * @param facade  the MathLibFacade used to run evaluations
+     * @param compute runs the engine calls under the global concurrency limit
      */
     @Autowired
-    public MathCachedEvaluationService(ObjectProvider<MathLibFacade> facadeProvider) {
-        // Provider for prototype-scoped MathLibFacade instances.
-        this.threadLocalFacade = ThreadLocal.withInitial(facadeProvider::getObject);
-        logger.info("MathCachedEvaluationService initialized with prototype MathLibFacade provider and semaphore");
+    public MathCachedEvaluationService(MathLibFacade facade, MathComputeExecutor compute) {
+        this.facade = facade;
+        this.compute = compute;
+        logger.info("MathCachedEvaluationService initialized with MathLibFacade and compute executor");
     }
 
     /**
-     * Retrieves the thread-local MathLibFacade instance.
+     * Retrieves the MathLibFacade instance.
      */
     private MathLibFacade getFacade() {
-        return threadLocalFacade.get();
+        return facade;
     }
 
     /**
@@ -66,21 +73,10 @@ public class MathCachedEvaluationService {
      * @param expression the expression to evaluate
      * @return the symbolic evaluation result
      */
-    @Cacheable(value = "evaluate", key = "#expression")
+    @Cacheable(value = "evaluate", keyGenerator = MathCacheKeyGenerator.NAME, sync = true)
     public MathExpressionEvaluation evaluate(String expression) {
-        try {
-            semaphore.acquire();
-            logger.info("evaluate() acquired semaphore, permits left={}", semaphore.availablePermits());
-            MathExpressionEvaluation result = getFacade().evaluate(expression);
-            getFacade().clear();
-            return result;
-        } catch (InterruptedException ie) {
-            Thread.currentThread().interrupt();
-            throw new RuntimeException("Interrupted while waiting for Symja permit", ie);
-        } finally {
-            semaphore.release();
-            logger.debug("evaluate() released semaphore, permits left={}", semaphore.availablePermits());
-        }
+        logger.debug("evaluate() called for '{}'", expression);
+        return compute.call(() -> getFacade().evaluate(expression));
     }
 
     /**
@@ -91,21 +87,10 @@ public class MathCachedEvaluationService {
      * @param data       contains the number of decimals to use
      * @return the numeric evaluation result
      */
-    @Cacheable(value = "calculate", key = "#expression + '_' + #data.decimals()")
+    @Cacheable(value = "calculate", keyGenerator = MathCacheKeyGenerator.NAME, sync = true)
     public MathExpressionEvaluation calculate(String expression, MathDataDto data) {
-        try {
-            semaphore.acquire();
-            logger.info("calculate() acquired semaphore, permits left={}", semaphore.availablePermits());
-            MathExpressionEvaluation result = getFacade().calculate(expression, data.decimals());
-            getFacade().clear();
-            return result;
-        } catch (InterruptedException ie) {
-            Thread.currentThread().interrupt();
-            throw new RuntimeException("Interrupted while waiting for Symja permit", ie);
-        } finally {
-            semaphore.release();
-            logger.debug("calculate() released semaphore, permits left={}", semaphore.availablePermits());
-        }
+        logger.debug("calculate() called for '{}'", expression);
+        return compute.call(() -> getFacade().calculate(expression, data.decimals()));
     }
 
     /**
@@ -113,35 +98,28 @@ public class MathCachedEvaluationService {
      * and caches the result.
      *
      * @param expression the function expression to plot
-     * @param data       contains the origin and bound of the domain
+     * @param data       contains the origin and bound of the domain and the point budget
      * @return the plot expression evaluation result
      */
-    @Cacheable(value = "draw", key = "#expression + '_' + #data.origin() + '_' + #data.bound()")
+    @Cacheable(value = "draw", keyGenerator = MathCacheKeyGenerator.NAME, sync = true)
     public MathExpressionEvaluation draw(String expression, MathDataDto data) {
-        try {
-            semaphore.acquire();
-            logger.info("draw() acquired semaphore, permits left={}", semaphore.availablePermits());
-            // Pre-evaluate expression
-            expression = evaluate(expression).getExpressionEvaluated();
-            MathExpressionEvaluation result = getFacade().draw(expression, "x", data.origin(), data.bound());
-            getFacade().clear();
-            return result;
-        } catch (InterruptedException ie) {
-            Thread.currentThread().interrupt();
-            throw new RuntimeException("Interrupted while waiting for Symja permit", ie);
-        } finally {
-            semaphore.release();
-            logger.debug("draw() released semaphore, permits left={}", semaphore.availablePermits());
-        }
+        logger.debug("draw() called for '{}'", expression);
+        // Pre-evaluate expression, reusing the evaluation of the current request if there is one
+        String evaluated = MathEvaluationContext.current().evaluate(this, expression).getExpressionEvaluated();
+        return compute.call(() ->
+                getFacade().draw(evaluated, "x", data.origin(), data.bound(), data.pointBudget()));
     }
 
     /**
-     * Stops any ongoing or long-running evaluation request in the underlying math evaluator.
+     * Classifies the given expression from its parsed structure, without evaluating it. Not cached: it is cheaper
+     * than building a cache key. Parsing an expression not seen before takes an engine, so the call runs through
+     * {@link MathComputeExecutor} like any other engine call.
+     *
+     * @param expression the expression to classify
+     * @return the type of the expression, or empty if only its evaluation can tell
      */
-    public void stopRequest() {
-        logger.info("stopRequest() called - stopping ongoing evaluation");
-        getFacade().stopRequest();
-        logger.debug("Ongoing evaluation stopped");
+    public Optional<MathExpressionType> structuralType(String expression) {
+        return compute.call(() -> getFacade().structuralType(expression));
     }
 
     /**
@@ -0,0 +1,138 @@
+package com.alephzero.alephzero.api.math.service.core;
+
+import com.alephzero.alephzero.api.math.exception.MathEvaluationRejectedException;
+import com.alephzero.alephzero.api.math.facade.MathCancellationHandle;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * {@code MathComputeExecutor} runs the CPU-bound engine calls of an evaluation on the bounded {@code mathCpuPool},
+ * while the thread orchestrating the request, usually a virtual thread, simply waits for them.
+ * <p>
+ * Every call first takes a slot from the global {@link MathConcurrencyLimiter}, and reports back its latency and
+ * the CPU time it consumed, so the limit follows what the hardware can actually run.
+ * <p>
+ * The {@link MathCancellationHandle} and {@link MathEvaluationContext} active on the calling thread are activated
+ * on the pool thread for the duration of the call, so deadlines still stop exactly the engines of their expression.
+ * Calls nested in an engine call run inline on its slot, and with virtual threads disabled every call runs inline,
+ * so neither the pool nor the limiter ever waits on itself.
+ */
+@Component
+public class MathComputeExecutor {
+
+    private static final Logger logger = LogManager.getLogger(MathComputeExecutor.class);
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private static final ThreadLocal<Boolean> IN_CALL = ThreadLocal.withInitial(() -> false);
+
+    private final ExecutorService cpuPool;
+    private final MathConcurrencyLimiter limiter;
+
+    /**
+     * Creates an executor handing engine calls over to the given pool, or running them inline with virtual
+     * threads disabled.
+     *
+     * @param cpuPool    the platform pool running engine calls
+     * @param properties the execution configuration
+     * @param limiter    the limit on concurrent engine calls
+     */
+    @Autowired
+    public MathComputeExecutor(@Qualifier("mathCpuPool") ExecutorService cpuPool, MathExecutionProperties properties,
+                               MathConcurrencyLimiter limiter) {
+        this.cpuPool = properties.isVirtualThreads() ? cpuPool : null;
+        this.limiter = limiter;
+        logger.info("MathComputeExecutor initialized, engine calls run {}",
+                this.cpuPool == null ? "inline" : "on the CPU pool");
+    }
+
+    /**
+     * Runs an engine call on the CPU pool and waits for its result.
+     *
+     * @param task the engine call
+     * @param <T>  the result type
+     * @return the result of the call
+     * @throws CancellationException           if the evaluation is cancelled or interrupted while waiting
+     * @throws MathEvaluationRejectedException if no slot became free in time, or the queue of the CPU pool is full
+     */
+    public <T> T call(Supplier<T> task) {
+        if (IN_CALL.get()) {
+            return task.get();
+        }
+
+        try (MathConcurrencyLimiter.Permit permit = limiter.acquire()) {
+            long start = System.nanoTime();
+            long[] cpuNanos = {-1};
+            Supplier<T> measured = () -> {
+                long cpuStart = cpuTime();
+                IN_CALL.set(true);
+                try {
+                    return task.get();
+                } finally {
+                    IN_CALL.remove();
+                    cpuNanos[0] = cpuStart < 0 ? -1 : cpuTime() - cpuStart;
+                }
+            };
+
+            T result = cpuPool == null ? measured.get() : submit(measured);
+            if (cpuNanos[0] >= 0) {
+                permit.record(System.nanoTime() - start, cpuNanos[0]);
+            }
+            return result;
+        }
+    }
+
+    private <T> T submit(Supplier<T> task) {
+        MathCancellationHandle handle = MathCancellationHandle.current();
+        MathEvaluationContext context = MathEvaluationContext.current();
+        Future<T> future;
+        try {
+            future = cpuPool.submit(() -> {
+                try (MathCancellationHandle.Binding ignored = handle == null ? () -> { } : handle.activate();
+                     MathEvaluationContext.Scope scope = context.activate()) {
+                    if (handle != null && handle.isCancelled()) {
+                        throw new CancellationException("Evaluation cancelled before it started");
+                    }
+                    return task.get();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            throw new MathEvaluationRejectedException("Too many evaluations waiting for the CPU pool");
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for the CPU pool");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Returns the CPU time consumed so far by the calling thread, or -1 if it cannot be measured.
+     */
+    private static long cpuTime() {
+        return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : -1;
+    }
+}
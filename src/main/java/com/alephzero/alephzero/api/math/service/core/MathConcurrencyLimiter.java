@@ -0,0 +1,222 @@
+package com.alephzero.alephzero.api.math.service.core;
+
+import com.alephzero.alephzero.api.math.exception.MathEvaluationRejectedException;
+import com.alephzero.alephzero.api.math.facade.MathCancellationHandle;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@code MathConcurrencyLimiter} is the single limit on concurrent engine calls, adapted to the hardware
+ * at runtime rather than fixed.
+ * <p>
+ * Every completed call reports its latency together with the CPU time it actually consumed. When calls spend
+ * most of their latency computing and the limit is saturated, the limit grows additively, by one slot per
+ * {@code limit} calls. When the computing share falls under {@link MathConcurrencyLimiterProperties#getTargetUtilization()},
+ * calls are queueing for a CPU or competing for one, so the limit shrinks multiplicatively, at most once per
+ * {@code limit} calls so that one burst of slow calls does not collapse it. This keeps the cores saturated without
+ * piling up queued engine calls.
+ * <p>
+ * Callers over the limit wait in line for a slot, up to the configured timeout, and give up as soon as their
+ * {@link MathCancellationHandle} is cancelled.
+ */
+@Component
+public class MathConcurrencyLimiter {
+
+    private static final Logger logger = LogManager.getLogger(MathConcurrencyLimiter.class);
+
+    private final MathConcurrencyLimiterProperties properties;
+
+    private final ReentrantLock lock = new ReentrantLock();   // Not synchronized: waiters may be virtual threads
+    private final Condition available = lock.newCondition();
+
+    private double limit;
+    private int inFlight;
+    private int waiting;
+    private int samplesSinceBackoff;
+
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * Creates a limiter starting at the configured initial limit.
+     *
+     * @param properties the limiter configuration
+     */
+    @Autowired
+    public MathConcurrencyLimiter(MathConcurrencyLimiterProperties properties) {
+        this.properties = properties;
+        this.limit = clamp(properties.getInitialLimit());
+        logger.info("MathConcurrencyLimiter initialized with limit={} in [{}, {}]",
+                (int) limit, properties.getMinLimit(), properties.getMaxLimit());
+    }
+
+    /**
+     * Waits for a free slot.
+     *
+     * @return the slot, to be closed once the engine call is done
+     * @throws MathEvaluationRejectedException if no slot became free in time
+     * @throws CancellationException           if the evaluation was cancelled while waiting
+     */
+    public Permit acquire() {
+        long remaining = properties.getAcquireTimeout().toNanos();
+        lock.lock();
+        try (MathCancellationHandle.Binding ignored = MathCancellationHandle.bindCurrent(this::wakeUp)) {
+            waiting++;
+            try {
+                while (inFlight >= (int) limit) {
+                    if (MathCancellationHandle.isCurrentCancelled()) {
+                        throw new CancellationException("Evaluation cancelled while waiting for an engine slot");
+                    }
+                    if (remaining <= 0) {
+                        rejected.increment();
+                        throw new MathEvaluationRejectedException("No engine slot available after "
+                                + properties.getAcquireTimeout().toMillis() + " ms");
+                    }
+                    remaining = available.awaitNanos(remaining);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Interrupted while waiting for an engine slot");
+            } finally {
+                waiting--;
+            }
+            inFlight++;
+            return new Permit(inFlight >= (int) limit);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the current concurrency limit.
+     *
+     * @return the number of engine calls allowed at once
+     */
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of engine calls currently running.
+     *
+     * @return the number of slots in use
+     */
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of callers waiting for a slot.
+     *
+     * @return the queue depth
+     */
+    public int getQueueDepth() {
+        lock.lock();
+        try {
+            return waiting;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of callers that gave up waiting for a slot.
+     *
+     * @return the number of rejected calls
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    private void release(boolean saturated, long latencyNanos, long cpuNanos) {
+        lock.lock();
+        try {
+            inFlight--;
+            if (latencyNanos > 0) {
+                adjust(saturated, (double) cpuNanos / latencyNanos);
+            }
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void adjust(boolean saturated, double utilization) {
+        samplesSinceBackoff++;
+        if (utilization < properties.getTargetUtilization()) {
+            if (samplesSinceBackoff >= limit) {
+                limit = clamp(limit * properties.getBackoffRatio());
+                samplesSinceBackoff = 0;
+                logger.debug("Engine calls computing {}% of the time, limit lowered to {}",
+                        Math.round(utilization * 100), (int) limit);
+            }
+        } else if (saturated) {
+            limit = clamp(limit + 1 / limit);
+        }
+    }
+
+    private double clamp(double value) {
+        int min = Math.max(1, properties.getMinLimit());
+        return Math.max(min, Math.min(Math.max(min, properties.getMaxLimit()), value));
+    }
+
+    private void wakeUp() {
+        lock.lock();
+        try {
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * A slot held by one engine call, released when closed.
+     */
+    public final class Permit implements AutoCloseable {
+        private final boolean saturated;  // Whether this call filled the limit
+        private long latencyNanos;
+        private long cpuNanos;
+        private boolean closed;
+
+        private Permit(boolean saturated) {
+            this.saturated = saturated;
+        }
+
+        /**
+         * Records the latency of the completed call and the CPU time it consumed, adapting the limit on release.
+         * Calls that fail are not recorded, so they leave the limit untouched.
+         *
+         * @param latencyNanos the time from the acquisition of the slot to the end of the call
+         * @param cpuNanos     the CPU time consumed by the call
+         */
+        public void record(long latencyNanos, long cpuNanos) {
+            this.latencyNanos = latencyNanos;
+            this.cpuNanos = Math.min(cpuNanos, latencyNanos);
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                release(saturated, latencyNanos, cpuNanos);
+            }
+        }
+    }
+}
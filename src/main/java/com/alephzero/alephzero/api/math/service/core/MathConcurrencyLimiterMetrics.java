@@ -0,0 +1,32 @@
+package com.alephzero.alephzero.api.math.service.core;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exposes the {@link MathConcurrencyLimiter} state as Micrometer meters
+ * under the {@code math.concurrency} prefix.
+ */
+@Component
+public class MathConcurrencyLimiterMetrics implements MeterBinder {
+
+    private final MathConcurrencyLimiter limiter;
+
+    public MathConcurrencyLimiterMetrics(MathConcurrencyLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    @Override
+    public void bindTo(@NotNull MeterRegistry registry) {
+        Gauge.builder("math.concurrency.limit", limiter, MathConcurrencyLimiter::getLimit).register(registry);
+        Gauge.builder("math.concurrency.in.flight", limiter, MathConcurrencyLimiter::getInFlight).register(registry);
+        Gauge.builder("math.concurrency.queue.depth", limiter, MathConcurrencyLimiter::getQueueDepth).register(registry);
+
+        FunctionCounter.builder("math.concurrency.rejected", limiter, MathConcurrencyLimiter::getRejectedCount)
+                .register(registry);
+    }
+}
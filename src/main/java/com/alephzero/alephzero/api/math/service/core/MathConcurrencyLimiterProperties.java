@@ -0,0 +1,40 @@
+package com.alephzero.alephzero.api.math.service.core;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the adaptive concurrency limit of engine calls.
+ * <p>
+ * This class is used to bind properties prefixed with "math.concurrency" from the application properties file.
+ * The limit starts at {@code initialLimit} and moves between {@code minLimit} and {@code maxLimit}, following
+ * how much of the time of each engine call is spent computing rather than waiting.
+ * </p>
+ */
+@Setter
+@Getter
+@Configuration
+@ConfigurationProperties(prefix = "math.concurrency")
+public class MathConcurrencyLimiterProperties {
+    /** Number of concurrent engine calls allowed at startup. */
+    private int initialLimit = Runtime.getRuntime().availableProcessors();
+
+    /** Lowest concurrency limit, whatever the latencies. */
+    private int minLimit = 1;
+
+    /** Highest concurrency limit, whatever the latencies. */
+    private int maxLimit = 8 * Runtime.getRuntime().availableProcessors();
+
+    /** Smallest share of its latency an engine call must spend computing for the limit not to shrink. */
+    private double targetUtilization = 0.8;
+
+    /** Factor applied to the limit when engine calls spend too long waiting. */
+    private double backoffRatio = 0.9;
+
+    /** Maximum time a caller waits for a free slot before being rejected. */
+    private Duration acquireTimeout = Duration.ofSeconds(30);
+}
@@ -0,0 +1,156 @@
+package com.alephzero.alephzero.api.math.service.core;
+
+import com.alephzero.alephzero.api.math.dto.request.MathDataDto;
+import com.alephzero.alephzero.api.math.facade.MathCancellationHandle;
+import com.alephzero.alephzero.api.math.facade.MathExpressionEvaluation;
+import com.alephzero.alephzero.api.math.service.cache.MathCacheKeyGenerator;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * {@code MathEvaluationContext} memoizes the intermediate results of one evaluation request, so that every
+ * distinct Symja computation runs at most once per request.
+ * <p>
+ * Classifying an expression already evaluates it, and its strategy then evaluates it again before drawing it,
+ * which evaluates it once more from inside {@link MathCachedEvaluationService}, bypassing the cache proxy. The
+ * request creates one context and activates it on every thread working on its expressions; the classifier and
+ * the strategies go through {@link #current()}, which returns the results already computed for the same
+ * operation and {@link MathCacheKeyGenerator cache key}, whatever the state of the caches.
+ * <p>
+ * Concurrent calls for the same key wait for the first one. If it fails, for instance because its expression hit
+ * its deadline, the others compute the result themselves; failures are never memoized.
+ */
+public final class MathEvaluationContext {
+
+    private static final ThreadLocal<MathEvaluationContext> CURRENT = new ThreadLocal<>();
+
+    private static final MathEvaluationContext NONE = new MathEvaluationContext(null);
+
+    private final MathCacheKeyGenerator keys;
+    private final ConcurrentMap<Object, CompletableFuture<MathExpressionEvaluation>> results = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the context of a new request.
+     *
+     * @param keys builds the key of each operation, shared with the evaluation caches
+     */
+    public MathEvaluationContext(MathCacheKeyGenerator keys) {
+        this.keys = keys;
+    }
+
+    /**
+     * Returns the context active on the calling thread, or one that memoizes nothing outside of a request.
+     *
+     * @return the current evaluation context
+     */
+    public static MathEvaluationContext current() {
+        MathEvaluationContext context = CURRENT.get();
+        return context == null ? NONE : context;
+    }
+
+    /**
+     * Makes this context the active one on the calling thread until the returned scope is closed.
+     *
+     * @return the activation scope, restoring the previously active context when closed
+     */
+    public Scope activate() {
+        MathEvaluationContext previous = CURRENT.get();
+        CURRENT.set(this);
+        return () -> {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        };
+    }
+
+    /**
+     * Evaluates an expression once per request.
+     *
+     * @param service    the service computing the result on a miss
+     * @param expression the expression to evaluate
+     * @return the symbolic evaluation result
+     */
+    public MathExpressionEvaluation evaluate(MathCachedEvaluationService service, String expression) {
+        return memoize(() -> service.evaluate(expression), "evaluate", expression);
+    }
+
+    /**
+     * Calculates an expression once per request and precision.
+     *
+     * @param service    the service computing the result on a miss
+     * @param expression the expression to calculate
+     * @param data       contains the number of decimals to use
+     * @return the numeric evaluation result
+     */
+    public MathExpressionEvaluation calculate(MathCachedEvaluationService service, String expression, MathDataDto data) {
+        return memoize(() -> service.calculate(expression, data), "calculate", expression, data);
+    }
+
+    /**
+     * Draws an expression once per request and domain.
+     *
+     * @param service    the service computing the result on a miss
+     * @param expression the function expression to plot
+     * @param data       contains the origin and bound of the domain and the point budget
+     * @return the plot expression evaluation result
+     */
+    public MathExpressionEvaluation draw(MathCachedEvaluationService service, String expression, MathDataDto data) {
+        return memoize(() -> service.draw(expression, data), "draw", expression, data);
+    }
+
+    /**
+     * Returns the number of results computed or being computed in this context.
+     *
+     * @return the number of memoized results
+     */
+    public int size() {
+        return results.size();
+    }
+
+    private MathExpressionEvaluation memoize(Supplier<MathExpressionEvaluation> computation,
+                                             String operation, Object... params) {
+        if (keys == null) {
+            return computation.get();
+        }
+        Object key = keys.generate(operation, params);
+        CompletableFuture<MathExpressionEvaluation> result = new CompletableFuture<>();
+        CompletableFuture<MathExpressionEvaluation> existing = results.putIfAbsent(key, result);
+        if (existing == null) {
+            try {
+                MathExpressionEvaluation value = computation.get();
+                result.complete(value);
+                return value;
+            } catch (RuntimeException | Error e) {
+                results.remove(key, result);
+                result.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        CompletableFuture<MathExpressionEvaluation> wait = existing.copy();
+        try (MathCancellationHandle.Binding ignored = MathCancellationHandle.bindCurrent(() -> wait.cancel(false))) {
+            return wait.join();
+        } catch (CompletionException | CancellationException e) {
+            if (MathCancellationHandle.isCurrentCancelled()) {
+                throw new CancellationException("Evaluation cancelled while waiting for " + operation);
+            }
+            return computation.get();
+        }
+    }
+
+    /**
+     * An activation that is undone when closed.
+     */
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
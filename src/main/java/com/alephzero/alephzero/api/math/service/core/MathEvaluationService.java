@@ -2,6 +2,9 @@ package com.alephzero.alephzero.api.math.service.core;
 
 import com.alephzero.alephzero.api.math.dto.request.MathEvaluationRequest;
 import com.alephzero.alephzero.api.math.dto.response.MathEvaluationResultResponse;
+import com.alephzero.alephzero.api.math.dto.response.MathExpressionStreamEventDto;
+
+import java.util.function.Consumer;
 
 /**
  * {@code MathEvaluationService} is an interface that defines the contract for evaluating
@@ -23,4 +26,28 @@ public interface MathEvaluationService {
      * @return the result of the evaluation, including expression output and any errors
      */
     MathEvaluationResultResponse evaluation(MathEvaluationRequest request);
+
+    /**
+     * Evaluates the expressions of the request and returns only their DRAWING results, as a binary stream.
+     * <p>
+     * Every drawing is written as its expression index ({@code u32}), its length in bytes ({@code u32})
+     * and the encoded curve, all little-endian. Expressions without a drawing are skipped.
+     *
+     * @param request the input evaluation request; text drawing formats are served as {@code FLOAT64}
+     * @return the encoded drawings
+     */
+    byte[] drawing(MathEvaluationRequest request);
+
+    /**
+     * Evaluates the expressions of the request, publishing every result as soon as it is ready instead of
+     * waiting for the whole batch.
+     * <p>
+     * Each expression publishes one event with its fast results and, if it is drawn, a later event with its
+     * DRAWING. Events of different expressions may interleave in any order; their index identifies them.
+     * The listener is never called concurrently. This method returns once every expression is done.
+     *
+     * @param request  the input evaluation request containing the expressions and metadata
+     * @param listener receives every evaluation event
+     */
+    void evaluationStream(MathEvaluationRequest request, Consumer<MathExpressionStreamEventDto> listener);
 }
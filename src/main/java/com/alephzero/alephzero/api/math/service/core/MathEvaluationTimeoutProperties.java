@@ -0,0 +1,45 @@
+package com.alephzero.alephzero.api.math.service.core;
+
+import com.alephzero.alephzero.api.math.enums.computation.MathExpressionType;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Configuration properties for evaluation deadlines.
+ * <p>
+ * This class is used to bind properties prefixed with "math.evaluation.timeout" from the application properties file.
+ * Every expression of a request gets its own deadline, picked by its {@link MathExpressionType} once classified,
+ * while the request as a whole is capped by {@code request}.
+ * </p>
+ */
+@Setter
+@Getter
+@Configuration
+@ConfigurationProperties(prefix = "math.evaluation.timeout")
+public class MathEvaluationTimeoutProperties {
+    /** Maximum time for a whole request, whatever its expressions. */
+    private Duration request = Duration.ofSeconds(120);
+
+    /** Deadline of an expression whose type has no specific deadline, also applied while classifying it. */
+    private Duration expression = Duration.ofSeconds(120);
+
+    /** Deadline per expression type, overriding {@code expression}. */
+    private Map<MathExpressionType, Duration> types = new EnumMap<>(MathExpressionType.class);
+
+    /**
+     * Returns the deadline of an expression of the given type.
+     *
+     * @param type the classified expression type, or {@code null} while it is not classified yet
+     * @return the deadline of the expression, never longer than the request deadline
+     */
+    public Duration timeoutFor(MathExpressionType type) {
+        Duration timeout = type == null ? expression : types.getOrDefault(type, expression);
+        return timeout.compareTo(request) > 0 ? request : timeout;
+    }
+}
@@ -0,0 +1,37 @@
+package com.alephzero.alephzero.api.math.service.core;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for the threads running evaluations.
+ * <p>
+ * This class is used to bind properties prefixed with "math.execution" from the application properties file.
+ * With virtual threads enabled, requests are orchestrated on virtual threads, which are cheap to block while
+ * waiting on deadlines and fan-out, and only the engine calls run on the bounded CPU pool. Otherwise everything
+ * runs on the platform {@code mathThreadPool}, as before.
+ * <p>
+ * Each level has its own limit: {@code maxOrchestrationTasks} expression tasks at once, and
+ * {@code cpuQueueCapacity} engine calls waiting for a CPU thread. Work beyond either limit is rejected with a
+ * 503 instead of piling up.
+ * </p>
+ */
+@Setter
+@Getter
+@Configuration
+@ConfigurationProperties(prefix = "math.execution")
+public class MathExecutionProperties {
+    /** Whether requests are orchestrated on virtual threads, handing engine calls over to the CPU pool. */
+    private boolean virtualThreads = true;
+
+    /** Number of platform threads running engine calls, which are CPU-bound. */
+    private int cpuPoolSize = Runtime.getRuntime().availableProcessors();
+
+    /** Maximum number of expression tasks, running or waiting, orchestrated on virtual threads at once. */
+    private int maxOrchestrationTasks = 10_000;
+
+    /** Maximum number of engine calls waiting for a thread of the CPU pool. */
+    private int cpuQueueCapacity = 1_000;
+}
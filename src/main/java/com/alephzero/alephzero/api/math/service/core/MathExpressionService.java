@@ -2,13 +2,22 @@ package com.alephzero.alephzero.api.math.service.core;
 
 import com.alephzero.alephzero.api.math.dto.request.MathDataDto;
 import com.alephzero.alephzero.api.math.dto.request.MathEvaluationRequest;
+import com.alephzero.alephzero.api.math.dto.request.MathExpressionDto;
 import com.alephzero.alephzero.api.math.dto.response.MathEvaluationDto;
 import com.alephzero.alephzero.api.math.dto.response.MathEvaluationResultResponse;
 import com.alephzero.alephzero.api.math.dto.response.MathExpressionEvaluationDto;
+import com.alephzero.alephzero.api.math.dto.response.MathExpressionStreamEventDto;
+import com.alephzero.alephzero.api.math.enums.computation.MathDrawingFormat;
+import com.alephzero.alephzero.api.math.enums.computation.MathEvaluationType;
 import com.alephzero.alephzero.api.math.enums.computation.MathExpressionType;
+import com.alephzero.alephzero.api.math.exception.MathEnginePoolExhaustedException;
+import com.alephzero.alephzero.api.math.exception.MathEvaluationRejectedException;
 import com.alephzero.alephzero.api.math.exception.MathEvaluationTimeoutException;
+import com.alephzero.alephzero.api.math.facade.MathCancellationHandle;
+import com.alephzero.alephzero.api.math.service.cache.MathCacheKeyGenerator;
 import com.alephzero.alephzero.api.math.service.classifier.Classifier;
 import com.alephzero.alephzero.api.math.service.memory.MathAssignmentMemory;
+import com.alephzero.alephzero.api.math.service.memory.MathAssignmentWorkspace;
 import com.alephzero.alephzero.api.math.service.strategy.EvaluationStrategyContext;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -16,26 +25,50 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.*;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * {@code MathExpressionService} implements the main service for evaluating a list of mathematical expressions.
  * <p>
- * It applies a timeout to prevent long evaluations and uses a strategy pattern to dispatch evaluation logic
- * according to the expression type.
+ * Every expression runs under its own deadline, configured per expression type through
+ * {@link MathEvaluationTimeoutProperties}, and the whole request is capped by the request deadline. A deadline
+ * cancels the {@link MathCancellationHandle} of its expression, which stops the exact engines evaluating it and
+ * nothing else, so the other expressions of the request still return their results. It uses a strategy pattern
+ * to dispatch evaluation logic according to the expression type.
  * <p>
- * The service also stores intermediate results in memory and clears them after each evaluation cycle.
+ * Every request gets its own {@link MathEvaluationContext}, active while any of its expressions is evaluated,
+ * so the results computed to classify an expression are reused by its strategy.
+ * <p>
+ * Expression tasks run on the {@code mathThreadPool} and never wait on each other: the calling thread waits for
+ * all of them, and the engine calls they make run on their own pool. Tasks the pool rejects fail the request
+ * with a {@link MathEvaluationRejectedException} instead of running on the calling thread.
+ * <p>
+ * The assignments of a request are collected up front into its own immutable {@link MathAssignmentWorkspace},
+ * isolated from every other request, which resolves them along their dependency graph. Since every definition is
+ * then fully expanded, no expression waits for another one: all of them are evaluated in parallel with
+ * deterministic results, and those caught in a cyclic definition are reported as errors on their own.
  */
 @Service
 public class MathExpressionService implements MathEvaluationService {
     private static final Logger logger = LogManager.getLogger(MathExpressionService.class);
 
-    private final ExecutorService executor;
+    /** Time left to cancelled expressions to report their timeout once the request deadline is hit */
+    private static final Duration CANCELLATION_GRACE = Duration.ofSeconds(2);
 
-    /** Maximum allowed time (in seconds) for expression evaluation */
-    private static final long TIMEOUT_SECONDS = 120;
+    private final ExecutorService executor;
+    private final ScheduledExecutorService deadlineScheduler;
+    private final MathEvaluationTimeoutProperties timeouts;
 
+    private final MathCacheKeyGenerator keys;
     private final MathAssignmentMemory memory;
     private final Classifier mathExpressionClassifier;
     private final EvaluationStrategyContext context;
@@ -44,18 +77,27 @@ public class MathExpressionService implements MathEvaluationService {
      * Constructs a new {@code MathExpressionService} with the required dependencies.
      *
      * @param executor                 the thread pool executor for asynchronous tasks
-     * @param memory                   the memory used for storing assignments and definitions
+     * @param deadlineScheduler        the scheduler firing evaluation deadlines
+     * @param timeouts                 the request and per-type evaluation deadlines
+     * @param keys                     builds the keys of the results memoized per request
+     * @param memory                   builds the workspace of assignments and definitions of each request
      * @param mathExpressionClassifier the classifier for determining expression type
      * @param context                  the strategy context to delegate expression evaluation
      */
     @Autowired
     public MathExpressionService(
             @Qualifier("mathThreadPool") ExecutorService executor,
+            @Qualifier("mathDeadlineScheduler") ScheduledExecutorService deadlineScheduler,
+            MathEvaluationTimeoutProperties timeouts,
+            MathCacheKeyGenerator keys,
             MathAssignmentMemory memory,
             Classifier mathExpressionClassifier,
             EvaluationStrategyContext context
     ) {
         this.executor = executor;
+        this.deadlineScheduler = deadlineScheduler;
+        this.timeouts = timeouts;
+        this.keys = keys;
         this.memory = memory;
         this.mathExpressionClassifier = mathExpressionClassifier;
         this.context = context;
@@ -64,7 +106,7 @@ public class MathExpressionService implements MathEvaluationService {
 
     /**
      * Evaluates a batch of mathematical expressions provided in the request.
-     * It applies a timeout and handles cancellation and errors gracefully.
+     * Expressions that exceed their deadline are reported as timed out without failing the others.
      *
      * @param request the request containing expressions and input data
      * @return a result wrapper with all evaluations
@@ -72,32 +114,292 @@ public class MathExpressionService implements MathEvaluationService {
     @Override
     public MathEvaluationResultResponse evaluation(MathEvaluationRequest request) {
         logger.info("Entering evaluation() with {} expressions", request.expressions().size());
-        return evaluateWithTimeout(request);
+        List<String> expressions = rawExpressions(request);
+        return evaluateWithTimeout(expressions, memory.workspace(expressions), request.data(),
+                deadlines(expressions.size()));
+    }
+
+    /**
+     * Evaluates some expressions of a larger worksheet against the workspace built from all of its expressions,
+     * so that only the expressions that changed have to be evaluated again.
+     * Expressions that exceed their deadline are reported as timed out without failing the others.
+     *
+     * @param expressions the raw expressions to evaluate
+     * @param workspace   the assignments of the whole worksheet
+     * @param data        the input data
+     * @return the evaluation of every expression, in the given order, telling those stopped by their deadline
+     */
+    public List<WorksheetEvaluation> evaluation(List<String> expressions, MathAssignmentWorkspace workspace,
+                                                MathDataDto data) {
+        logger.info("Entering evaluation() with {} worksheet expressions", expressions.size());
+        List<ExpressionDeadline> deadlines = deadlines(expressions.size());
+        List<MathExpressionEvaluationDto> evaluations =
+                evaluateWithTimeout(expressions, workspace, data, deadlines).expressionEvaluations();
+        List<WorksheetEvaluation> results = new ArrayList<>();
+        for (int i = 0; i < evaluations.size(); i++) {
+            results.add(new WorksheetEvaluation(evaluations.get(i), deadlines.get(i).isExpired()));
+        }
+        return results;
+    }
+
+    /**
+     * The evaluation of a worksheet expression.
+     *
+     * @param evaluation  the evaluation, or the timeout it was stopped by
+     * @param interrupted whether the evaluation was stopped before completing, so it says nothing of the expression
+     */
+    public record WorksheetEvaluation(MathExpressionEvaluationDto evaluation, boolean interrupted) {
+    }
+
+    /**
+     * Evaluates a batch of mathematical expressions and serializes only their DRAWING results in binary form,
+     * writing the encoded curves one after another without any intermediate text.
+     *
+     * @param request the request containing expressions and input data
+     * @return the encoded drawings, prefixed by their expression index and length
+     */
+    @Override
+    public byte[] drawing(MathEvaluationRequest request) {
+        logger.info("Entering drawing() with {} expressions", request.expressions().size());
+        MathDataDto data = request.data();
+        MathDrawingFormat format = data.resolvedDrawingFormat().isBinary()
+                ? data.resolvedDrawingFormat()
+                : MathDrawingFormat.FLOAT64;
+        MathDataDto binaryData = new MathDataDto(data.decimals(), data.origin(), data.bound(),
+                data.points(), data.pixelWidth(), format);
+
+        List<String> expressions = rawExpressions(request);
+        List<MathExpressionEvaluationDto> evaluations =
+                evaluateWithTimeout(expressions, memory.workspace(expressions), binaryData, deadlines(expressions.size()))
+                        .expressionEvaluations();
+
+        List<byte[]> drawings = new ArrayList<>();
+        List<Integer> indexes = new ArrayList<>();
+        int size = 0;
+        for (int i = 0; i < evaluations.size(); i++) {
+            for (MathEvaluationDto evaluation : evaluations.get(i).evaluations()) {
+                if (evaluation.evaluationType() == MathEvaluationType.DRAWING && evaluation.points() != null) {
+                    drawings.add(evaluation.points());
+                    indexes.add(i);
+                    size += 2 * Integer.BYTES + evaluation.points().length;
+                }
+            }
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < drawings.size(); i++) {
+            buffer.putInt(indexes.get(i)).putInt(drawings.get(i).length).put(drawings.get(i));
+        }
+        logger.debug("drawing() encoded {} drawings in {} bytes", drawings.size(), size);
+        return buffer.array();
+    }
+
+    /**
+     * Evaluates a batch of mathematical expressions, publishing the fast results of every expression as soon as
+     * they complete and its drawing afterward, so a slow expression never holds back the others.
+     *
+     * @param request  the request containing expressions and input data
+     * @param listener receives every evaluation event, one call at a time
+     */
+    @Override
+    public void evaluationStream(MathEvaluationRequest request, Consumer<MathExpressionStreamEventDto> listener) {
+        logger.info("Entering evaluationStream() with {} expressions", request.expressions().size());
+        StreamSink sink = new StreamSink(listener);
+
+        MathEvaluationContext requestContext = new MathEvaluationContext(keys);
+        MathAssignmentWorkspace workspace = memory.workspace(rawExpressions(request));
+        Set<Integer> completed = ConcurrentHashMap.newKeySet();
+        List<ExpressionDeadline> deadlines = new ArrayList<>();
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < request.expressions().size(); i++) {
+            int index = i;
+            String rawExpression = request.expressions().get(i).expression();
+            ExpressionDeadline deadline = new ExpressionDeadline(requestContext);
+            deadlines.add(deadline);
+            CompletableFuture<ClassifiedExpression> classified;
+            try {
+                classified = CompletableFuture.supplyAsync(() -> deadline.call(() ->
+                        streamEvaluations(index, rawExpression, workspace, request.data(), deadline, sink)), executor);
+            } catch (RejectedExecutionException e) {
+                logger.warn("Streamed expression {} rejected: {}", index, e.getMessage());
+                classified = CompletableFuture.failedFuture(
+                        new MathEvaluationRejectedException("Too many evaluations in progress"));
+            }
+            futures.add(classified
+                    .thenAcceptAsync(expression -> deadline.run(() ->
+                            streamDrawing(index, rawExpression, expression, request.data(), sink)), executor)
+                    .exceptionally(ex -> {
+                        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                        String message = deadline.isExpired() ? deadline.timeoutMessage() : cause.getMessage();
+                        logger.warn("Streamed expression {} failed: {}", index, message);
+                        sink.accept(errorEvent(index, rawExpression, message));
+                        return null;
+                    })
+                    .whenComplete((ignored, ex) -> {
+                        deadline.finish();
+                        completed.add(index);
+                    }));
+        }
+
+        try {
+            awaitAll(CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)), deadlines);
+        } catch (TimeoutException e) {
+            sink.close(events -> {
+                for (int i = 0; i < request.expressions().size(); i++) {
+                    if (!completed.contains(i)) {
+                        events.accept(errorEvent(i, request.expressions().get(i).expression(),
+                                deadlines.get(i).timeoutMessage()));
+                    }
+                }
+            });
+            futures.forEach(future -> future.cancel(true));
+        } finally {
+            sink.close(events -> { });
+        }
+    }
+
+    /**
+     * Serializes the events of a stream and drops every event published once it is closed, since the response
+     * they would be written to may already be complete.
+     */
+    private static final class StreamSink implements Consumer<MathExpressionStreamEventDto> {
+        private final Consumer<MathExpressionStreamEventDto> listener;
+        private boolean closed;
+
+        private StreamSink(Consumer<MathExpressionStreamEventDto> listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public synchronized void accept(MathExpressionStreamEventDto event) {
+            if (!closed) {
+                listener.accept(event);
+            }
+        }
+
+        /**
+         * Publishes the last events of the stream and closes it, with no other event in between.
+         */
+        private synchronized void close(Consumer<Consumer<MathExpressionStreamEventDto>> lastEvents) {
+            if (!closed) {
+                lastEvents.accept(listener);
+                closed = true;
+            }
+        }
     }
 
     /**
-     * Wraps the evaluation process with a timeout and task cancellation support.
-     * If the evaluation exceeds {@code TIMEOUT_SECONDS}, it will throw a timeout exception.
+     * Processes, classifies and computes the fast results of a single expression, publishing them right away.
      *
-     * @param request the evaluation request
+     * @return the processed expression and its type, needed to draw it afterward
+     */
+    private ClassifiedExpression streamEvaluations(int index, String rawExpression, MathAssignmentWorkspace workspace,
+                                                   MathDataDto data, ExpressionDeadline deadline,
+                                                   Consumer<MathExpressionStreamEventDto> sink) {
+        Optional<String> error = workspace.errorOf(rawExpression);
+        if (error.isPresent()) {
+            throw new IllegalArgumentException(error.get());
+        }
+        String processed = workspace.process(rawExpression);
+        MathExpressionType type = mathExpressionClassifier.classify(processed);
+        deadline.classified(type);
+        List<MathEvaluationDto> results = context.getStrategy(type).computeEvaluations(processed, data);
+        sink.accept(new MathExpressionStreamEventDto(index, rawExpression, type, results));
+        return new ClassifiedExpression(processed, type);
+    }
+
+    /**
+     * Computes and publishes the drawing of an already classified expression, if its strategy draws.
+     */
+    private void streamDrawing(int index, String rawExpression, ClassifiedExpression classified, MathDataDto data,
+                               Consumer<MathExpressionStreamEventDto> sink) {
+        context.getStrategy(classified.type())
+                .computeDrawing(classified.expression(), data)
+                .ifPresent(drawing -> sink.accept(
+                        new MathExpressionStreamEventDto(index, rawExpression, classified.type(), List.of(drawing))));
+    }
+
+    private static MathExpressionStreamEventDto errorEvent(int index, String rawExpression, String message) {
+        return new MathExpressionStreamEventDto(index, rawExpression, MathExpressionType.NONE,
+                List.of(new MathEvaluationDto(MathEvaluationType.NONE, null, List.of(String.valueOf(message)))));
+    }
+
+    /**
+     * An expression after workspace processing, together with its classified type.
+     */
+    private record ClassifiedExpression(String expression, MathExpressionType type) {
+    }
+
+    /**
+     * Wraps the evaluation process with the request deadline.
+     * <p>
+     * When the request deadline is hit, every expression still running is cancelled and given a short grace
+     * period to report its timeout, so the results of the expressions that did complete are still returned.
+     * Only if they cannot even do that is the whole request reported as timed out.
+     *
+     * @param expressions the raw expressions to evaluate
+     * @param workspace   the assignments of the request
+     * @param data        the input data
+     * @param deadlines   the deadline of each expression, in order
      * @return the final evaluation response with all expression results
      */
-    private MathEvaluationResultResponse evaluateWithTimeout(MathEvaluationRequest request) {
-        Future<MathEvaluationResultResponse> future = executor.submit(() -> evaluateExpressions(request));
+    private MathEvaluationResultResponse evaluateWithTimeout(List<String> expressions, MathAssignmentWorkspace workspace,
+                                                             MathDataDto data, List<ExpressionDeadline> deadlines) {
+        CompletableFuture<MathEvaluationResultResponse> future =
+                evaluateExpressions(expressions, workspace, data, deadlines);
         try {
-            return future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            return awaitAll(future, deadlines);
         } catch (TimeoutException e) {
-            context.stopCurrentEvaluation();
             future.cancel(true);
-            throw new MathEvaluationTimeoutException("Timeout after " + TIMEOUT_SECONDS + " seconds");
+            throw new MathEvaluationTimeoutException("Timeout after " + timeouts.getRequest().toSeconds() + " seconds");
+        }
+    }
+
+    /**
+     * Creates the deadlines of the expressions of a request, sharing one evaluation context.
+     */
+    private List<ExpressionDeadline> deadlines(int count) {
+        MathEvaluationContext requestContext = new MathEvaluationContext(keys);
+        List<ExpressionDeadline> deadlines = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            deadlines.add(new ExpressionDeadline(requestContext));
+        }
+        return deadlines;
+    }
+
+    private static List<String> rawExpressions(MathEvaluationRequest request) {
+        return request.expressions().stream().map(MathExpressionDto::expression).toList();
+    }
+
+    /**
+     * Waits for the given future up to the request deadline. Once it is hit, cancels every expression deadline
+     * and waits a little longer for the cancelled expressions to report their timeout.
+     *
+     * @throws TimeoutException                if the future did not complete even after cancellation
+     * @throws MathEvaluationRejectedException if part of the evaluation was rejected by an overloaded pool
+     */
+    private <T> T awaitAll(CompletableFuture<T> future, List<ExpressionDeadline> deadlines) throws TimeoutException {
+        try {
+            try {
+                return future.get(timeouts.getRequest().toNanos(), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                logger.warn("Request deadline of {} hit, cancelling {} expressions", timeouts.getRequest(), deadlines.size());
+                deadlines.forEach(deadline -> deadline.expire(timeouts.getRequest()));
+                return future.get(CANCELLATION_GRACE.toNanos(), TimeUnit.NANOSECONDS);
+            }
         } catch (InterruptedException e) {
+            deadlines.forEach(deadline -> deadline.expire(timeouts.getRequest()));
             Thread.currentThread().interrupt();
             throw new RuntimeException("Evaluation interrupted", e);
         } catch (ExecutionException e) {
+            Throwable cause = e.getCause() instanceof CompletionException && e.getCause().getCause() != null
+                    ? e.getCause().getCause()
+                    : e.getCause();
+            if (cause instanceof MathEvaluationRejectedException || cause instanceof MathEnginePoolExhaustedException) {
+                deadlines.forEach(ExpressionDeadline::abort);
+                throw (RuntimeException) cause;
+            }
             throw new RuntimeException("Error evaluating math expressions", e.getCause());
-        } finally {
-            memory.clear();
-            context.stopCurrentEvaluation();
         }
     }
 
@@ -105,59 +407,206 @@ public class MathExpressionService implements MathEvaluationService {
      * Iterates over each input expression, processes it, and evaluates it using
      * the strategy corresponding to its classified type.
      *
-     * @param request the request containing multiple expressions and input data
-     * @return the aggregated evaluation response
+     * @param expressions the raw expressions to evaluate
+     * @param workspace   the assignments of the request
+     * @param data        the input data
+     * @param deadlines   the deadline of each expression, in request order
+     * @return the aggregated evaluation response, once every expression is evaluated
+     * @throws MathEvaluationRejectedException if the pool rejects an expression task
      */
-    private MathEvaluationResultResponse evaluateExpressions(MathEvaluationRequest request) {
-        logger.info("Starting evaluateExpressions() for {} expressions", request.expressions().size());
+    private CompletableFuture<MathEvaluationResultResponse> evaluateExpressions(List<String> expressions,
+                                                                                MathAssignmentWorkspace workspace,
+                                                                                MathDataDto data,
+                                                                                List<ExpressionDeadline> deadlines) {
+        logger.info("Starting evaluateExpressions() for {} expressions", expressions.size());
 
         // create a list of futures for each expression evaluation
         logger.debug("Creating CompletableFutures for each expression");
-        List<CompletableFuture<MathExpressionEvaluationDto>> futures = request.expressions().stream()
-                .map(expr -> CompletableFuture.supplyAsync(
-                        () -> evaluateSingleExpression(expr.expression(), request.data()),
+        List<CompletableFuture<MathExpressionEvaluationDto>> futures = new ArrayList<>();
+        for (int i = 0; i < expressions.size(); i++) {
+            String rawExpression = expressions.get(i);
+            ExpressionDeadline deadline = deadlines.get(i);
+            try {
+                futures.add(CompletableFuture.supplyAsync(
+                        () -> evaluateSingleExpression(rawExpression, workspace, data, deadline),
                         executor
-                ))
-                .toList();
-
-        // Wait for all futures to complete and collect results
-        logger.debug("Waiting for all CompletableFutures to complete");
-        List<MathExpressionEvaluationDto> evaluations = futures.stream()
-                .map(CompletableFuture::join) // join blocks until the future completes
-                .toList();
-
-        logger.info("All expressions evaluated; clearing memory");
-
-        context.stopCurrentEvaluation();
+                ));
+            } catch (RejectedExecutionException e) {
+                deadlines.forEach(ExpressionDeadline::abort);
+                throw new MathEvaluationRejectedException("Too many evaluations in progress");
+            }
+        }
 
-        MathEvaluationResultResponse response = new MathEvaluationResultResponse(evaluations);
-        logger.debug("Created MathEvaluationResultResponse with {} evaluation results", evaluations.size());
-        return response;
+        // Collect the results once all futures complete, without blocking a pool thread
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).thenApply(ignored -> {
+            List<MathExpressionEvaluationDto> evaluations = futures.stream()
+                    .map(CompletableFuture::join)
+                    .toList();
+            logger.debug("Created MathEvaluationResultResponse with {} evaluation results", evaluations.size());
+            return new MathEvaluationResultResponse(evaluations);
+        });
     }
 
     /**
-     * Evaluates a single expression. It first processes and classifies the expression,
+     * Evaluates a single expression under its own deadline. It first processes and classifies the expression,
      * then selects and executes the appropriate evaluation strategy.
+     * <p>
+     * If the deadline expires, the evaluation is stopped and reported as timed out instead of failing the request.
      *
      * @param rawExpression the raw mathematical expression as a string
+     * @param workspace     the assignments of the request
      * @param data          the input data context used in evaluation
+     * @param deadline      the deadline of this expression
      * @return the result of the evaluation including the original expression, its type, and outputs
      */
-    private MathExpressionEvaluationDto evaluateSingleExpression(String rawExpression, MathDataDto data) {
+    private MathExpressionEvaluationDto evaluateSingleExpression(String rawExpression, MathAssignmentWorkspace workspace,
+                                                                 MathDataDto data, ExpressionDeadline deadline) {
         logger.debug("Evaluating single expression: '{}'", rawExpression);
+        MathExpressionType[] type = {MathExpressionType.NONE};
+        try {
+            return deadline.call(() -> {
+                // Definitions in a cycle, and the expressions using them, are reported on their own
+                Optional<String> error = workspace.errorOf(rawExpression);
+                if (error.isPresent()) {
+                    logger.debug("Expression '{}' not evaluated: {}", rawExpression, error.get());
+                    return new MathExpressionEvaluationDto(rawExpression, MathExpressionType.NONE, List.of(
+                            new MathEvaluationDto(MathEvaluationType.NONE, null, List.of(error.get()))));
+                }
 
-        // Apply memory processing (e.g., variable substitution or definitions)
-        String processed = memory.process(rawExpression);
-        logger.debug("Processed expression from '{}' to '{}'", rawExpression, processed);
+                // Apply workspace processing (e.g., variable substitution or definitions)
+                String processed = workspace.process(rawExpression);
+                logger.debug("Processed expression from '{}' to '{}'", rawExpression, processed);
 
-        // Determine the type of expression (e.g., assignment, equation, function)
-        MathExpressionType type = mathExpressionClassifier.classify(processed);
-        logger.debug("Classified expression '{}' as type {}", processed, type);
+                // Determine the type of expression (e.g., assignment, equation, function)
+                type[0] = mathExpressionClassifier.classify(processed);
+                deadline.classified(type[0]);
+                logger.debug("Classified expression '{}' as type {}", processed, type[0]);
 
-        // Compute the result using the selected evaluation strategy
-        List<MathEvaluationDto> results = context.getStrategy(type).compute(processed, data);
-        logger.debug("Computed results for expression '{}': {}", processed, results);
+                // Compute the result using the selected evaluation strategy
+                List<MathEvaluationDto> results = context.getStrategy(type[0]).compute(processed, data);
+                logger.debug("Computed results for expression '{}': {}", processed, results);
 
-        return new MathExpressionEvaluationDto(rawExpression, type, results);
+                return new MathExpressionEvaluationDto(rawExpression, type[0], results);
+            });
+        } catch (RuntimeException ex) {
+            if (!deadline.isExpired()) {
+                throw ex;
+            }
+            logger.warn("Expression '{}' stopped: {}", rawExpression, deadline.timeoutMessage());
+            return new MathExpressionEvaluationDto(rawExpression, type[0], List.of(
+                    new MathEvaluationDto(MathEvaluationType.NONE, null, List.of(deadline.timeoutMessage()))));
+        } finally {
+            deadline.finish();
+        }
+    }
+
+    /**
+     * {@code ExpressionDeadline} tracks the deadline of one expression and the cancellation handle its
+     * evaluation runs under, together with the evaluation context of its request.
+     * <p>
+     * The deadline starts when the expression starts evaluating, using the default expression deadline,
+     * and is moved to the deadline of the expression type once it is classified.
+     */
+    private final class ExpressionDeadline {
+        private final MathCancellationHandle handle = new MathCancellationHandle();
+        private final MathEvaluationContext requestContext;
+
+        private long startNanos;
+        private Duration timeout;
+        private ScheduledFuture<?> timer;
+        private boolean finished;
+
+        ExpressionDeadline(MathEvaluationContext requestContext) {
+            this.requestContext = requestContext;
+        }
+
+        /**
+         * Runs a part of the evaluation of this expression under its cancellation handle and request context,
+         * starting the deadline if it was not started yet.
+         */
+        <T> T call(Supplier<T> task) {
+            start();
+            try (MathCancellationHandle.Binding ignored = handle.activate();
+                 MathEvaluationContext.Scope scope = requestContext.activate()) {
+                return task.get();
+            }
+        }
+
+        void run(Runnable task) {
+            call(() -> {
+                task.run();
+                return null;
+            });
+        }
+
+        /**
+         * Moves the deadline to the one configured for the given type, counting from the original start.
+         */
+        synchronized void classified(MathExpressionType type) {
+            arm(timeouts.timeoutFor(type));
+        }
+
+        /**
+         * Cancels the expression right away, reporting the given timeout.
+         */
+        void expire(Duration reportedTimeout) {
+            synchronized (this) {
+                if (finished || handle.isCancelled()) {
+                    return;
+                }
+                timeout = reportedTimeout;
+                finished = true;
+                cancelTimer();
+            }
+            handle.cancel();
+        }
+
+        /**
+         * Cancels the expression right away because its request failed, stopping whatever it still computes.
+         */
+        void abort() {
+            synchronized (this) {
+                finished = true;
+                cancelTimer();
+            }
+            handle.cancel();
+        }
+
+        synchronized void finish() {
+            finished = true;
+            cancelTimer();
+        }
+
+        boolean isExpired() {
+            return handle.isCancelled();
+        }
+
+        synchronized String timeoutMessage() {
+            Duration reported = timeout == null ? timeouts.timeoutFor(null) : timeout;
+            return "Timeout after " + reported.toSeconds() + " seconds";
+        }
+
+        private synchronized void start() {
+            if (timeout == null) {
+                startNanos = System.nanoTime();
+                arm(timeouts.timeoutFor(null));
+            }
+        }
+
+        private void arm(Duration deadline) {
+            if (finished) {
+                return;
+            }
+            cancelTimer();
+            timeout = deadline;
+            long remaining = deadline.toNanos() - (System.nanoTime() - startNanos);
+            timer = deadlineScheduler.schedule(handle::cancel, Math.max(0, remaining), TimeUnit.NANOSECONDS);
+        }
+
+        private void cancelTimer() {
+            if (timer != null) {
+                timer.cancel(false);
+            }
+        }
     }
 }
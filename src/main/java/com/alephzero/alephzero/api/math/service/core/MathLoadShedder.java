@@ -0,0 +1,198 @@
+package com.alephzero.alephzero.api.math.service.core;
+
+import com.alephzero.alephzero.api.math.exception.MathEvaluationOverloadedException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * {@code MathLoadShedder} admits evaluation requests before any work is done for them, and rejects them quickly
+ * while the server is overloaded.
+ * <p>
+ * It counts the evaluation requests in progress. Reaching the high watermark switches it to shedding, where
+ * every new request is rejected with a {@link MathEvaluationOverloadedException}, until the requests in progress
+ * drain back to the low watermark. The gap between both watermarks keeps it from flapping around a single
+ * threshold.
+ * <p>
+ * Rejections carry a retry delay: the time the current backlog needs to drain to the low watermark at the rate
+ * requests have recently been completing, measured as an exponentially weighted average over one-second windows.
+ * The windows are advanced as requests complete, so a quiet period counts as empty windows that decay the rate
+ * instead of being averaged into the first window read after it.
+ */
+@Component
+public class MathLoadShedder {
+
+    private static final Logger logger = LogManager.getLogger(MathLoadShedder.class);
+
+    private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final double SMOOTHING = 0.5; // Weight of the last window in the drain rate
+    private static final int MAX_DECAYED_WINDOWS = 64; // Empty windows after which the drain rate is zero
+
+    private final MathLoadSheddingProperties properties;
+    private final LongSupplier clock;
+
+    private final AtomicInteger inProgress = new AtomicInteger();
+    private final LongAdder shed = new LongAdder();
+    private volatile boolean shedding;
+
+    private long windowStart;
+    private long windowCompleted; // Requests completed since windowStart
+    private double drainRate; // Completed requests per second
+
+    /**
+     * Creates a load shedder with the given watermarks.
+     *
+     * @param properties the load shedding configuration
+     */
+    @Autowired
+    public MathLoadShedder(MathLoadSheddingProperties properties) {
+        this(properties, System::nanoTime);
+    }
+
+    /**
+     * Creates a load shedder measuring time with the given clock.
+     *
+     * @param properties the load shedding configuration
+     * @param clock      returns the current time in nanoseconds
+     */
+    public MathLoadShedder(MathLoadSheddingProperties properties, LongSupplier clock) {
+        this.properties = properties;
+        this.clock = clock;
+        this.windowStart = clock.getAsLong();
+        logger.info("MathLoadShedder initialized, enabled={}, watermarks={}/{}", properties.isEnabled(),
+                properties.getLowWatermark(), properties.getHighWatermark());
+    }
+
+    /**
+     * Admits an evaluation request.
+     *
+     * @return the admission, to be closed once the request is done
+     * @throws MathEvaluationOverloadedException if the server is shedding load
+     */
+    public Ticket admit() {
+        if (!properties.isEnabled()) {
+            inProgress.incrementAndGet();
+            return new Ticket();
+        }
+
+        while (true) {
+            int current = inProgress.get();
+            if (shedding && current <= properties.getLowWatermark()) {
+                shedding = false;
+                logger.info("Load shedding stopped, {} evaluation requests in progress", current);
+            }
+            if (!shedding && current >= properties.getHighWatermark()) {
+                shedding = true;
+                logger.warn("Load shedding started, {} evaluation requests in progress", current);
+            }
+            if (shedding) {
+                shed.increment();
+                Duration retryAfter = retryAfter(current);
+                throw new MathEvaluationOverloadedException(
+                        "Too many evaluation requests in progress, retry in " + retryAfter.toSeconds() + " s",
+                        retryAfter);
+            }
+            // Only admits against the count checked above, so a burst cannot overshoot the high watermark
+            if (inProgress.compareAndSet(current, current + 1)) {
+                return new Ticket();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of evaluation requests in progress.
+     *
+     * @return the admitted requests not done yet
+     */
+    public int getInProgress() {
+        return inProgress.get();
+    }
+
+    /**
+     * Returns whether new evaluation requests are currently rejected.
+     *
+     * @return true while shedding load
+     */
+    public boolean isShedding() {
+        return shedding;
+    }
+
+    /**
+     * Returns the number of evaluation requests rejected so far.
+     *
+     * @return the number of shed requests
+     */
+    public long getShedCount() {
+        return shed.sum();
+    }
+
+    /**
+     * Returns the rate at which evaluation requests have recently been completing.
+     *
+     * @return the drain rate, in requests per second
+     */
+    public synchronized double getDrainRate() {
+        advance(clock.getAsLong());
+        return drainRate;
+    }
+
+    private synchronized void complete() {
+        advance(clock.getAsLong());
+        windowCompleted++;
+    }
+
+    /**
+     * Folds every window ended by {@code now} into the drain rate, the ones without completions as a zero rate.
+     */
+    private void advance(long now) {
+        long windows = (now - windowStart) / WINDOW_NANOS;
+        if (windows <= 0) {
+            return;
+        }
+        double rate = windowCompleted * (double) TimeUnit.SECONDS.toNanos(1) / WINDOW_NANOS;
+        drainRate = drainRate == 0 ? rate : SMOOTHING * rate + (1 - SMOOTHING) * drainRate;
+        if (windows > MAX_DECAYED_WINDOWS) {
+            drainRate = 0;
+        } else {
+            drainRate *= Math.pow(1 - SMOOTHING, windows - 1);
+        }
+        windowStart += windows * WINDOW_NANOS;
+        windowCompleted = 0;
+    }
+
+    private Duration retryAfter(int current) {
+        long max = Math.max(1, properties.getMaxRetryAfter().toSeconds());
+        double rate = getDrainRate();
+        if (rate <= 0) {
+            return Duration.ofSeconds(max);
+        }
+        double backlog = Math.max(1, current - properties.getLowWatermark());
+        return Duration.ofSeconds(Math.min(max, Math.max(1, (long) Math.ceil(backlog / rate))));
+    }
+
+    /**
+     * The admission of one evaluation request, released when closed.
+     */
+    public final class Ticket implements AutoCloseable {
+        private boolean closed;
+
+        private Ticket() {
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                inProgress.decrementAndGet();
+                complete();
+            }
+        }
+    }
+}
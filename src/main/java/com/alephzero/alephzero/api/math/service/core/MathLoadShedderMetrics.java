@@ -0,0 +1,31 @@
+package com.alephzero.alephzero.api.math.service.core;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exposes the {@link MathLoadShedder} state as Micrometer meters
+ * under the {@code math.load} prefix.
+ */
+@Component
+public class MathLoadShedderMetrics implements MeterBinder {
+
+    private final MathLoadShedder shedder;
+
+    public MathLoadShedderMetrics(MathLoadShedder shedder) {
+        this.shedder = shedder;
+    }
+
+    @Override
+    public void bindTo(@NotNull MeterRegistry registry) {
+        Gauge.builder("math.load.in.progress", shedder, MathLoadShedder::getInProgress).register(registry);
+        Gauge.builder("math.load.shedding", shedder, s -> s.isShedding() ? 1 : 0).register(registry);
+        Gauge.builder("math.load.drain.rate", shedder, MathLoadShedder::getDrainRate).register(registry);
+
+        FunctionCounter.builder("math.load.shed", shedder, MathLoadShedder::getShedCount).register(registry);
+    }
+}
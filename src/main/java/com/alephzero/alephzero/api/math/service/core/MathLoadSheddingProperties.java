@@ -0,0 +1,34 @@
+package com.alephzero.alephzero.api.math.service.core;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for shedding evaluation requests under overload.
+ * <p>
+ * This class is used to bind properties prefixed with "math.load-shedding" from the application properties file.
+ * Once {@code highWatermark} evaluation requests are in progress, new ones are rejected until the backlog drains
+ * back to {@code lowWatermark}, so admitted requests keep a bounded latency during spikes.
+ * </p>
+ */
+@Setter
+@Getter
+@Configuration
+@ConfigurationProperties(prefix = "math.load-shedding")
+public class MathLoadSheddingProperties {
+    /** Whether evaluation requests are shed under overload. */
+    private boolean enabled = true;
+
+    /** Number of evaluation requests in progress from which new ones are rejected. */
+    private int highWatermark = 256;
+
+    /** Number of evaluation requests in progress under which new ones are admitted again. */
+    private int lowWatermark = 192;
+
+    /** Longest Retry-After advertised to rejected clients. */
+    private Duration maxRetryAfter = Duration.ofSeconds(60);
+}
@@ -9,15 +9,15 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
- * {@code MathAssignmentMemory} is a memory buffer component that manages assignment
- * of symbolic variables and functions in mathematical expressions.
+ * {@code MathAssignmentMemory} builds the {@link MathAssignmentWorkspace} of every evaluation request, which
+ * manages the assignment of symbolic variables and functions in its mathematical expressions.
  * <p>
- * It allows storing and retrieving simple one-character variable definitions (e.g., {@code x=5}),
- * as well as function definitions with lowercase letters, parentheses or square brackets (e.g., {@code f(x)=2*x+1}, {@code g[y]=y^2}).
- * It replaces these variables/functions dynamically during expression evaluation. It also loads constant values
- * at initialization and validates symbol usage.
+ * It recognizes simple one-character variable definitions (e.g., {@code x=5}), as well as function definitions
+ * with lowercase letters, parentheses or square brackets (e.g., {@code f(x)=2*x+1}, {@code g[y]=y^2}). Every
+ * workspace starts from the constant values, loaded once at initialization.
  * <p>
- * This service is especially useful for preserving user-defined variables and functions across requests.
+ * The component itself holds no user state, so concurrent requests never see each other's definitions: each one
+ * gets its own immutable workspace, safe to share between the threads evaluating its expressions.
  */
 @Component
 public class MathAssignmentMemory {
@@ -26,129 +26,79 @@ public class MathAssignmentMemory {
     // LHS: either a single lowercase letter, or a lowercase function name with () or []
     private static final Pattern ASSIGNMENT_PATTERN = Pattern.compile("^(([a-z])|([a-z]+\\s*\\(\\s*[a-z]\\s*\\))|([a-z]+\\s*\\[\\s*[a-z]\\s*]))=(.+)$");
 
-    private final Map<String, String> variableMap = new HashMap<>(); // Stores variable and function assignments
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final Map<String, String> constants;  // Predefined constants, the base of every workspace
     private final RegexValidator regexValidator; // Regex-based validator for symbol recognition
 
     /**
-     * Constructor that injects the regex validator and initializes constants.
+     * Constructor that injects the regex validator and loads the constants.
      *
      * @param regexValidator the validator used to extract symbols in expressions
      */
     public MathAssignmentMemory(RegexValidator regexValidator) {
         this.regexValidator = regexValidator;
-        init();
+        this.constants = Collections.unmodifiableMap(loadConstants());
     }
 
     /**
-     * Initializes the memory with predefined mathematical constants
-     * from {@link MathConstants}.
+     * Loads the predefined mathematical constants from {@link MathConstants}.
      */
-    private void init() {
-        MathConstants[] constants = MathConstants.values();
-
-        for (MathConstants constant : constants) {
+    private static Map<String, String> loadConstants() {
+        Map<String, String> constants = new LinkedHashMap<>();
+        for (MathConstants constant : MathConstants.values()) {
             if (constant.getNativeValor() != null) {
-                addVariable(constant.getCustomValor(), constant.getNativeValor());
+                constants.put(normalize(constant.getCustomValor()), constant.getNativeValor());
             }
         }
+        return constants;
     }
 
     /**
-     * Adds or replaces a variable or function assignment in memory.
-     *
-     * @param variable the variable or function symbol (e.g., "x", "f(x)", "g[y]")
-     * @param value the value assigned to the variable or function (e.g., "3", "2*x+1")
-     * @return the previous value associated with the variable, or {@code null} if none
-     */
-    private String addVariable(String variable, String value) {
-        return variableMap.put(variable.replaceAll("\\s+", ""), value); // Normalize spaces out of keys
-    }
-
-    /**
-     * Processes a mathematical expression. If it is an assignment (e.g., "x=2" or "f(x)=2*x+1"),
-     * it stores the variable or function. Otherwise, it replaces known variables/functions in the expression.
+     * Builds the workspace of a request: the constants, plus every assignment among its expressions.
+     * <p>
+     * Assignments are collected in request order, so when a symbol is assigned twice the last assignment wins.
+     * Every expression of the request is then processed against the same definitions, whatever its position.
      *
-     * @param expression the input expression
-     * @return a confirmation of assignment or the updated expression with variables/functions replaced
+     * @param expressions the raw expressions of the request, in order
+     * @return the immutable workspace of the request
      */
-    public String process(String expression) {
-        init();
-
-        Matcher matcher = ASSIGNMENT_PATTERN.matcher(expression.replaceAll("\\s+", "")); // Remove all spaces for matching
-        if (matcher.matches()) {
-            String lhs = matcher.group(1);
-            String value = matcher.group(5);
-            addVariable(lhs, value);
-            System.out.println(lhs + " = " + value);
-            return lhs + " = " + value;
+    public MathAssignmentWorkspace workspace(List<String> expressions) {
+        Map<String, String> variables = new LinkedHashMap<>(constants);
+        for (String expression : expressions) {
+            Assignment assignment = parseAssignment(expression);
+            if (assignment != null) {
+                variables.put(assignment.symbol(), assignment.value());
+            }
         }
-        return replaceVariables(expression);
+        return new MathAssignmentWorkspace(this, variables);
     }
 
     /**
-     * Replaces all known variable or function symbols in the given expression with their assigned values.
-     * Functions are replaced first, then variables.
+     * Parses an assignment (e.g., "x=2" or "f(x)=2*x+1").
      *
-     * @param expression the original expression
-     * @return the expression with variables/functions replaced by their stored values
+     * @param expression the input expression
+     * @return the assignment, or {@code null} if the expression is not one
      */
-    public String replaceVariables(String expression) {
-        String result = expression;
-        // Sort keys by length descending to avoid partial replacements (e.g., f(x) before f)
-        List<String> keys = new ArrayList<>(variableMap.keySet());
-        keys.sort((a, b) -> Integer.compare(b.length(), a.length()));
-        for (String key : keys) {
-            String regexKey = Pattern.quote(key);
-            // For function, allow optional spaces inside the signature
-            if (key.matches("^[a-z]+\\([a-z]\\)$")) {
-                // f(x), match f\\s*\\(\\s*x\\s*\\)
-                String funPattern = key.replaceAll("([a-z]+)\\(([a-z])\\)", "$1\\\\s*\\\\(\\\\s*$2\\\\s*\\\\)");
-                result = result.replaceAll(funPattern, variableMap.get(key));
-            } else if (key.matches("^[a-z]+\\[[a-z]]$")) {
-                // g[y], match g\\s*\\[\\s*y\\s*\\]
-                String funPattern = key.replaceAll("([a-z]+)\\[([a-z])]", "$1\\\\s*\\\\[\\\\s*$2\\\\s*\\\\]");
-                result = result.replaceAll(funPattern, variableMap.get(key));
-            } else {
-                // Single variable
-                result = result.replaceAll("\\b" + regexKey + "\\b", variableMap.get(key));
-            }
-        }
-        return result;
+    Assignment parseAssignment(String expression) {
+        Matcher matcher = ASSIGNMENT_PATTERN.matcher(normalize(expression)); // Remove all spaces for matching
+        return matcher.matches() ? new Assignment(matcher.group(1), matcher.group(5)) : null;
     }
 
-    /**
-     * Clears all user-defined variables and functions from memory.
-     */
-    public void clear() {
-        variableMap.clear();
+    RegexValidator getRegexValidator() {
+        return regexValidator;
     }
 
-    /**
-     * Retrieves a copy of all current variable assignments.
-     *
-     * @return an unmodifiable map of variable/function-value pairs
-     */
-    public Map<String, String> getVariables() {
-        return Map.copyOf(variableMap);
+    private static String normalize(String symbol) {
+        return WHITESPACE.matcher(symbol).replaceAll(""); // Normalize spaces out of keys
     }
 
     /**
-     * Extracts and returns all symbols from an expression that are not yet assigned in memory.
-     * (Only applies to variables for simplicity. For function symbols, custom extraction may be needed.)
+     * A variable or function assignment, with spaces removed.
      *
-     * @param expression the expression to inspect
-     * @return an array of unassigned variable or function symbols
+     * @param symbol the variable or function symbol (e.g., "x", "f(x)", "g[y]")
+     * @param value  the value assigned to it (e.g., "3", "2*x+1")
      */
-    public String[] getVariablesInExpression(String expression) {
-        Matcher matcher = RegexValidator.matcher(expression, regexValidator.SYMBOL_PATTERN);
-        List<String> variables = new ArrayList<>();
-        while (matcher.find()) {
-            String symbol = matcher.group(1);
-            if (!variableMap.containsKey(symbol)) {
-                variables.add(symbol);
-            }
-        }
-        // Optionally, extend this to extract unassigned functions as well if required
-        return variables.toArray(new String[0]);
+    record Assignment(String symbol, String value) {
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,339 @@
+package com.alephzero.alephzero.api.math.service.memory;
+
+import com.alephzero.alephzero.api.math.regex.RegexValidator;
+
+import java.util.*;
+import java.util.regex.Matcher;
+
+/**
+ * {@code MathAssignmentWorkspace} holds the variable and function definitions of one evaluation request, and
+ * replaces them in its expressions.
+ * <p>
+ * Definitions are stored parsed, as {@link MathExpressionTree} nodes, and looked up by name, so substituting them
+ * in an expression is a single walk of its tree whatever the number of definitions, and never touches part of
+ * a longer name ({@code x} inside {@code exp}). A variable replaces its symbol; a function replaces its calls with
+ * its body applied to the argument of the call, so {@code f(3)} works as well as {@code f(x)}. Compound values are
+ * parenthesized, so that {@code b*x} with {@code b=a+1} keeps meaning {@code (a+1)*x}.
+ * <p>
+ * Definitions may use each other ({@code a=2}, {@code b=a+1}, {@code f(x)=b*x^2}). The workspace builds the
+ * dependency graph of the definitions, from the names each one references, and resolves them in dependency
+ * order, so every definition is fully expanded whatever the order of the request. A function parameter is bound
+ * in its body and never counts as a reference. Definitions that are part of a cycle, or depend on one, cannot
+ * be resolved: they are reported through {@link #errorOf(String)}, for the assignment itself and for every
+ * expression that uses them, without affecting the others.
+ * <p>
+ * Once resolved, no expression depends on the evaluation of another one, so all of them can be evaluated in
+ * parallel with deterministic results. A workspace is immutable once built by
+ * {@link MathAssignmentMemory#workspace(List)}: the expressions of the request can be processed against it from
+ * any number of threads, in any order. It is simply dropped with the request, so nothing has to be cleared.
+ */
+public final class MathAssignmentWorkspace {
+
+    private final MathAssignmentMemory memory;
+    private final Map<String, String> variableMap;   // Variable and function assignments, as written, in order
+    private final Map<String, Definition> variables = new HashMap<>();  // By name
+    private final Map<String, Definition> functions = new HashMap<>();  // By name
+
+    private final Map<String, String> errors = new HashMap<>(); // Names of definitions that cannot be resolved, and why
+
+    MathAssignmentWorkspace(MathAssignmentMemory memory, Map<String, String> variables) {
+        this.memory = memory;
+        this.variableMap = Collections.unmodifiableMap(new LinkedHashMap<>(variables)); // Request order breaks ties
+
+        List<Definition> definitions = new ArrayList<>();
+        for (Map.Entry<String, String> entry : variableMap.entrySet()) {
+            Definition definition = Definition.of(entry.getKey(), entry.getValue());
+            definitions.add(definition);
+            (definition.parameter() == null ? this.variables : functions).put(definition.name(), definition);
+        }
+        for (Definition definition : definitions) {
+            resolve(definition, new ArrayDeque<>());
+        }
+    }
+
+    /**
+     * Processes a mathematical expression. If it is an assignment (e.g., "x=2" or "f(x)=2*x+1"),
+     * it returns its confirmation, the definition itself being already part of the workspace.
+     * Otherwise, it replaces known variables/functions in the expression.
+     *
+     * @param expression the input expression
+     * @return a confirmation of assignment or the updated expression with variables/functions replaced
+     */
+    public String process(String expression) {
+        MathAssignmentMemory.Assignment assignment = memory.parseAssignment(expression);
+        if (assignment != null) {
+            return assignment.symbol() + " = " + assignment.value();
+        }
+        return replaceVariables(expression);
+    }
+
+    /**
+     * Returns why an expression cannot be processed: it is a definition that cannot be resolved, or it uses one.
+     *
+     * @param expression the input expression
+     * @return the error of the expression, or empty if it can be processed
+     */
+    public Optional<String> errorOf(String expression) {
+        if (errors.isEmpty()) {
+            return Optional.empty();
+        }
+        MathAssignmentMemory.Assignment assignment = memory.parseAssignment(expression);
+        if (assignment != null) {
+            return Optional.ofNullable(errors.get(Definition.of(assignment.symbol(), assignment.value()).key()));
+        }
+        Set<String> names = new HashSet<>();
+        MathExpressionTree.collectNames(MathExpressionTree.parse(expression), names);
+        for (Definition definition : dependencies(names, null)) {
+            if (errors.containsKey(definition.key())) {
+                return Optional.of("Uses " + definition.key() + ": " + errors.get(definition.key()));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Replaces all known variable or function symbols in the given expression with their resolved values,
+     * in a single walk of its tree.
+     *
+     * @param expression the original expression
+     * @return the expression with variables/functions replaced by their resolved values
+     */
+    public String replaceVariables(String expression) {
+        StringBuilder out = new StringBuilder(expression.length());
+        substitute(MathExpressionTree.parse(expression), Map.of(), true, out);
+        return out.toString();
+    }
+
+    /**
+     * Retrieves all variable assignments of this workspace, as written.
+     *
+     * @return an unmodifiable map of variable/function-value pairs
+     */
+    public Map<String, String> getVariables() {
+        return variableMap;
+    }
+
+    /**
+     * Extracts and returns all symbols from an expression that are not assigned in this workspace.
+     * (Only applies to variables for simplicity. For function symbols, custom extraction may be needed.)
+     *
+     * @param expression the expression to inspect
+     * @return an array of unassigned variable or function symbols
+     */
+    public String[] getVariablesInExpression(String expression) {
+        RegexValidator regexValidator = memory.getRegexValidator();
+        Matcher matcher = RegexValidator.matcher(expression, regexValidator.SYMBOL_PATTERN);
+        List<String> variables = new ArrayList<>();
+        while (matcher.find()) {
+            String symbol = matcher.group(1);
+            if (!variableMap.containsKey(symbol)) {
+                variables.add(symbol);
+            }
+        }
+        // Optionally, extend this to extract unassigned functions as well if required
+        return variables.toArray(new String[0]);
+    }
+
+    /**
+     * Resolves a definition after its dependencies, depth first, replacing its body by the expanded one.
+     *
+     * @param definition the definition to resolve
+     * @param path       the definitions being resolved, the innermost first
+     * @return whether the definition could be resolved
+     */
+    private boolean resolve(Definition definition, Deque<Definition> path) {
+        if (definition.resolved() != null || errors.containsKey(definition.key())) {
+            return definition.resolved() != null;
+        }
+        if (path.contains(definition)) {
+            reportCycle(definition, path);
+            return false;
+        }
+
+        path.push(definition);
+        Set<String> names = new HashSet<>();
+        MathExpressionTree.collectNames(definition.body(), names);
+        for (Definition dependency : dependencies(names, definition.parameter())) {
+            if (!resolve(dependency, path) && !errors.containsKey(definition.key())) {
+                errors.put(definition.key(), "Depends on " + dependency.key() + ", which cannot be resolved");
+            }
+        }
+        path.pop();
+
+        if (errors.containsKey(definition.key())) {
+            return false;
+        }
+        // The parameter is bound in the body: it stays as it is until the function is applied
+        Map<String, String> bound = definition.parameter() == null
+                ? Map.of()
+                : Map.of(definition.parameter(), definition.parameter());
+        StringBuilder out = new StringBuilder();
+        substitute(definition.body(), bound, true, out);
+        definition.resolve(out.toString());
+        return true;
+    }
+
+    /**
+     * Marks every definition of a cycle, from the given one back to itself along the path.
+     */
+    private void reportCycle(Definition definition, Deque<Definition> path) {
+        List<String> cycle = new ArrayList<>();
+        for (Iterator<Definition> it = path.descendingIterator(); it.hasNext(); ) {
+            Definition node = it.next();
+            if (node == definition || !cycle.isEmpty()) {
+                cycle.add(node.key());
+            }
+        }
+        cycle.add(definition.key());
+        String message = "Cyclic definition: " + String.join(" -> ", cycle);
+        for (String key : cycle) {
+            errors.putIfAbsent(key, message);
+        }
+    }
+
+    /**
+     * Returns the definitions of the given names, in a stable order, the bound parameter excluded.
+     */
+    private List<Definition> dependencies(Set<String> names, String parameter) {
+        List<Definition> dependencies = new ArrayList<>();
+        for (String name : new TreeSet<>(names)) {
+            if (name.equals(parameter)) {
+                continue;
+            }
+            Definition variable = variables.get(name);
+            if (variable != null) {
+                dependencies.add(variable);
+            }
+            Definition function = functions.get(name);
+            if (function != null) {
+                dependencies.add(function);
+            }
+        }
+        return dependencies;
+    }
+
+    /**
+     * Writes the given nodes with bound parameters and, if requested, definitions replaced.
+     *
+     * @param nodes       the nodes to write
+     * @param bound       the values of the parameters in scope, replacing any definition of the same name
+     * @param definitions whether to replace definitions, or bound parameters only
+     * @param out         receives the text
+     */
+    private void substitute(List<MathExpressionTree.Node> nodes, Map<String, String> bound, boolean definitions,
+                            StringBuilder out) {
+        for (MathExpressionTree.Node node : nodes) {
+            switch (node) {
+                case MathExpressionTree.Text text -> out.append(text.text());
+                case MathExpressionTree.Symbol symbol -> symbol(symbol.name(), bound, definitions, out);
+                case MathExpressionTree.Call call -> {
+                    Definition function = definitions && !bound.containsKey(call.name())
+                            ? functions.get(call.name())
+                            : null;
+                    if (function != null && function.resolved() != null && call.arguments().size() == 1) {
+                        StringBuilder argument = new StringBuilder();
+                        substitute(call.arguments().getFirst(), bound, true, argument);
+                        StringBuilder applied = new StringBuilder();
+                        substitute(function.resolvedTree(), Map.of(function.parameter(), grouped(argument.toString())),
+                                false, applied);
+                        out.append(grouped(applied.toString()));
+                    } else {
+                        symbol(call.name(), bound, definitions, out);
+                        out.append(call.gap()).append(call.open());
+                        for (int i = 0; i < call.arguments().size(); i++) {
+                            if (i > 0) {
+                                out.append(',');
+                            }
+                            substitute(call.arguments().get(i), bound, definitions, out);
+                        }
+                        out.append(call.close());
+                    }
+                }
+            }
+        }
+    }
+
+    private void symbol(String name, Map<String, String> bound, boolean definitions, StringBuilder out) {
+        String value = bound.get(name);
+        if (value == null && definitions) {
+            Definition variable = variables.get(name);
+            value = variable == null || variable.resolved() == null ? null : grouped(variable.resolved());
+        }
+        out.append(value == null ? name : value);
+    }
+
+    /**
+     * Parenthesizes a compound value, so that it keeps its meaning wherever it is substituted.
+     */
+    private static String grouped(String value) {
+        return isAtom(value) || isGrouped(value) ? value : "(" + value + ")";
+    }
+
+    private static boolean isAtom(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (!Character.isLetterOrDigit(c) && c != '.' && c != '$') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Whether the value is one parenthesized group, such as {@code (2*x)}, but not {@code (a)+(b)}.
+     */
+    private static boolean isGrouped(String value) {
+        if (value.isEmpty() || value.charAt(0) != '(') {
+            return false;
+        }
+        int depth = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '(') {
+                depth++;
+            } else if (c == ')' && --depth == 0) {
+                return i == value.length() - 1;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A variable or function definition, parsed once.
+     */
+    private static final class Definition {
+        private final String key;        // As written: x, f(x), g[y]
+        private final String name;
+        private final String parameter;  // null for a variable
+        private final List<MathExpressionTree.Node> body;
+        private String resolved;
+        private List<MathExpressionTree.Node> resolvedTree;
+
+        private Definition(String key, String name, String parameter, String value) {
+            this.key = key;
+            this.name = name;
+            this.parameter = parameter;
+            this.body = MathExpressionTree.parse(value);
+        }
+
+        static Definition of(String key, String value) {
+            int open = Math.max(key.indexOf('('), key.indexOf('['));
+            if (open < 0) {
+                return new Definition(key, key, null, value);
+            }
+            return new Definition(key, key.substring(0, open), key.substring(open + 1, key.length() - 1), value);
+        }
+
+        void resolve(String value) {
+            this.resolved = value;
+            this.resolvedTree = parameter == null ? null : MathExpressionTree.parse(value);
+        }
+
+        String key() { return key; }
+        String name() { return name; }
+        String parameter() { return parameter; }
+        List<MathExpressionTree.Node> body() { return body; }
+        String resolved() { return resolved; }
+        List<MathExpressionTree.Node> resolvedTree() { return resolvedTree; }
+    }
+}
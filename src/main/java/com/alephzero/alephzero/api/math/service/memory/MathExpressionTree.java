@@ -0,0 +1,205 @@
+package com.alephzero.alephzero.api.math.service.memory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * {@code MathExpressionTree} is the structural form of an expression used to substitute definitions: just enough
+ * of a parse tree to tell symbols and function calls apart from everything else.
+ * <p>
+ * An expression is a sequence of {@link Node nodes}: {@link Symbol symbols} ({@code x}, {@code exp}), {@link Call
+ * calls} of a name with bracketed arguments ({@code f(x)}, {@code Sin[x, y]}), each argument being a sequence
+ * itself, and {@link Text text} for everything else, numbers, operators and spacing included. Since symbols are
+ * whole tokens, substituting {@code x} never touches {@code exp}, and rendering an unmodified tree gives back the
+ * original expression.
+ */
+final class MathExpressionTree {
+
+    private MathExpressionTree() {
+    }
+
+    /**
+     * A part of an expression.
+     */
+    sealed interface Node permits Text, Symbol, Call {
+    }
+
+    /**
+     * Numbers, operators, spacing and plain brackets, kept as they are.
+     */
+    record Text(String text) implements Node {
+    }
+
+    /**
+     * A symbol not followed by brackets.
+     */
+    record Symbol(String name) implements Node {
+    }
+
+    /**
+     * A name followed by bracketed arguments.
+     *
+     * @param name      the called name
+     * @param gap       the spacing between the name and its opening bracket
+     * @param open      the opening bracket, {@code (} or {@code [}
+     * @param arguments the arguments, each one a sequence of nodes
+     * @param close     the closing bracket, or an empty string if the call is not closed
+     */
+    record Call(String name, String gap, char open, List<List<Node>> arguments, String close) implements Node {
+    }
+
+    /**
+     * Parses an expression.
+     *
+     * @param source the expression
+     * @return the nodes of the expression, in order
+     */
+    static List<Node> parse(String source) {
+        return new Parser(source).sequence(false);
+    }
+
+    /**
+     * Renders nodes back to text.
+     *
+     * @param nodes the nodes to render
+     * @param out   receives the text
+     */
+    static void render(List<Node> nodes, StringBuilder out) {
+        for (Node node : nodes) {
+            switch (node) {
+                case Text text -> out.append(text.text());
+                case Symbol symbol -> out.append(symbol.name());
+                case Call call -> {
+                    out.append(call.name()).append(call.gap()).append(call.open());
+                    renderArguments(call, out);
+                    out.append(call.close());
+                }
+            }
+        }
+    }
+
+    /**
+     * Renders the arguments of a call, separated by commas, without its brackets.
+     */
+    static void renderArguments(Call call, StringBuilder out) {
+        for (int i = 0; i < call.arguments().size(); i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            render(call.arguments().get(i), out);
+        }
+    }
+
+    /**
+     * Collects the names of every symbol and call in the given nodes, arguments included.
+     *
+     * @param nodes the nodes to inspect
+     * @param names receives the names
+     */
+    static void collectNames(List<Node> nodes, Set<String> names) {
+        for (Node node : nodes) {
+            if (node instanceof Symbol symbol) {
+                names.add(symbol.name());
+            } else if (node instanceof Call call) {
+                names.add(call.name());
+                call.arguments().forEach(argument -> collectNames(argument, names));
+            }
+        }
+    }
+
+    /**
+     * A single pass over the characters of an expression.
+     */
+    private static final class Parser {
+        private final String source;
+        private int pos;
+
+        Parser(String source) {
+            this.source = source;
+        }
+
+        /**
+         * Parses nodes up to the end, or inside a call up to the comma or closing bracket ending its argument.
+         */
+        List<Node> sequence(boolean argument) {
+            List<Node> nodes = new ArrayList<>();
+            StringBuilder text = new StringBuilder();
+            int depth = 0; // Plain brackets opened inside this sequence
+            while (pos < source.length()) {
+                char c = source.charAt(pos);
+                if (argument && depth == 0 && (c == ',' || c == ')' || c == ']')) {
+                    break;
+                }
+                if (isNameStart(c)) {
+                    flush(text, nodes);
+                    nodes.add(name());
+                } else if (Character.isDigit(c) || c == '.') {
+                    // Numbers stay text, so the digits of 2x never join a name
+                    while (pos < source.length() && (Character.isDigit(source.charAt(pos)) || source.charAt(pos) == '.')) {
+                        text.append(source.charAt(pos++));
+                    }
+                } else {
+                    if (c == '(' || c == '[' || c == '{') {
+                        depth++;
+                    } else if (c == ')' || c == ']' || c == '}') {
+                        depth--;
+                    }
+                    text.append(c);
+                    pos++;
+                }
+            }
+            flush(text, nodes);
+            return nodes;
+        }
+
+        private Node name() {
+            int start = pos;
+            while (pos < source.length() && isNamePart(source.charAt(pos))) {
+                pos++;
+            }
+            String name = source.substring(start, pos);
+
+            int bracket = pos;
+            while (bracket < source.length() && Character.isWhitespace(source.charAt(bracket))) {
+                bracket++;
+            }
+            if (bracket >= source.length() || (source.charAt(bracket) != '(' && source.charAt(bracket) != '[')) {
+                return new Symbol(name);
+            }
+
+            String gap = source.substring(pos, bracket);
+            char open = source.charAt(bracket);
+            pos = bracket + 1;
+            List<List<Node>> arguments = new ArrayList<>();
+            String close = "";
+            while (true) {
+                arguments.add(sequence(true));
+                if (pos >= source.length()) {
+                    break;
+                }
+                char c = source.charAt(pos++);
+                if (c != ',') {
+                    close = String.valueOf(c);
+                    break;
+                }
+            }
+            return new Call(name, gap, open, List.copyOf(arguments), close);
+        }
+
+        private static void flush(StringBuilder text, List<Node> nodes) {
+            if (!text.isEmpty()) {
+                nodes.add(new Text(text.toString()));
+                text.setLength(0);
+            }
+        }
+
+        private static boolean isNameStart(char c) {
+            return Character.isLetter(c) || c == '$';
+        }
+
+        private static boolean isNamePart(char c) {
+            return Character.isLetterOrDigit(c) || c == '$';
+        }
+    }
+}
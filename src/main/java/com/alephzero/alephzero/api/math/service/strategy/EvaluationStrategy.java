@@ -5,8 +5,10 @@ import com.alephzero.alephzero.api.math.dto.response.MathEvaluationDto;
 import com.alephzero.alephzero.api.math.facade.MathExpressionEvaluation;
 import com.alephzero.alephzero.api.math.facade.MathLibFacade;
 import com.alephzero.alephzero.api.math.service.core.MathCachedEvaluationService;
+import com.alephzero.alephzero.api.math.service.core.MathEvaluationContext;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * {@code EvaluationStrategy} defines the contract for evaluating mathematical expressions
@@ -16,7 +18,9 @@ import java.util.List;
  * a list of {@link MathEvaluationDto} representing the evaluation output.
  * <p>
  * This interface also provides access to the underlying {@link MathCachedEvaluationService}
- * used to perform the actual computation and caching.
+ * used to perform the actual computation and caching. Strategies compute through {@link #evaluate},
+ * {@link #calculate} and {@link #draw}, which reuse the results already computed for the same request
+ * (for instance while classifying the expression) through the current {@link MathEvaluationContext}.
  */
 public interface EvaluationStrategy {
 
@@ -29,6 +33,31 @@ public interface EvaluationStrategy {
      */
     List<MathEvaluationDto> compute(String expression, MathDataDto data);
 
+    /**
+     * Computes only the fast, non graphical results (EVALUATION, CALCULATION...) of the given expression.
+     * <p>
+     * Together with {@link #computeDrawing(String, MathDataDto)} this lets callers publish the cheap results
+     * first and the drawing later. Strategies that never draw keep the default, which is {@link #compute}.
+     *
+     * @param expression the mathematical expression to evaluate as a {@link String}
+     * @param data       additional data required for evaluation wrapped in {@link MathDataDto}
+     * @return a list of {@link MathEvaluationDto} without any DRAWING result
+     */
+    default List<MathEvaluationDto> computeEvaluations(String expression, MathDataDto data) {
+        return compute(expression, data);
+    }
+
+    /**
+     * Computes the DRAWING result of the given expression, if this strategy draws.
+     *
+     * @param expression the mathematical expression to draw as a {@link String}
+     * @param data       additional data with the drawing domain and format wrapped in {@link MathDataDto}
+     * @return the DRAWING {@link MathEvaluationDto}, or an empty {@link Optional} if the strategy does not draw
+     */
+    default Optional<MathEvaluationDto> computeDrawing(String expression, MathDataDto data) {
+        return Optional.empty();
+    }
+
     /**
      * Returns the underlying evaluation service used by this strategy.
      *
@@ -36,22 +65,41 @@ public interface EvaluationStrategy {
      */
     MathCachedEvaluationService getEvaluatorService();
 
-    default void formatOperations(MathLibFacade mathLibFacade, MathExpressionEvaluation... evaluations) {
-        for (MathExpressionEvaluation evaluation : evaluations) {
-            evaluation.format(mathLibFacade.formatResult(evaluation.getExpressionEvaluated()));
-        }
+    /**
+     * Evaluates an expression, at most once per request.
+     *
+     * @param expression the expression to evaluate
+     * @return the symbolic evaluation result
+     */
+    default MathExpressionEvaluation evaluate(String expression) {
+        return MathEvaluationContext.current().evaluate(getEvaluatorService(), expression);
     }
 
     /**
-     * Requests to stop any ongoing evaluation if supported by the underlying evaluation service.
-     * <p>
-     * This default method invokes the {@code stopRequest()} method on the evaluator service
-     * if it is present, allowing cancellation of long-running computations.
+     * Calculates an expression, at most once per request and precision.
+     *
+     * @param expression the expression to calculate
+     * @param data       contains the number of decimals to use
+     * @return the numeric evaluation result
+     */
+    default MathExpressionEvaluation calculate(String expression, MathDataDto data) {
+        return MathEvaluationContext.current().calculate(getEvaluatorService(), expression, data);
+    }
+
+    /**
+     * Draws an expression, at most once per request and domain.
+     *
+     * @param expression the function expression to plot
+     * @param data       contains the origin and bound of the domain and the point budget
+     * @return the plot expression evaluation result
      */
-    default void stopRequestIfSupported() {
-        MathCachedEvaluationService evaluatorService = getEvaluatorService();
-        if (evaluatorService != null) {
-            evaluatorService.stopRequest();
+    default MathExpressionEvaluation draw(String expression, MathDataDto data) {
+        return MathEvaluationContext.current().draw(getEvaluatorService(), expression, data);
+    }
+
+    default void formatOperations(MathLibFacade mathLibFacade, MathExpressionEvaluation... evaluations) {
+        for (MathExpressionEvaluation evaluation : evaluations) {
+            evaluation.format(mathLibFacade.formatResult(evaluation.getExpressionEvaluated()));
         }
     }
 }
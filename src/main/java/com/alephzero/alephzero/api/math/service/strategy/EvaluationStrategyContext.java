@@ -73,13 +73,4 @@ public class EvaluationStrategyContext {
             default -> throw new IllegalStateException("Unsupported strategy: " + strategy.getClass().getSimpleName());
         };
     }
-
-    /**
-     * Stops all currently running evaluations for each strategy.
-     * <p>
-     * This method is useful for canceling evaluations on shutdown or when a user interrupts a request.
-     */
-    public void stopCurrentEvaluation() {
-        evaluationStrategyMap.values().forEach(EvaluationStrategy::stopRequestIfSupported);
-    }
 }
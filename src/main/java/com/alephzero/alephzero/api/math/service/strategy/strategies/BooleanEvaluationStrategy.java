@@ -46,7 +46,7 @@ public class BooleanEvaluationStrategy implements EvaluationStrategy {
      */
     @Override
     public List<MathEvaluationDto> compute(String expression, MathDataDto data) {
-        MathExpressionEvaluation evaluation = mathEvaluator.evaluate(expression);
+        MathExpressionEvaluation evaluation = evaluate(expression);
 
         return List.of(
                 new MathEvaluationDto(MathEvaluationType.EVALUATION,
@@ -8,7 +8,9 @@ import com.alephzero.alephzero.api.math.service.core.MathCachedEvaluationService
 import com.alephzero.alephzero.api.math.service.strategy.EvaluationStrategy;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * {@code NumericEvaluationStrategy} implements {@link EvaluationStrategy} to
@@ -41,9 +43,22 @@ public class NumericEvaluationStrategy implements EvaluationStrategy {
      */
     @Override
     public List<MathEvaluationDto> compute(String expression, MathDataDto data) {
-        MathExpressionEvaluation evaluation = mathEvaluator.evaluate(expression);
-        MathExpressionEvaluation calculation = mathEvaluator.calculate(expression, data);
-        MathExpressionEvaluation draw = mathEvaluator.draw(expression, data);
+        List<MathEvaluationDto> results = new ArrayList<>(computeEvaluations(expression, data));
+        computeDrawing(expression, data).ifPresent(results::add);
+        return results;
+    }
+
+    /**
+     * Computes the evaluation and calculation of the given expression, without its drawing.
+     *
+     * @param expression the mathematical expression to be evaluated and calculated
+     * @param data       additional input data wrapped in {@link MathDataDto} for calculation context
+     * @return a list with the evaluation and calculation {@link MathEvaluationDto} instances
+     */
+    @Override
+    public List<MathEvaluationDto> computeEvaluations(String expression, MathDataDto data) {
+        MathExpressionEvaluation evaluation = evaluate(expression);
+        MathExpressionEvaluation calculation = calculate(expression, data);
 
         return List.of(
                 new MathEvaluationDto(MathEvaluationType.EVALUATION,
@@ -53,14 +68,23 @@ public class NumericEvaluationStrategy implements EvaluationStrategy {
                 new MathEvaluationDto(MathEvaluationType.CALCULATION,
                         calculation.getExpressionEvaluated(),
                         calculation.getEvaluationProblems().orElse(null)
-                ),
-                new MathEvaluationDto(MathEvaluationType.DRAWING,
-                        draw.getExpressionEvaluated(),
-                        draw.getEvaluationProblems().orElse(null)
                 )
         );
     }
 
+    /**
+     * Computes the drawing of the given expression over the domain of the input data.
+     *
+     * @param expression the expression to draw
+     * @param data       additional data wrapped in {@link MathDataDto} with the drawing parameters
+     * @return the DRAWING {@link MathEvaluationDto}
+     */
+    @Override
+    public Optional<MathEvaluationDto> computeDrawing(String expression, MathDataDto data) {
+        MathExpressionEvaluation draw = draw(expression, data);
+        return Optional.of(MathEvaluationDto.drawing(draw, data.resolvedDrawingFormat()));
+    }
+
     /**
      * Returns the cached evaluation service used by this strategy.
      *
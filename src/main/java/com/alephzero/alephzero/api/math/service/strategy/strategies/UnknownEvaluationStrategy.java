@@ -8,7 +8,9 @@ import com.alephzero.alephzero.api.math.service.core.MathCachedEvaluationService
 import com.alephzero.alephzero.api.math.service.strategy.EvaluationStrategy;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * {@code UnknownEvaluationStrategy} implements {@link EvaluationStrategy} to
@@ -41,21 +43,43 @@ public class UnknownEvaluationStrategy implements EvaluationStrategy {
      */
     @Override
     public List<MathEvaluationDto> compute(String expression, MathDataDto data) {
-        MathExpressionEvaluation evaluation = mathEvaluator.evaluate(expression);
-        MathExpressionEvaluation draw = mathEvaluator.draw(expression, data);
+        List<MathEvaluationDto> results = new ArrayList<>(computeEvaluations(expression, data));
+        computeDrawing(expression, data).ifPresent(results::add);
+        return results;
+    }
+
+    /**
+     * Computes the evaluation of the given expression, without its drawing.
+     *
+     * @param expression the mathematical expression to be evaluated
+     * @param data       additional data wrapped in {@link MathDataDto}
+     * @return a list with the {@link MathEvaluationDto} of the evaluation
+     */
+    @Override
+    public List<MathEvaluationDto> computeEvaluations(String expression, MathDataDto data) {
+        MathExpressionEvaluation evaluation = evaluate(expression);
 
         return List.of(
                 new MathEvaluationDto(MathEvaluationType.EVALUATION,
                         evaluation.getExpressionEvaluated(),
                         evaluation.getEvaluationProblems().orElse(null)
-                ),
-                new MathEvaluationDto(MathEvaluationType.DRAWING,
-                        draw.getExpressionEvaluated(),
-                        draw.getEvaluationProblems().orElse(null)
                 )
         );
     }
 
+    /**
+     * Computes the drawing of the given expression over the domain of the input data.
+     *
+     * @param expression the expression to draw
+     * @param data       additional data wrapped in {@link MathDataDto} with the drawing parameters
+     * @return the DRAWING {@link MathEvaluationDto}
+     */
+    @Override
+    public Optional<MathEvaluationDto> computeDrawing(String expression, MathDataDto data) {
+        MathExpressionEvaluation draw = draw(expression, data);
+        return Optional.of(MathEvaluationDto.drawing(draw, data.resolvedDrawingFormat()));
+    }
+
     /**
      * Returns the cached evaluation service used by this strategy.
      *
@@ -0,0 +1,61 @@
+package com.alephzero.alephzero.api.math.service.workspace;
+
+import com.alephzero.alephzero.api.math.dto.request.MathDataDto;
+import com.alephzero.alephzero.api.math.dto.response.MathExpressionEvaluationDto;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@code MathUserWorkspace} is the worksheet of one user kept on the server: its expressions, the data they are
+ * evaluated with and their last results, together with the version of that state.
+ * <p>
+ * Changes of a workspace are serialized by its lock, and a new state is only committed once all of its
+ * evaluations succeeded, so a failed change leaves the workspace as it was.
+ */
+final class MathUserWorkspace {
+
+    final ReentrantLock lock = new ReentrantLock();
+
+    private long version;
+    private MathDataDto data;
+    private List<Entry> entries = List.of();
+
+    long version() {
+        return version;
+    }
+
+    MathDataDto data() {
+        return data;
+    }
+
+    List<Entry> entries() {
+        return entries;
+    }
+
+    /**
+     * Replaces the state of the workspace, moving it to the next version.
+     *
+     * @return the new version
+     */
+    long commit(MathDataDto data, List<Entry> entries) {
+        this.data = data;
+        this.entries = List.copyOf(entries);
+        return ++version;
+    }
+
+    /**
+     * An expression of the workspace and its last evaluation.
+     *
+     * @param expression  the raw expression
+     * @param fingerprint the expression as evaluated, with the definitions it uses expanded, or {@code null} if it
+     *                    has not been evaluated yet or its evaluation was interrupted
+     * @param evaluation  the last evaluation, or {@code null} if it has not been evaluated yet
+     */
+    record Entry(String expression, String fingerprint, MathExpressionEvaluationDto evaluation) {
+
+        static Entry of(String expression) {
+            return new Entry(expression, null, null);
+        }
+    }
+}
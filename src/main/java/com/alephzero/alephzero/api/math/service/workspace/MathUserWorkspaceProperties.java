@@ -0,0 +1,30 @@
+package com.alephzero.alephzero.api.math.service.workspace;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the user workspaces kept on the server.
+ * <p>
+ * This class is used to bind properties prefixed with "math.workspace" from the application properties file.
+ * Every field has a sensible default so the workspaces can also be built outside a Spring context.
+ * </p>
+ */
+@Setter
+@Getter
+@Configuration
+@ConfigurationProperties(prefix = "math.workspace")
+public class MathUserWorkspaceProperties {
+    /** Time a workspace is kept once its user stops using it. */
+    private Duration idleTimeout = Duration.ofMinutes(30);
+
+    /** Maximum number of workspaces kept in memory, the least recently used ones are dropped first. */
+    private long maximumWorkspaces = 10_000;
+
+    /** Maximum number of expressions of a workspace. */
+    private int maximumExpressions = 1_000;
+}
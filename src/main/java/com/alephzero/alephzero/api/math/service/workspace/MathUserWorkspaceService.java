@@ -0,0 +1,212 @@
+package com.alephzero.alephzero.api.math.service.workspace;
+
+import com.alephzero.alephzero.api.math.dto.request.MathDataDto;
+import com.alephzero.alephzero.api.math.dto.request.workspace.MathWorkspaceEditDto;
+import com.alephzero.alephzero.api.math.dto.request.workspace.MathWorkspaceEditRequest;
+import com.alephzero.alephzero.api.math.dto.response.MathExpressionEvaluationDto;
+import com.alephzero.alephzero.api.math.dto.response.MathExpressionStreamEventDto;
+import com.alephzero.alephzero.api.math.dto.response.MathWorkspaceDto;
+import com.alephzero.alephzero.api.math.exception.MathWorkspaceConflictException;
+import com.alephzero.alephzero.api.math.service.core.MathExpressionService;
+import com.alephzero.alephzero.api.math.service.memory.MathAssignmentMemory;
+import com.alephzero.alephzero.api.math.service.memory.MathAssignmentWorkspace;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * {@code MathUserWorkspaceService} keeps the worksheet of every user on the server, so that a client sends the
+ * edits of its expressions instead of all of them, and only the expressions affected by the edits are evaluated
+ * again.
+ * <p>
+ * An expression is affected when its own text changes, or when a definition it uses, directly or through other
+ * definitions, does. Both cases are caught by comparing the expression as evaluated, once processed by the
+ * {@link MathAssignmentWorkspace} of the whole worksheet, with the one of its last evaluation: definitions are
+ * fully expanded there, so the transitive dependents of a changed definition are exactly the expressions whose
+ * processed form changed. New evaluation data affects every expression, and an expression whose last evaluation
+ * was stopped by its deadline is evaluated again on the next edit.
+ * <p>
+ * Workspaces live in memory, keyed by user, and are dropped once unused for
+ * {@link MathUserWorkspaceProperties#getIdleTimeout()}. Changes of one workspace are applied one at a time;
+ * a change made on an older version than the current one is rejected with a
+ * {@link MathWorkspaceConflictException}, so that a client never applies results to the wrong expressions.
+ */
+@Service
+public class MathUserWorkspaceService {
+    private static final Logger logger = LogManager.getLogger(MathUserWorkspaceService.class);
+
+    private final MathExpressionService expressionService;
+    private final MathAssignmentMemory memory;
+    private final MathUserWorkspaceProperties properties;
+    private final Cache<String, MathUserWorkspace> workspaces;
+
+    /**
+     * Constructs a new {@code MathUserWorkspaceService}.
+     *
+     * @param expressionService evaluates the affected expressions
+     * @param memory            builds the assignments of a worksheet
+     * @param properties        the workspace configuration
+     */
+    public MathUserWorkspaceService(MathExpressionService expressionService, MathAssignmentMemory memory,
+                                    MathUserWorkspaceProperties properties) {
+        this.expressionService = expressionService;
+        this.memory = memory;
+        this.properties = properties;
+        this.workspaces = Caffeine.newBuilder()
+                .expireAfterAccess(properties.getIdleTimeout())
+                .maximumSize(properties.getMaximumWorkspaces())
+                .build();
+        logger.info("MathUserWorkspaceService initialized with idleTimeout={}, maximumWorkspaces={}",
+                properties.getIdleTimeout(), properties.getMaximumWorkspaces());
+    }
+
+    /**
+     * Returns the whole workspace of a user, with the last evaluation of every expression.
+     *
+     * @param user the name of the user
+     * @return the workspace, empty at version 0 if the user has none
+     */
+    public MathWorkspaceDto get(String user) {
+        MathUserWorkspace workspace = workspaces.getIfPresent(user);
+        if (workspace == null) {
+            return new MathWorkspaceDto(0, 0, List.of());
+        }
+        workspace.lock.lock();
+        try {
+            List<MathUserWorkspace.Entry> entries = workspace.entries();
+            List<MathExpressionStreamEventDto> evaluations = new ArrayList<>();
+            for (int i = 0; i < entries.size(); i++) {
+                evaluations.add(event(i, entries.get(i).evaluation()));
+            }
+            return new MathWorkspaceDto(workspace.version(), entries.size(), evaluations);
+        } finally {
+            workspace.lock.unlock();
+        }
+    }
+
+    /**
+     * Applies edits to the workspace of a user, creating it on its first edit, and evaluates the expressions
+     * they affect.
+     *
+     * @param user    the name of the user
+     * @param request the edits, and optionally new evaluation data
+     * @return the new version of the workspace, with the evaluations of the affected expressions only
+     * @throws MathWorkspaceConflictException if the edits were made on another version of the workspace
+     * @throws IllegalArgumentException       if an edit is invalid, or the workspace has no evaluation data yet
+     */
+    public MathWorkspaceDto edit(String user, MathWorkspaceEditRequest request) {
+        MathUserWorkspace workspace = workspaces.get(user, key -> new MathUserWorkspace());
+        workspace.lock.lock();
+        try {
+            if (request.version() != null && request.version() != workspace.version()) {
+                throw new MathWorkspaceConflictException("Workspace edited on version " + request.version()
+                        + ", but its current version is " + workspace.version());
+            }
+            MathDataDto data = request.data() != null ? request.data() : workspace.data();
+            if (data == null) {
+                throw new IllegalArgumentException("The first edit of a workspace must include its data");
+            }
+
+            List<MathUserWorkspace.Entry> entries = applyEdits(workspace.entries(), request.edits());
+            List<String> expressions = entries.stream().map(MathUserWorkspace.Entry::expression).toList();
+            MathAssignmentWorkspace assignments = memory.workspace(expressions);
+
+            // An expression is evaluated again if it is new, or if it or the definitions it uses changed
+            boolean dataChanged = !data.equals(workspace.data());
+            List<Integer> affected = new ArrayList<>();
+            List<String> fingerprints = new ArrayList<>();
+            for (int i = 0; i < entries.size(); i++) {
+                String fingerprint = fingerprint(assignments, expressions.get(i));
+                fingerprints.add(fingerprint);
+                if (dataChanged || !Objects.equals(fingerprint, entries.get(i).fingerprint())) {
+                    affected.add(i);
+                }
+            }
+
+            List<MathExpressionService.WorksheetEvaluation> results = expressionService.evaluation(
+                    affected.stream().map(expressions::get).toList(), assignments, data);
+
+            List<MathExpressionStreamEventDto> evaluations = new ArrayList<>();
+            for (int i = 0; i < affected.size(); i++) {
+                int index = affected.get(i);
+                MathExpressionService.WorksheetEvaluation result = results.get(i);
+                // A timed out evaluation is kept without fingerprint, so the next edit evaluates it again
+                String fingerprint = result.interrupted() ? null : fingerprints.get(index);
+                entries.set(index, new MathUserWorkspace.Entry(expressions.get(index), fingerprint,
+                        result.evaluation()));
+                evaluations.add(event(index, result.evaluation()));
+            }
+            long version = workspace.commit(data, entries);
+            logger.debug("Workspace of '{}' moved to version {}: {} of {} expressions evaluated",
+                    user, version, affected.size(), entries.size());
+            return new MathWorkspaceDto(version, entries.size(), evaluations);
+        } finally {
+            workspace.lock.unlock();
+        }
+    }
+
+    /**
+     * Drops the workspace of a user.
+     *
+     * @param user the name of the user
+     */
+    public void clear(String user) {
+        workspaces.invalidate(user);
+    }
+
+    /**
+     * Applies the edits in order on a copy of the entries. Inserted and replaced expressions have no evaluation.
+     */
+    private List<MathUserWorkspace.Entry> applyEdits(List<MathUserWorkspace.Entry> current,
+                                                     List<MathWorkspaceEditDto> edits) {
+        List<MathUserWorkspace.Entry> entries = new ArrayList<>(current);
+        for (MathWorkspaceEditDto edit : edits) {
+            int index = edit.index();
+            int bound = switch (edit.type()) {
+                case INSERT -> entries.size();
+                case REPLACE, REMOVE -> entries.size() - 1;
+            };
+            if (index > bound) {
+                throw new IllegalArgumentException(
+                        edit.type() + " at " + index + " out of bounds for " + entries.size() + " expressions");
+            }
+            switch (edit.type()) {
+                case INSERT -> entries.add(index, MathUserWorkspace.Entry.of(expressionOf(edit)));
+                case REPLACE -> entries.set(index, MathUserWorkspace.Entry.of(expressionOf(edit)));
+                case REMOVE -> entries.remove(index);
+            }
+        }
+        if (entries.size() > properties.getMaximumExpressions()) {
+            throw new IllegalArgumentException(
+                    "A workspace holds at most " + properties.getMaximumExpressions() + " expressions");
+        }
+        return entries;
+    }
+
+    private static String expressionOf(MathWorkspaceEditDto edit) {
+        if (edit.expression() == null) {
+            throw new IllegalArgumentException(edit.type() + " at " + edit.index() + " requires an expression");
+        }
+        return edit.expression().expression();
+    }
+
+    /**
+     * Returns what the evaluation of an expression depends on: its error, or its processed form.
+     */
+    private static String fingerprint(MathAssignmentWorkspace assignments, String expression) {
+        return assignments.errorOf(expression)
+                .map(error -> "!" + error)
+                .orElseGet(() -> assignments.process(expression));
+    }
+
+    private static MathExpressionStreamEventDto event(int index, MathExpressionEvaluationDto evaluation) {
+        return new MathExpressionStreamEventDto(index, evaluation.expression(), evaluation.type(),
+                evaluation.evaluations());
+    }
+}
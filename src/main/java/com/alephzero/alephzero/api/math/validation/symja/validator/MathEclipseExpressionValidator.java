@@ -4,12 +4,12 @@ import com.alephzero.alephzero.api.math.enums.validation.constants.MathConstants
 import com.alephzero.alephzero.api.math.enums.validation.functions.Functions;
 import com.alephzero.alephzero.api.math.enums.validation.functions.MathFunctions;
 import com.alephzero.alephzero.api.math.enums.validation.functions.SymjaFunctions;
+import com.alephzero.alephzero.api.math.exception.MathEnginePoolExhaustedException;
+import com.alephzero.alephzero.api.math.facade.symja.engine.MathEclipseParseCache;
 import com.alephzero.alephzero.api.math.regex.RegexValidator;
 import com.alephzero.alephzero.api.math.validation.symja.annotations.ValidMathEclipseExpression;
 import jakarta.validation.ConstraintValidator;
 import jakarta.validation.ConstraintValidatorContext;
-import org.matheclipse.core.eval.ExprEvaluator;
-import org.matheclipse.core.interfaces.IExpr;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -28,7 +28,8 @@ import java.util.stream.Stream;
  * <ul>
  *     <li>Validation of variable and symbol names</li>
  *     <li>Whitelist filtering for allowed constants and functions</li>
- *     <li>Syntactic parsing using MathEclipse to catch malformed expressions</li>
+ *     <li>Syntactic parsing using MathEclipse to catch malformed expressions, through the shared
+ *     {@link MathEclipseParseCache} so the evaluation does not parse them again</li>
  *     <li>A standardized error reporting format</li>
  * </ul>
  */
@@ -43,14 +44,15 @@ public class MathEclipseExpressionValidator implements ConstraintValidator<Valid
             .flatMap(Arrays::stream)
             .collect(Collectors.toSet());
 
-    // Evaluator used to parse and validate expressions syntactically using MathEclipse.
-    private final ExprEvaluator syntaxEvaluator = new ExprEvaluator();
+    // Cache used to parse and validate expressions syntactically using MathEclipse.
+    private final MathEclipseParseCache parseCache;
 
     private final RegexValidator regexValidator;
 
     @Autowired
-    public MathEclipseExpressionValidator(RegexValidator regexValidator) {
+    public MathEclipseExpressionValidator(RegexValidator regexValidator, MathEclipseParseCache parseCache) {
         this.regexValidator = regexValidator;
+        this.parseCache = parseCache;
     }
 
     /**
@@ -150,6 +152,7 @@ public class MathEclipseExpressionValidator implements ConstraintValidator<Valid
 
     /**
      * Parses the expression to check for syntax correctness using MathEclipse.
+     * The parsed expression is kept in the shared parse cache for its evaluation.
      *
      * @param expression the mathematical expression string.
      * @param context    the validation context to report syntax errors.
@@ -157,13 +160,9 @@ public class MathEclipseExpressionValidator implements ConstraintValidator<Valid
      */
     private boolean validateSyntax(String expression, ConstraintValidatorContext context) {
         try {
-            IExpr expr = syntaxEvaluator.parse(expression);
-            if (expr == null) {
-                context.disableDefaultConstraintViolation();
-                context.buildConstraintViolationWithTemplate("Syntax error found in expression.")
-                        .addConstraintViolation();
-                return false;
-            }
+            parseCache.prime(expression);
+        } catch (MathEnginePoolExhaustedException e) {
+            throw e;
         } catch (Exception e) {
             context.disableDefaultConstraintViolation();
             context.buildConstraintViolationWithTemplate("Syntax Error: " + formatSyntaxErrorMessage(e.getMessage()))
@@ -7,6 +7,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.annotation.Order;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.HttpMediaTypeNotSupportedException;
 import org.springframework.web.HttpRequestMethodNotSupportedException;
@@ -39,6 +40,22 @@ public class HTTPExceptionHandler {
         this.messageFactory = messageFactory;
     }
 
+    /**
+     * Handles requests that reach an endpoint requiring a user without one, such as anonymous requests when
+     * security is disabled.
+     *
+     * @param ex Exception thrown when the request has no authenticated user.
+     * @return A {@link ResponseEntity} containing an {@link ErrorResponse} with UNAUTHORIZED status.
+     */
+    @ExceptionHandler(AuthenticationException.class)
+    public ResponseEntity<ErrorResponse> handleAuthentication(AuthenticationException ex) {
+        logger.info("Unauthenticated request: {}", ex.getMessage());
+        return messageFactory.error()
+                .code(AppCode.UNAUTHORIZED)
+                .summary(ex.getMessage())
+                .build();
+    }
+
     /**
      * Handles cases where the client uses an HTTP method (e.g., POST, PUT) that is not supported
      * by the requested endpoint (e.g., a GET-only route).
@@ -1,5 +1,6 @@
 package com.alephzero.alephzero.util;
 
+import com.alephzero.alephzero.api.math.service.core.MathExecutionProperties;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -28,27 +29,35 @@ public class ThreadPoolConfig {
     private static final long KEEP_ALIVE_TIME = 60L;
 
     /**
-     * Creates a thread pool for executing mathematical evaluations.
+     * Creates the executor orchestrating mathematical evaluations.
      * <p>
-     * The pool is configured with a core size of 10 threads, a maximum size of 20 threads,
-     * and a keep-alive time of 60 seconds for idle threads. It uses a bounded queue to hold
-     * tasks before they are executed.
+     * This is the coordinating level of the scheduler: it only runs expression tasks, which hand their engine
+     * calls over to the {@link #mathCpuPool leaf level} and never wait on tasks of their own level.
+     * <p>
+     * With virtual threads enabled, every expression task runs on its own virtual thread, so waiting on
+     * deadlines and on the CPU pool costs no platform thread; at most {@code math.execution.max-orchestration-tasks}
+     * run at once. Otherwise it is a platform pool sized to the number of available processors, with a bounded
+     * queue. Either way, overflowing tasks are rejected rather than run on the calling request thread.
      *
+     * @param properties the execution configuration
      * @return an ExecutorService instance configured for math evaluations
      */
     @Bean(destroyMethod = "shutdown")
-    public ExecutorService mathThreadPool() {
-        BlockingQueue<Runnable> queue = new LinkedBlockingQueue<>(100);
+    public ExecutorService mathThreadPool(MathExecutionProperties properties) {
+        if (properties.isVirtualThreads()) {
+            // No queue: a new virtual thread per task, up to the limit
+            return new ThreadPoolExecutor(
+                    0,
+                    Math.max(1, properties.getMaxOrchestrationTasks()),
+                    0L,
+                    TimeUnit.SECONDS,
+                    new SynchronousQueue<>(),
+                    Thread.ofVirtual().name("math-virtual-thread-", 1).factory(),
+                    new ThreadPoolExecutor.AbortPolicy()
+            );
+        }
 
-        ThreadFactory namedThreadFactory = new ThreadFactory() {
-            private final AtomicInteger count = new AtomicInteger(1);
-            @Override
-            public Thread newThread(@NotNull Runnable r) {
-                Thread t = new Thread(r);
-                t.setName("math-pool-thread-" + count.getAndIncrement());
-                return t;
-            }
-        };
+        BlockingQueue<Runnable> queue = new LinkedBlockingQueue<>(100);
 
         // thread pool executor.
         return new ThreadPoolExecutor(
@@ -57,10 +66,60 @@ public class ThreadPoolConfig {
                 KEEP_ALIVE_TIME,
                 TimeUnit.SECONDS,
                 queue,
-                namedThreadFactory,
-                new ThreadPoolExecutor.CallerRunsPolicy()
+                namedThreadFactory("math-pool-thread-"),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    /**
+     * Creates the platform pool running the CPU-bound engine calls handed over by virtual threads.
+     * <p>
+     * Its size is fixed to {@code math.execution.cpu-pool-size}, one thread per core by default, since more
+     * threads than cores would only make Symja evaluations compete for them. At most
+     * {@code math.execution.cpu-queue-capacity} calls wait for a thread; further ones are rejected.
+     *
+     * @param properties the execution configuration
+     * @return an ExecutorService instance for engine calls
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService mathCpuPool(MathExecutionProperties properties) {
+        int size = Math.max(1, properties.getCpuPoolSize());
+        return new ThreadPoolExecutor(
+                size,
+                size,
+                KEEP_ALIVE_TIME,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(Math.max(1, properties.getCpuQueueCapacity())),
+                namedThreadFactory("math-cpu-thread-"),
+                new ThreadPoolExecutor.AbortPolicy()
         );
     }
 
+    /**
+     * Creates the single-threaded scheduler that fires evaluation deadlines.
+     * <p>
+     * Deadline tasks only cancel evaluations, which is cheap, so one daemon thread is enough.
+     *
+     * @return a ScheduledExecutorService for evaluation deadlines
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ScheduledExecutorService mathDeadlineScheduler() {
+        return Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "math-deadline-scheduler");
+            t.setDaemon(true);
+            return t;
+        });
+    }
 
+    private static ThreadFactory namedThreadFactory(String prefix) {
+        return new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger(1);
+            @Override
+            public Thread newThread(@NotNull Runnable r) {
+                Thread t = new Thread(r);
+                t.setName(prefix + count.getAndIncrement());
+                return t;
+            }
+        };
+    }
 }
@@ -0,0 +1,23 @@
+package com.alephzero.alephzero.util.config;
+
+import com.alephzero.alephzero.api.math.MathLoadSheddingInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Registers the {@link MathLoadSheddingInterceptor} on the endpoints that evaluate expressions.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class MathWebConfig implements WebMvcConfigurer {
+
+    private final MathLoadSheddingInterceptor loadSheddingInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(loadSheddingInterceptor)
+                .addPathPatterns("/api/v1/math/evaluation", "/api/v1/math/evaluation/**", "/api/v1/math/workspace");
+    }
+}
@@ -110,6 +110,13 @@ public enum AppCode {
      */
     UNSUPPORTED_MEDIA_TYPE(HttpStatus.UNSUPPORTED_MEDIA_TYPE, "Unsupported media type"),
 
+    /**
+     * The client sent too many requests while the server is overloaded, and should retry later.
+     * <p>
+     * Maps to HTTP 429 Too Many Requests.
+     */
+    TOO_MANY_REQUESTS(HttpStatus.TOO_MANY_REQUESTS, "Too many requests"),
+
     // --- Validation and application-specific errors ---
 
     /**
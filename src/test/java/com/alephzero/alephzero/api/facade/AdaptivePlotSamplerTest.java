@@ -0,0 +1,84 @@
+package com.alephzero.alephzero.api.facade;
+
+import com.alephzero.alephzero.api.math.facade.draw.AdaptivePlotSampler;
+import com.alephzero.alephzero.api.math.facade.draw.PlotCurve;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptivePlotSamplerTest {
+
+    private static final int BUDGET = 400;
+
+    @Test
+    @DisplayName("Sample: straight lines stay on the coarse grid")
+    void testFlatCurveUsesFewPoints() {
+        PlotCurve curve = AdaptivePlotSampler.sample(x -> 2 * x + 1, -10, 10, BUDGET);
+        assertEquals(1, curve.getSegments().size());
+        assertTrue(curve.pointCount() <= BUDGET / 4, "points: " + curve.pointCount());
+    }
+
+    @Test
+    @DisplayName("Sample: point budget is never exceeded")
+    void testBudgetIsHonoured() {
+        PlotCurve curve = AdaptivePlotSampler.sample(x -> Math.sin(1 / x), -1, 1, BUDGET);
+        assertTrue(curve.pointCount() <= BUDGET, "points: " + curve.pointCount());
+    }
+
+    @Test
+    @DisplayName("Sample: poles split the curve instead of joining both branches")
+    void testPolesSplitSegments() {
+        assertEquals(2, AdaptivePlotSampler.sample(x -> 1 / x, -5, 5, BUDGET).getSegments().size());
+        assertEquals(3, AdaptivePlotSampler.sample(Math::tan, -Math.PI, Math.PI, BUDGET).getSegments().size());
+    }
+
+    @Test
+    @DisplayName("Sample: steep but continuous curves are not split")
+    void testSteepContinuousCurve() {
+        assertEquals(1, AdaptivePlotSampler.sample(x -> Math.atan(1000 * x), -1, 1, BUDGET).getSegments().size());
+    }
+
+    @Test
+    @DisplayName("Sample: curve reaches the edge of the domain")
+    void testDomainEdgeIsRefined() {
+        PlotCurve curve = AdaptivePlotSampler.sample(Math::sqrt, -1, 1, BUDGET);
+        assertEquals(1, curve.getSegments().size());
+        assertTrue(curve.getSegments().getFirst().x(0) < 1e-3);
+    }
+
+    @Test
+    @DisplayName("Sample: expensive functions are sampled in parallel with identical results")
+    void testParallelSamplingMatchesSequential() {
+        PlotCurve cheap = AdaptivePlotSampler.sample(Math::tan, -3, 3, BUDGET);
+
+        long start = System.nanoTime();
+        PlotCurve expensive = AdaptivePlotSampler.sample(x -> spin(Math.tan(x)), -3, 3, BUDGET);
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("Expensive plot: %d points in %.1f ms%n", expensive.pointCount(), elapsed / 1e6);
+
+        assertEquals(cheap.getSegments().size(), expensive.getSegments().size());
+        for (int s = 0; s < cheap.getSegments().size(); s++) {
+            assertArrayEquals(cheap.getSegments().get(s).xs(), expensive.getSegments().get(s).xs());
+            assertArrayEquals(cheap.getSegments().get(s).ys(), expensive.getSegments().get(s).ys());
+        }
+    }
+
+    /** Burns about 50 µs and returns its argument unchanged. */
+    private static double spin(double value) {
+        long end = System.nanoTime() + 50_000;
+        while (System.nanoTime() < end) {
+            Thread.onSpinWait();
+        }
+        return value;
+    }
+
+    @Test
+    @DisplayName("Budget: explicit points win over pixel width and are clamped")
+    void testResolveBudget() {
+        assertEquals(AdaptivePlotSampler.DEFAULT_POINTS, AdaptivePlotSampler.resolveBudget(null, null));
+        assertEquals(800, AdaptivePlotSampler.resolveBudget(null, 800));
+        assertEquals(100, AdaptivePlotSampler.resolveBudget(100, 800));
+        assertEquals(AdaptivePlotSampler.MAX_POINTS, AdaptivePlotSampler.resolveBudget(null, 1_000_000));
+    }
+}
@@ -0,0 +1,94 @@
+package com.alephzero.alephzero.api.facade;
+
+import com.alephzero.alephzero.api.math.exception.MathEnginePoolExhaustedException;
+import com.alephzero.alephzero.api.math.facade.MathCancellationHandle;
+import com.alephzero.alephzero.api.math.facade.symja.MathEclipseConfig;
+import com.alephzero.alephzero.api.math.facade.symja.engine.MathEclipseEngine;
+import com.alephzero.alephzero.api.math.facade.symja.engine.MathEclipseEnginePool;
+import com.alephzero.alephzero.api.math.facade.symja.engine.MathEclipseEnginePoolProperties;
+import com.alephzero.alephzero.api.math.facade.symja.engine.MathEclipseEnginePoolStats;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MathEclipseEnginePoolTest {
+
+    private static final int MAX_SIZE = 2;
+
+    private MathEclipseEnginePool pool;
+
+    @BeforeEach
+    void setUp() {
+        MathEclipseEnginePoolProperties properties = new MathEclipseEnginePoolProperties();
+        properties.setMaxSize(MAX_SIZE);
+        properties.setMinIdle(1);
+        properties.setBorrowTimeout(Duration.ofMillis(100));
+        pool = MathEclipseConfig.buildMathEclipseEnginePool(properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    @DisplayName("Check-in: user definitions do not survive between borrowers")
+    void testReleaseResetsDefinitions() {
+        assertEquals("5", pool.execute(engine -> engine.evaluate("a=5").toString()));
+        assertEquals("1+a", pool.execute(engine -> engine.evaluate("a+1").toString()));
+    }
+
+    @Test
+    @DisplayName("Check-out: warm engines are reused instead of rebuilt")
+    void testEnginesAreReused() {
+        for (int i = 0; i < 50; i++) {
+            pool.execute(engine -> engine.evaluate("Expand((x+1)^2)"));
+        }
+        MathEclipseEnginePoolStats stats = pool.stats();
+        assertEquals(1, stats.created());
+        assertEquals(50, stats.borrowed());
+        assertEquals(0, stats.active());
+    }
+
+    @Test
+    @DisplayName("Check-out: engine count is capped by maxSize")
+    void testPoolIsBounded() {
+        MathEclipseEngine first = pool.borrow();
+        MathEclipseEngine second = pool.borrow();
+        try {
+            assertNotSame(first, second);
+            assertThrows(MathEnginePoolExhaustedException.class, pool::borrow);
+            assertEquals(MAX_SIZE, pool.stats().total());
+            assertEquals(1, pool.stats().timeouts());
+        } finally {
+            pool.release(first);
+            pool.release(second);
+        }
+        assertEquals(MAX_SIZE, pool.stats().idle());
+    }
+
+    @Test
+    @DisplayName("Cancellation: a cancelled handle stops the engine running its task and leaves it reusable")
+    void testCancellationStopsBoundEngine() {
+        MathCancellationHandle handle = new MathCancellationHandle();
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try (MathCancellationHandle.Binding ignored = handle.activate()) {
+            scheduler.schedule(handle::cancel, 200, TimeUnit.MILLISECONDS);
+            long start = System.nanoTime();
+            assertThrows(RuntimeException.class,
+                    () -> pool.execute(engine -> engine.evaluate("Table(Prime(i), {i, 1, 10^8})")));
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(10));
+        } finally {
+            scheduler.shutdownNow();
+        }
+        assertEquals("2", pool.execute(engine -> engine.evaluate("1+1").toString()));
+    }
+}
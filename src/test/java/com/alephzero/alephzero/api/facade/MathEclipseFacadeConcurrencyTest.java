@@ -0,0 +1,117 @@
+package com.alephzero.alephzero.api.facade;
+
+import com.alephzero.alephzero.api.math.facade.symja.MathEclipseConfig;
+import com.alephzero.alephzero.api.math.facade.symja.MathEclipseEvaluation;
+import com.alephzero.alephzero.api.math.facade.symja.MathEclipseFacade;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class MathEclipseFacadeConcurrencyTest {
+
+    private static final int THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+    private static final int TASKS_PER_THREAD = 200;
+    private static final double MIN_SPEEDUP = 1.2;
+
+    /** Expression and the function name every one of its messages must mention (null: no messages). */
+    private static final String[][] CASES = {
+            {"Sin(1, 2)", "Sin"},
+            {"Cos(1, 2, 3)", "Cos"},
+            {"1/0", "Power"},
+            {"Expand((x + 1)^3)", null}
+    };
+
+    private MathEclipseFacade mathEclipseFacade;
+
+    @BeforeEach
+    void setUp() {
+        mathEclipseFacade = MathEclipseConfig.buildMathEclipseFacade();
+    }
+
+    @Test
+    @DisplayName("Diagnostics: messages never leak between parallel evaluations")
+    void testNoDiagnosticsLeakBetweenThreads() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<String>> failures = new ArrayList<>();
+            for (int i = 0; i < THREADS * TASKS_PER_THREAD; i++) {
+                String[] testCase = CASES[i % CASES.length];
+                failures.add(executor.submit(() -> checkEvaluation(testCase[0], testCase[1])));
+            }
+            for (Future<String> failure : failures) {
+                assertNull(failure.get(60, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Diagnostics: System.err is never redirected")
+    void testSystemErrIsUntouched() {
+        var originalErr = System.err;
+        mathEclipseFacade.evaluate("1/0");
+        assertSame(originalErr, System.err);
+    }
+
+    @Test
+    @DisplayName("Throughput: parallel evaluations scale across cores")
+    void benchmarkThroughput() throws Exception {
+        assumeTrue(Runtime.getRuntime().availableProcessors() >= 2, "Scaling needs at least 2 cores");
+
+        // Warm up every engine of the pool before measuring
+        throughput(THREADS);
+
+        double single = throughput(1);
+        double parallel = throughput(THREADS);
+
+        System.out.printf("Threads: 1 -> %.0f evaluations/s%n", single);
+        System.out.printf("Threads: %d -> %.0f evaluations/s (x%.2f)%n", THREADS, parallel, parallel / single);
+        // Far below the core count, so that a loaded machine does not fail it, but well above a shared engine
+        assertTrue(parallel > single * MIN_SPEEDUP,
+                String.format("Expected a speedup of at least x%.1f, got x%.2f", MIN_SPEEDUP, parallel / single));
+    }
+
+    private String checkEvaluation(String expression, String expectedFunction) {
+        MathEclipseEvaluation evaluation = mathEclipseFacade.evaluate(expression);
+        List<String> problems = evaluation.getEvaluationProblems().orElse(List.of());
+        if (expectedFunction == null) {
+            return problems.isEmpty() ? null : expression + " got foreign problems " + problems;
+        }
+        if (problems.isEmpty()) {
+            return expression + " lost its own problems";
+        }
+        for (String problem : problems) {
+            if (!problem.startsWith(expectedFunction)) {
+                return expression + " got foreign problem: " + problem;
+            }
+        }
+        return null;
+    }
+
+    private double throughput(int threads) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            int tasks = threads * TASKS_PER_THREAD;
+            List<Callable<MathEclipseEvaluation>> work = new ArrayList<>();
+            for (int i = 0; i < tasks; i++) {
+                String expression = CASES[i % CASES.length][0];
+                work.add(() -> mathEclipseFacade.evaluate(expression));
+            }
+            long start = System.nanoTime();
+            for (Future<MathEclipseEvaluation> future : executor.invokeAll(work)) {
+                future.get();
+            }
+            return tasks / ((System.nanoTime() - start) / 1_000_000_000.0);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -1,11 +1,14 @@
 package com.alephzero.alephzero.api.facade;
 
+import com.alephzero.alephzero.api.math.facade.MathCancellationHandle;
 import com.alephzero.alephzero.api.math.facade.symja.MathEclipseConfig;
 import com.alephzero.alephzero.api.math.facade.symja.MathEclipseFacade;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.util.concurrent.TimeUnit;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class MathEclipseFacadeTest {
@@ -123,28 +126,26 @@ class MathEclipseFacadeTest {
     }
 
     @Test
-    @DisplayName("Stop Request: interrupt ongoing evaluation")
-    void testStopRequest() {
+    @DisplayName("Stop Request: cancelling a handle interrupts the evaluation bound to it")
+    void testStopRequest() throws InterruptedException {
+        MathCancellationHandle handle = new MathCancellationHandle();
+        String[] result = new String[1];
         Thread evaluationThread = new Thread(() -> {
-            try {
+            try (MathCancellationHandle.Binding ignored = handle.activate()) {
                 String impossibleExpression = "Integrate[log(sin(x^2 + cos(x))) / (1 + x^6), x]";
-                String result = mathEclipseFacade.evaluate(impossibleExpression).getExpressionEvaluated();
-                fail("Expected stopRequest to interrupt the evaluation, but got: " + result);
+                result[0] = mathEclipseFacade.evaluate(impossibleExpression).getExpressionEvaluated();
             } catch (Exception e) {
-                e.printStackTrace();
+                result[0] = e.getClass().getSimpleName();
             }
         });
 
         evaluationThread.start();
-        try {
-            // Wait a bit to let the evaluation start
-            Thread.sleep(100);
-            // Stop the ongoing evaluation
-            mathEclipseFacade.stopRequest();
-            // Wait for the thread to complete
-            evaluationThread.join();
-        } catch (InterruptedException e) {
-            fail("Test interrupted unexpectedly.");
-        }
+        // Wait a bit to let the evaluation start, then stop it
+        Thread.sleep(100);
+        handle.cancel();
+        evaluationThread.join(TimeUnit.SECONDS.toMillis(30));
+
+        assertFalse(evaluationThread.isAlive(), "Expected the cancellation to interrupt the evaluation");
+        System.out.println(result[0]);
     }
 }
@@ -0,0 +1,82 @@
+package com.alephzero.alephzero.api.facade;
+
+import com.alephzero.alephzero.api.math.facade.draw.PlotCurve;
+import com.alephzero.alephzero.api.math.facade.symja.MathEclipseConfig;
+import com.alephzero.alephzero.api.math.facade.symja.MathEclipseFacade;
+import com.alephzero.alephzero.api.math.facade.symja.draw.MathEclipseFunctionCompiler;
+import com.alephzero.alephzero.api.math.facade.symja.engine.MathEclipseEnginePool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.matheclipse.core.expression.F;
+
+import java.util.Optional;
+import java.util.function.DoubleUnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MathEclipseFunctionCompilerTest {
+
+    private static final String VARIABLE = "x";
+    private static final double TOLERANCE = 1e-9;
+    private static final double[] SAMPLES = {-2.5, -1.0, -0.3, 0.2, 0.7, 1.5, 3.0};
+
+    private MathEclipseEnginePool pool;
+
+    @BeforeEach
+    void setUp() {
+        pool = MathEclipseConfig.buildMathEclipseEnginePool();
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    @DisplayName("Compile: matches Symja numeric evaluation")
+    void testCompiledMatchesSymja() {
+        String[] expressions = {
+                "Sin(x)^2+3*x", "E^x", "1/x", "x^3-2*x+1", "Tan(x)", "Sec(x)*Cos(x)",
+                "Log(2,Abs(x))", "Sqrt(x^2+1)", "ArcTan(x)+Pi/4", "Exp(-x^2/2)", "x^(-3)", "Cosh(x)-Sinh(x)"
+        };
+        for (String expression : expressions) {
+            pool.execute(engine -> {
+                DoubleUnaryOperator function = MathEclipseFunctionCompiler
+                        .compile(engine.parse(expression), VARIABLE, engine::evalDouble)
+                        .orElseThrow(() -> new AssertionError(expression + " should compile"));
+                for (double x : SAMPLES) {
+                    double expected = engine.evalDouble(F.subst(engine.parse(expression), F.symbol(VARIABLE), F.num(x)));
+                    assertEquals(expected, function.applyAsDouble(x), TOLERANCE * Math.max(1.0, Math.abs(expected)),
+                            expression + " at x=" + x);
+                }
+                return null;
+            });
+        }
+    }
+
+    @Test
+    @DisplayName("Compile: unsupported constructs are rejected")
+    void testUnsupportedConstructs() {
+        for (String expression : new String[]{"x*y", "Zeta(x)", "{x,x^2}", "Sqrt(-1)*x"}) {
+            Optional<DoubleUnaryOperator> compiled = pool.execute(engine ->
+                    MathEclipseFunctionCompiler.compile(engine.parse(expression), VARIABLE, engine::evalDouble));
+            assertTrue(compiled.isEmpty(), expression + " should not compile");
+        }
+    }
+
+    @Test
+    @DisplayName("Draw: compiled curves split at poles and fall back to Symja otherwise")
+    void testDrawCompiledAndFallback() {
+        MathEclipseFacade facade = MathEclipseConfig.buildMathEclipseFacade();
+
+        PlotCurve curve = facade.draw("Log(x)", VARIABLE, "-1", "1").getPlot().orElseThrow();
+        assertEquals(1, curve.getSegments().size());
+        assertTrue(curve.getSegments().getFirst().x(0) > 0);
+
+        var fallback = facade.draw("Zeta(x)", VARIABLE, "2", "4");
+        assertTrue(fallback.getExpressionEvaluated().contains("Graphics"));
+        assertTrue(fallback.getPlot().orElseThrow().pointCount() > 0);
+    }
+}
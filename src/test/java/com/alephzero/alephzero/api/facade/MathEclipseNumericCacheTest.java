@@ -0,0 +1,70 @@
+package com.alephzero.alephzero.api.facade;
+
+import com.alephzero.alephzero.api.math.facade.symja.MathEclipseConfig;
+import com.alephzero.alephzero.api.math.facade.symja.MathEclipseFacade;
+import com.alephzero.alephzero.api.math.facade.symja.engine.MathEclipseEnginePool;
+import com.alephzero.alephzero.api.math.facade.symja.engine.MathEclipseNumericCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MathEclipseNumericCacheTest {
+
+    private MathEclipseEnginePool pool;
+    private MathEclipseNumericCache cache;
+    private MathEclipseFacade facade;
+
+    @BeforeEach
+    void setUp() {
+        pool = MathEclipseConfig.buildMathEclipseEnginePool();
+        cache = MathEclipseConfig.buildMathEclipseNumericCache();
+        facade = new MathEclipseFacade(
+                pool,
+                MathEclipseConfig.buildMathEclipseParseCache(pool),
+                cache,
+                MathEclipseConfig.buildPlotTileCache(),
+                MathEclipseConfig.buildTeXFormFactory()
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    @DisplayName("Numeric: a lower precision is correctly rounded from the cached value")
+    void testLowerPrecisionIsRounded() {
+        assertEquals("3.1415926535897932384626433832795028841971693993751",
+                facade.calculate("Pi", 50).getExpressionEvaluated());
+        assertEquals(1, cache.missCount());
+
+        assertEquals("3.1415926535897932385", facade.calculate("Pi", 20).getExpressionEvaluated());
+
+        facade.calculate("{Sqrt(2) + I*E}", 50);
+        assertEquals("{1.4142135623730950488+I*2.7182818284590452354}",
+                facade.calculate("{Sqrt(2)+I*E}", 20).getExpressionEvaluated());
+        assertEquals(2, cache.hitCount());
+        assertEquals(2, cache.missCount());
+    }
+
+    @Test
+    @DisplayName("Numeric: higher precisions are computed and machine precision is never cached")
+    void testOnlyLowerPrecisionsAboveMachinePrecisionHit() {
+        facade.calculate("E", 30);
+        assertEquals("2.718281828459045235360287471352662497757",
+                facade.calculate("E", 40).getExpressionEvaluated());
+        assertEquals(0, cache.hitCount());
+        assertEquals(2, cache.missCount());
+
+        assertEquals("2.71828", facade.calculate("E", 10).getExpressionEvaluated());
+        assertEquals(0, cache.hitCount());
+        assertEquals(2, cache.missCount());
+
+        assertEquals("2.7182818284590452353602874713527", facade.calculate("E", 32).getExpressionEvaluated());
+        assertEquals(1, cache.hitCount());
+    }
+}
@@ -0,0 +1,108 @@
+package com.alephzero.alephzero.api.facade;
+
+import com.alephzero.alephzero.api.math.facade.symja.MathEclipseConfig;
+import com.alephzero.alephzero.api.math.facade.symja.engine.MathEclipseEngine;
+import com.alephzero.alephzero.api.math.facade.symja.engine.MathEclipseEnginePool;
+import com.alephzero.alephzero.api.math.facade.symja.engine.MathEclipseEnginePoolProperties;
+import com.alephzero.alephzero.api.math.facade.symja.engine.MathEclipseParseCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MathEclipseParseCacheTest {
+
+    private MathEclipseEnginePool pool;
+    private MathEclipseParseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        MathEclipseEnginePoolProperties properties = new MathEclipseEnginePoolProperties();
+        properties.setMaxSize(2);
+        pool = MathEclipseConfig.buildMathEclipseEnginePool(properties);
+        cache = MathEclipseConfig.buildMathEclipseParseCache(pool);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    @DisplayName("Parse: an expression primed during validation is not parsed again")
+    void testPrimedExpressionIsReused() {
+        cache.prime("Expand( (x + 1)^2 )");
+
+        String result = pool.execute(engine ->
+                engine.evaluate(cache.parse(engine, MathEclipseParseCache.normalize("Expand((x+1)^2)"))).toString());
+
+        assertEquals("1+2*x+x^2", result);
+        assertEquals(1, cache.stats().hitCount());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    @DisplayName("Parse: cached expressions are rebound to the context of the engine evaluating them")
+    void testCachedSymbolsAreRebound() {
+        cache.prime("x+1");
+
+        assertEquals("6", pool.execute(engine -> {
+            engine.evaluate("x=5");
+            return engine.evaluate(cache.parse(engine, "x+1")).toString();
+        }));
+        assertEquals("1+x", pool.execute(engine -> engine.evaluate(cache.parse(engine, "x+1")).toString()));
+    }
+
+    @Test
+    @DisplayName("Parse: every hit is evaluated from scratch and reports its own messages")
+    void testCachedExpressionsAreNotMarkedEvaluated() {
+        cache.prime("Sin(1,2)");
+
+        for (int i = 0; i < 3; i++) {
+            String messages = pool.execute(engine -> {
+                engine.evaluate(cache.parse(engine, "Sin(1,2)"));
+                return engine.drainDiagnostics();
+            });
+            assertTrue(messages.startsWith("Sin"), messages);
+        }
+    }
+
+    @Test
+    @DisplayName("Parse: a cached template evaluated on two engines from one thread keeps them apart")
+    void testCachedExpressionKeepsEnginesApart() {
+        MathEclipseEngine first = pool.borrow();
+        MathEclipseEngine second = pool.borrow();
+        try {
+            first.evaluate(cache.parse(first, "x+1"));  // Miss, parsed on the first engine
+            second.evaluate(cache.parse(second, "x+1")); // Hit, evaluated on the second one
+
+            second.evaluate("Sin(1,2)");
+            assertEquals("", first.drainDiagnostics());
+            assertTrue(second.drainDiagnostics().startsWith("Sin"));
+
+            second.evaluate("y=5");
+            assertEquals("y", first.evaluate(first.parse("y")).toString());
+        } finally {
+            pool.release(first);
+            pool.release(second);
+        }
+    }
+
+    @Test
+    @DisplayName("Parse: assignments are never cached")
+    void testAssignmentsAreNotCached() {
+        cache.prime("a=5");
+        cache.prime("f(x_):=x^2");
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("Parse: syntax errors are reported and not cached")
+    void testSyntaxErrorsAreReported() {
+        assertThrows(RuntimeException.class, () -> cache.prime("Sin(x"));
+        assertEquals(0, cache.size());
+    }
+}
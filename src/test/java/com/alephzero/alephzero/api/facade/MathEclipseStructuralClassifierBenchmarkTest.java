@@ -0,0 +1,68 @@
+package com.alephzero.alephzero.api.facade;
+
+import com.alephzero.alephzero.api.math.facade.symja.MathEclipseConfig;
+import com.alephzero.alephzero.api.math.facade.symja.MathEclipseStructuralClassifier;
+import com.alephzero.alephzero.api.math.facade.symja.engine.MathEclipseEnginePool;
+import com.alephzero.alephzero.api.math.facade.symja.engine.MathEclipseParseCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.function.IntFunction;
+
+class MathEclipseStructuralClassifierBenchmarkTest {
+
+    private static final int ITERATIONS = 10_000;
+    private static final boolean PRINT_RESULTS = true;
+
+    private MathEclipseEnginePool pool;
+    private MathEclipseParseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        pool = MathEclipseConfig.buildMathEclipseEnginePool();
+        cache = MathEclipseConfig.buildMathEclipseParseCache(pool);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    // BENCHMARK (us per ONE classified expression)
+
+    /** ~28 us */
+    @Test
+    @DisplayName("structuralType: expression already in the parse cache")
+    void benchmarkCachedClassification() {
+        cache.prime("x^3+2*x^2-Sin(x)/Cos(x)");
+        benchmark("cached", i -> "x^3+2*x^2-Sin(x)/Cos(x)");
+    }
+
+    /** ~127 us */
+    @Test
+    @DisplayName("structuralType: expression parsed on a pooled engine")
+    void benchmarkParsedClassification() {
+        benchmark("parsed", i -> "x^3+" + i + "*x^2-Sin(x)/Cos(x)");
+    }
+
+    private void benchmark(String name, IntFunction<String> expressions) {
+        for (int i = 0; i < ITERATIONS; i++) { // Warmup
+            classify(expressions.apply(-i));
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            classify(expressions.apply(i));
+        }
+        double micros = (System.nanoTime() - start) / 1_000.0 / ITERATIONS;
+
+        if (PRINT_RESULTS) {
+            System.out.printf("Classification %s | Iterations: %d | Average: %.3f us%n", name, ITERATIONS, micros);
+        }
+    }
+
+    private void classify(String expression) {
+        MathEclipseStructuralClassifier.classify(cache.inspect(expression));
+    }
+}
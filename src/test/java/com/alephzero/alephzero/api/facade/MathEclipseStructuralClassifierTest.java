@@ -0,0 +1,65 @@
+package com.alephzero.alephzero.api.facade;
+
+import com.alephzero.alephzero.api.math.enums.computation.MathExpressionType;
+import com.alephzero.alephzero.api.math.facade.symja.MathEclipseConfig;
+import com.alephzero.alephzero.api.math.facade.symja.MathEclipseStructuralClassifier;
+import com.alephzero.alephzero.api.math.facade.symja.engine.MathEclipseEnginePool;
+import com.alephzero.alephzero.api.math.facade.symja.engine.MathEclipseParseCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static com.alephzero.alephzero.api.math.enums.computation.MathExpressionType.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MathEclipseStructuralClassifierTest {
+
+    private MathEclipseEnginePool pool;
+    private MathEclipseParseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        pool = MathEclipseConfig.buildMathEclipseEnginePool();
+        cache = MathEclipseConfig.buildMathEclipseParseCache(pool);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    @DisplayName("Structure: types known from heads and free symbols are decided without evaluation")
+    void testStructuralTypes() {
+        assertEquals(Optional.of(ASSIGNMENT), classify("a=1"));
+        assertEquals(Optional.of(ASSIGNMENT), classify("f(x)=2*x"));
+        assertEquals(Optional.of(EQUATION), classify("x^2+y^2==1"));
+        assertEquals(Optional.of(BOOLEAN), classify("2==1"));
+        assertEquals(Optional.of(BOOLEAN), classify("True"));
+        assertEquals(Optional.of(BOOLEAN), classify("1<2"));
+        assertEquals(Optional.of(NUMERIC), classify("2+3*4"));
+        assertEquals(Optional.of(NUMERIC), classify("Sqrt(2)+Pi"));
+        assertEquals(Optional.of(NUMERIC), classify("5+3*I"));
+        assertEquals(Optional.of(VECTOR), classify("{1, 2.5, -3}"));
+        assertEquals(Optional.of(MATRIX), classify("{{1, 2}, {3, 4}}"));
+        assertEquals(Optional.of(FUNCTION), classify("x^2+Sin(x)"));
+        assertEquals(Optional.of(FUNCTION), classify("Exp(x)*y"));
+    }
+
+    @Test
+    @DisplayName("Structure: types that depend on the result are left to evaluation")
+    void testAmbiguousTypes() {
+        for (String expression : List.of("D(x^2,x)", "Integrate(x,{x,0,1})", "Solve(x^2==1,x)",
+                "Simplify(Sin(x)^2+Cos(x)^2)", "{x, 1}", "g(x)", "x<2", "{}")) {
+            assertEquals(Optional.empty(), classify(expression), expression);
+        }
+    }
+
+    private Optional<MathExpressionType> classify(String expression) {
+        return MathEclipseStructuralClassifier.classify(cache.inspect(expression));
+    }
+}
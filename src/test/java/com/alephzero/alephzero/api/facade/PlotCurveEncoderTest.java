@@ -0,0 +1,74 @@
+package com.alephzero.alephzero.api.facade;
+
+import com.alephzero.alephzero.api.math.enums.computation.MathDrawingFormat;
+import com.alephzero.alephzero.api.math.facade.draw.AdaptivePlotSampler;
+import com.alephzero.alephzero.api.math.facade.draw.PlotCurve;
+import com.alephzero.alephzero.api.math.facade.draw.PlotCurveEncoder;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlotCurveEncoderTest {
+
+    private static final PlotCurve CURVE = AdaptivePlotSampler.sample(Math::tan, -3, 3, 1000);
+
+    @Test
+    @DisplayName("Encode: float64 round-trips exactly")
+    void testFloat64RoundTrip() {
+        assertDecodes(MathDrawingFormat.FLOAT64, 0.0);
+        assertDecodes(MathDrawingFormat.FLOAT64_DELTA, 1e-9);
+    }
+
+    @Test
+    @DisplayName("Encode: float32 delta does not accumulate rounding errors")
+    void testFloat32RoundTrip() {
+        assertDecodes(MathDrawingFormat.FLOAT32, 1e-6);
+        assertDecodes(MathDrawingFormat.FLOAT32_DELTA, 1e-6);
+    }
+
+    @Test
+    @DisplayName("Encode: binary form is much smaller than the text form")
+    void testPayloadSize() {
+        int text = CURVE.toGraphicsForm().getBytes(StandardCharsets.UTF_8).length;
+        int binary = PlotCurveEncoder.encode(CURVE, MathDrawingFormat.FLOAT32).length;
+        System.out.printf("Points: %d, text: %d bytes, float32: %d bytes%n", CURVE.pointCount(), text, binary);
+        assertTrue(binary * 4 < text);
+    }
+
+    private void assertDecodes(MathDrawingFormat format, double relativeTolerance) {
+        ByteBuffer buffer = ByteBuffer.wrap(PlotCurveEncoder.encode(CURVE, format)).order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(PlotCurveEncoder.VERSION, buffer.get());
+        boolean float32 = (buffer.get() & PlotCurveEncoder.FLAG_FLOAT32) != 0;
+        buffer.getShort();
+        assertEquals(CURVE.getSegments().size(), buffer.getInt());
+        for (PlotCurve.Segment segment : CURVE.getSegments()) {
+            int count = buffer.getInt();
+            assertEquals(segment.size(), count);
+            assertArrayClose(segment.xs(), read(buffer, count, float32, format.isDelta()), relativeTolerance);
+            assertArrayClose(segment.ys(), read(buffer, count, float32, format.isDelta()), relativeTolerance);
+        }
+        assertFalse(buffer.hasRemaining());
+    }
+
+    private static double[] read(ByteBuffer buffer, int count, boolean float32, boolean delta) {
+        double[] values = new double[count];
+        double value = 0.0;
+        for (int i = 0; i < count; i++) {
+            double stored = float32 ? buffer.getFloat() : buffer.getDouble();
+            value = delta && i > 0 ? value + stored : stored;
+            values[i] = value;
+        }
+        return values;
+    }
+
+    private static void assertArrayClose(double[] expected, double[] actual, double relativeTolerance) {
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], actual[i], relativeTolerance * Math.max(1.0, Math.abs(expected[i])), "index " + i);
+        }
+    }
+}
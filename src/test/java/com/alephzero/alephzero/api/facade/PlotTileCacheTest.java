@@ -0,0 +1,57 @@
+package com.alephzero.alephzero.api.facade;
+
+import com.alephzero.alephzero.api.math.facade.draw.PlotCurve;
+import com.alephzero.alephzero.api.math.facade.draw.PlotTileCache;
+import com.alephzero.alephzero.api.math.facade.draw.PlotTileCacheProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.function.DoubleUnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlotTileCacheTest {
+
+    private static final int BUDGET = 400;
+
+    @Test
+    @DisplayName("Tiles: panning only samples the tiles that came into view")
+    void testPanReusesTiles() {
+        PlotTileCache cache = new PlotTileCache(new PlotTileCacheProperties());
+        cache.sample("x|Sin(x)", Math::sin, -10, 10, BUDGET);
+        long sampled = cache.stats().missCount();
+
+        cache.sample("x|Sin(x)", Math::sin, -6, 14, BUDGET);
+        assertEquals(sampled + 1, cache.stats().missCount());
+        assertTrue(cache.stats().hitCount() >= sampled - 1);
+
+        cache.sample("x|Sin(x)", Math::sin, -5.5, 14.5, BUDGET);
+        assertEquals(sampled + 1, cache.stats().missCount());
+    }
+
+    @Test
+    @DisplayName("Tiles: the stitched curve is continuous and clipped to the viewport")
+    void testStitchedCurve() {
+        PlotTileCache cache = new PlotTileCache(new PlotTileCacheProperties());
+        PlotCurve curve = cache.sample("x|Sin(x)", Math::sin, -3.3, 7.1, BUDGET);
+
+        assertEquals(1, curve.getSegments().size());
+        PlotCurve.Segment segment = curve.getSegments().getFirst();
+        assertTrue(segment.x(0) <= -3.3 && segment.x(1) > -3.3);
+        assertTrue(segment.x(segment.size() - 1) >= 7.1 && segment.x(segment.size() - 2) < 7.1);
+        for (int i = 1; i < segment.size(); i++) {
+            assertTrue(segment.x(i) > segment.x(i - 1), "x not strictly increasing at " + i);
+            assertEquals(Math.sin(segment.x(i)), segment.y(i), 1e-12);
+        }
+        assertTrue(curve.pointCount() <= BUDGET, "points: " + curve.pointCount());
+    }
+
+    @Test
+    @DisplayName("Tiles: poles still split the curve, on and off tile boundaries")
+    void testPolesSplitSegments() {
+        PlotTileCache cache = new PlotTileCache(new PlotTileCacheProperties());
+        DoubleUnaryOperator inverse = x -> 1 / x;
+        assertEquals(2, cache.sample("x|1/x", inverse, -5, 5, BUDGET).getSegments().size());
+        assertEquals(3, cache.sample("x|Tan(x)", Math::tan, -Math.PI, Math.PI, BUDGET).getSegments().size());
+    }
+}
@@ -0,0 +1,60 @@
+package com.alephzero.alephzero.api.service;
+
+import com.alephzero.alephzero.api.math.regex.RegexValidator;
+import com.alephzero.alephzero.api.math.service.memory.MathAssignmentMemory;
+import com.alephzero.alephzero.api.math.service.memory.MathAssignmentWorkspace;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MathAssignmentWorkspaceBenchmarkTest {
+
+    private static final int ITERATIONS = 20_000;
+    private static final boolean PRINT_RESULTS = true;
+
+    private final MathAssignmentMemory memory = new MathAssignmentMemory(new RegexValidator());
+
+    // BENCHMARK (us per ONE processed expression)
+
+    /** 10 defs: ~5 us, 100 defs: ~5 us, 500 defs: ~6 us */
+    @Test
+    @DisplayName("process: cost per expression does not grow with the number of definitions")
+    void benchmarkDefinitions() {
+        benchmark(500); // Warmup of the whole path, so that the first size is not measured while compiling
+        double small = benchmark(10);
+        benchmark(100);
+        double large = benchmark(500);
+
+        // Substitution is one tree walk with hash lookups: 50 times more definitions must not be 10 times slower
+        assertTrue(large < small * 10, "10 definitions: " + small + " us, 500 definitions: " + large + " us");
+    }
+
+    private double benchmark(int definitions) {
+        List<String> expressions = new ArrayList<>();
+        for (int i = 0; i < definitions; i++) {
+            expressions.add("v" + i + "(x) = " + i + "*x^2+Sin[x]");
+        }
+        expressions.add("a = 3");
+        expressions.add("f(x) = v0(x) + a*x");
+        String expression = "f(a) + v1(2) * Cos[x] - Integrate[a*x, x]";
+        MathAssignmentWorkspace workspace = memory.workspace(expressions);
+
+        for (int i = 0; i < ITERATIONS; i++) { // Warmup
+            workspace.process(expression);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            workspace.process(expression);
+        }
+        double micros = (System.nanoTime() - start) / 1_000.0 / ITERATIONS;
+
+        if (PRINT_RESULTS) {
+            System.out.printf("Definitions: %d | Iterations: %d | Average: %.3f us%n", definitions, ITERATIONS, micros);
+        }
+        return micros;
+    }
+}
@@ -0,0 +1,76 @@
+package com.alephzero.alephzero.api.service;
+
+import com.alephzero.alephzero.api.math.regex.RegexValidator;
+import com.alephzero.alephzero.api.math.service.memory.MathAssignmentMemory;
+import com.alephzero.alephzero.api.math.service.memory.MathAssignmentWorkspace;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MathAssignmentWorkspaceTest {
+
+    private final MathAssignmentMemory memory = new MathAssignmentMemory(new RegexValidator());
+
+    @Test
+    @DisplayName("Workspace: definitions apply to the whole request, whatever the processing order")
+    void testDefinitionsApplyToTheRequest() {
+        MathAssignmentWorkspace workspace = memory.workspace(List.of("f(x)+1", "f(x) = 2*x", "a=5", "a=7"));
+
+        assertEquals("(2*x)+1", workspace.process("f(x)+1"));
+        assertEquals("f(x) = 2*x", workspace.process("f(x) = 2*x"));
+        assertEquals("7+1", workspace.process("a+1"));
+    }
+
+    @Test
+    @DisplayName("Workspace: concurrent requests never see each other's definitions")
+    void testRequestsAreIsolated() throws Exception {
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                int value = i;
+                results.add(executor.submit(() ->
+                        memory.workspace(List.of("b=" + value, "b+1")).process("b+1")));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                assertEquals(i + "+1", results.get(i).get());
+            }
+        }
+        assertFalse(memory.workspace(List.of("c")).getVariables().containsKey("b"));
+    }
+
+    @Test
+    @DisplayName("Workspace: definitions resolve along their dependencies, cycles are reported per expression")
+    void testDependencyGraph() {
+        MathAssignmentWorkspace workspace = memory.workspace(List.of(
+                "f(x) = b*x^2", "b = a+1", "a = 2", "p = q", "q = p", "r = q*2"));
+
+        assertEquals("((2+1)*x^2)/2", workspace.process("f(x)/2"));
+        assertEquals("(2+1)*3", workspace.process("b*3"));
+        assertTrue(workspace.errorOf("b = a+1").isEmpty());
+        assertTrue(workspace.errorOf("f(x)+a").isEmpty());
+
+        assertEquals("Cyclic definition: p -> q -> p", workspace.errorOf("p = q").orElseThrow());
+        assertTrue(workspace.errorOf("r = q*2").orElseThrow().contains("cannot be resolved"));
+        assertTrue(workspace.errorOf("r+1").isPresent());
+        assertTrue(workspace.errorOf("a+1").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Workspace: functions apply to their arguments, names are replaced as a whole")
+    void testStructuralSubstitution() {
+        MathAssignmentWorkspace workspace = memory.workspace(List.of("f(x) = 2*x", "g[y] = y^2+x", "x = 3"));
+
+        assertEquals("(2*3)+1", workspace.process("f(3)+1"));
+        assertEquals("(2*(1+4))", workspace.process("f(1+4)"));
+        assertEquals("((2*a)^2+3)", workspace.process("g[f(a)]"));
+        assertEquals("Exp[3]+exp(3)*xy", workspace.process("Exp[x]+exp(x)*xy"));
+        assertEquals("Sin[3, 3]", workspace.process("Sin[x, x]"));
+    }
+}
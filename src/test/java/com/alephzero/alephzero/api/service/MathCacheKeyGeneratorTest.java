@@ -0,0 +1,53 @@
+package com.alephzero.alephzero.api.service;
+
+import com.alephzero.alephzero.api.math.dto.request.MathDataDto;
+import com.alephzero.alephzero.api.math.facade.symja.MathEclipseConfig;
+import com.alephzero.alephzero.api.math.service.cache.MathCacheKeyGenerator;
+import com.alephzero.alephzero.api.math.service.core.MathCachedEvaluationService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MathCacheKeyGeneratorTest {
+
+    private static MathCacheKeyGenerator generator;
+    private static Method evaluate;
+    private static Method calculate;
+    private static Method draw;
+
+    @BeforeAll
+    static void setUp() throws NoSuchMethodException {
+        generator = new MathCacheKeyGenerator(MathEclipseConfig.buildMathEclipseFacade());
+        evaluate = MathCachedEvaluationService.class.getMethod("evaluate", String.class);
+        calculate = MathCachedEvaluationService.class.getMethod("calculate", String.class, MathDataDto.class);
+        draw = MathCachedEvaluationService.class.getMethod("draw", String.class, MathDataDto.class);
+    }
+
+    @Test
+    @DisplayName("Keys: spacing and bracket style do not split entries")
+    void testEquivalentExpressionsShareKey() {
+        Object key = generator.generate(this, evaluate, "Sin(x)^2");
+        assertEquals(key, generator.generate(this, evaluate, "Sin( x ) ^ 2 "));
+        assertEquals(key, generator.generate(this, evaluate, "Sin[x]^2"));
+        assertNotEquals(key, generator.generate(this, evaluate, "Sin(x)^3"));
+        assertNotEquals(key, generator.generate(this, calculate, "Sin(x)^2", new MathDataDto(1, null, null)));
+    }
+
+    @Test
+    @DisplayName("Keys: decimal bounds are compared by value, other data only where it matters")
+    void testDataIsCanonicalized() {
+        Object key = generator.generate(this, draw, "x^2", new MathDataDto(1, "-10", "10"));
+        assertEquals(key, generator.generate(this, draw, "x ^ 2", new MathDataDto(5, "-10.0", "1E+1")));
+        assertNotEquals(key, generator.generate(this, draw, "x^2", new MathDataDto(1, "-10", "11")));
+        assertEquals(generator.generate(this, draw, "x^2", new MathDataDto(1, "-2*Pi", "Pi")),
+                generator.generate(this, draw, "x^2", new MathDataDto(1, "-2 * Pi", " Pi")));
+
+        Object calculated = generator.generate(this, calculate, "x^2", new MathDataDto(3, "-10", "10"));
+        assertEquals(calculated, generator.generate(this, calculate, "x^2", new MathDataDto(3, "0", "1")));
+        assertNotEquals(calculated, generator.generate(this, calculate, "x^2", new MathDataDto(4, "-10", "10")));
+    }
+}
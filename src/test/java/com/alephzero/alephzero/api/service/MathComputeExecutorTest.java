@@ -0,0 +1,75 @@
+package com.alephzero.alephzero.api.service;
+
+import com.alephzero.alephzero.api.math.facade.MathCancellationHandle;
+import com.alephzero.alephzero.api.math.service.core.MathComputeExecutor;
+import com.alephzero.alephzero.api.math.service.core.MathConcurrencyLimiter;
+import com.alephzero.alephzero.api.math.service.core.MathConcurrencyLimiterProperties;
+import com.alephzero.alephzero.api.math.service.core.MathExecutionProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MathComputeExecutorTest {
+
+    private ExecutorService cpuPool;
+    private MathComputeExecutor compute;
+
+    @BeforeEach
+    void setUp() {
+        cpuPool = Executors.newFixedThreadPool(1, r -> new Thread(r, "cpu"));
+        compute = new MathComputeExecutor(cpuPool, new MathExecutionProperties(),
+                new MathConcurrencyLimiter(new MathConcurrencyLimiterProperties()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        cpuPool.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Compute: engine calls run on the CPU pool, nested calls inline, never waiting on the pool itself")
+    void testCallsRunOnCpuPool() throws Exception {
+        try (ExecutorService virtual = Executors.newVirtualThreadPerTaskExecutor()) {
+            String thread = virtual.submit(() -> compute.call(() ->
+                    compute.call(() -> Thread.currentThread().getName()))).get(5, TimeUnit.SECONDS);
+            assertEquals("cpu", thread);
+        }
+    }
+
+    @Test
+    @DisplayName("Compute: the cancellation handle of the caller stops its engine call on the CPU pool")
+    void testCancellationIsPropagated() throws Exception {
+        MathCancellationHandle handle = new MathCancellationHandle();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch stopped = new CountDownLatch(1);
+
+        try (ExecutorService virtual = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Boolean> result = virtual.submit(() -> {
+                try (MathCancellationHandle.Binding ignored = handle.activate()) {
+                    return compute.call(() -> {
+                        try (MathCancellationHandle.Binding binding = MathCancellationHandle.bindCurrent(stopped::countDown)) {
+                            started.countDown();
+                            return stopped.await(5, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            throw new IllegalStateException(e);
+                        }
+                    });
+                }
+            });
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            handle.cancel();
+            assertTrue(result.get(5, TimeUnit.SECONDS));
+        }
+
+        MathExecutionProperties platform = new MathExecutionProperties();
+        platform.setVirtualThreads(false);
+        assertEquals(Thread.currentThread().getName(),
+                new MathComputeExecutor(cpuPool, platform,
+                        new MathConcurrencyLimiter(new MathConcurrencyLimiterProperties())).call(() -> Thread.currentThread().getName()));
+    }
+}
@@ -0,0 +1,84 @@
+package com.alephzero.alephzero.api.service;
+
+import com.alephzero.alephzero.api.math.exception.MathEvaluationRejectedException;
+import com.alephzero.alephzero.api.math.facade.MathCancellationHandle;
+import com.alephzero.alephzero.api.math.service.core.MathConcurrencyLimiter;
+import com.alephzero.alephzero.api.math.service.core.MathConcurrencyLimiterProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MathConcurrencyLimiterTest {
+
+    private static MathConcurrencyLimiterProperties properties(int initial) {
+        MathConcurrencyLimiterProperties properties = new MathConcurrencyLimiterProperties();
+        properties.setInitialLimit(initial);
+        properties.setMinLimit(1);
+        properties.setMaxLimit(16);
+        properties.setAcquireTimeout(Duration.ofMillis(100));
+        return properties;
+    }
+
+    /** Runs the given number of calls, each one filling the limit and computing the given share of its latency. */
+    private static void run(MathConcurrencyLimiter limiter, int calls, double utilization) {
+        for (int i = 0; i < calls; i++) {
+            int limit = limiter.getLimit();
+            MathConcurrencyLimiter.Permit[] permits = new MathConcurrencyLimiter.Permit[limit];
+            for (int j = 0; j < limit; j++) {
+                permits[j] = limiter.acquire();
+            }
+            for (MathConcurrencyLimiter.Permit permit : permits) {
+                permit.record(1_000_000, (long) (1_000_000 * utilization));
+                permit.close();
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Limiter: grows while saturated calls compute, shrinks when they wait")
+    void testLimitFollowsUtilization() {
+        MathConcurrencyLimiter limiter = new MathConcurrencyLimiter(properties(2));
+
+        run(limiter, 20, 1.0);
+        int grown = limiter.getLimit();
+        assertTrue(grown > 2, "limit " + grown);
+
+        run(limiter, 5, 0.3);
+        assertTrue(limiter.getLimit() < grown, "limit " + limiter.getLimit());
+
+        run(limiter, 200, 0.3);
+        assertEquals(1, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    @DisplayName("Limiter: callers over the limit queue, then are rejected or cancelled")
+    void testWaitersAreRejectedOrCancelled() throws Exception {
+        MathConcurrencyLimiter limiter = new MathConcurrencyLimiter(properties(1));
+        try (MathConcurrencyLimiter.Permit ignored = limiter.acquire()) {
+            assertThrows(MathEvaluationRejectedException.class, limiter::acquire);
+            assertEquals(1, limiter.getRejectedCount());
+
+            MathCancellationHandle handle = new MathCancellationHandle();
+            try (ExecutorService waiter = Executors.newVirtualThreadPerTaskExecutor()) {
+                Future<?> waiting = waiter.submit(() -> {
+                    try (MathCancellationHandle.Binding binding = handle.activate()) {
+                        limiter.acquire().close();
+                    }
+                });
+                while (limiter.getQueueDepth() == 0) {
+                    Thread.onSpinWait();
+                }
+                handle.cancel();
+                ExecutionException e = assertThrows(ExecutionException.class, () -> waiting.get(5, TimeUnit.SECONDS));
+                assertInstanceOf(CancellationException.class, e.getCause());
+            }
+        }
+        assertEquals(0, limiter.getQueueDepth());
+        assertEquals(0, limiter.getInFlight());
+    }
+}
@@ -0,0 +1,61 @@
+package com.alephzero.alephzero.api.service;
+
+import com.alephzero.alephzero.api.math.dto.request.MathDataDto;
+import com.alephzero.alephzero.api.math.facade.MathExpressionEvaluation;
+import com.alephzero.alephzero.api.math.facade.symja.MathEclipseConfig;
+import com.alephzero.alephzero.api.math.service.cache.MathCacheKeyGenerator;
+import com.alephzero.alephzero.api.math.service.core.MathCachedEvaluationService;
+import com.alephzero.alephzero.api.math.service.core.MathEvaluationContext;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class MathEvaluationContextTest {
+
+    private static final MathCacheKeyGenerator KEYS = new MathCacheKeyGenerator(MathEclipseConfig.buildMathEclipseFacade());
+
+    @Test
+    @DisplayName("Context: each computation runs once per request, across equivalent spellings")
+    void testComputationsRunOncePerRequest() {
+        MathCachedEvaluationService service = mock(MathCachedEvaluationService.class);
+        when(service.evaluate(anyString())).thenReturn(mock(MathExpressionEvaluation.class));
+        when(service.calculate(anyString(), any())).thenReturn(mock(MathExpressionEvaluation.class));
+
+        MathEvaluationContext context = new MathEvaluationContext(KEYS);
+        try (MathEvaluationContext.Scope ignored = context.activate()) {
+            MathExpressionEvaluation first = MathEvaluationContext.current().evaluate(service, "Sin(x)^2");
+            assertSame(first, MathEvaluationContext.current().evaluate(service, "Sin( x ) ^ 2"));
+            MathEvaluationContext.current().calculate(service, "Sin(x)^2", new MathDataDto(5, null, null));
+            MathEvaluationContext.current().calculate(service, "Sin(x)^2", new MathDataDto(5, null, null));
+            MathEvaluationContext.current().calculate(service, "Sin(x)^2", new MathDataDto(8, null, null));
+        }
+
+        verify(service, times(1)).evaluate(anyString());
+        verify(service, times(2)).calculate(anyString(), any());
+        assertEquals(3, context.size());
+
+        // Outside of the request nothing is memoized
+        MathEvaluationContext.current().evaluate(service, "Sin(x)^2");
+        verify(service, times(2)).evaluate(anyString());
+    }
+
+    @Test
+    @DisplayName("Context: failures are not memoized")
+    void testFailuresAreRetried() {
+        MathCachedEvaluationService service = mock(MathCachedEvaluationService.class);
+        when(service.evaluate(anyString()))
+                .thenThrow(new IllegalStateException("Stopped"))
+                .thenReturn(mock(MathExpressionEvaluation.class));
+
+        MathEvaluationContext context = new MathEvaluationContext(KEYS);
+        try (MathEvaluationContext.Scope ignored = context.activate()) {
+            assertThrows(IllegalStateException.class, () -> MathEvaluationContext.current().evaluate(service, "x"));
+            assertNotNull(MathEvaluationContext.current().evaluate(service, "x"));
+        }
+        verify(service, times(2)).evaluate("x");
+    }
+}
@@ -0,0 +1,145 @@
+package com.alephzero.alephzero.api.service;
+
+import com.alephzero.alephzero.api.math.facade.MathExpressionEvaluation;
+import com.alephzero.alephzero.api.math.facade.draw.PlotCurve;
+import com.alephzero.alephzero.api.math.facade.symja.MathEclipseEvaluation;
+import com.alephzero.alephzero.api.math.service.cache.MathCacheKey;
+import com.alephzero.alephzero.api.math.service.cache.MathEvaluationCodec;
+import com.alephzero.alephzero.api.math.service.cache.MathEvaluationStore;
+import com.alephzero.alephzero.api.math.service.cache.MathTieredCache;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MathEvaluationStoreTest {
+
+    private static final int CAPACITY = 64 * 1024;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Store: entries survive a restart, evaluations and plots intact")
+    void testEntriesSurviveReopen() {
+        Path file = directory.resolve("draw.log");
+        PlotCurve curve = PlotCurve.of(List.of(
+                new PlotCurve.Segment(new double[]{-1, 0}, new double[]{1, 0}),
+                new PlotCurve.Segment(new double[]{0.5, 1}, new double[]{0.25, Math.PI})));
+        MathEclipseEvaluation evaluation = new MathEclipseEvaluation("Graphics(...)", curve);
+        evaluation.addError("Plot: warning");
+
+        try (MathEvaluationStore store = new MathEvaluationStore(file, CAPACITY, "test")) {
+            assertTrue(store.put(key(1), MathEvaluationCodec.encode(evaluation)));
+            assertFalse(store.put(key(1), MathEvaluationCodec.encode(evaluation)));
+        }
+
+        try (MathEvaluationStore store = new MathEvaluationStore(file, CAPACITY, "test")) {
+            MathExpressionEvaluation stored = MathEvaluationCodec.decode(store.get(key(1)));
+            assertEquals("Graphics(...)", stored.getExpressionEvaluated());
+            assertEquals(List.of("Plot: warning"), stored.getEvaluationProblems().orElseThrow());
+            PlotCurve storedCurve = stored.getPlot().orElseThrow();
+            assertEquals(2, storedCurve.getSegments().size());
+            assertArrayEquals(curve.getSegments().get(1).ys(), storedCurve.getSegments().get(1).ys());
+            assertNull(store.get(key(2)));
+        }
+
+        try (MathEvaluationStore store = new MathEvaluationStore(file, CAPACITY, "other")) {
+            assertEquals(0, store.size());
+        }
+    }
+
+    @Test
+    @DisplayName("Store: a full log is compacted to its newest entries and never outgrows its capacity")
+    void testCompactionKeepsNewestEntries() throws IOException {
+        Path file = directory.resolve("evaluate.log");
+        try (MathEvaluationStore store = new MathEvaluationStore(file, CAPACITY, "test")) {
+            for (int i = 0; i < 1000; i++) {
+                store.put(key(i), value(i, 200));
+            }
+            assertTrue(store.usedBytes() <= CAPACITY);
+            assertArrayEquals(value(999, 200), store.get(key(999)));
+            assertNull(store.get(key(0)));
+            assertTrue(store.size() > 100);
+        }
+        assertTrue(Files.size(file) <= CAPACITY);
+    }
+
+    @Test
+    @DisplayName("Store: a damaged record is dropped on restart, the records before it are kept")
+    void testDamagedTailIsDropped() throws IOException {
+        Path file = directory.resolve("calculate.log");
+        int lastValuePosition;
+        try (MathEvaluationStore store = new MathEvaluationStore(file, CAPACITY, "test")) {
+            store.put(key(1), value(1, 100));
+            store.put(key(2), value(2, 100));
+            lastValuePosition = store.usedBytes() - 10;
+        }
+        try (RandomAccessFile raw = new RandomAccessFile(file.toFile(), "rw")) {
+            raw.seek(lastValuePosition);
+            raw.write(0xFF);
+        }
+
+        try (MathEvaluationStore store = new MathEvaluationStore(file, CAPACITY, "test")) {
+            assertArrayEquals(value(1, 100), store.get(key(1)));
+            assertNull(store.get(key(2)));
+            assertTrue(store.put(key(3), value(3, 100)));
+        }
+        try (MathEvaluationStore store = new MathEvaluationStore(file, CAPACITY, "test")) {
+            assertEquals(2, store.size());
+        }
+    }
+
+    @Test
+    @DisplayName("Store: a log already open in another store cannot be opened again until closed")
+    void testLogIsLocked() {
+        Path file = directory.resolve("calculate.log");
+        try (MathEvaluationStore store = new MathEvaluationStore(file, CAPACITY, "test")) {
+            assertTrue(store.put(key(1), value(1, 100)));
+            assertThrows(IllegalStateException.class, () -> new MathEvaluationStore(file, CAPACITY, "test"));
+        }
+        try (MathEvaluationStore store = new MathEvaluationStore(file, CAPACITY, "test")) {
+            assertEquals(1, store.size());
+        }
+    }
+
+    @Test
+    @DisplayName("Tiered cache: memory misses are served from the store and promoted")
+    void testTieredCacheFallsBackToStore() {
+        Path file = directory.resolve("evaluate.log");
+        try (MathEvaluationStore store = new MathEvaluationStore(file, CAPACITY, "test")) {
+            new MathTieredCache(new ConcurrentMapCache("evaluate"), store)
+                    .put(key(7), new MathEclipseEvaluation("2*x"));
+
+            ConcurrentMapCache memory = new ConcurrentMapCache("evaluate");
+            MathTieredCache cache = new MathTieredCache(memory, store);
+            MathExpressionEvaluation loaded = cache.get(key(7), MathExpressionEvaluation.class);
+
+            assertNotNull(loaded);
+            assertEquals("2*x", loaded.getExpressionEvaluated());
+            assertNotNull(memory.get(key(7)));
+            assertEquals("computed", cache.get(key(8), () -> new MathEclipseEvaluation("computed")).getExpressionEvaluated());
+            assertNotNull(store.get(key(8)));
+        }
+    }
+
+    private static MathCacheKey key(int i) {
+        return new MathCacheKey(i, ~i);
+    }
+
+    private static byte[] value(int i, int length) {
+        byte[] value = new byte[length];
+        byte[] id = String.valueOf(i).getBytes(StandardCharsets.UTF_8);
+        System.arraycopy(id, 0, value, 0, id.length);
+        return value;
+    }
+}
@@ -0,0 +1,159 @@
+package com.alephzero.alephzero.api.service;
+
+import com.alephzero.alephzero.api.math.dto.request.MathDataDto;
+import com.alephzero.alephzero.api.math.dto.request.MathEvaluationRequest;
+import com.alephzero.alephzero.api.math.dto.request.MathExpressionDto;
+import com.alephzero.alephzero.api.math.dto.response.MathEvaluationDto;
+import com.alephzero.alephzero.api.math.dto.response.MathEvaluationResultResponse;
+import com.alephzero.alephzero.api.math.enums.computation.MathEvaluationType;
+import com.alephzero.alephzero.api.math.enums.computation.MathExpressionType;
+import com.alephzero.alephzero.api.math.exception.MathEvaluationRejectedException;
+import com.alephzero.alephzero.api.math.regex.RegexValidator;
+import com.alephzero.alephzero.api.math.service.cache.MathCacheKeyGenerator;
+import com.alephzero.alephzero.api.math.service.core.MathComputeExecutor;
+import com.alephzero.alephzero.api.math.service.core.MathConcurrencyLimiter;
+import com.alephzero.alephzero.api.math.service.core.MathConcurrencyLimiterProperties;
+import com.alephzero.alephzero.api.math.service.core.MathEvaluationTimeoutProperties;
+import com.alephzero.alephzero.api.math.service.core.MathExecutionProperties;
+import com.alephzero.alephzero.api.math.service.core.MathExpressionService;
+import com.alephzero.alephzero.api.math.service.memory.MathAssignmentMemory;
+import com.alephzero.alephzero.api.math.service.strategy.EvaluationStrategy;
+import com.alephzero.alephzero.api.math.service.strategy.EvaluationStrategyContext;
+import com.alephzero.alephzero.util.ThreadPoolConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Drives the two-level scheduler with many more concurrent requests than cores, every expression standing for
+ * a few milliseconds of engine work.
+ */
+class MathExpressionServiceLoadTest {
+
+    private static final int CORES = Runtime.getRuntime().availableProcessors();
+    private static final int EXPRESSIONS = 3;
+    private static final long WORK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private final List<ExecutorService> pools = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        pools.forEach(ExecutorService::shutdownNow);
+    }
+
+    @Test
+    @DisplayName("Load: 10x cores concurrent requests neither deadlock nor collapse")
+    void testNoDeadlockUnderLoad() throws Exception {
+        MathExpressionService service = service(new MathExecutionProperties(), new MathConcurrencyLimiterProperties());
+        int requests = 10 * CORES;
+
+        // Platform threads standing for request threads, all submitting at once
+        ExecutorService callers = pool(Executors.newFixedThreadPool(requests));
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Long>> latencies = new ArrayList<>();
+        for (int i = 0; i < requests; i++) {
+            latencies.add(callers.submit(() -> {
+                start.await();
+                long begin = System.nanoTime();
+                MathEvaluationResultResponse response = service.evaluation(request());
+                assertEquals(EXPRESSIONS, response.expressionEvaluations().size());
+                response.expressionEvaluations().forEach(evaluation -> assertEquals(
+                        MathEvaluationType.EVALUATION, evaluation.evaluations().getFirst().evaluationType()));
+                return System.nanoTime() - begin;
+            }));
+        }
+        start.countDown();
+
+        long max = 0;
+        for (Future<Long> latency : latencies) {
+            max = Math.max(max, latency.get(30, TimeUnit.SECONDS));
+        }
+
+        // All the work done back to back on every core, a lower bound of the slowest request
+        long makespan = requests * EXPRESSIONS * WORK_NANOS / CORES;
+        assertTrue(max < Math.max(TimeUnit.SECONDS.toNanos(2), 10 * makespan),
+                "slowest request took " + TimeUnit.NANOSECONDS.toMillis(max) + " ms, ideal "
+                        + TimeUnit.NANOSECONDS.toMillis(makespan) + " ms");
+    }
+
+    @Test
+    @DisplayName("Load: engine calls beyond the CPU queue limit are rejected, not run on the request thread")
+    void testOverflowIsRejected() throws Exception {
+        MathExecutionProperties properties = new MathExecutionProperties();
+        properties.setCpuPoolSize(1);
+        properties.setCpuQueueCapacity(1);
+        // A limit well above the pool, so that the pool queue overflows before the limiter queues the calls
+        MathConcurrencyLimiterProperties limits = new MathConcurrencyLimiterProperties();
+        limits.setInitialLimit(64);
+        limits.setMinLimit(64);
+        limits.setMaxLimit(64);
+        MathExpressionService service = service(properties, limits);
+
+        ExecutorService callers = pool(Executors.newFixedThreadPool(8));
+        List<Future<MathEvaluationResultResponse>> responses = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            responses.add(callers.submit(() -> service.evaluation(request())));
+        }
+
+        int rejected = 0;
+        for (Future<MathEvaluationResultResponse> response : responses) {
+            try {
+                response.get(30, TimeUnit.SECONDS);
+            } catch (ExecutionException e) {
+                assertInstanceOf(MathEvaluationRejectedException.class, e.getCause());
+                rejected++;
+            }
+        }
+        assertTrue(rejected > 0);
+    }
+
+    private MathExpressionService service(MathExecutionProperties properties, MathConcurrencyLimiterProperties limits) {
+        ThreadPoolConfig config = new ThreadPoolConfig();
+        ExecutorService orchestrator = pool(config.mathThreadPool(properties));
+        MathComputeExecutor compute = new MathComputeExecutor(pool(config.mathCpuPool(properties)), properties,
+                new MathConcurrencyLimiter(limits));
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        pools.add(scheduler);
+
+        EvaluationStrategy strategy = mock(EvaluationStrategy.class);
+        when(strategy.compute(anyString(), any())).thenAnswer(invocation -> compute.call(() -> {
+            long end = System.nanoTime() + WORK_NANOS;
+            double sink = 0;
+            while (System.nanoTime() < end) {
+                sink += Math.sin(sink);
+            }
+            return List.of(new MathEvaluationDto(MathEvaluationType.EVALUATION, String.valueOf(sink), null));
+        }));
+        EvaluationStrategyContext context = mock(EvaluationStrategyContext.class);
+        when(context.getStrategy(any())).thenReturn(strategy);
+
+        MathEvaluationTimeoutProperties timeouts = new MathEvaluationTimeoutProperties();
+        timeouts.setRequest(Duration.ofSeconds(20));
+        return new MathExpressionService(orchestrator, scheduler, timeouts, mock(MathCacheKeyGenerator.class),
+                new MathAssignmentMemory(new RegexValidator()), expression -> MathExpressionType.FUNCTION, context);
+    }
+
+    private static MathEvaluationRequest request() {
+        List<MathExpressionDto> expressions = new ArrayList<>();
+        for (int i = 0; i < EXPRESSIONS; i++) {
+            expressions.add(new MathExpressionDto("x^" + i));
+        }
+        return new MathEvaluationRequest(expressions, new MathDataDto(1, "-1", "1"));
+    }
+
+    private ExecutorService pool(ExecutorService pool) {
+        pools.add(pool);
+        return pool;
+    }
+}
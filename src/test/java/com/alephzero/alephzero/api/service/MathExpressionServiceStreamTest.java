@@ -0,0 +1,144 @@
+package com.alephzero.alephzero.api.service;
+
+import com.alephzero.alephzero.api.math.dto.request.MathDataDto;
+import com.alephzero.alephzero.api.math.dto.request.MathEvaluationRequest;
+import com.alephzero.alephzero.api.math.dto.request.MathExpressionDto;
+import com.alephzero.alephzero.api.math.dto.response.MathEvaluationDto;
+import com.alephzero.alephzero.api.math.dto.response.MathExpressionStreamEventDto;
+import com.alephzero.alephzero.api.math.enums.computation.MathEvaluationType;
+import com.alephzero.alephzero.api.math.enums.computation.MathExpressionType;
+import com.alephzero.alephzero.api.math.regex.RegexValidator;
+import com.alephzero.alephzero.api.math.service.cache.MathCacheKeyGenerator;
+import com.alephzero.alephzero.api.math.service.core.MathEvaluationTimeoutProperties;
+import com.alephzero.alephzero.api.math.service.core.MathExpressionService;
+import com.alephzero.alephzero.api.math.service.memory.MathAssignmentMemory;
+import com.alephzero.alephzero.api.math.service.strategy.EvaluationStrategy;
+import com.alephzero.alephzero.api.math.service.strategy.EvaluationStrategyContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MathExpressionServiceStreamTest {
+
+    private static final String SLOW = "Integrate(slow)";
+    private static final String FAST = "fast";
+    private static final String STUCK = "Integrate(stuck)";
+
+    private ExecutorService executor;
+    private ScheduledExecutorService scheduler;
+    private EvaluationStrategyContext context;
+    private MathExpressionService service;
+    private final CountDownLatch stuckDone = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+
+        EvaluationStrategy strategy = mock(EvaluationStrategy.class);
+        when(strategy.computeEvaluations(anyString(), any())).thenAnswer(invocation -> {
+            String expression = invocation.getArgument(0);
+            if (expression.equals(SLOW)) {
+                Thread.sleep(500);
+            }
+            if (expression.equals(STUCK)) { // Ignores cancellation, like an engine between two checks
+                long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(2500);
+                while (System.nanoTime() < end) {
+                    Thread.onSpinWait();
+                }
+                stuckDone.countDown();
+            }
+            return List.of(new MathEvaluationDto(MathEvaluationType.EVALUATION, expression, null));
+        });
+        when(strategy.computeDrawing(anyString(), any())).thenAnswer(invocation ->
+                Optional.of(new MathEvaluationDto(MathEvaluationType.DRAWING, "Graphics({})", null)));
+
+        context = mock(EvaluationStrategyContext.class);
+        when(context.getStrategy(any())).thenReturn(strategy);
+
+        service = new MathExpressionService(executor, scheduler, new MathEvaluationTimeoutProperties(),
+                mock(MathCacheKeyGenerator.class),
+                new MathAssignmentMemory(new RegexValidator()),
+                expression -> MathExpressionType.FUNCTION, context);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Stream: fast expressions are published before slow ones, drawings after their evaluation")
+    void testEventsArePublishedAsTheyComplete() {
+        MathEvaluationRequest request = new MathEvaluationRequest(
+                List.of(new MathExpressionDto(SLOW), new MathExpressionDto(FAST)),
+                new MathDataDto(1, "-1", "1")
+        );
+
+        List<MathExpressionStreamEventDto> events = new ArrayList<>();
+        service.evaluationStream(request, events::add);
+
+        assertEquals(4, events.size());
+        assertEquals(1, events.getFirst().index());
+        assertEquals(MathEvaluationType.EVALUATION, events.getFirst().evaluations().getFirst().evaluationType());
+        for (int index = 0; index < 2; index++) {
+            int evaluation = indexOf(events, index, MathEvaluationType.EVALUATION);
+            int drawing = indexOf(events, index, MathEvaluationType.DRAWING);
+            assertTrue(evaluation >= 0 && evaluation < drawing, "expression " + index);
+        }
+    }
+
+    @Test
+    @DisplayName("Stream: nothing is published after the request deadline closed the stream")
+    void testNoEventsAfterTimeout() throws InterruptedException {
+        MathEvaluationTimeoutProperties timeouts = new MathEvaluationTimeoutProperties();
+        timeouts.setRequest(Duration.ofMillis(100));
+        MathExpressionService timed = new MathExpressionService(executor, scheduler, timeouts,
+                mock(MathCacheKeyGenerator.class),
+                new MathAssignmentMemory(new RegexValidator()),
+                expression -> MathExpressionType.FUNCTION, context);
+        MathEvaluationRequest request = new MathEvaluationRequest(
+                List.of(new MathExpressionDto(STUCK), new MathExpressionDto(FAST)),
+                new MathDataDto(1, "-1", "1")
+        );
+
+        List<MathExpressionStreamEventDto> events = Collections.synchronizedList(new ArrayList<>());
+        timed.evaluationStream(request, events::add);
+        int published = events.size();
+        assertTrue(stuckDone.await(10, TimeUnit.SECONDS));
+        Thread.sleep(200);
+
+        assertEquals(published, events.size());
+        assertEquals(1, events.stream().filter(event -> event.index() == 0).count());
+        assertEquals(2, events.stream().filter(event -> event.index() == 1).count());
+    }
+
+    private static int indexOf(List<MathExpressionStreamEventDto> events, int index, MathEvaluationType type) {
+        for (int i = 0; i < events.size(); i++) {
+            MathExpressionStreamEventDto event = events.get(i);
+            if (event.index() == index && event.evaluations().getFirst().evaluationType() == type) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
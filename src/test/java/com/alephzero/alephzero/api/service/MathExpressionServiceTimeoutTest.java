@@ -0,0 +1,124 @@
+package com.alephzero.alephzero.api.service;
+
+import com.alephzero.alephzero.api.math.dto.request.MathDataDto;
+import com.alephzero.alephzero.api.math.dto.request.MathEvaluationRequest;
+import com.alephzero.alephzero.api.math.dto.request.MathExpressionDto;
+import com.alephzero.alephzero.api.math.dto.response.MathEvaluationDto;
+import com.alephzero.alephzero.api.math.dto.response.MathEvaluationResultResponse;
+import com.alephzero.alephzero.api.math.dto.response.MathExpressionEvaluationDto;
+import com.alephzero.alephzero.api.math.enums.computation.MathEvaluationType;
+import com.alephzero.alephzero.api.math.enums.computation.MathExpressionType;
+import com.alephzero.alephzero.api.math.facade.MathCancellationHandle;
+import com.alephzero.alephzero.api.math.regex.RegexValidator;
+import com.alephzero.alephzero.api.math.service.cache.MathCacheKeyGenerator;
+import com.alephzero.alephzero.api.math.service.core.MathEvaluationTimeoutProperties;
+import com.alephzero.alephzero.api.math.service.core.MathExpressionService;
+import com.alephzero.alephzero.api.math.service.memory.MathAssignmentMemory;
+import com.alephzero.alephzero.api.math.service.strategy.EvaluationStrategy;
+import com.alephzero.alephzero.api.math.service.strategy.EvaluationStrategyContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MathExpressionServiceTimeoutTest {
+
+    private static final String SLOW = "Integrate(slow)";
+    private static final String FAST = "fast";
+
+    private final Set<String> stopped = ConcurrentHashMap.newKeySet();
+
+    private ExecutorService executor;
+    private ScheduledExecutorService scheduler;
+    private MathExpressionService service;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+
+        MathEvaluationTimeoutProperties timeouts = new MathEvaluationTimeoutProperties();
+        timeouts.setRequest(Duration.ofSeconds(10));
+        timeouts.getTypes().put(MathExpressionType.NUMERIC, Duration.ofMillis(200));
+
+        // Stands for an engine: runs until the handle of its expression stops it
+        EvaluationStrategy strategy = mock(EvaluationStrategy.class);
+        when(strategy.compute(anyString(), any())).thenAnswer(invocation -> {
+            String expression = invocation.getArgument(0);
+            CountDownLatch stop = new CountDownLatch(1);
+            try (MathCancellationHandle.Binding ignored = MathCancellationHandle.bindCurrent(() -> {
+                stopped.add(expression);
+                stop.countDown();
+            })) {
+                if (expression.equals(SLOW) && !stop.await(5, TimeUnit.SECONDS)) {
+                    fail("Slow expression was never stopped");
+                }
+                if (stop.getCount() == 0) {
+                    throw new IllegalStateException("Stopped");
+                }
+            }
+            return List.of(new MathEvaluationDto(MathEvaluationType.EVALUATION, expression, null));
+        });
+
+        EvaluationStrategyContext context = mock(EvaluationStrategyContext.class);
+        when(context.getStrategy(any())).thenReturn(strategy);
+
+        service = new MathExpressionService(executor, scheduler, timeouts,
+                mock(MathCacheKeyGenerator.class),
+                new MathAssignmentMemory(new RegexValidator()),
+                expression -> expression.equals(SLOW) ? MathExpressionType.NUMERIC : MathExpressionType.FUNCTION,
+                context);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Timeout: an expression past its type deadline is stopped, the others keep their results")
+    void testExpressionDeadlineStopsOnlyItsEvaluation() {
+        MathEvaluationRequest request = new MathEvaluationRequest(
+                List.of(new MathExpressionDto(SLOW), new MathExpressionDto(FAST)),
+                new MathDataDto(1, "-1", "1")
+        );
+
+        long start = System.nanoTime();
+        MathEvaluationResultResponse response = service.evaluation(request);
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+
+        MathExpressionEvaluationDto slow = response.expressionEvaluations().get(0);
+        assertEquals(MathExpressionType.NUMERIC, slow.type());
+        assertEquals(MathEvaluationType.NONE, slow.evaluations().getFirst().evaluationType());
+        assertTrue(slow.evaluations().getFirst().evaluationProblems().getFirst().startsWith("Timeout"));
+
+        MathExpressionEvaluationDto fast = response.expressionEvaluations().get(1);
+        assertEquals(MathEvaluationType.EVALUATION, fast.evaluations().getFirst().evaluationType());
+        assertEquals(FAST, fast.evaluations().getFirst().evaluation());
+
+        assertEquals(Set.of(SLOW), stopped);
+    }
+
+    @Test
+    @DisplayName("Timeout: worksheet evaluations tell the expressions stopped by their deadline")
+    void testWorksheetEvaluationsReportInterruptions() {
+        List<String> expressions = List.of(SLOW, FAST);
+        List<MathExpressionService.WorksheetEvaluation> evaluations = service.evaluation(expressions,
+                new MathAssignmentMemory(new RegexValidator()).workspace(expressions), new MathDataDto(1, "-1", "1"));
+
+        assertTrue(evaluations.get(0).interrupted());
+        assertFalse(evaluations.get(1).interrupted());
+    }
+}
@@ -0,0 +1,119 @@
+package com.alephzero.alephzero.api.service;
+
+import com.alephzero.alephzero.api.math.exception.MathEvaluationOverloadedException;
+import com.alephzero.alephzero.api.math.service.core.MathLoadShedder;
+import com.alephzero.alephzero.api.math.service.core.MathLoadSheddingProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MathLoadShedderTest {
+
+    @Test
+    @DisplayName("Shedding: starts at the high watermark, stops at the low one, retry delay follows the drain rate")
+    void testWatermarksAndRetryAfter() {
+        MathLoadSheddingProperties properties = new MathLoadSheddingProperties();
+        properties.setHighWatermark(10);
+        properties.setLowWatermark(5);
+        AtomicLong clock = new AtomicLong();
+        MathLoadShedder shedder = new MathLoadShedder(properties, clock::get);
+
+        Deque<MathLoadShedder.Ticket> tickets = new ArrayDeque<>();
+        for (int i = 0; i < 10; i++) {
+            tickets.push(shedder.admit());
+        }
+
+        // Nothing completed yet: the longest delay
+        MathEvaluationOverloadedException rejected = assertThrows(MathEvaluationOverloadedException.class, shedder::admit);
+        assertEquals(properties.getMaxRetryAfter(), rejected.getRetryAfter());
+        assertTrue(shedder.isShedding());
+
+        // Two requests per second: 4 requests above the low watermark drain in 2 s
+        tickets.pop().close();
+        tickets.pop().close();
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        rejected = assertThrows(MathEvaluationOverloadedException.class, shedder::admit);
+        assertEquals(Duration.ofSeconds(2), rejected.getRetryAfter());
+
+        // Still over the low watermark: keeps shedding even under the high one
+        tickets.pop().close();
+        tickets.pop().close();
+        assertThrows(MathEvaluationOverloadedException.class, shedder::admit);
+        tickets.pop().close();
+        tickets.push(shedder.admit());
+        assertFalse(shedder.isShedding());
+        assertEquals(3, shedder.getShedCount());
+        assertEquals(6, shedder.getInProgress());
+    }
+
+    @Test
+    @DisplayName("Drain rate: a quiet period before an overload does not stretch the retry delay")
+    void testQuietPeriodBeforeOverload() {
+        MathLoadSheddingProperties properties = new MathLoadSheddingProperties();
+        properties.setHighWatermark(10);
+        properties.setLowWatermark(5);
+        AtomicLong clock = new AtomicLong();
+        MathLoadShedder shedder = new MathLoadShedder(properties, clock::get);
+
+        // Some traffic, then an hour without requests nor reads of the drain rate
+        for (int i = 0; i < 20; i++) {
+            shedder.admit().close();
+        }
+        clock.addAndGet(TimeUnit.HOURS.toNanos(1));
+
+        Deque<MathLoadShedder.Ticket> tickets = new ArrayDeque<>();
+        for (int i = 0; i < 10; i++) {
+            tickets.push(shedder.admit());
+        }
+        assertThrows(MathEvaluationOverloadedException.class, shedder::admit);
+        tickets.pop().close();
+        tickets.pop().close();
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+        // Only the last second counts: two requests per second, 4 requests above the low watermark drain in 2 s
+        MathEvaluationOverloadedException rejected = assertThrows(MathEvaluationOverloadedException.class, shedder::admit);
+        assertEquals(Duration.ofSeconds(2), rejected.getRetryAfter());
+        assertEquals(2, shedder.getDrainRate(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Admission: a concurrent burst never exceeds the high watermark")
+    void testBurstDoesNotOvershoot() throws InterruptedException {
+        MathLoadSheddingProperties properties = new MathLoadSheddingProperties();
+        properties.setHighWatermark(10);
+        properties.setLowWatermark(5);
+        MathLoadShedder shedder = new MathLoadShedder(properties);
+
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < 100; i++) {
+                        try {
+                            shedder.admit();
+                        } catch (MathEvaluationOverloadedException ignored) {
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        start.countDown();
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(10, shedder.getInProgress());
+    }
+}
@@ -0,0 +1,51 @@
+package com.alephzero.alephzero.api.service;
+
+import com.alephzero.alephzero.api.math.MathLoadSheddingInterceptor;
+import com.alephzero.alephzero.api.math.exception.MathEvaluationOverloadedException;
+import com.alephzero.alephzero.api.math.service.core.MathLoadShedder;
+import com.alephzero.alephzero.api.math.service.core.MathLoadSheddingProperties;
+import jakarta.servlet.DispatcherType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MathLoadSheddingInterceptorTest {
+
+    @Test
+    @DisplayName("Interceptor: evaluations are admitted before the handler, released on completion, shed when full")
+    void testAdmission() throws Exception {
+        MathLoadSheddingProperties properties = new MathLoadSheddingProperties();
+        properties.setHighWatermark(1);
+        properties.setLowWatermark(0);
+        MathLoadShedder shedder = new MathLoadShedder(properties);
+        MathLoadSheddingInterceptor interceptor = new MathLoadSheddingInterceptor(shedder);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Reading the workspace evaluates nothing
+        MockHttpServletRequest read = new MockHttpServletRequest("GET", "/api/v1/math/workspace");
+        assertTrue(interceptor.preHandle(read, response, new Object()));
+        assertEquals(0, shedder.getInProgress());
+
+        // A streamed evaluation keeps its admission over the asynchronous dispatch that completes it
+        MockHttpServletRequest stream = new MockHttpServletRequest("POST", "/api/v1/math/evaluation/stream");
+        assertTrue(interceptor.preHandle(stream, response, new Object()));
+        interceptor.afterConcurrentHandlingStarted(stream, response, new Object());
+        assertEquals(1, shedder.getInProgress());
+
+        MockHttpServletRequest other = new MockHttpServletRequest("POST", "/api/v1/math/evaluation");
+        assertThrows(MathEvaluationOverloadedException.class, () -> interceptor.preHandle(other, response, new Object()));
+
+        stream.setDispatcherType(DispatcherType.ASYNC);
+        assertTrue(interceptor.preHandle(stream, response, new Object()));
+        assertEquals(1, shedder.getInProgress());
+        interceptor.afterCompletion(stream, response, new Object(), null);
+        assertEquals(0, shedder.getInProgress());
+
+        assertTrue(interceptor.preHandle(other, response, new Object()));
+        interceptor.afterCompletion(other, response, new Object(), null);
+        assertEquals(0, shedder.getInProgress());
+    }
+}
@@ -0,0 +1,95 @@
+package com.alephzero.alephzero.api.service;
+
+import com.alephzero.alephzero.api.math.facade.draw.PlotCurve;
+import com.alephzero.alephzero.api.math.facade.symja.MathEclipseEvaluation;
+import com.alephzero.alephzero.api.math.service.cache.MathCacheMemoryProperties;
+import com.alephzero.alephzero.api.math.service.cache.MathCacheWeigher;
+import com.alephzero.alephzero.api.math.service.cache.MathMemoryCache;
+import com.alephzero.alephzero.api.math.service.cache.MathMemoryCacheManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MathMemoryCacheTest {
+
+    @Test
+    @DisplayName("Memory cache: entries are weighed by retained bytes against one shared budget")
+    void testSharedByteBudget() {
+        MathCacheMemoryProperties properties = new MathCacheMemoryProperties();
+        properties.setMaxSize(DataSize.ofKilobytes(64));
+        MathMemoryCacheManager manager = new MathMemoryCacheManager(properties, List.of("evaluate", "draw"));
+
+        MathEclipseEvaluation small = new MathEclipseEvaluation("1+2*x");
+        MathEclipseEvaluation plot = new MathEclipseEvaluation("Graphics(...)", PlotCurve.of(List.of(
+                new PlotCurve.Segment(new double[1000], new double[1000]))));
+        assertTrue(MathCacheWeigher.weigh(plot) > 50 * MathCacheWeigher.weigh(small));
+
+        MathMemoryCache evaluate = manager.getCache("evaluate");
+        MathMemoryCache draw = manager.getCache("draw");
+        for (int i = 0; i < 10; i++) {
+            draw.put("plot" + i, plot);
+        }
+        manager.cleanUp();
+
+        assertTrue(manager.getWeight() <= properties.getMaxSize().toBytes());
+        assertTrue(draw.stats().size() < 10);
+        assertEquals(10 - draw.stats().size(), draw.stats().evictions());
+        evaluate.put("small", small);
+        assertSame(small, evaluate.get("small", MathEclipseEvaluation.class));
+        assertEquals(1, evaluate.stats().hits());
+        assertNull(evaluate.get("missing"));
+        assertEquals(1, evaluate.stats().misses());
+        assertNull(manager.getCache("unknown"));
+    }
+
+    @Test
+    @DisplayName("Memory cache: expensive entries outlive cheap ones")
+    void testExpensiveEntriesLiveLonger() throws InterruptedException {
+        MathCacheMemoryProperties properties = new MathCacheMemoryProperties();
+        properties.setMinTimeToLive(Duration.ofMillis(50));
+        properties.setMaxTimeToLive(Duration.ofHours(1));
+        properties.setExpensiveThreshold(Duration.ofMillis(50));
+        MathMemoryCacheManager manager = new MathMemoryCacheManager(properties, List.of());
+
+        MathMemoryCache cache = manager.getCache("calculate");
+        cache.put("Pi", "3.14", Duration.ofNanos(1000).toNanos());
+        cache.put("Integrate", "0.5", Duration.ofMillis(80).toNanos());
+        Thread.sleep(200);
+        manager.cleanUp();
+
+        assertNull(cache.get("Pi"));
+        assertEquals("0.5", cache.get("Integrate", String.class));
+    }
+
+    @Test
+    @DisplayName("Memory cache: a burst of cheap entries never evicts expensive ones")
+    void testExpensiveEntriesAreProtected() {
+        MathCacheMemoryProperties properties = new MathCacheMemoryProperties();
+        properties.setMaxSize(DataSize.ofKilobytes(64));
+        properties.setExpensiveThreshold(Duration.ofMillis(50));
+        MathMemoryCacheManager manager = new MathMemoryCacheManager(properties, List.of("evaluate", "calculate"));
+
+        MathMemoryCache calculate = manager.getCache("calculate");
+        MathMemoryCache evaluate = manager.getCache("evaluate");
+        calculate.put("Integrate", "0.5", Duration.ofMillis(80).toNanos());
+        assertEquals("loaded", evaluate.get("Solve", () -> {
+            Thread.sleep(60);
+            return "loaded";
+        }));
+        for (int i = 0; i < 10_000; i++) {
+            evaluate.put("cheap" + i, "x^" + i, 1000);
+            evaluate.get("cheap" + i);
+        }
+        manager.cleanUp();
+
+        assertTrue(evaluate.stats().evictions() > 0);
+        assertTrue(manager.getWeight() <= properties.getMaxSize().toBytes());
+        assertEquals("0.5", calculate.get("Integrate", String.class));
+        assertEquals("loaded", evaluate.get("Solve", String.class));
+    }
+}
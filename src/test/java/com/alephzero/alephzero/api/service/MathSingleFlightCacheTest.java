@@ -0,0 +1,116 @@
+package com.alephzero.alephzero.api.service;
+
+import com.alephzero.alephzero.api.math.facade.MathCancellationHandle;
+import com.alephzero.alephzero.api.math.service.cache.MathSingleFlightCache;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MathSingleFlightCacheTest {
+
+    @Test
+    @DisplayName("Single-flight: concurrent misses on one key run the loader once")
+    void testConcurrentMissesShareOneComputation() throws Exception {
+        MathSingleFlightCache cache = new MathSingleFlightCache(new ConcurrentMapCache("evaluate"));
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        int callers = 8;
+
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> cache.get("Sin(x)", () -> {
+                    loads.incrementAndGet();
+                    release.await();
+                    return "result";
+                })));
+            }
+            while (cache.coalescedCount() < callers - 1) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("result", result.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, loads.get());
+        assertEquals(0, cache.inFlightCount());
+        assertEquals("result", cache.get("Sin(x)", String.class));
+    }
+
+    @Test
+    @DisplayName("Single-flight: a failed leader lets a waiter compute the key itself")
+    void testWaiterRecomputesAfterLeaderFailure() throws Exception {
+        MathSingleFlightCache cache = new MathSingleFlightCache(new ConcurrentMapCache("evaluate"));
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch failLeader = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> leader = executor.submit(() -> cache.get("x", () -> {
+                leaderStarted.countDown();
+                failLeader.await();
+                throw new IllegalStateException("leader deadline");
+            }));
+            leaderStarted.await();
+            Future<String> waiter = executor.submit(() -> cache.get("x", () -> "recomputed"));
+            while (cache.coalescedCount() < 1) {
+                Thread.onSpinWait();
+            }
+            failLeader.countDown();
+
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> leader.get(10, TimeUnit.SECONDS));
+            assertInstanceOf(Cache.ValueRetrievalException.class, failure.getCause());
+            assertEquals("recomputed", waiter.get(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Single-flight: cancelling a waiter stops its wait but not the shared computation")
+    void testCancelledWaiterLeavesComputationRunning() throws Exception {
+        MathSingleFlightCache cache = new MathSingleFlightCache(new ConcurrentMapCache("evaluate"));
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        MathCancellationHandle handle = new MathCancellationHandle();
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> leader = executor.submit(() -> cache.get("x", () -> {
+                leaderStarted.countDown();
+                release.await();
+                return "result";
+            }));
+            leaderStarted.await();
+            Future<String> waiter = executor.submit(() -> {
+                try (MathCancellationHandle.Binding ignored = handle.activate()) {
+                    return cache.get("x", () -> "unexpected");
+                }
+            });
+            while (cache.coalescedCount() < 1) {
+                Thread.onSpinWait();
+            }
+            handle.cancel();
+
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> waiter.get(10, TimeUnit.SECONDS));
+            assertInstanceOf(Cache.ValueRetrievalException.class, failure.getCause());
+            release.countDown();
+            assertEquals("result", leader.get(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.alephzero.alephzero.api.service;
+
+import com.alephzero.alephzero.api.math.dto.request.MathDataDto;
+import com.alephzero.alephzero.api.math.dto.request.MathExpressionDto;
+import com.alephzero.alephzero.api.math.dto.request.workspace.MathWorkspaceEditDto;
+import com.alephzero.alephzero.api.math.dto.request.workspace.MathWorkspaceEditRequest;
+import com.alephzero.alephzero.api.math.dto.response.MathEvaluationDto;
+import com.alephzero.alephzero.api.math.dto.response.MathExpressionEvaluationDto;
+import com.alephzero.alephzero.api.math.dto.response.MathExpressionStreamEventDto;
+import com.alephzero.alephzero.api.math.dto.response.MathWorkspaceDto;
+import com.alephzero.alephzero.api.math.enums.computation.MathEvaluationType;
+import com.alephzero.alephzero.api.math.enums.computation.MathExpressionType;
+import com.alephzero.alephzero.api.math.enums.workspace.MathWorkspaceEditType;
+import com.alephzero.alephzero.api.math.exception.MathWorkspaceConflictException;
+import com.alephzero.alephzero.api.math.regex.RegexValidator;
+import com.alephzero.alephzero.api.math.service.core.MathExpressionService;
+import com.alephzero.alephzero.api.math.service.memory.MathAssignmentMemory;
+import com.alephzero.alephzero.api.math.service.memory.MathAssignmentWorkspace;
+import com.alephzero.alephzero.api.math.service.workspace.MathUserWorkspaceProperties;
+import com.alephzero.alephzero.api.math.service.workspace.MathUserWorkspaceService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MathUserWorkspaceServiceTest {
+
+    private static final MathDataDto DATA = new MathDataDto(5, "-1", "1");
+
+    private final List<String> evaluated = new ArrayList<>();
+    private final Set<String> timingOut = new HashSet<>();
+    private MathUserWorkspaceService service;
+
+    @BeforeEach
+    void setUp() {
+        // Every expression evaluates to its processed form, unless it is timing out
+        MathExpressionService expressionService = mock(MathExpressionService.class);
+        when(expressionService.evaluation(any(), any(), any())).thenAnswer(invocation -> {
+            List<String> expressions = invocation.getArgument(0);
+            MathAssignmentWorkspace workspace = invocation.getArgument(1);
+            evaluated.addAll(expressions);
+            return expressions.stream()
+                    .map(expression -> timingOut.contains(expression)
+                            ? new MathExpressionService.WorksheetEvaluation(new MathExpressionEvaluationDto(
+                                    expression, MathExpressionType.NONE, List.of(new MathEvaluationDto(
+                                            MathEvaluationType.NONE, null, List.of("Timeout after 30 seconds")))),
+                                    true)
+                            : new MathExpressionService.WorksheetEvaluation(new MathExpressionEvaluationDto(
+                                    expression, MathExpressionType.FUNCTION, List.of(new MathEvaluationDto(
+                                            MathEvaluationType.EVALUATION, workspace.process(expression), null))),
+                                    false))
+                    .toList();
+        });
+        service = new MathUserWorkspaceService(expressionService, new MathAssignmentMemory(new RegexValidator()),
+                new MathUserWorkspaceProperties());
+    }
+
+    @Test
+    @DisplayName("Workspace: an edit evaluates the changed expression and its transitive dependents only")
+    void testIncrementalEvaluation() {
+        MathWorkspaceDto created = service.edit("ada", new MathWorkspaceEditRequest(0L, List.of(
+                insert(0, "a = 2"), insert(1, "b = a+1"), insert(2, "b*x"), insert(3, "Sin[x]"), insert(4, "c = 5")),
+                DATA));
+        assertEquals(1, created.version());
+        assertEquals(5, created.evaluations().size());
+
+        evaluated.clear();
+        MathWorkspaceDto edited = service.edit("ada", new MathWorkspaceEditRequest(1L, List.of(
+                new MathWorkspaceEditDto(MathWorkspaceEditType.REPLACE, 0, new MathExpressionDto("a = 3"))), null));
+
+        assertEquals(List.of("a = 3", "b*x"), evaluated);
+        assertEquals(List.of(0, 2), edited.evaluations().stream().map(MathExpressionStreamEventDto::index).toList());
+        assertEquals("(3+1)*x", edited.evaluations().get(1).evaluations().getFirst().evaluation());
+
+        evaluated.clear();
+        MathWorkspaceDto removed = service.edit("ada", new MathWorkspaceEditRequest(2L, List.of(
+                new MathWorkspaceEditDto(MathWorkspaceEditType.REMOVE, 4, null),
+                insert(0, "Cos[x]")), null));
+        assertEquals(List.of("Cos[x]"), evaluated);
+        assertEquals(5, removed.size());
+        assertEquals(5, service.get("ada").evaluations().size());
+        assertEquals("b*x", service.get("ada").evaluations().get(3).expression());
+    }
+
+    @Test
+    @DisplayName("Workspace: stale versions are rejected, users never share a workspace")
+    void testVersionsAndUsers() {
+        service.edit("ada", new MathWorkspaceEditRequest(null, List.of(insert(0, "x^2")), DATA));
+
+        assertThrows(MathWorkspaceConflictException.class, () -> service.edit("ada",
+                new MathWorkspaceEditRequest(0L, List.of(insert(0, "x")), null)));
+        assertThrows(IllegalArgumentException.class, () -> service.edit("ada",
+                new MathWorkspaceEditRequest(1L, List.of(insert(5, "x")), null)));
+        assertEquals(1, service.get("ada").version());
+
+        assertEquals(0, service.get("alan").size());
+        assertThrows(IllegalArgumentException.class, () -> service.edit("alan",
+                new MathWorkspaceEditRequest(null, List.of(insert(0, "x")), null)));
+    }
+
+    @Test
+    @DisplayName("Workspace: an expression that timed out is evaluated again on the next edit")
+    void testTimeoutsAreRetried() {
+        timingOut.add("Integrate(Sin(x)^x, x)");
+        MathWorkspaceDto created = service.edit("ada", new MathWorkspaceEditRequest(null, List.of(
+                insert(0, "Integrate(Sin(x)^x, x)"), insert(1, "x^2")), DATA));
+        assertEquals(MathExpressionType.NONE, created.evaluations().getFirst().type());
+
+        timingOut.clear();
+        evaluated.clear();
+        MathWorkspaceDto edited = service.edit("ada", new MathWorkspaceEditRequest(1L, List.of(
+                insert(2, "x^3")), null));
+
+        assertEquals(List.of("Integrate(Sin(x)^x, x)", "x^3"), evaluated);
+        assertEquals(MathExpressionType.FUNCTION, edited.evaluations().getFirst().type());
+
+        evaluated.clear();
+        service.edit("ada", new MathWorkspaceEditRequest(2L, List.of(insert(3, "x^4")), null));
+        assertEquals(List.of("x^4"), evaluated);
+    }
+
+    private static MathWorkspaceEditDto insert(int index, String expression) {
+        return new MathWorkspaceEditDto(MathWorkspaceEditType.INSERT, index, new MathExpressionDto(expression));
+    }
+}